@@ -0,0 +1,109 @@
+package com.unam.integrador.benchmarks;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import com.unam.integrador.IntegradorApplication;
+
+/**
+ * Arranque de la aplicación y opciones comunes a los benchmarks de punta a punta.
+ */
+final class AplicacionBenchmark {
+
+    private static final DateTimeFormatter FORMATO_PERIODO =
+        DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES"));
+
+    private AplicacionBenchmark() {
+    }
+
+    /**
+     * Configura el proceso antes de levantar la primera aplicación: sin el
+     * reinicio de devtools (cada contexto se levanta una sola vez, en este
+     * hilo) y con el logging configurado antes de que se prepare el entorno.
+     */
+    static void configurarProceso() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        System.setProperty("logging.level.root", "WARN");
+    }
+
+    /**
+     * Levanta la aplicación con un esquema nuevo.
+     *
+     * @param tipo NONE para usar sólo los servicios, SERVLET para levantar el servidor en un puerto libre
+     * @param base h2 o postgresql
+     * @param nombre Nombre de la base en memoria (H2)
+     * @param args Argumentos de la línea de comandos; tienen prioridad sobre las propiedades del benchmark
+     * @return Contexto de la aplicación
+     */
+    static ConfigurableApplicationContext iniciar(WebApplicationType tipo, String base, String nombre, String[] args) {
+        Map<String, Object> propiedades = propiedades(base, nombre);
+        if (tipo == WebApplicationType.SERVLET) {
+            propiedades.put("server.port", "0");
+        }
+        return new SpringApplicationBuilder(IntegradorApplication.class)
+            .web(tipo)
+            .initializers(c -> agregarPropiedades(c.getEnvironment().getPropertySources(),
+                new MapPropertySource("benchmark", propiedades)))
+            .run(args);
+    }
+
+    static String opcion(SimpleCommandLinePropertySource opciones, String nombre, String porDefecto) {
+        String valor = opciones.getProperty(nombre);
+        return valor == null || valor.isBlank() ? porDefecto : valor;
+    }
+
+    /**
+     * Período de facturación del mes de la fecha, como lo recibe la facturación masiva ("Octubre 2026").
+     */
+    static String periodo(LocalDate fecha) {
+        String texto = fecha.format(FORMATO_PERIODO);
+        return texto.substring(0, 1).toUpperCase() + texto.substring(1);
+    }
+
+    /**
+     * Agrega las propiedades del benchmark por encima de application.properties
+     * y por debajo de los argumentos de la línea de comandos.
+     */
+    private static void agregarPropiedades(MutablePropertySources fuentes, MapPropertySource propiedades) {
+        if (fuentes.contains(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+            fuentes.addAfter(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, propiedades);
+        } else {
+            fuentes.addFirst(propiedades);
+        }
+    }
+
+    private static Map<String, Object> propiedades(String base, String nombre) {
+        Map<String, Object> propiedades = new HashMap<>();
+        propiedades.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        propiedades.put("spring.jpa.show-sql", "false");
+        switch (base) {
+            case "h2" -> {
+                propiedades.put("spring.datasource.url",
+                    "jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL");
+                propiedades.put("spring.datasource.driver-class-name", "org.h2.Driver");
+                propiedades.put("spring.datasource.username", "sa");
+                propiedades.put("spring.datasource.password", "");
+            }
+            case "postgresql" -> {
+                propiedades.put("spring.datasource.url",
+                    "jdbc:postgresql://localhost:5432/integrador_benchmark?reWriteBatchedInserts=true");
+                propiedades.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+                propiedades.put("spring.datasource.username", "postgres");
+                propiedades.put("spring.jpa.database-platform", "org.hibernate.dialect.PostgreSQLDialect");
+            }
+            default -> throw new IllegalArgumentException("Base no soportada: " + base + " (h2 o postgresql)");
+        }
+        return propiedades;
+    }
+}
@@ -0,0 +1,229 @@
+package com.unam.integrador.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.LibroCuentaService;
+import com.unam.integrador.services.PagoService;
+import com.unam.integrador.services.TableroService;
+
+/**
+ * Benchmark de punta a punta de la facturación masiva, los listados y el cobro.
+ *
+ * Para cada cantidad de clientes levanta la aplicación (sin servidor web) con
+ * un esquema nuevo, carga los datos con {@link GeneradorDatosSinteticos} y mide:
+ * - facturación masiva del mes actual (una ejecución, throughput en facturas/s)
+ * - listarFacturasFiltradas y PagoService.listarFiltrados con distintos filtros
+ * - registrarPagoCombinado sobre facturas del lote recién emitido
+ * Informa throughput, latencias (p50, p95, máx.) y el pico de heap de cada flujo.
+ *
+ * Opciones (con su valor por defecto):
+ * --benchmark.clientes=10000,100000,1000000
+ * --benchmark.base=h2 (o postgresql; la base debe existir, el esquema se recrea)
+ * --benchmark.semilla=42, --benchmark.meses=6 (meses de historia)
+ * --benchmark.repeticiones=5 (por filtro de listado), --benchmark.pagos=1000
+ * --benchmark.limite-segundos=300 (corta las repeticiones de un flujo al superarlo)
+ * --benchmark.salida=archivo.csv (opcional)
+ * Cualquier otra propiedad de Spring se pasa a la aplicación, por ejemplo
+ * --spring.datasource.password=... para PostgreSQL.
+ *
+ * Ejecutar con:
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.unam.integrador.benchmarks.BenchmarkFacturacionMasiva
+ *     -Djmh.jvmArgs=-Xmx8g -Djmh.args="--benchmark.clientes=10000,100000"
+ */
+public class BenchmarkFacturacionMasiva {
+
+    /**
+     * Resultado de un flujo.
+     *
+     * @param operaciones Operaciones (o facturas, en la facturación masiva) procesadas
+     * @param latenciasNanos Duración de cada ejecución medida
+     * @param heapPicoBytes Pico de heap usado durante el flujo
+     * @param error Mensaje si el flujo falló (por ejemplo, sin memoria)
+     */
+    record Medicion(String flujo, long operaciones, long[] latenciasNanos, long heapPicoBytes, String error) {
+
+        double getThroughput() {
+            long total = Arrays.stream(latenciasNanos).sum();
+            return total == 0 ? 0 : operaciones * 1e9 / total;
+        }
+
+        double percentilMs(double percentil) {
+            if (latenciasNanos.length == 0) {
+                return 0;
+            }
+            long[] ordenadas = latenciasNanos.clone();
+            Arrays.sort(ordenadas);
+            int indice = (int) Math.ceil(percentil / 100 * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, indice)] / 1e6;
+        }
+    }
+
+    /** Tiempo máximo de las repeticiones de un flujo. */
+    private static long limiteNanos;
+
+    public static void main(String[] args) throws IOException {
+        AplicacionBenchmark.configurarProceso();
+        SimpleCommandLinePropertySource opciones = new SimpleCommandLinePropertySource(args);
+        String base = AplicacionBenchmark.opcion(opciones, "benchmark.base", "h2");
+        long semilla = Long.parseLong(AplicacionBenchmark.opcion(opciones, "benchmark.semilla", "42"));
+        int meses = Integer.parseInt(AplicacionBenchmark.opcion(opciones, "benchmark.meses", "6"));
+        int repeticiones = Integer.parseInt(AplicacionBenchmark.opcion(opciones, "benchmark.repeticiones", "5"));
+        int pagos = Integer.parseInt(AplicacionBenchmark.opcion(opciones, "benchmark.pagos", "1000"));
+        String salida = AplicacionBenchmark.opcion(opciones, "benchmark.salida", null);
+        limiteNanos = Long.parseLong(AplicacionBenchmark.opcion(opciones, "benchmark.limite-segundos", "300")) * 1_000_000_000L;
+
+        List<String> filasCsv = new ArrayList<>();
+        filasCsv.add("base,clientes,flujo,operaciones,throughput_ops_s,p50_ms,p95_ms,max_ms,heap_pico_mb,error");
+        for (String cantidad : AplicacionBenchmark.opcion(opciones, "benchmark.clientes", "10000,100000,1000000").split(",")) {
+            int clientes = Integer.parseInt(cantidad.trim());
+            List<Medicion> mediciones = ejecutar(base, clientes, semilla, meses, repeticiones, pagos, args);
+            imprimir(base, clientes, mediciones);
+            for (Medicion m : mediciones) {
+                filasCsv.add(String.format(Locale.ROOT, "%s,%d,%s,%d,%.1f,%.2f,%.2f,%.2f,%.1f,%s",
+                    base, clientes, m.flujo(), m.operaciones(), m.getThroughput(), m.percentilMs(50),
+                    m.percentilMs(95), m.percentilMs(100), m.heapPicoBytes() / 1048576.0,
+                    m.error() == null ? "" : m.error().replace(',', ';')));
+            }
+        }
+        if (salida != null) {
+            Files.write(Path.of(salida), filasCsv);
+        }
+    }
+
+    private static List<Medicion> ejecutar(String base, int clientes, long semilla, int meses,
+            int repeticiones, int pagos, String[] args) {
+        List<Medicion> mediciones = new ArrayList<>();
+        try (ConfigurableApplicationContext contexto = AplicacionBenchmark.iniciar(
+                WebApplicationType.NONE, base, "benchmark" + clientes, args)) {
+
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            TransactionTemplate transacciones = contexto.getBean(TransactionTemplate.class);
+            FacturaService facturaService = contexto.getBean(FacturaService.class);
+            PagoService pagoService = contexto.getBean(PagoService.class);
+            LocalDate hoy = LocalDate.now();
+            String periodo = AplicacionBenchmark.periodo(hoy);
+
+            // Carga de datos, libro de cuenta y tablero
+            GeneradorDatosSinteticos generador = new GeneradorDatosSinteticos(jdbc, transacciones, semilla, hoy);
+            GeneradorDatosSinteticos.Resumen[] resumen = new GeneradorDatosSinteticos.Resumen[1];
+            Medicion carga = medir("carga de datos", 1, i -> resumen[0] = generador.generar(clientes, meses));
+            if (carga.error() != null) {
+                mediciones.add(carga);
+                return mediciones;
+            }
+            mediciones.add(new Medicion(carga.flujo(), resumen[0].getFilas(), carga.latenciasNanos(),
+                carga.heapPicoBytes(), null));
+            mediciones.add(medir("reconstrucción del libro", 1, i -> {
+                contexto.getBean(LibroCuentaService.class).reconstruir();
+                contexto.getBean(TableroService.class).reconstruir();
+            }));
+
+            // Facturación masiva del mes actual
+            LoteFacturacion[] lote = new LoteFacturacion[1];
+            Medicion facturacion = medir("facturación masiva", 1,
+                i -> lote[0] = facturaService.ejecutarFacturacionMasiva(periodo, hoy.plusDays(10)));
+            mediciones.add(lote[0] == null ? facturacion : new Medicion(facturacion.flujo(),
+                lote[0].getCantidadFacturas(), facturacion.latenciasNanos(), facturacion.heapPicoBytes(), null));
+
+            // Listados con filtros
+            String[][] filtrosFacturas = {
+                {null, null, null}, {"PENDIENTE", null, null}, {null, "B", periodo}, {"VENCIDA", "C", null}
+            };
+            mediciones.add(medir("listarFacturasFiltradas", filtrosFacturas.length * repeticiones, i -> {
+                String[] filtro = filtrosFacturas[i % filtrosFacturas.length];
+                facturaService.listarFacturasFiltradas(filtro[0], filtro[1], filtro[2]);
+            }));
+            mediciones.add(medir("listarPagosFiltrados", 3 * repeticiones, i -> {
+                switch (i % 3) {
+                    case 0 -> pagoService.listarFiltrados(null, null, null);
+                    case 1 -> pagoService.listarFiltrados(null, hoy.minusMonths(1), hoy);
+                    default -> pagoService.listarFiltrados("Acosta", null, null);
+                }
+            }));
+
+            // Cobro de facturas del lote, de a una por recibo
+            if (lote[0] != null) {
+                List<Map<String, Object>> impagas = jdbc.queryForList(
+                    "select id_factura, saldo_pendiente from factura where lote_facturacion_id = ? "
+                        + "and estado = 'PENDIENTE' order by id_factura limit ?",
+                    lote[0].getId(), pagos);
+                mediciones.add(medir("registrarPagoCombinado", impagas.size(), i -> pagoService.registrarPagoCombinado(
+                    List.of(((Number) impagas.get(i).get("id_factura")).longValue()),
+                    (BigDecimal) impagas.get(i).get("saldo_pendiente"), BigDecimal.ZERO,
+                    MetodoPago.TRANSFERENCIA, "Benchmark")));
+            }
+        }
+        return mediciones;
+    }
+
+    /**
+     * Ejecuta una operación varias veces y mide cada ejecución y el pico de heap.
+     */
+    private static Medicion medir(String flujo, int veces, IntConsumer operacion) {
+        System.gc();
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(p -> p.getType() == MemoryType.HEAP)
+            .toList();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long[] latencias = new long[veces];
+        String error = null;
+        int hechas = 0;
+        long acumulado = 0;
+        try {
+            for (; hechas < veces; hechas++) {
+                if (acumulado > limiteNanos) {
+                    error = "Límite de tiempo: " + hechas + " de " + veces + " ejecuciones";
+                    break;
+                }
+                long inicio = System.nanoTime();
+                operacion.accept(hechas);
+                latencias[hechas] = System.nanoTime() - inicio;
+                acumulado += latencias[hechas];
+            }
+        } catch (RuntimeException | OutOfMemoryError e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        long pico = heap.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        return new Medicion(flujo, hechas, Arrays.copyOf(latencias, hechas), pico, error);
+    }
+
+    private static void imprimir(String base, int clientes, List<Medicion> mediciones) {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+        out.printf("%n%s, %,d clientes%n", base, clientes);
+        out.printf("%-26s %12s %14s %10s %10s %10s %12s%n",
+            "Flujo", "Operaciones", "Throughput/s", "p50 ms", "p95 ms", "máx. ms", "Heap pico MB");
+        for (Medicion m : mediciones) {
+            out.printf("%-26s %12d %14.1f %10.2f %10.2f %10.2f %12.1f%n", m.flujo(), m.operaciones(),
+                m.getThroughput(), m.percentilMs(50), m.percentilMs(95), m.percentilMs(100),
+                m.heapPicoBytes() / 1048576.0);
+            if (m.error() != null) {
+                out.printf("  error: %s%n", m.error());
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.unam.integrador.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.LibroCuentaService;
+import com.unam.integrador.services.TableroService;
+
+/**
+ * Benchmark de latencia HTTP de las pantallas, con usuarios virtuales concurrentes.
+ *
+ * Levanta la aplicación en un puerto libre sobre datos de
+ * {@link GeneradorDatosSinteticos}, emite el lote del mes actual y ejecuta
+ * escenarios contra los controladores reales (con el renderizado Thymeleaf):
+ * - navegar-facturas: listado, listado filtrado, detalle de factura y detalle del lote
+ * - pagar-facturas: selección de facturas, registro del pago y listado de pagos
+ * - buscar-clientes: búsqueda por apellido y ficha del cliente
+ * Cada usuario elige un escenario al azar (según los pesos) y lo repite hasta
+ * terminar; las latencias de cada endpoint se guardan en un histograma HDR.
+ *
+ * Los usuarios esperan cada respuesta antes de enviar la siguiente (modelo
+ * cerrado): con el servidor saturado, las latencias no incluyen el tiempo que
+ * una solicitud habría esperado para salir.
+ *
+ * Opciones (con su valor por defecto):
+ * --benchmark.clientes=5000, --benchmark.base=h2 (o postgresql), --benchmark.semilla=42
+ * --benchmark.usuarios=16, --benchmark.calentamiento-segundos=15, --benchmark.duracion-segundos=60
+ * --benchmark.escenarios=navegar-facturas=5,pagar-facturas=2,buscar-clientes=3
+ * --benchmark.pausa-ms=0 (entre solicitudes de un usuario)
+ * --benchmark.salida=target/benchmark-http
+ * --benchmark.comparar=ruta/a/un/resumen.csv anterior (opcional)
+ *
+ * En la salida quedan resumen.csv (una fila por endpoint, ordenado, para
+ * comparar entre builds) y la distribución de percentiles de cada endpoint
+ * (.hgrm, se puede graficar con el plotter de HdrHistogram).
+ *
+ * Ejecutar con:
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.unam.integrador.benchmarks.BenchmarkHttp
+ *     -Djmh.args="--benchmark.usuarios=32"
+ */
+public class BenchmarkHttp {
+
+    /** Latencia máxima registrable (con 3 dígitos significativos), en microsegundos. */
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final List<String> ESCENARIOS = List.of("navegar-facturas", "pagar-facturas", "buscar-clientes");
+
+    private static final String COLUMNAS = "endpoint,solicitudes,errores,throughput_s,p50_ms,p95_ms,p99_ms,p999_ms,max_ms";
+
+    /** Mediciones de un endpoint. */
+    private static final class Estadistica {
+        final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3);
+        final LongAdder errores = new LongAdder();
+    }
+
+    /** Factura pendiente del lote, para el escenario de pago. */
+    private record FacturaPendiente(long id, long clienteId, BigDecimal saldo) {
+    }
+
+    /** Usuario virtual: su propio cliente HTTP (con su sesión) y su Random. */
+    private static final class Usuario {
+        final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .cookieHandler(new CookieManager())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        final Random random;
+
+        Usuario(long semilla) {
+            this.random = new Random(semilla);
+        }
+    }
+
+    private final String url;
+    private final Map<String, Estadistica> estadisticas = new ConcurrentHashMap<>();
+    private final List<Long> facturas;
+    private final List<Long> clientes;
+    private final long loteId;
+    private final ConcurrentLinkedQueue<FacturaPendiente> pendientes;
+
+    /** Instante (System.nanoTime) desde el que se registran las latencias. */
+    private volatile long inicioMedicion = Long.MAX_VALUE;
+
+    private BenchmarkHttp(String url, List<Long> facturas, List<Long> clientes, long loteId,
+            List<FacturaPendiente> pendientes) {
+        this.url = url;
+        this.facturas = facturas;
+        this.clientes = clientes;
+        this.loteId = loteId;
+        this.pendientes = new ConcurrentLinkedQueue<>(pendientes);
+    }
+
+    public static void main(String[] args) throws Exception {
+        AplicacionBenchmark.configurarProceso();
+        SimpleCommandLinePropertySource opciones = new SimpleCommandLinePropertySource(args);
+        String base = AplicacionBenchmark.opcion(opciones, "benchmark.base", "h2");
+        int cantidadClientes = Integer.parseInt(AplicacionBenchmark.opcion(opciones, "benchmark.clientes", "5000"));
+        long semilla = Long.parseLong(AplicacionBenchmark.opcion(opciones, "benchmark.semilla", "42"));
+        int usuarios = Integer.parseInt(AplicacionBenchmark.opcion(opciones, "benchmark.usuarios", "16"));
+        int calentamiento = Integer.parseInt(AplicacionBenchmark.opcion(opciones, "benchmark.calentamiento-segundos", "15"));
+        int duracion = Integer.parseInt(AplicacionBenchmark.opcion(opciones, "benchmark.duracion-segundos", "60"));
+        long pausaMs = Long.parseLong(AplicacionBenchmark.opcion(opciones, "benchmark.pausa-ms", "0"));
+        Map<String, Integer> escenarios = pesos(AplicacionBenchmark.opcion(opciones, "benchmark.escenarios",
+            "navegar-facturas=5,pagar-facturas=2,buscar-clientes=3"));
+        Path salida = Path.of(AplicacionBenchmark.opcion(opciones, "benchmark.salida", "target/benchmark-http"));
+        String comparar = AplicacionBenchmark.opcion(opciones, "benchmark.comparar", null);
+
+        try (ConfigurableApplicationContext contexto = AplicacionBenchmark.iniciar(
+                WebApplicationType.SERVLET, base, "benchmarkhttp", args)) {
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            LocalDate hoy = LocalDate.now();
+
+            // Datos: clientes con historia y el lote del mes actual
+            new GeneradorDatosSinteticos(jdbc, contexto.getBean(TransactionTemplate.class), semilla, hoy)
+                .generar(cantidadClientes, 6);
+            contexto.getBean(LibroCuentaService.class).reconstruir();
+            contexto.getBean(TableroService.class).reconstruir();
+            LoteFacturacion lote = contexto.getBean(FacturaService.class)
+                .ejecutarFacturacionMasiva(AplicacionBenchmark.periodo(hoy), hoy.plusDays(10));
+
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            BenchmarkHttp benchmark = new BenchmarkHttp(
+                "http://localhost:" + puerto,
+                jdbc.queryForList("select id_factura from factura order by id_factura", Long.class),
+                jdbc.queryForList("select id from cuenta_cliente order by id", Long.class),
+                lote.getId(),
+                jdbc.query("select id_factura, cliente_id, saldo_pendiente from factura "
+                        + "where lote_facturacion_id = ? and estado = 'PENDIENTE' order by id_factura",
+                    (rs, i) -> new FacturaPendiente(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3)),
+                    lote.getId()));
+
+            benchmark.ejecutar(usuarios, escenarios, semilla, pausaMs, calentamiento, duracion);
+            benchmark.informar(salida, duracion, comparar);
+        }
+    }
+
+    // --- Usuarios virtuales ---
+
+    private void ejecutar(int usuarios, Map<String, Integer> escenarios, long semilla, long pausaMs,
+            int calentamiento, int duracion) throws InterruptedException {
+        long inicio = System.nanoTime();
+        long fin = inicio + TimeUnit.SECONDS.toNanos(calentamiento + duracion);
+        inicioMedicion = inicio + TimeUnit.SECONDS.toNanos(calentamiento);
+        List<String> nombres = new ArrayList<>(escenarios.keySet());
+        int pesoTotal = escenarios.values().stream().mapToInt(Integer::intValue).sum();
+
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < usuarios; u++) {
+                Usuario usuario = new Usuario(semilla + u);
+                ejecutor.submit(() -> {
+                    while (System.nanoTime() < fin) {
+                        int dado = usuario.random.nextInt(pesoTotal);
+                        String escenario = nombres.get(nombres.size() - 1);
+                        for (String nombre : nombres) {
+                            dado -= escenarios.get(nombre);
+                            if (dado < 0) {
+                                escenario = nombre;
+                                break;
+                            }
+                        }
+                        ejecutarEscenario(usuario, escenario, pausaMs);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private void ejecutarEscenario(Usuario u, String escenario, long pausaMs) throws InterruptedException {
+        switch (escenario) {
+            case "navegar-facturas" -> {
+                get(u, "GET /facturas", "/facturas", pausaMs);
+                get(u, "GET /facturas?estado", "/facturas?estado=PENDIENTE", pausaMs);
+                get(u, "GET /facturas/{id}", "/facturas/" + elegir(facturas, u.random), pausaMs);
+                get(u, "GET /facturacion-masiva/{id}", "/facturacion-masiva/" + loteId, pausaMs);
+            }
+            case "pagar-facturas" -> {
+                FacturaPendiente factura = pendientes.poll();
+                if (factura == null) {
+                    get(u, "GET /pagos", "/pagos", pausaMs);
+                    return;
+                }
+                get(u, "GET /pagos/seleccionar-facturas/{clienteId}",
+                    "/pagos/seleccionar-facturas/" + factura.clienteId() + "?facturaId=" + factura.id(), pausaMs);
+                Map<String, String> formulario = new LinkedHashMap<>();
+                formulario.put("facturasIds", String.valueOf(factura.id()));
+                formulario.put("montoTotal", factura.saldo().toPlainString());
+                formulario.put("metodoPago", "TRANSFERENCIA");
+                formulario.put("clienteId", String.valueOf(factura.clienteId()));
+                formulario.put("claveIdempotencia", "benchmark-http-" + factura.id());
+                post(u, "POST /pagos/registrar-combinado", "/pagos/registrar-combinado", formulario, "/pagos", pausaMs);
+                get(u, "GET /pagos", "/pagos", pausaMs);
+            }
+            case "buscar-clientes" -> {
+                String apellido = GeneradorDatosSinteticos.NOMBRES[u.random.nextInt(GeneradorDatosSinteticos.NOMBRES.length)];
+                get(u, "GET /clientes?busqueda", "/clientes?busqueda=" + codificar(apellido), pausaMs);
+                get(u, "GET /clientes/{id}", "/clientes/" + elegir(clientes, u.random), pausaMs);
+            }
+            default -> throw new IllegalArgumentException("Escenario desconocido: " + escenario);
+        }
+    }
+
+    private void get(Usuario u, String endpoint, String ruta, long pausaMs) throws InterruptedException {
+        enviar(u, endpoint, HttpRequest.newBuilder(URI.create(url + ruta)).GET().build(), null, pausaMs);
+    }
+
+    /**
+     * Envía un formulario; la respuesta esperada es una redirección a la ruta indicada.
+     */
+    private void post(Usuario u, String endpoint, String ruta, Map<String, String> formulario, String redireccionEsperada,
+            long pausaMs) throws InterruptedException {
+        String cuerpo = formulario.entrySet().stream()
+            .map(e -> codificar(e.getKey()) + "=" + codificar(e.getValue()))
+            .collect(Collectors.joining("&"));
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create(url + ruta))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+            .build();
+        enviar(u, endpoint, solicitud, redireccionEsperada, pausaMs);
+    }
+
+    private void enviar(Usuario u, String endpoint, HttpRequest solicitud, String redireccionEsperada, long pausaMs)
+            throws InterruptedException {
+        long inicio = System.nanoTime();
+        boolean error;
+        try {
+            HttpResponse<Void> respuesta = u.http.send(solicitud, HttpResponse.BodyHandlers.discarding());
+            // La redirección puede llevar el id de sesión (";jsessionid=...")
+            String destino = respuesta.headers().firstValue("Location").orElse("").split(";")[0];
+            error = respuesta.statusCode() >= 400
+                || (redireccionEsperada != null && !destino.endsWith(redireccionEsperada));
+        } catch (IOException e) {
+            error = true;
+        }
+        long fin = System.nanoTime();
+        if (inicio >= inicioMedicion) {
+            Estadistica estadistica = estadisticas.computeIfAbsent(endpoint, e -> new Estadistica());
+            estadistica.latencias.recordValue(Math.min(LATENCIA_MAXIMA_MICROS, TimeUnit.NANOSECONDS.toMicros(fin - inicio)));
+            if (error) {
+                estadistica.errores.increment();
+            }
+        }
+        if (pausaMs > 0) {
+            Thread.sleep(pausaMs);
+        }
+    }
+
+    // --- Informe ---
+
+    private void informar(Path salida, int duracion, String comparar) throws IOException {
+        Files.createDirectories(salida);
+        Map<String, String[]> anteriores = comparar == null ? Map.of() : leerResumen(Path.of(comparar));
+        List<String> filas = new ArrayList<>();
+        filas.add(COLUMNAS);
+
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+        out.printf("%n%-46s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Solicitudes", "Errores", "Por seg.", "p50 ms", "p95 ms", "p99 ms", "p99,9 ms", "máx. ms");
+        for (Map.Entry<String, Estadistica> entrada : new TreeMap<>(estadisticas).entrySet()) {
+            String endpoint = entrada.getKey();
+            Histogram h = entrada.getValue().latencias;
+            long errores = entrada.getValue().errores.sum();
+            double[] valores = {
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0
+            };
+            double porSegundo = (double) h.getTotalCount() / duracion;
+            out.printf("%-46s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, h.getTotalCount(),
+                errores, porSegundo, valores[0], valores[1], valores[2], valores[3], valores[4]);
+            String[] anterior = anteriores.get(endpoint);
+            if (anterior != null) {
+                out.printf("%-46s %31s %+8.1f%% %+8.1f%% %+8.1f%%%n", "  vs. anterior", "",
+                    variacion(anterior[4], valores[0]), variacion(anterior[5], valores[1]), variacion(anterior[6], valores[2]));
+            }
+            filas.add(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f", endpoint, h.getTotalCount(),
+                errores, porSegundo, valores[0], valores[1], valores[2], valores[3], valores[4]));
+
+            try (PrintStream distribucion = new PrintStream(
+                    salida.resolve(archivo(endpoint) + ".hgrm").toFile(), StandardCharsets.UTF_8)) {
+                h.outputPercentileDistribution(distribucion, 1000.0);
+            }
+        }
+        Files.write(salida.resolve("resumen.csv"), filas);
+        out.printf("%nInforme en %s%n", salida.toAbsolutePath());
+    }
+
+    private static Map<String, String[]> leerResumen(Path archivo) throws IOException {
+        Map<String, String[]> filas = new HashMap<>();
+        for (String linea : Files.readAllLines(archivo)) {
+            if (!linea.equals(COLUMNAS)) {
+                String[] columnas = linea.split(",");
+                filas.put(columnas[0], columnas);
+            }
+        }
+        return filas;
+    }
+
+    private static double variacion(String anterior, double actual) {
+        double valor = Double.parseDouble(anterior);
+        return valor == 0 ? 0 : (actual - valor) * 100 / valor;
+    }
+
+    // --- Auxiliares ---
+
+    private static Map<String, Integer> pesos(String escenarios) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (String escenario : escenarios.split(",")) {
+            String[] partes = escenario.trim().split("=");
+            if (!ESCENARIOS.contains(partes[0].trim())) {
+                throw new IllegalArgumentException("Escenario desconocido: " + partes[0].trim() + " (" + ESCENARIOS + ")");
+            }
+            int peso = partes.length > 1 ? Integer.parseInt(partes[1].trim()) : 1;
+            if (peso > 0) {
+                pesos.put(partes[0].trim(), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicarse al menos un escenario con peso positivo");
+        }
+        return pesos;
+    }
+
+    private static <T> T elegir(List<T> valores, Random random) {
+        return valores.get(random.nextInt(valores.size()));
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+
+    /** Nombre de archivo a partir del endpoint ("GET /facturas/{id}" → "GET_facturas_id"). */
+    private static String archivo(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9-]+", "_").replaceAll("_+$", "");
+    }
+}
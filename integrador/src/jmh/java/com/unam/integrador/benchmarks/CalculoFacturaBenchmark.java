@@ -0,0 +1,142 @@
+package com.unam.integrador.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.unam.integrador.model.Dinero;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Cálculo de los importes de una corrida de facturación: BigDecimal contra Dinero.
+ *
+ * calculoBigDecimal repite el cálculo que hacían ItemFactura y Factura antes
+ * de usar Dinero (subtotal, IVA por alícuota, sumas y descuento), y
+ * calculoDinero hace lo mismo en punto fijo; los dos dan los mismos totales.
+ * facturaCompleta arma las entidades como la emisión, para ver el costo del
+ * cálculo dentro del total.
+ *
+ * Ejecutar con:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="CalculoFactura -prof gc"
+ * (gc.alloc.rate.norm muestra los bytes asignados por operación)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculoFacturaBenchmark {
+
+    private static final int ITEMS_POR_FACTURA = 3;
+
+    /** Facturas de la corrida. */
+    @Param({"1000"})
+    private int facturas;
+
+    private BigDecimal[] precios;
+    private int[] cantidades;
+    private TipoAlicuotaIVA[] alicuotas;
+    private double[] descuentos;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        TipoAlicuotaIVA[] valores = TipoAlicuotaIVA.values();
+        int items = facturas * ITEMS_POR_FACTURA;
+        precios = new BigDecimal[items];
+        cantidades = new int[items];
+        alicuotas = new TipoAlicuotaIVA[items];
+        for (int i = 0; i < items; i++) {
+            precios[i] = BigDecimal.valueOf(100_00 + random.nextInt(5_000_000), 2);
+            cantidades[i] = 1 + random.nextInt(5);
+            alicuotas[i] = valores[random.nextInt(valores.length)];
+        }
+        descuentos = new double[facturas];
+        for (int f = 0; f < facturas; f++) {
+            descuentos[f] = random.nextInt(4) == 0 ? random.nextInt(21) : 0;
+        }
+    }
+
+    @Benchmark
+    public void calculoBigDecimal(Blackhole bh) {
+        for (int f = 0; f < facturas; f++) {
+            BigDecimal subtotal = BigDecimal.ZERO;
+            BigDecimal totalIva = BigDecimal.ZERO;
+            for (int i = f * ITEMS_POR_FACTURA; i < (f + 1) * ITEMS_POR_FACTURA; i++) {
+                BigDecimal subtotalItem = precios[i].multiply(new BigDecimal(cantidades[i]));
+                BigDecimal ivaItem = subtotalItem.multiply(valorAlicuota(alicuotas[i]));
+                bh.consume(subtotalItem.add(ivaItem));
+                subtotal = subtotal.add(subtotalItem);
+                totalIva = totalIva.add(ivaItem);
+            }
+            BigDecimal montoDescuento = subtotal
+                .multiply(BigDecimal.valueOf(descuentos[f]))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+            bh.consume(subtotal.subtract(montoDescuento).add(totalIva));
+        }
+    }
+
+    @Benchmark
+    public void calculoDinero(Blackhole bh) {
+        for (int f = 0; f < facturas; f++) {
+            Dinero subtotal = Dinero.CERO;
+            Dinero totalIva = Dinero.CERO;
+            for (int i = f * ITEMS_POR_FACTURA; i < (f + 1) * ITEMS_POR_FACTURA; i++) {
+                Dinero subtotalItem = Dinero.de(precios[i]).por(cantidades[i]);
+                Dinero ivaItem = subtotalItem.iva(alicuotas[i], RoundingMode.HALF_UP);
+                bh.consume(subtotalItem.mas(ivaItem).unidades());
+                subtotal = subtotal.mas(subtotalItem);
+                totalIva = totalIva.mas(ivaItem);
+            }
+            Dinero montoDescuento = descuentos[f] > 0
+                ? subtotal.porcentaje(descuentos[f], 2, RoundingMode.HALF_UP)
+                : Dinero.CERO;
+            bh.consume(subtotal.menos(montoDescuento).mas(totalIva).unidades());
+        }
+    }
+
+    @Benchmark
+    public void facturaCompleta(Blackhole bh) {
+        LocalDate hoy = LocalDate.of(2025, 11, 1);
+        for (int f = 0; f < facturas; f++) {
+            Factura factura = new Factura(1, f + 1, null, hoy, hoy.plusDays(10), hoy, TipoFactura.B);
+            for (int i = f * ITEMS_POR_FACTURA; i < (f + 1) * ITEMS_POR_FACTURA; i++) {
+                factura.agregarItem(new ItemFactura("Servicio", precios[i], cantidades[i], alicuotas[i]));
+            }
+            if (descuentos[f] > 0) {
+                factura.aplicarDescuento(descuentos[f], "Bonificación");
+            }
+            bh.consume(factura.getTotal());
+        }
+    }
+
+    /** Alícuota como la resolvía ItemFactura antes de Dinero. */
+    private static BigDecimal valorAlicuota(TipoAlicuotaIVA alicuota) {
+        return switch (alicuota) {
+            case IVA_21 -> new BigDecimal("0.21");
+            case IVA_10_5 -> new BigDecimal("0.105");
+            case IVA_27 -> new BigDecimal("0.27");
+            case IVA_2_5 -> new BigDecimal("0.025");
+            case EXENTO -> BigDecimal.ZERO;
+        };
+    }
+}
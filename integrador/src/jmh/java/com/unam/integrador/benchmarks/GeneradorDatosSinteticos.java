@@ -0,0 +1,346 @@
+package com.unam.integrador.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Carga clientes sintéticos con servicios contratados, facturas históricas y pagos.
+ *
+ * Los datos dependen sólo de la semilla y de la fecha de referencia: la misma
+ * semilla genera los mismos clientes, importes y estados. Cada cliente usa su
+ * propio Random (semilla + número de cliente), así que generar N clientes y
+ * después M más da lo mismo que generar N + M de una vez.
+ *
+ * Las filas se insertan por JDBC en batches, en transacciones de a
+ * {@link #CLIENTES_POR_TRANSACCION} clientes, con los IDs asignados acá (se
+ * ajustan las columnas identity al terminar). Los importes se calculan con
+ * Factura e ItemFactura. No se cargan movimientos del libro de cuenta: se
+ * regeneran después con LibroCuentaService.reconstruir().
+ *
+ * Distribuciones (aproximadas):
+ * - Condición de IVA: 55 % consumidor final, 25 % monotributo, 15 % RI, 5 % exento
+ * - Estado: 90 % activa, 7 % suspendida, 3 % baja
+ * - Servicios contratados: 1 a 4 (más probable 1-2); 10 % dados de baja
+ * - Facturas: una por mes de historia con servicios vigentes; 85 % pagadas,
+ *   5 % con pago parcial y el resto vencidas (más deuda en cuentas suspendidas)
+ */
+public class GeneradorDatosSinteticos {
+
+    /** Clientes que se insertan en cada transacción. */
+    public static final int CLIENTES_POR_TRANSACCION = 1_000;
+
+    private static final TipoCondicionIVA CONDICION_IVA_EMISOR = TipoCondicionIVA.RESPONSABLE_INSCRIPTO;
+
+    private static final int SERVICIOS_CATALOGO = 24;
+
+    /** Apellidos de los nombres de cliente; también se usan como términos de búsqueda. */
+    static final String[] NOMBRES = {
+        "Acosta", "Benítez", "Cabrera", "Domínguez", "Escobar", "Fernández", "Giménez", "Herrera",
+        "Ibáñez", "Juárez", "Krause", "López", "Martínez", "Núñez", "Ortiz", "Pereyra",
+        "Quiroga", "Romero", "Sosa", "Torres", "Urquiza", "Vera", "Wagner", "Zalazar"
+    };
+
+    private static final String[] RUBROS = {
+        "Hosting", "Correo corporativo", "Dominio", "Backup", "Soporte", "VPN", "Base de datos", "CDN"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacciones;
+    private final long semilla;
+    private final LocalDate hoy;
+
+    /**
+     * @param jdbc Acceso a la base donde se cargan los datos
+     * @param transacciones Transacciones para cada bloque de clientes
+     * @param semilla Semilla de los datos generados
+     * @param hoy Fecha de referencia: la historia termina el mes anterior
+     */
+    public GeneradorDatosSinteticos(JdbcTemplate jdbc, TransactionTemplate transacciones,
+            long semilla, LocalDate hoy) {
+        this.jdbc = jdbc;
+        this.transacciones = transacciones;
+        this.semilla = semilla;
+        this.hoy = hoy;
+    }
+
+    /**
+     * Resultado de una carga.
+     */
+    public record Resumen(int clientes, int serviciosContratados, int facturas, int pagos) {
+
+        public int getFilas() {
+            return clientes + serviciosContratados + facturas + pagos * 2;
+        }
+    }
+
+    /**
+     * Genera los clientes con su historia.
+     *
+     * @param clientes Cantidad de clientes
+     * @param mesesHistoria Meses facturados antes del mes de referencia
+     * @return Cantidades insertadas
+     */
+    public Resumen generar(int clientes, int mesesHistoria) {
+        if (clientes <= 0 || mesesHistoria < 0) {
+            throw new IllegalArgumentException("La cantidad de clientes debe ser positiva y los meses no negativos");
+        }
+        List<Servicio> catalogo = crearCatalogo();
+        Ids ids = new Ids(
+            siguiente("cuenta_cliente", "id"),
+            siguiente("servicio_contratado", "idservicio_contratado"),
+            siguiente("factura", "id_factura"),
+            siguiente("item_factura", "id"),
+            siguiente("pago", "id_pago"),
+            siguiente("detalle_pago", "id_detalle_pago"),
+            new int[] {
+                siguienteNumero(1), siguienteNumero(2), siguienteNumero(3)
+            },
+            jdbc.queryForObject("select count(distinct numero_recibo) from pago", Long.class) + 1);
+        long primerCliente = ids.cliente;
+
+        int[] totales = new int[4];
+        for (int desde = 0; desde < clientes; desde += CLIENTES_POR_TRANSACCION) {
+            int hasta = Math.min(clientes, desde + CLIENTES_POR_TRANSACCION);
+            Filas filas = new Filas();
+            for (int i = desde; i < hasta; i++) {
+                generarCliente(primerCliente + i, new Random(semilla * 1_000_003L + i), catalogo, mesesHistoria, ids, filas);
+            }
+            transacciones.executeWithoutResult(status -> filas.insertar(jdbc));
+            totales[0] += filas.clientes.size();
+            totales[1] += filas.servicios.size();
+            totales[2] += filas.facturas.size();
+            totales[3] += filas.pagos.size();
+        }
+
+        reiniciarIdentity("cuenta_cliente", "id", ids.cliente);
+        reiniciarIdentity("servicio_contratado", "idservicio_contratado", ids.servicioContratado);
+        reiniciarIdentity("factura", "id_factura", ids.factura);
+        reiniciarIdentity("item_factura", "id", ids.item);
+        reiniciarIdentity("pago", "id_pago", ids.pago);
+        reiniciarIdentity("detalle_pago", "id_detalle_pago", ids.detallePago);
+        return new Resumen(totales[0], totales[1], totales[2], totales[3]);
+    }
+
+    // --- Generación de un cliente ---
+
+    private void generarCliente(long id, Random random, List<Servicio> catalogo, int mesesHistoria,
+            Ids ids, Filas filas) {
+        TipoCondicionIVA condicion = elegir(random,
+            new TipoCondicionIVA[] {
+                TipoCondicionIVA.CONSUMIDOR_FINAL, TipoCondicionIVA.MONOTRIBUTISTA,
+                TipoCondicionIVA.RESPONSABLE_INSCRIPTO, TipoCondicionIVA.EXENTO },
+            new int[] {55, 25, 15, 5});
+        EstadoCuenta estado = elegir(random,
+            new EstadoCuenta[] { EstadoCuenta.ACTIVA, EstadoCuenta.SUSPENDIDA, EstadoCuenta.BAJA },
+            new int[] {90, 7, 3});
+        String apellido = NOMBRES[random.nextInt(NOMBRES.length)];
+        String nombre = condicion == TipoCondicionIVA.RESPONSABLE_INSCRIPTO
+            ? apellido + " Servicios " + id + " S.A."
+            : apellido + " " + id;
+        filas.clientes.add(new Object[] {
+            id, nombre, nombre, String.format("3%010d", id), "Calle " + (1 + random.nextInt(3000)),
+            "cliente" + id + "@ejemplo.com", "376" + (4_000_000 + random.nextInt(999_999)),
+            condicion.name(), estado.name(), BigDecimal.ZERO.setScale(2), 0L
+        });
+
+        // Servicios contratados: alta entre 1 y 24 meses atrás
+        int cantidadServicios = 1 + Math.min(3, (int) Math.floor(-Math.log(1 - random.nextDouble()) * 1.2));
+        LocalDate alta = hoy.withDayOfMonth(1).minusMonths(1 + random.nextInt(24));
+        List<Servicio> contratados = new ArrayList<>();
+        for (int s = 0; s < cantidadServicios; s++) {
+            Servicio servicio = catalogo.get(random.nextInt(catalogo.size()));
+            if (contratados.contains(servicio)) {
+                continue;
+            }
+            contratados.add(servicio);
+            boolean activo = estado != EstadoCuenta.BAJA && random.nextInt(10) != 0;
+            filas.servicios.add(new Object[] {
+                ids.servicioContratado++, activo, Date.valueOf(alta),
+                activo ? null : Date.valueOf(hoy.minusDays(1 + random.nextInt(60))),
+                servicio.precio(), id, servicio.id()
+            });
+        }
+
+        // Facturas mensuales desde el alta hasta el mes anterior
+        TipoFactura tipo = Factura.determinarTipoFactura(CONDICION_IVA_EMISOR, condicion);
+        int serie = tipo.ordinal() + 1;
+        int porcentajeImpagas = estado == EstadoCuenta.SUSPENDIDA ? 50 : 10;
+        for (int m = mesesHistoria; m >= 1; m--) {
+            LocalDate periodo = hoy.withDayOfMonth(1).minusMonths(m);
+            if (periodo.isBefore(alta)) {
+                continue;
+            }
+            long idFactura = ids.factura++;
+            Factura factura = new Factura(serie, ids.numeros[serie - 1]++, null,
+                periodo, periodo.plusDays(10), periodo, tipo);
+            for (Servicio servicio : contratados) {
+                ItemFactura item = new ItemFactura(servicio.nombre(), servicio.precio(), 1, servicio.alicuota());
+                factura.agregarItem(item);
+                filas.items.add(new Object[] {
+                    ids.item++, idFactura, item.getDescripcion(), item.getPrecioUnitario(), item.getCantidad(),
+                    item.getAlicuotaIVA().name(), item.getSubtotal(), item.getMontoIva(), item.getTotal()
+                });
+            }
+
+            BigDecimal pagado;
+            int dado = random.nextInt(100);
+            if (dado < porcentajeImpagas) {
+                pagado = BigDecimal.ZERO;
+            } else if (dado < porcentajeImpagas + 5) {
+                pagado = factura.getTotal().divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+            } else {
+                pagado = factura.getTotal();
+            }
+            BigDecimal saldo = factura.getTotal().subtract(pagado);
+            EstadoFactura estadoFactura = Factura.estadoSegunSaldo(saldo, factura.getTotal(), EstadoFactura.VENCIDA);
+            filas.facturas.add(new Object[] {
+                idFactura, serie, factura.getNroFactura(), id, Date.valueOf(periodo), Date.valueOf(periodo.plusDays(10)),
+                Date.valueOf(periodo), tipo.name(), estadoFactura.name(), factura.getSubtotal(), 0.0,
+                factura.getTotalIva(), saldo, factura.getTotal(), 0L
+            });
+
+            if (pagado.signum() > 0) {
+                LocalDate fechaPago = periodo.plusDays(1 + random.nextInt(15));
+                MetodoPago metodo = elegir(random,
+                    new MetodoPago[] { MetodoPago.TRANSFERENCIA, MetodoPago.TARJETA, MetodoPago.EFECTIVO },
+                    new int[] {50, 30, 20});
+                long idPago = ids.pago++;
+                filas.pagos.add(new Object[] {
+                    idPago, Date.valueOf(fechaPago), pagado, metodo.name(), String.format("%08d", ids.recibo++), null
+                });
+                filas.detalles.add(new Object[] {
+                    ids.detallePago++, idPago, idFactura, pagado, Timestamp.valueOf(fechaPago.atTime(12, 0))
+                });
+            }
+        }
+    }
+
+    private static <T> T elegir(Random random, T[] valores, int[] pesos) {
+        int dado = random.nextInt(100);
+        for (int i = 0; i < valores.length; i++) {
+            dado -= pesos[i];
+            if (dado < 0) {
+                return valores[i];
+            }
+        }
+        return valores[valores.length - 1];
+    }
+
+    // --- Catálogo e IDs ---
+
+    private record Servicio(long id, String nombre, BigDecimal precio, TipoAlicuotaIVA alicuota) {
+    }
+
+    /**
+     * Crea (o reutiliza, si ya existen) los servicios sintéticos del catálogo.
+     */
+    private List<Servicio> crearCatalogo() {
+        Random random = new Random(semilla);
+        TipoAlicuotaIVA[] alicuotas = {
+            TipoAlicuotaIVA.IVA_21, TipoAlicuotaIVA.IVA_21, TipoAlicuotaIVA.IVA_21,
+            TipoAlicuotaIVA.IVA_10_5, TipoAlicuotaIVA.IVA_27, TipoAlicuotaIVA.EXENTO
+        };
+        List<Servicio> catalogo = new ArrayList<>();
+        for (int i = 0; i < SERVICIOS_CATALOGO; i++) {
+            String nombre = String.format("%s %02d (sintético)", RUBROS[i % RUBROS.length], i + 1);
+            BigDecimal precio = BigDecimal.valueOf(1_500_00 + random.nextInt(40_000) * 100L, 2);
+            TipoAlicuotaIVA alicuota = alicuotas[random.nextInt(alicuotas.length)];
+            List<Long> existente = jdbc.queryForList("select idservicio from servicio where nombre = ?", Long.class, nombre);
+            if (existente.isEmpty()) {
+                jdbc.update("insert into servicio (nombre, descripcion, precio, alicuotaiva, activo) values (?, ?, ?, ?, ?)",
+                    nombre, "Servicio de datos sintéticos", precio, alicuota.name(), true);
+                existente = jdbc.queryForList("select idservicio from servicio where nombre = ?", Long.class, nombre);
+            } else {
+                precio = jdbc.queryForObject("select precio from servicio where idservicio = ?", BigDecimal.class, existente.get(0));
+                alicuota = TipoAlicuotaIVA.valueOf(jdbc.queryForObject(
+                    "select alicuotaiva from servicio where idservicio = ?", String.class, existente.get(0)));
+            }
+            catalogo.add(new Servicio(existente.get(0), nombre, precio, alicuota));
+        }
+        return catalogo;
+    }
+
+    /** Próximos IDs y números a asignar. */
+    private static final class Ids {
+        long cliente;
+        long servicioContratado;
+        long factura;
+        long item;
+        long pago;
+        long detallePago;
+        final int[] numeros;
+        long recibo;
+
+        Ids(long cliente, long servicioContratado, long factura, long item, long pago, long detallePago,
+                int[] numeros, long recibo) {
+            this.cliente = cliente;
+            this.servicioContratado = servicioContratado;
+            this.factura = factura;
+            this.item = item;
+            this.pago = pago;
+            this.detallePago = detallePago;
+            this.numeros = numeros;
+            this.recibo = recibo;
+        }
+    }
+
+    private long siguiente(String tabla, String columna) {
+        return jdbc.queryForObject("select coalesce(max(" + columna + "), 0) + 1 from " + tabla, Long.class);
+    }
+
+    private int siguienteNumero(int serie) {
+        return jdbc.queryForObject("select coalesce(max(nro_factura), 0) + 1 from factura where serie = ?",
+            Integer.class, serie);
+    }
+
+    /** Sintaxis común a H2 y PostgreSQL para columnas identity. */
+    private void reiniciarIdentity(String tabla, String columna, long siguiente) {
+        jdbc.execute("alter table " + tabla + " alter column " + columna + " restart with " + siguiente);
+    }
+
+    // --- Inserción en batches ---
+
+    /** Filas de un bloque de clientes, en el orden de las columnas de cada insert. */
+    private static final class Filas {
+        final List<Object[]> clientes = new ArrayList<>();
+        final List<Object[]> servicios = new ArrayList<>();
+        final List<Object[]> facturas = new ArrayList<>();
+        final List<Object[]> items = new ArrayList<>();
+        final List<Object[]> pagos = new ArrayList<>();
+        final List<Object[]> detalles = new ArrayList<>();
+
+        void insertar(JdbcTemplate jdbc) {
+            jdbc.batchUpdate("insert into cuenta_cliente (id, nombre, razon_social, cuit_dni, domicilio, email, telefono, "
+                + "condicion_iva, estado, saldo, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", clientes);
+            jdbc.batchUpdate("insert into servicio_contratado (idservicio_contratado, activo, fecha_alta, fecha_baja, "
+                + "precio_contratado, cliente_id, servicio_id) values (?, ?, ?, ?, ?, ?, ?)", servicios);
+            jdbc.batchUpdate("insert into factura (id_factura, serie, nro_factura, cliente_id, fecha_emision, "
+                + "fecha_vencimiento, periodo, tipo, estado, subtotal, descuento, total_iva, saldo_pendiente, total, version) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", facturas);
+            jdbc.batchUpdate("insert into item_factura (id, factura_id, descripcion, precio_unitario, cantidad, "
+                + "alicuotaiva, subtotal, monto_iva, total) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", items);
+            jdbc.batchUpdate("insert into pago (id_pago, fecha_pago, monto, metodo_pago, numero_recibo, referencia) "
+                + "values (?, ?, ?, ?, ?, ?)", pagos);
+            jdbc.batchUpdate("insert into detalle_pago (id_detalle_pago, pago_id, factura_id, monto_aplicado, "
+                + "fecha_aplicacion) values (?, ?, ?, ?, ?)", detalles);
+        }
+    }
+}
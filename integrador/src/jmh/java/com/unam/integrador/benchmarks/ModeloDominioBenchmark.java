@@ -0,0 +1,162 @@
+package com.unam.integrador.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.Pago;
+import com.unam.integrador.model.PeriodoFacturacion;
+import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Métodos del modelo de dominio que se ejecutan por cada factura emitida o cobrada.
+ *
+ * La línea base está en src/jmh/linea-base/modelo-dominio.csv; ver el README
+ * para generarla de nuevo y compararla.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModeloDominioBenchmark {
+
+    private static final LocalDate PERIODO = LocalDate.of(2025, 11, 1);
+
+    private static final TipoAlicuotaIVA[] ALICUOTAS = TipoAlicuotaIVA.values();
+
+    /** Items de la factura y servicios contratados del cliente. */
+    @Param({"5", "200"})
+    private int items;
+
+    private BigDecimal[] precios;
+    private PeriodoFacturacion[] periodos;
+    private Factura facturaArmada;
+    private List<Factura> facturasDelLote;
+    private CuentaCliente cliente;
+
+    @Setup
+    public void preparar() {
+        precios = new BigDecimal[items];
+        for (int i = 0; i < items; i++) {
+            precios[i] = BigDecimal.valueOf(1_000_00 + i * 1_237L, 2);
+        }
+
+        // Altas en distintos días del mes (períodos parciales) y un mes completo
+        periodos = new PeriodoFacturacion[30];
+        for (int dia = 1; dia <= periodos.length; dia++) {
+            periodos[dia - 1] = new PeriodoFacturacion(PERIODO.withDayOfMonth(dia), PERIODO.withDayOfMonth(30));
+        }
+
+        facturaArmada = nuevaFactura(1);
+        for (int i = 0; i < items; i++) {
+            facturaArmada.agregarItem(nuevoItem(i));
+        }
+
+        facturasDelLote = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Factura factura = nuevaFactura(i + 1);
+            factura.agregarItem(nuevoItem(i % items));
+            facturasDelLote.add(factura);
+        }
+
+        cliente = new CuentaCliente();
+        List<ServicioContratado> servicios = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            ServicioContratado servicio = new ServicioContratado();
+            servicio.setActivo(i % 3 != 0);
+            servicio.setPrecioContratado(precios[i]);
+            servicios.add(servicio);
+        }
+        cliente.setServiciosContratados(servicios);
+    }
+
+    /** Arma una factura agregando los items de a uno. */
+    @Benchmark
+    public Factura agregarItems() {
+        Factura factura = nuevaFactura(1);
+        for (int i = 0; i < items; i++) {
+            factura.agregarItem(nuevoItem(i));
+        }
+        return factura;
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotales() {
+        facturaArmada.calcularTotales();
+        return facturaArmada.getTotal();
+    }
+
+    /** Un item proporcional por cada día de alta posible en el mes. */
+    @Benchmark
+    public void crearProporcional(Blackhole bh) {
+        for (PeriodoFacturacion periodo : periodos) {
+            bh.consume(ItemFactura.crearProporcional(
+                "Hosting", precios[0], 1, TipoAlicuotaIVA.IVA_21, periodo));
+        }
+    }
+
+    @Benchmark
+    public String getPeriodoFormateado() {
+        return facturaArmada.getPeriodoFormateado();
+    }
+
+    /** Factura nueva con un pago parcial y uno que la cancela. */
+    @Benchmark
+    public Factura registrarPago() {
+        Factura factura = nuevaFactura(1);
+        factura.setTotal(new BigDecimal("12100.00"));
+        factura.setSaldoPendiente(factura.getTotal());
+        factura.registrarPago(Pago.crearPago(new BigDecimal("5000.00"), MetodoPago.EFECTIVO, null),
+            new BigDecimal("5000.00"));
+        factura.registrarPago(Pago.crearPago(new BigDecimal("7100.00"), MetodoPago.TRANSFERENCIA, null),
+            new BigDecimal("7100.00"));
+        return factura;
+    }
+
+    /** Lote de 100 facturas. */
+    @Benchmark
+    public LoteFacturacion agregarFacturasAlLote() {
+        LoteFacturacion lote = new LoteFacturacion("Noviembre 2025", PERIODO, PERIODO.plusDays(10));
+        for (Factura factura : facturasDelLote) {
+            lote.agregarFactura(factura);
+        }
+        return lote;
+    }
+
+    @Benchmark
+    public List<ServicioContratado> getServiciosContratadosActivos() {
+        return cliente.getServiciosContratadosActivos();
+    }
+
+    private static Factura nuevaFactura(int numero) {
+        return new Factura(1, numero, null, PERIODO, PERIODO.plusDays(10), PERIODO, TipoFactura.B);
+    }
+
+    private ItemFactura nuevoItem(int i) {
+        return new ItemFactura("Servicio " + i, precios[i], 1 + i % 3, ALICUOTAS[i % ALICUOTAS.length]);
+    }
+}
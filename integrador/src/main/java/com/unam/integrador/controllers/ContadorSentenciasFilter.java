@@ -0,0 +1,56 @@
+package com.unam.integrador.controllers;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.unam.integrador.repositories.ContadorSentencias;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cuenta las sentencias SQL de cada solicitud y avisa en el log cuando una
+ * misma forma de sentencia se repite más veces que el umbral, lo habitual en
+ * un N+1 por cargas perezosas (getFactura().getCliente() en un listado).
+ *
+ * Con el log en DEBUG informa además el total de sentencias de cada solicitud.
+ */
+@Component
+public class ContadorSentenciasFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorSentenciasFilter.class);
+
+    @Value("${sql.repetidas.umbral:10}")
+    private int umbral;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (ContadorSentencias.Registro registro = ContadorSentencias.iniciar()) {
+            chain.doFilter(request, response);
+            informar(request, registro);
+        }
+    }
+
+    private void informar(HttpServletRequest request, ContadorSentencias.Registro registro) {
+        if (log.isDebugEnabled()) {
+            log.debug("{} {}: {} sentencias SQL", request.getMethod(), request.getRequestURI(), registro.getTotal());
+        }
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        for (Map.Entry<String, Integer> repetida : registro.getRepetidas(umbral).entrySet()) {
+            log.warn("{} {}: la misma sentencia SQL se ejecutó {} veces (de {} en total), posible N+1: {}",
+                request.getMethod(), request.getRequestURI(), repetida.getValue(), registro.getTotal(),
+                repetida.getKey());
+        }
+    }
+}
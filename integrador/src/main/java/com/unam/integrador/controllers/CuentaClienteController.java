@@ -11,12 +11,14 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.TipoCondicionIVA;
 import com.unam.integrador.services.CuentaClienteService;
+import com.unam.integrador.services.LibroCuentaService;
 import com.unam.integrador.services.ServicioService;
 
 import jakarta.validation.Valid;
@@ -35,6 +37,14 @@ public class CuentaClienteController {
     @Autowired
     private ServicioService servicioService;
     
+    @Autowired
+    private LibroCuentaService libroCuentaService;
+    
+    /**
+     * Máximo de líneas por página del estado de cuenta.
+     */
+    private static final int TAMANIO_MAXIMO_PAGINA = 200;
+    
     /**
      * Muestra la lista de todos los clientes.
      * Soporta búsqueda por nombre, CUIT/DNI o email mediante el parámetro 'busqueda'.
@@ -213,6 +223,23 @@ public class CuentaClienteController {
         return "clientes/historial-estados";
     }
     
+    /**
+     * Muestra el estado de cuenta del cliente: movimientos con saldo acumulado, paginados.
+     * Sin número de página muestra la última (los movimientos más recientes).
+     */
+    @GetMapping("/{id}/estado-cuenta")
+    public String verEstadoCuenta(@PathVariable Long id,
+                                  @RequestParam(required = false) Integer pagina,
+                                  @RequestParam(defaultValue = "50") int tamanio,
+                                  Model model) {
+        CuentaCliente cliente = clienteService.obtenerClientePorId(id);
+        model.addAttribute("cliente", cliente);
+        model.addAttribute("saldo", libroCuentaService.consultarSaldo(id));
+        model.addAttribute("movimientos", libroCuentaService.obtenerEstadoCuenta(
+            id, pagina, Math.min(Math.max(tamanio, 1), TAMANIO_MAXIMO_PAGINA)));
+        return "clientes/estado-cuenta";
+    }
+    
     /**
      * Muestra la vista de confirmación para desvincular un servicio de un cliente.
      */
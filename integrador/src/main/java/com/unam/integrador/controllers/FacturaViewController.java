@@ -1,5 +1,6 @@
 package com.unam.integrador.controllers;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -21,6 +22,8 @@ import com.unam.integrador.model.Factura;
 import com.unam.integrador.services.CuentaClienteService;
 import com.unam.integrador.services.FacturaService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
  * Controlador web para la gestión de facturas individuales.
  * Maneja la interfaz HTML para emisión y consulta de facturas.
@@ -46,9 +49,6 @@ public class FacturaViewController {
             @RequestParam(required = false) Integer anio,
             Model model) {
 
-        // Actualizar facturas vencidas antes de mostrar el listado
-        facturaService.actualizarFacturasVencidas();
-
         // Proveer opciones para los selects en la vista
         model.addAttribute("estados", com.unam.integrador.model.enums.EstadoFactura.values());
         model.addAttribute("tipos", com.unam.integrador.model.enums.TipoFactura.values());
@@ -66,6 +66,24 @@ public class FacturaViewController {
         return "facturas/lista";
     }
     
+    /**
+     * Exporta a CSV el listado de facturas con los mismos filtros que la vista.
+     * Las filas se escriben en la respuesta a medida que se leen de la base.
+     */
+    @GetMapping("/export.csv")
+    public void exportarFacturas(
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String tipoFactura,
+            @RequestParam(required = false) Integer mes,
+            @RequestParam(required = false) Integer anio,
+            HttpServletResponse response) throws IOException {
+
+        LocalDate periodo = (mes != null && anio != null) ? LocalDate.of(anio, mes, 1) : null;
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"facturas.csv\"");
+        facturaService.exportarFacturasCsv(estado, tipoFactura, periodo, response.getWriter());
+    }
+    
     /**
      * Muestra el formulario para emitir una factura individual.
      * La factura se generará automáticamente desde los servicios contratados del cliente.
@@ -221,9 +239,6 @@ public class FacturaViewController {
      */
     @GetMapping("/{id}")
     public String verDetalle(@PathVariable Long id, Model model) {
-        // Actualizar facturas vencidas antes de mostrar el detalle
-        facturaService.actualizarFacturasVencidas();
-        
         Factura factura = facturaService.obtenerFacturaPorId(id);
         model.addAttribute("factura", factura);
         return "facturas/detalle";
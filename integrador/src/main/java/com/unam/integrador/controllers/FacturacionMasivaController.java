@@ -1,5 +1,6 @@
 package com.unam.integrador.controllers;
 
+import java.io.IOException;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -7,6 +8,8 @@ import java.util.List;
 import java.util.Locale;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,12 +19,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.unam.integrador.dto.FacturacionMasivaDTO;
+import com.unam.integrador.dto.ProgresoExportacionPdf;
 import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.services.FacturaPdfService;
 import com.unam.integrador.services.FacturaService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 /**
@@ -39,6 +48,14 @@ public class FacturacionMasivaController {
     @Autowired
     private FacturaService facturaService;
     
+    @Autowired
+    private FacturaPdfService facturaPdfService;
+    
+    /**
+     * Máximo de facturas por página del detalle de lote.
+     */
+    private static final int TAMANIO_MAXIMO_PAGINA = 200;
+    
     /**
      * Muestra la lista de lotes de facturación masiva.
      * Implementa HU-09: Consulta de facturación masiva.
@@ -108,7 +125,8 @@ public class FacturacionMasivaController {
         try {
             LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
                 dto.getPeriodo(),
-                dto.getFechaVencimiento()
+                dto.getFechaVencimiento(),
+                dto.isAplicarSaldoAFavor()
             );
             
             redirectAttributes.addFlashAttribute("mensaje", 
@@ -128,7 +146,9 @@ public class FacturacionMasivaController {
     }
     
     /**
-     * Muestra el detalle de un lote de facturación masiva.
+     * Muestra el detalle de un lote de facturación masiva: los datos y
+     * contadores del lote y una página de sus facturas, filtrable por estado
+     * y tipo y ordenable por número o monto.
      * Implementa HU-09: Consulta de facturación masiva.
      * 
      * @param id ID del lote
@@ -136,10 +156,26 @@ public class FacturacionMasivaController {
      * @return Vista de detalle
      */
     @GetMapping("/{id}")
-    public String verDetalle(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
+    public String verDetalle(@PathVariable Long id,
+                             @RequestParam(required = false) EstadoFactura estado,
+                             @RequestParam(required = false) TipoFactura tipo,
+                             @RequestParam(defaultValue = "numero") String orden,
+                             @RequestParam(defaultValue = "asc") String direccion,
+                             @RequestParam(defaultValue = "0") int pagina,
+                             @RequestParam(defaultValue = "50") int tamanio,
+                             Model model, RedirectAttributes redirectAttributes) {
         try {
-            LoteFacturacion lote = facturaService.obtenerLoteConFacturas(id);
+            LoteFacturacion lote = facturaService.obtenerLotePorId(id);
             model.addAttribute("lote", lote);
+            model.addAttribute("facturas", facturaService.listarFacturasDeLote(
+                id, estado, tipo, orden, "desc".equals(direccion), pagina,
+                Math.min(Math.max(tamanio, 1), TAMANIO_MAXIMO_PAGINA)));
+            model.addAttribute("estados", EstadoFactura.values());
+            model.addAttribute("tipos", TipoFactura.values());
+            model.addAttribute("estado", estado);
+            model.addAttribute("tipo", tipo);
+            model.addAttribute("orden", orden);
+            model.addAttribute("direccion", direccion);
             return "facturacion-masiva/detalle";
         } catch (IllegalArgumentException e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -159,7 +195,7 @@ public class FacturacionMasivaController {
     public String confirmarAnulacion(@PathVariable Long id, Model model, 
                                      RedirectAttributes redirectAttributes) {
         try {
-            LoteFacturacion lote = facturaService.obtenerLoteConFacturas(id);
+            LoteFacturacion lote = facturaService.obtenerLotePorId(id);
             
             // Validar que el lote puede ser anulado
             if (!lote.puedeSerAnulado()) {
@@ -209,4 +245,40 @@ public class FacturacionMasivaController {
             return "redirect:/facturacion-masiva/" + id;
         }
     }
+    
+    /**
+     * Descarga un ZIP con el PDF de cada factura del lote.
+     * Los PDF se generan en paralelo y se escriben en la respuesta a medida que están listos.
+     * 
+     * @param id ID del lote
+     * @param response Respuesta HTTP donde se escribe el ZIP
+     */
+    @GetMapping("/{id}/pdf")
+    public void descargarPdfs(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        response.setContentType("application/zip");
+        response.setHeader("Content-Disposition", "attachment; filename=\"lote-" + id + "-facturas.zip\"");
+        try {
+            facturaPdfService.exportarLote(id, response.getOutputStream());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Si ya se envió parte del ZIP no se puede cambiar la respuesta
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            response.sendError(e instanceof IllegalArgumentException
+                ? HttpStatus.NOT_FOUND.value() : HttpStatus.CONFLICT.value(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Devuelve en JSON el progreso de la exportación a PDF de un lote.
+     * 
+     * @param id ID del lote
+     * @return Progreso de la exportación en curso o de la última; 404 si no hubo ninguna
+     */
+    @GetMapping("/{id}/pdf/progreso")
+    @ResponseBody
+    public ResponseEntity<ProgresoExportacionPdf> consultarProgresoPdfs(@PathVariable Long id) {
+        return ResponseEntity.of(facturaPdfService.obtenerProgreso(id));
+    }
 }
@@ -0,0 +1,27 @@
+package com.unam.integrador.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import com.unam.integrador.services.TableroService;
+
+/**
+ * Controlador de la página de inicio, con el tablero de indicadores.
+ */
+@Controller
+public class InicioController {
+
+    @Autowired
+    private TableroService tableroService;
+
+    /**
+     * Muestra la página de inicio con los indicadores actuales.
+     */
+    @GetMapping("/")
+    public String inicio(Model model) {
+        model.addAttribute("tablero", tableroService.obtenerTablero());
+        return "index";
+    }
+}
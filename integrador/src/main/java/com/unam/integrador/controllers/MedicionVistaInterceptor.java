@@ -0,0 +1,44 @@
+package com.unam.integrador.controllers;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.unam.integrador.repositories.TiemposSolicitud;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Mide el renderizado de la vista de cada solicitud: desde que el
+ * controlador devuelve el modelo (postHandle) hasta que termina la
+ * solicitud (afterCompletion).
+ */
+@Component
+public class MedicionVistaInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        TiemposSolicitud tiempos = TiemposSolicitud.actual();
+        if (tiempos != null && modelAndView != null && modelAndView.hasView()) {
+            tiempos.iniciarVista();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        TiemposSolicitud tiempos = TiemposSolicitud.actual();
+        if (tiempos != null) {
+            tiempos.terminarVista();
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.unam.integrador.controllers;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -12,8 +17,10 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.unam.integrador.dto.ReciboDTO;
@@ -23,9 +30,12 @@ import com.unam.integrador.model.Pago;
 import com.unam.integrador.model.enums.MetodoPago;
 import com.unam.integrador.services.CuentaClienteService;
 import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.ImportacionExtractoService;
 import com.unam.integrador.services.PagoService;
 import com.unam.integrador.services.ReciboService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
  * Controlador web para la gestión de pagos.
  * Maneja la interfaz HTML para registro de pagos.
@@ -46,6 +56,9 @@ public class PagoController {
     @Autowired
     private ReciboService reciboService;
     
+    @Autowired
+    private ImportacionExtractoService importacionExtractoService;
+    
     /**
      * Muestra la lista de todos los pagos.
      */
@@ -191,6 +204,8 @@ public class PagoController {
             maxSaldoAplicable = saldoAFavor.min(totalAdeudado);
         }
         model.addAttribute("maxSaldoAplicable", maxSaldoAplicable);
+        // Clave de idempotencia del formulario: un doble envío devuelve el mismo recibo
+        model.addAttribute("claveIdempotencia", UUID.randomUUID().toString());
         // Si se pasó facturaId, marcarla como preseleccionada en la vista
         model.addAttribute("preselectedFacturaId", facturaId);
         // Si se pasó facturaId, usar su saldoPendiente para prellenar el monto sugerido
@@ -279,6 +294,10 @@ public class PagoController {
     /**
      * Procesa el formulario de pago combinado.
      * Recibe los parámetros directamente del formulario HTML sin usar DTO.
+     * 
+     * La clave de idempotencia llega como campo oculto del formulario o en el
+     * encabezado Idempotency-Key (tiene prioridad el encabezado). Si la clave
+     * ya fue procesada se muestra el recibo original sin registrar otro pago.
      */
     @PostMapping("/registrar-combinado")
     public String registrarPagoCombinado(
@@ -288,6 +307,8 @@ public class PagoController {
             @RequestParam(value = "metodoPago", required = false) MetodoPago metodoPago,
             @RequestParam(value = "referencia", required = false) String referencia,
             @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @RequestParam(value = "claveIdempotencia", required = false) String claveIdempotencia,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             RedirectAttributes redirectAttributes) {
         // Validación: debe seleccionarse al menos una factura
         if (facturasIds == null || facturasIds.isEmpty()) {
@@ -327,13 +348,18 @@ public class PagoController {
                 metodoPago = MetodoPago.SALDO_A_FAVOR;
             }
 
+            String clave = (idempotencyKey != null && !idempotencyKey.isBlank())
+                ? idempotencyKey.trim()
+                : (claveIdempotencia != null && !claveIdempotencia.isBlank()) ? claveIdempotencia.trim() : null;
+
             // Llamar al servicio que orquesta las entidades de dominio
             String numeroRecibo = pagoService.registrarPagoCombinado(
                 facturasIds,
                 montoTotal,
                 saldoAFavorAplicar,
                 metodoPago,
-                referencia
+                referencia,
+                clave
             );
 
             redirectAttributes.addFlashAttribute("mensaje",
@@ -347,4 +373,32 @@ public class PagoController {
             return "redirect:/pagos";
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Muestra el formulario para importar un extracto bancario.
+     */
+    @GetMapping("/importar")
+    public String mostrarImportacionExtracto() {
+        return "pagos/importar";
+    }
+    
+    /**
+     * Importa un extracto bancario (CSV) y descarga el reporte de conciliación.
+     * El archivo se procesa en streaming y el reporte se escribe directamente
+     * en la respuesta, por lo que la memoria usada no depende del tamaño del extracto.
+     */
+    @PostMapping("/importar")
+    public void importarExtracto(@RequestParam("archivo") MultipartFile archivo,
+                                 HttpServletResponse response) throws IOException {
+        if (archivo == null || archivo.isEmpty()) {
+            response.sendRedirect("/pagos/importar?vacio");
+            return;
+        }
+        
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"conciliacion.csv\"");
+        try (Reader extracto = new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8)) {
+            importacionExtractoService.importar(extracto, response.getWriter());
+        }
+    }
+}
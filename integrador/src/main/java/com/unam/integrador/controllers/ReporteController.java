@@ -0,0 +1,89 @@
+package com.unam.integrador.controllers;
+
+import java.io.IOException;
+import java.time.YearMonth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.unam.integrador.dto.ReporteAntiguedadDeuda;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.FormatoLibroIva;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.services.LibroIvaVentasService;
+import com.unam.integrador.services.ReporteAntiguedadDeudaService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Controlador web para los reportes de gestión.
+ */
+@Controller
+@RequestMapping("/reportes")
+public class ReporteController {
+
+    @Autowired
+    private ReporteAntiguedadDeudaService reporteAntiguedadDeudaService;
+
+    @Autowired
+    private LibroIvaVentasService libroIvaVentasService;
+
+    /**
+     * Muestra el reporte de antigüedad de deuda, con filtros opcionales.
+     */
+    @GetMapping("/antiguedad-deuda")
+    public String mostrarAntiguedadDeuda(
+            @RequestParam(required = false) TipoFactura tipo,
+            @RequestParam(required = false) EstadoCuenta estadoCuenta,
+            Model model) {
+        model.addAttribute("reporte", reporteAntiguedadDeudaService.obtenerReporte(tipo, estadoCuenta));
+        model.addAttribute("tipos", TipoFactura.values());
+        model.addAttribute("estadosCuenta", EstadoCuenta.values());
+        return "reportes/antiguedad-deuda";
+    }
+
+    /**
+     * Descarga el reporte de antigüedad de deuda en CSV, con los mismos filtros.
+     */
+    @GetMapping("/antiguedad-deuda/csv")
+    public void exportarAntiguedadDeuda(
+            @RequestParam(required = false) TipoFactura tipo,
+            @RequestParam(required = false) EstadoCuenta estadoCuenta,
+            HttpServletResponse response) throws IOException {
+        ReporteAntiguedadDeuda reporte = reporteAntiguedadDeudaService.obtenerReporte(tipo, estadoCuenta);
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition",
+            "attachment; filename=\"antiguedad-deuda-" + reporte.fecha() + ".csv\"");
+        reporteAntiguedadDeudaService.exportarCsv(reporte, response.getWriter());
+    }
+
+    /**
+     * Muestra el formulario para exportar el Libro IVA Ventas.
+     */
+    @GetMapping("/libro-iva-ventas")
+    public String mostrarLibroIvaVentas(Model model) {
+        model.addAttribute("periodo", YearMonth.now().minusMonths(1));
+        model.addAttribute("formatos", FormatoLibroIva.values());
+        return "reportes/libro-iva-ventas";
+    }
+
+    /**
+     * Descarga el Libro IVA Ventas de un período. Los comprobantes se escriben
+     * en la respuesta a medida que se leen de la base.
+     */
+    @GetMapping("/libro-iva-ventas/exportar")
+    public void exportarLibroIvaVentas(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth periodo,
+            @RequestParam(defaultValue = "CSV") FormatoLibroIva formato,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(formato.getContentType() + "; charset=UTF-8");
+        response.setHeader("Content-Disposition",
+            "attachment; filename=\"libro-iva-ventas-" + periodo + "." + formato.getExtension() + "\"");
+        libroIvaVentasService.exportar(periodo, formato, response.getWriter());
+    }
+}
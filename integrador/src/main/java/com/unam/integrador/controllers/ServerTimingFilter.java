@@ -0,0 +1,206 @@
+package com.unam.integrador.controllers;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.unam.integrador.repositories.TiemposSolicitud;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Informa en qué se fue el tiempo de cada solicitud: SQL, servicios y vista.
+ *
+ * Los tiempos se envían en el encabezado Server-Timing (visible en las
+ * herramientas de desarrollo del navegador) y en una línea de log con
+ * formato clave=valor:
+ * server-timing metodo=GET uri=/facturas estado=200 total_ms=85.2 db_ms=31.0 sentencias=4 servicios_ms=40.3 vista_ms=38.1
+ *
+ * El encabezado se agrega justo antes de que se envíe el primer byte de la
+ * respuesta. Como Thymeleaf genera la página completa antes de escribirla
+ * (spring.thymeleaf.servlet.produce-partial-output-while-processing=false),
+ * en ese momento la vista ya está renderizada. En las descargas que se
+ * escriben de a partes (CSV, PDF) el encabezado refleja lo medido hasta el
+ * primer envío; la línea de log, la solicitud completa.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (TiemposSolicitud tiempos = TiemposSolicitud.iniciar()) {
+            RespuestaMedida respuesta = new RespuestaMedida(response, tiempos);
+            try {
+                chain.doFilter(request, respuesta);
+            } finally {
+                respuesta.agregarEncabezado();
+                if (log.isInfoEnabled()) {
+                    log.info(String.format(Locale.ROOT,
+                        "server-timing metodo=%s uri=%s estado=%d total_ms=%.1f db_ms=%.1f sentencias=%d servicios_ms=%.1f vista_ms=%.1f",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        ms(tiempos.getNanosTotal()), ms(tiempos.getNanosJdbc()), tiempos.getSentencias(),
+                        ms(tiempos.getNanosServicios()), ms(tiempos.getNanosVista())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Arma el valor del encabezado Server-Timing.
+     */
+    static String encabezado(TiemposSolicitud tiempos) {
+        return String.format(Locale.ROOT,
+            "db;dur=%.1f;desc=\"SQL (%d)\", servicios;dur=%.1f, vista;dur=%.1f, total;dur=%.1f",
+            ms(tiempos.getNanosJdbc()), tiempos.getSentencias(), ms(tiempos.getNanosServicios()),
+            ms(tiempos.getNanosVista()), ms(tiempos.getNanosTotal()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Respuesta que agrega el encabezado antes de confirmarse (primer byte
+     * escrito, flush, error o redirección).
+     */
+    private static final class RespuestaMedida extends HttpServletResponseWrapper {
+
+        private final TiemposSolicitud tiempos;
+        private boolean encabezadoAgregado;
+        private ServletOutputStream salida;
+        private PrintWriter escritor;
+
+        RespuestaMedida(HttpServletResponse response, TiemposSolicitud tiempos) {
+            super(response);
+            this.tiempos = tiempos;
+        }
+
+        void agregarEncabezado() {
+            if (encabezadoAgregado) {
+                return;
+            }
+            encabezadoAgregado = true;
+            if (!isCommitted()) {
+                setHeader("Server-Timing", encabezado(tiempos));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (salida == null) {
+                ServletOutputStream original = super.getOutputStream();
+                salida = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        agregarEncabezado();
+                        original.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        agregarEncabezado();
+                        original.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        agregarEncabezado();
+                        original.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        agregarEncabezado();
+                        original.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return original.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        original.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return salida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (escritor == null) {
+                PrintWriter original = super.getWriter();
+                escritor = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] cbuf, int off, int len) {
+                        agregarEncabezado();
+                        original.write(cbuf, off, len);
+                    }
+
+                    @Override
+                    public void write(String str, int off, int len) {
+                        agregarEncabezado();
+                        original.write(str, off, len);
+                    }
+
+                    @Override
+                    public void flush() {
+                        agregarEncabezado();
+                        original.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        agregarEncabezado();
+                        original.close();
+                    }
+                });
+            }
+            return escritor;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            agregarEncabezado();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            agregarEncabezado();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            agregarEncabezado();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            agregarEncabezado();
+            super.sendRedirect(location);
+        }
+    }
+}
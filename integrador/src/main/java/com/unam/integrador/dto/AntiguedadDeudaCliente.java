@@ -0,0 +1,22 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila del reporte de antigüedad de deuda: la deuda pendiente de un cliente por tramo.
+ *
+ * @param clienteId ID del cliente
+ * @param nombre Nombre del cliente
+ * @param cuitDni CUIT o DNI del cliente
+ * @param tramos Deuda del cliente por tramo de antigüedad
+ */
+public record AntiguedadDeudaCliente(Long clienteId, String nombre, String cuitDni, TramosAntiguedadDeuda tramos) {
+
+    /**
+     * Constructor usado por la consulta agregada (expresión constructor JPQL).
+     */
+    public AntiguedadDeudaCliente(Long clienteId, String nombre, String cuitDni,
+            BigDecimal hasta30, BigDecimal de31a60, BigDecimal de61a90, BigDecimal masDe90) {
+        this(clienteId, nombre, cuitDni, new TramosAntiguedadDeuda(hasta30, de31a60, de61a90, masDe90));
+    }
+}
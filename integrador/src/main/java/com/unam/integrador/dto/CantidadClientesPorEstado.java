@@ -0,0 +1,14 @@
+package com.unam.integrador.dto;
+
+import com.unam.integrador.model.enums.EstadoCuenta;
+
+/**
+ * Proyección con la cantidad de clientes en un estado de cuenta.
+ * Se usa para reconstruir los indicadores del tablero.
+ */
+public interface CantidadClientesPorEstado {
+
+    EstadoCuenta getEstado();
+
+    long getCantidad();
+}
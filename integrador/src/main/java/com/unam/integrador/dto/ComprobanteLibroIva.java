@@ -0,0 +1,30 @@
+package com.unam.integrador.dto;
+
+import java.time.LocalDate;
+
+import com.unam.integrador.model.enums.TipoComprobante;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Línea del Libro IVA Ventas: una factura o nota de crédito con sus importes
+ * por alícuota. Los importes de las notas de crédito son negativos.
+ *
+ * @param comprobante Clase de comprobante
+ * @param tipo Letra del comprobante (A, B o C)
+ * @param serie Serie del comprobante
+ * @param numero Número del comprobante dentro de su serie
+ * @param fecha Fecha de emisión
+ * @param cuitDni CUIT o DNI del cliente
+ * @param razonSocial Razón social del cliente
+ * @param importes Netos, IVA, descuento y total
+ */
+public record ComprobanteLibroIva(
+        TipoComprobante comprobante,
+        TipoFactura tipo,
+        int serie,
+        int numero,
+        LocalDate fecha,
+        String cuitDni,
+        String razonSocial,
+        ImportesIva importes) {
+}
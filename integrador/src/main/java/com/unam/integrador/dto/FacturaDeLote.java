@@ -0,0 +1,29 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Proyección con los datos de una factura que se muestran en el detalle de un lote.
+ * Se lee por páginas sin cargar entidades Factura en el contexto de persistencia.
+ */
+public interface FacturaDeLote {
+
+    Long getIdFactura();
+
+    int getSerie();
+
+    int getNroFactura();
+
+    TipoFactura getTipo();
+
+    String getCliente();
+
+    BigDecimal getTotal();
+
+    BigDecimal getSaldoPendiente();
+
+    EstadoFactura getEstado();
+}
@@ -26,6 +26,11 @@ public class FacturacionMasivaDTO {
     @NotNull(message = "La fecha de vencimiento es obligatoria")
     private LocalDate fechaVencimiento;
     
+    /**
+     * Si es true, el saldo a favor de cada cliente se aplica a su nueva factura.
+     */
+    private boolean aplicarSaldoAFavor;
+    
     /**
      * Valida que la fecha de vencimiento sea posterior a la fecha actual (fecha de emisión).
      * Esta validación se ejecuta como parte de la validación del DTO.
@@ -0,0 +1,36 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Proyección con los datos del listado de facturas que se exportan a CSV.
+ * Se lee en streaming sin cargar entidades Factura en el contexto de persistencia.
+ */
+public interface FilaExportacionFactura {
+
+    int getSerie();
+
+    int getNroFactura();
+
+    TipoFactura getTipo();
+
+    String getCliente();
+
+    String getCuitDni();
+
+    LocalDate getPeriodo();
+
+    LocalDate getFechaEmision();
+
+    LocalDate getFechaVencimiento();
+
+    BigDecimal getTotal();
+
+    BigDecimal getSaldoPendiente();
+
+    EstadoFactura getEstado();
+}
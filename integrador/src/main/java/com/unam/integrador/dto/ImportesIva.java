@@ -0,0 +1,74 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+
+import lombok.Getter;
+
+/**
+ * Importes de un comprobante (o de un total del Libro IVA) discriminados por alícuota.
+ *
+ * Total = suma de netos - descuento + suma de IVA, igual que en la factura.
+ * Es acumulable: el Libro IVA suma cada comprobante en los totales por serie.
+ */
+@Getter
+public class ImportesIva {
+
+    private final Map<TipoAlicuotaIVA, BigDecimal> netos = new EnumMap<>(TipoAlicuotaIVA.class);
+
+    private final Map<TipoAlicuotaIVA, BigDecimal> ivas = new EnumMap<>(TipoAlicuotaIVA.class);
+
+    private BigDecimal descuento = BigDecimal.ZERO;
+
+    /**
+     * Suma el neto y el IVA de un ítem a su alícuota.
+     * @param alicuota Alícuota del ítem
+     * @param neto Importe neto del ítem
+     * @param iva IVA del ítem
+     */
+    public void agregar(TipoAlicuotaIVA alicuota, BigDecimal neto, BigDecimal iva) {
+        netos.merge(alicuota, neto, BigDecimal::add);
+        ivas.merge(alicuota, iva, BigDecimal::add);
+    }
+
+    /**
+     * Suma un descuento sobre el neto.
+     * @param importe Importe del descuento
+     */
+    public void agregarDescuento(BigDecimal importe) {
+        descuento = descuento.add(importe);
+    }
+
+    /**
+     * Acumula los importes de otro comprobante.
+     * @param otros Importes a sumar
+     */
+    public void sumar(ImportesIva otros) {
+        otros.netos.forEach((alicuota, neto) -> netos.merge(alicuota, neto, BigDecimal::add));
+        otros.ivas.forEach((alicuota, iva) -> ivas.merge(alicuota, iva, BigDecimal::add));
+        descuento = descuento.add(otros.descuento);
+    }
+
+    public BigDecimal getNeto(TipoAlicuotaIVA alicuota) {
+        return netos.getOrDefault(alicuota, BigDecimal.ZERO);
+    }
+
+    public BigDecimal getIva(TipoAlicuotaIVA alicuota) {
+        return ivas.getOrDefault(alicuota, BigDecimal.ZERO);
+    }
+
+    public BigDecimal getTotalNeto() {
+        return netos.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public BigDecimal getTotalIva() {
+        return ivas.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public BigDecimal getTotal() {
+        return getTotalNeto().subtract(descuento).add(getTotalIva());
+    }
+}
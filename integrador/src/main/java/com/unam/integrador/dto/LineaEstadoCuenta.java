@@ -0,0 +1,27 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.unam.integrador.model.enums.TipoMovimientoCuenta;
+
+/**
+ * Línea del estado de cuenta de un cliente.
+ *
+ * @param fecha Fecha del movimiento
+ * @param tipo Tipo de movimiento
+ * @param referencia Comprobante que lo originó
+ * @param debe Importe que aumenta el saldo del cliente (cero si no corresponde)
+ * @param haber Importe que disminuye el saldo del cliente (cero si no corresponde)
+ * @param importe Importe del movimiento, también cuando no cambia el saldo (ej: saldo a favor consumido)
+ * @param saldo Saldo neto acumulado después del movimiento (negativo si el cliente tiene crédito)
+ */
+public record LineaEstadoCuenta(
+        LocalDateTime fecha,
+        TipoMovimientoCuenta tipo,
+        String referencia,
+        BigDecimal debe,
+        BigDecimal haber,
+        BigDecimal importe,
+        BigDecimal saldo) {
+}
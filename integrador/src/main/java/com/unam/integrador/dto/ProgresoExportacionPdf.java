@@ -0,0 +1,29 @@
+package com.unam.integrador.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de la exportación a PDF de un lote de facturación masiva.
+ *
+ * @param loteId ID del lote
+ * @param total Cantidad de facturas del lote
+ * @param generadas Facturas ya escritas en el ZIP
+ * @param inicio Momento en que empezó la exportación
+ * @param terminada true si la exportación finalizó (con o sin error)
+ * @param error Mensaje de error, o null si no lo hubo
+ */
+public record ProgresoExportacionPdf(
+    Long loteId,
+    int total,
+    int generadas,
+    LocalDateTime inicio,
+    boolean terminada,
+    String error) {
+
+    /**
+     * Porcentaje de avance (0 a 100).
+     */
+    public int getPorcentaje() {
+        return total == 0 ? 100 : generadas * 100 / total;
+    }
+}
@@ -0,0 +1,24 @@
+package com.unam.integrador.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Reporte de antigüedad de deuda a una fecha.
+ *
+ * @param fecha Fecha a la que se calcula la antigüedad
+ * @param tipo Tipo de factura filtrado (null = todos)
+ * @param estadoCuenta Estado de cuenta de los clientes filtrado (null = todos)
+ * @param clientes Deuda por cliente, ordenada por nombre
+ * @param totales Deuda total por tramo
+ */
+public record ReporteAntiguedadDeuda(
+        LocalDate fecha,
+        TipoFactura tipo,
+        EstadoCuenta estadoCuenta,
+        List<AntiguedadDeudaCliente> clientes,
+        TramosAntiguedadDeuda totales) {
+}
@@ -0,0 +1,54 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+/**
+ * DTO con el resumen de una importación de extracto bancario.
+ * Sólo contiene contadores: el detalle de cada línea se escribe
+ * directamente en el reporte de conciliación.
+ */
+@Data
+public class ResultadoImportacionExtracto {
+
+    /**
+     * Líneas de datos leídas (sin contar encabezado ni líneas vacías).
+     */
+    private long lineasLeidas;
+
+    /**
+     * Líneas registradas que cancelaron exactamente facturas impagas.
+     */
+    private long conciliadas;
+
+    /**
+     * Líneas registradas que dejaron saldo pendiente o generaron saldo a favor.
+     */
+    private long parciales;
+
+    /**
+     * Líneas ya importadas anteriormente (misma clave de idempotencia).
+     */
+    private long yaImportadas;
+
+    /**
+     * Líneas sin cliente o sin facturas impagas a las que imputar el pago.
+     */
+    private long sinCoincidencia;
+
+    /**
+     * Líneas con formato inválido.
+     */
+    private long invalidas;
+
+    /**
+     * Líneas que no pudieron registrarse por un error de negocio.
+     */
+    private long errores;
+
+    /**
+     * Monto total registrado como pagos.
+     */
+    private BigDecimal montoRegistrado = BigDecimal.ZERO;
+}
@@ -0,0 +1,16 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con el saldo pendiente de una factura impaga.
+ * Se usa para imputar pagos en bloque sin cargar las entidades Factura.
+ */
+public interface SaldoFacturaImpaga {
+
+    Long getIdFactura();
+
+    Long getClienteId();
+
+    BigDecimal getSaldoPendiente();
+}
@@ -0,0 +1,59 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+
+/**
+ * Copia inmutable de un servicio del catálogo (ver CatalogoServicios).
+ *
+ * @param id ID del servicio
+ * @param nombre Nombre del servicio
+ * @param descripcion Descripción del servicio (puede ser null)
+ * @param precio Precio base sin IVA
+ * @param alicuotaIVA Alícuota de IVA del servicio
+ * @param activo Si el servicio está activo
+ */
+public record ServicioCatalogo(
+    Long id,
+    String nombre,
+    String descripcion,
+    BigDecimal precio,
+    TipoAlicuotaIVA alicuotaIVA,
+    boolean activo
+) {
+
+    /**
+     * Copia los datos de un servicio.
+     * @param servicio Servicio a copiar
+     * @return Copia del servicio
+     */
+    public static ServicioCatalogo de(Servicio servicio) {
+        return new ServicioCatalogo(
+            servicio.getIDServicio(),
+            servicio.getNombre(),
+            servicio.getDescripcion(),
+            servicio.getPrecio(),
+            servicio.getAlicuotaIVA(),
+            servicio.isActivo()
+        );
+    }
+
+    /**
+     * @return true si el servicio puede facturarse (está activo)
+     */
+    public boolean puedeFacturarse() {
+        return activo;
+    }
+
+    /**
+     * @return Precio total incluyendo IVA
+     */
+    public BigDecimal calcularPrecioConIva() {
+        BigDecimal iva = precio.multiply(alicuotaIVA.getPorcentaje())
+                               .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+        return precio.add(iva);
+    }
+}
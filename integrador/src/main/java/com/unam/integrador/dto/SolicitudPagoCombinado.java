@@ -0,0 +1,25 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.unam.integrador.model.enums.MetodoPago;
+
+/**
+ * Datos de un pago combinado a registrar dentro de un lote
+ * (por ejemplo, una línea de un extracto bancario ya conciliada).
+ *
+ * @param facturasIds Facturas a las que se imputa el pago
+ * @param montoTotal Monto recibido con el método de pago
+ * @param metodoPago Método de pago utilizado
+ * @param referencia Referencia o comprobante del pago (opcional)
+ * @param huellaExtracto Huella de la línea del extracto que origina el pago (opcional);
+ *                       se guarda sin vencimiento para no volver a registrarla
+ */
+public record SolicitudPagoCombinado(
+        List<Long> facturasIds,
+        BigDecimal montoTotal,
+        MetodoPago metodoPago,
+        String referencia,
+        String huellaExtracto) {
+}
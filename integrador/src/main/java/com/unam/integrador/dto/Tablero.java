@@ -0,0 +1,51 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.MetodoPago;
+
+/**
+ * Indicadores del tablero de la página de inicio.
+ *
+ * @param fecha Día al que corresponden los cobros
+ * @param periodo Período de facturación actual (primer día del mes)
+ * @param deudaAbierta Saldo pendiente de las facturas impagas
+ * @param facturasVencidas Cantidad de facturas vencidas
+ * @param facturasEmitidasPeriodo Facturas no anuladas del período actual
+ * @param importeEmitidoPeriodo Importe de esas facturas
+ * @param cobradoHoy Pagos del día por método de pago (todos los métodos, en cero si no hubo)
+ * @param clientesPorEstado Clientes por estado de cuenta (todos los estados)
+ * @param reconstruido Última vez que los indicadores se recalcularon desde la base
+ */
+public record Tablero(
+    LocalDate fecha,
+    LocalDate periodo,
+    BigDecimal deudaAbierta,
+    long facturasVencidas,
+    long facturasEmitidasPeriodo,
+    BigDecimal importeEmitidoPeriodo,
+    Map<MetodoPago, BigDecimal> cobradoHoy,
+    Map<EstadoCuenta, Long> clientesPorEstado,
+    LocalDateTime reconstruido) {
+
+    /**
+     * Dinero cobrado en el día: excluye lo aplicado desde el saldo a favor.
+     */
+    public BigDecimal getTotalCobradoHoy() {
+        return cobradoHoy.entrySet().stream()
+            .filter(e -> e.getKey() != MetodoPago.SALDO_A_FAVOR)
+            .map(Map.Entry::getValue)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Cantidad total de clientes.
+     */
+    public long getTotalClientes() {
+        return clientesPorEstado.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,16 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import com.unam.integrador.model.enums.MetodoPago;
+
+/**
+ * Proyección con la suma de los pagos de un día por método de pago.
+ * Se usa para reconstruir los indicadores del tablero.
+ */
+public interface TotalCobradoPorMetodo {
+
+    MetodoPago getMetodoPago();
+
+    BigDecimal getTotal();
+}
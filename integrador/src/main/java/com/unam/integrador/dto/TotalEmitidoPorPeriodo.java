@@ -0,0 +1,17 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proyección con la cantidad e importe de las facturas vigentes de un período.
+ * Se usa para reconstruir los indicadores del tablero.
+ */
+public interface TotalEmitidoPorPeriodo {
+
+    LocalDate getPeriodo();
+
+    long getCantidad();
+
+    BigDecimal getImporte();
+}
@@ -0,0 +1,14 @@
+package com.unam.integrador.dto;
+
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Total del Libro IVA Ventas para una serie: facturas menos notas de crédito.
+ *
+ * @param tipo Letra de los comprobantes
+ * @param serie Serie de los comprobantes
+ * @param cantidad Cantidad de comprobantes
+ * @param importes Importes acumulados por alícuota
+ */
+public record TotalLibroIva(TipoFactura tipo, int serie, int cantidad, ImportesIva importes) {
+}
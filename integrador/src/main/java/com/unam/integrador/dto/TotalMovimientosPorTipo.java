@@ -0,0 +1,16 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import com.unam.integrador.model.enums.TipoMovimientoCuenta;
+
+/**
+ * Proyección con la suma de importes de los movimientos de un tipo.
+ * Se usa para acumular sobre un snapshot los movimientos posteriores a él.
+ */
+public interface TotalMovimientosPorTipo {
+
+    TipoMovimientoCuenta getTipo();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,44 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Deuda pendiente distribuida por antigüedad, en días transcurridos desde el
+ * vencimiento de cada factura. El primer tramo incluye también las facturas
+ * que todavía no vencieron.
+ *
+ * @param hasta30 Deuda vencida hace 30 días o menos (o no vencida)
+ * @param de31a60 Deuda vencida hace 31 a 60 días
+ * @param de61a90 Deuda vencida hace 61 a 90 días
+ * @param masDe90 Deuda vencida hace más de 90 días
+ */
+public record TramosAntiguedadDeuda(BigDecimal hasta30, BigDecimal de31a60, BigDecimal de61a90, BigDecimal masDe90) {
+
+    public static final TramosAntiguedadDeuda CERO =
+        new TramosAntiguedadDeuda(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    public TramosAntiguedadDeuda {
+        hasta30 = hasta30 != null ? hasta30 : BigDecimal.ZERO;
+        de31a60 = de31a60 != null ? de31a60 : BigDecimal.ZERO;
+        de61a90 = de61a90 != null ? de61a90 : BigDecimal.ZERO;
+        masDe90 = masDe90 != null ? masDe90 : BigDecimal.ZERO;
+    }
+
+    /**
+     * Suma tramo a tramo.
+     * @param otros Tramos a sumar
+     * @return Nuevos tramos con la suma
+     */
+    public TramosAntiguedadDeuda sumar(TramosAntiguedadDeuda otros) {
+        return new TramosAntiguedadDeuda(
+            hasta30.add(otros.hasta30), de31a60.add(otros.de31a60),
+            de61a90.add(otros.de61a90), masDe90.add(otros.masDe90));
+    }
+
+    /**
+     * Deuda total (suma de todos los tramos).
+     */
+    public BigDecimal getTotal() {
+        return hasta30.add(de31a60).add(de61a90).add(masDe90);
+    }
+}
@@ -0,0 +1,94 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.unam.integrador.model.enums.EstadoFactura;
+
+/**
+ * Acumula, por lote, cómo cambian los contadores de LoteFacturacion cuando
+ * sus facturas cambian de estado, para aplicarlos con una sentencia por lote.
+ * 
+ * Las facturas que no pertenecen a un lote se ignoran.
+ */
+public class AjusteContadoresLote {
+
+    /**
+     * Diferencias a sumar a los contadores de un lote.
+     * 
+     * @param loteId ID del lote
+     * @param pagadas Diferencia de facturas pagadas totalmente
+     * @param pagadasParcialmente Diferencia de facturas pagadas parcialmente
+     * @param anuladas Diferencia de facturas anuladas
+     * @param montoActivo Diferencia del monto de las facturas no anuladas
+     */
+    public record Ajuste(Long loteId, int pagadas, int pagadasParcialmente, int anuladas, BigDecimal montoActivo) {
+
+        /**
+         * Aporte a los contadores de una factura en un estado.
+         */
+        public static Ajuste de(Long loteId, EstadoFactura estado, BigDecimal total) {
+            return new Ajuste(
+                loteId,
+                estado == EstadoFactura.PAGADA_TOTALMENTE ? 1 : 0,
+                estado == EstadoFactura.PAGADA_PARCIALMENTE ? 1 : 0,
+                estado == EstadoFactura.ANULADA ? 1 : 0,
+                estado == EstadoFactura.ANULADA ? BigDecimal.ZERO : total);
+        }
+
+        Ajuste mas(Ajuste otro) {
+            return new Ajuste(loteId, pagadas + otro.pagadas, pagadasParcialmente + otro.pagadasParcialmente,
+                anuladas + otro.anuladas, montoActivo.add(otro.montoActivo));
+        }
+
+        Ajuste menos(Ajuste otro) {
+            return new Ajuste(loteId, pagadas - otro.pagadas, pagadasParcialmente - otro.pagadasParcialmente,
+                anuladas - otro.anuladas, montoActivo.subtract(otro.montoActivo));
+        }
+
+        boolean esNulo() {
+            return pagadas == 0 && pagadasParcialmente == 0 && anuladas == 0
+                && montoActivo.compareTo(BigDecimal.ZERO) == 0;
+        }
+    }
+
+    private final Map<Long, Ajuste> ajustes = new LinkedHashMap<>();
+
+    /**
+     * Registra el cambio de estado de una factura.
+     * 
+     * @param factura Factura (solo se usan su lote y su total)
+     * @param anterior Estado antes del cambio
+     * @param nuevo Estado después del cambio
+     */
+    public void registrar(Factura factura, EstadoFactura anterior, EstadoFactura nuevo) {
+        LoteFacturacion lote = factura.getLoteFacturacion();
+        if (lote == null || anterior == nuevo) {
+            return;
+        }
+        // Con un proxy sin inicializar, getId() no consulta la base
+        Long loteId = lote.getId();
+        Ajuste diferencia = Ajuste.de(loteId, nuevo, factura.getTotal())
+            .menos(Ajuste.de(loteId, anterior, factura.getTotal()));
+        ajustes.merge(loteId, diferencia, Ajuste::mas);
+    }
+
+    /**
+     * Registra el cambio de estado de una factura ya modificada.
+     * 
+     * @param factura Factura con su estado nuevo
+     * @param anterior Estado antes del cambio
+     */
+    public void registrar(Factura factura, EstadoFactura anterior) {
+        registrar(factura, anterior, factura.getEstado());
+    }
+
+    /**
+     * Ajustes acumulados, uno por lote, sin los que se compensaron.
+     */
+    public List<Ajuste> getAjustes() {
+        return ajustes.values().stream().filter(a -> !a.esNulo()).toList();
+    }
+}
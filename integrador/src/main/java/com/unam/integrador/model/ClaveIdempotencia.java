@@ -0,0 +1,106 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registro de una clave de idempotencia ya procesada.
+ *
+ * Asocia la clave enviada por el formulario (o el encabezado Idempotency-Key)
+ * con el número de recibo generado, de modo que un reenvío de la misma
+ * operación devuelva el recibo original en lugar de registrar un pago nuevo.
+ * Los registros vencen y se purgan periódicamente.
+ */
+@Getter
+@Entity
+@Table(name = "clave_idempotencia",
+    indexes = @Index(name = "idx_clave_idempotencia_expiracion", columnList = "fecha_expiracion"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ClaveIdempotencia {
+
+    /**
+     * Longitud máxima aceptada para una clave.
+     */
+    public static final int LONGITUD_MAXIMA = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Clave enviada por el cliente. Única: es la que garantiza que dos
+     * transacciones con la misma clave no puedan confirmarse a la vez.
+     */
+    @Column(nullable = false, unique = true, length = LONGITUD_MAXIMA)
+    private String clave;
+
+    /**
+     * Número de recibo generado por la operación original.
+     */
+    @Column(name = "numero_recibo", nullable = false, length = 50)
+    private String numeroRecibo;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    private ClaveIdempotencia(String clave, String numeroRecibo, LocalDateTime fechaCreacion,
+                              LocalDateTime fechaExpiracion) {
+        this.clave = clave;
+        this.numeroRecibo = numeroRecibo;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    /**
+     * Factory method para registrar una clave procesada.
+     *
+     * @param clave Clave de idempotencia (no vacía, hasta {@value #LONGITUD_MAXIMA} caracteres)
+     * @param numeroRecibo Recibo generado por la operación
+     * @param ahora Momento de registro
+     * @param vigenciaHoras Horas durante las que la clave se considera válida
+     * @return La clave lista para persistir
+     */
+    public static ClaveIdempotencia registrar(String clave, String numeroRecibo, LocalDateTime ahora,
+                                              long vigenciaHoras) {
+        validarClave(clave);
+        if (numeroRecibo == null || numeroRecibo.isBlank()) {
+            throw new IllegalArgumentException("El número de recibo es obligatorio");
+        }
+        return new ClaveIdempotencia(clave, numeroRecibo, ahora, ahora.plusHours(vigenciaHoras));
+    }
+
+    /**
+     * Valida el formato de una clave de idempotencia.
+     *
+     * @throws IllegalArgumentException si la clave está vacía o es demasiado larga
+     */
+    public static void validarClave(String clave) {
+        if (clave == null || clave.isBlank()) {
+            throw new IllegalArgumentException("La clave de idempotencia no puede estar vacía");
+        }
+        if (clave.length() > LONGITUD_MAXIMA) {
+            throw new IllegalArgumentException(
+                "La clave de idempotencia no puede superar los " + LONGITUD_MAXIMA + " caracteres");
+        }
+    }
+
+    /**
+     * Indica si la clave ya venció en el momento dado.
+     */
+    public boolean estaVencida(LocalDateTime ahora) {
+        return !fechaExpiracion.isAfter(ahora);
+    }
+}
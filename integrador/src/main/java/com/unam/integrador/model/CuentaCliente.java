@@ -5,9 +5,14 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.TipoCondicionIVA;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -18,6 +23,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -30,9 +36,13 @@ import lombok.ToString;
 
 /**
  * Entidad que representa una cuenta de cliente en el sistema ERP de facturación.
+ * Se guarda en la caché de segundo nivel (región com.unam.integrador.model.CuentaCliente);
+ * las búsquedas con bloqueo (findByIdParaActualizar) siempre leen de la base.
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CuentaCliente {
     
     /**
@@ -44,6 +54,17 @@ public class CuentaCliente {
     @Setter(AccessLevel.NONE)
     private Long id;
     
+    /**
+     * Versión para control de concurrencia optimista.
+     * Protege el saldo a favor frente a pagos registrados en simultáneo.
+     * El valor por defecto completa las filas existentes al agregar la columna.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Setter(AccessLevel.NONE)
+    private Long version;
+    
     /**
      * Nombre completo del cliente.
      */
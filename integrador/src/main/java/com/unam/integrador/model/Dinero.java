@@ -0,0 +1,170 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+
+/**
+ * Value Object para importes en pesos, en punto fijo sobre un long.
+ *
+ * Se usa para los cálculos en memoria de facturas e items: sumar, multiplicar
+ * por una cantidad o aplicar una alícuota no crea BigDecimal intermedios. Las
+ * entidades siguen guardando BigDecimal; la conversión se hace al leer
+ * (de) y al escribir (aBigDecimal) sus campos.
+ *
+ * La unidad es la milésima de centavo (5 decimales) y no el centavo: un
+ * precio con centavos por una alícuota con tres decimales (10,5 % o 2,5 %)
+ * da un IVA exacto de hasta 5 decimales, igual al que se calculaba con
+ * BigDecimal. Todo redondeo es explícito: cada operación que puede perder
+ * decimales recibe la escala y el RoundingMode del resultado.
+ *
+ * @param unidades Importe en milésimas de centavo (100.000 por peso)
+ */
+public record Dinero(long unidades) implements Comparable<Dinero> {
+
+    /** Cantidad de decimales que se representan. */
+    public static final int ESCALA = 5;
+
+    public static final Dinero CERO = new Dinero(0);
+
+    private static final long[] POTENCIAS_DE_10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+        100_000_000L, 1_000_000_000L, 10_000_000_000L
+    };
+
+    /**
+     * Convierte un BigDecimal, redondeando HALF_UP si tiene más de 5 decimales.
+     *
+     * @param valor Importe (null se toma como cero)
+     * @return Importe en punto fijo
+     * @throws ArithmeticException si no entra en un long
+     */
+    public static Dinero de(BigDecimal valor) {
+        if (valor == null || valor.signum() == 0) {
+            return CERO;
+        }
+        return new Dinero(valor.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Convierte a BigDecimal sin ceros de más, con al menos 2 decimales
+     * (12.50, 1679.895).
+     */
+    public BigDecimal aBigDecimal() {
+        BigDecimal valor = BigDecimal.valueOf(unidades, ESCALA).stripTrailingZeros();
+        return valor.scale() < 2 ? valor.setScale(2) : valor;
+    }
+
+    public Dinero mas(Dinero otro) {
+        return new Dinero(Math.addExact(unidades, otro.unidades));
+    }
+
+    public Dinero menos(Dinero otro) {
+        return new Dinero(Math.subtractExact(unidades, otro.unidades));
+    }
+
+    /**
+     * Multiplica por una cantidad entera (exacto).
+     */
+    public Dinero por(int cantidad) {
+        return new Dinero(Math.multiplyExact(unidades, cantidad));
+    }
+
+    /**
+     * Calcula el IVA de este importe según la alícuota.
+     *
+     * @param alicuota Alícuota de IVA
+     * @param modo Redondeo, si el resultado tiene más de 5 decimales
+     * @return Monto del IVA
+     */
+    public Dinero iva(TipoAlicuotaIVA alicuota, RoundingMode modo) {
+        return multiplicar(alicuota.getMilesimas(), 3, ESCALA, modo);
+    }
+
+    /**
+     * Calcula un porcentaje de este importe (por ejemplo, un descuento).
+     *
+     * @param porcentaje Porcentaje (0-100); se consideran hasta 4 decimales
+     * @param escala Decimales del resultado (0 a 5)
+     * @param modo Redondeo a esa escala
+     * @return Porcentaje del importe
+     */
+    public Dinero porcentaje(double porcentaje, int escala, RoundingMode modo) {
+        return multiplicar(Math.round(porcentaje * 10_000), 6, escala, modo);
+    }
+
+    /**
+     * Multiplica por un factor decimal dado como entero y escala
+     * (factor 1234 con escala 4 = 0,1234) y redondea el resultado.
+     *
+     * @param factor Factor sin la coma
+     * @param escalaFactor Decimales del factor (0 a 10)
+     * @param escala Decimales del resultado (0 a 5)
+     * @param modo Redondeo a esa escala
+     * @return Importe resultante
+     */
+    public Dinero multiplicar(long factor, int escalaFactor, int escala, RoundingMode modo) {
+        if (escala < 0 || escala > ESCALA) {
+            throw new IllegalArgumentException("La escala debe estar entre 0 y " + ESCALA);
+        }
+        long ajuste = POTENCIAS_DE_10[ESCALA - escala];
+        long producto;
+        try {
+            producto = Math.multiplyExact(unidades, factor);
+        } catch (ArithmeticException e) {
+            // Importes fuera de rango para el cálculo en long
+            BigDecimal resultado = BigDecimal.valueOf(unidades, ESCALA)
+                .multiply(BigDecimal.valueOf(factor, escalaFactor))
+                .setScale(escala, modo);
+            return de(resultado);
+        }
+        long cociente = dividir(producto, POTENCIAS_DE_10[escalaFactor] * ajuste, modo);
+        return new Dinero(Math.multiplyExact(cociente, ajuste));
+    }
+
+    /**
+     * Redondea a la cantidad de decimales indicada (2 = centavos).
+     */
+    public Dinero redondear(int escala, RoundingMode modo) {
+        return multiplicar(1, 0, escala, modo);
+    }
+
+    public int signum() {
+        return Long.signum(unidades);
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(unidades, otro.unidades);
+    }
+
+    @Override
+    public String toString() {
+        return aBigDecimal().toPlainString();
+    }
+
+    /**
+     * División entera con el redondeo indicado.
+     */
+    static long dividir(long dividendo, long divisor, RoundingMode modo) {
+        long cociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (resto == 0) {
+            return cociente;
+        }
+        int signo = (dividendo < 0) == (divisor < 0) ? 1 : -1;
+        int comparacionMitad = Long.compare(Math.abs(resto), Math.abs(divisor) - Math.abs(resto));
+        boolean alejarDeCero = switch (modo) {
+            case UNNECESSARY -> throw new ArithmeticException("El resultado requiere redondeo");
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> signo < 0;
+            case CEILING -> signo > 0;
+            case HALF_UP -> comparacionMitad >= 0;
+            case HALF_DOWN -> comparacionMitad > 0;
+            case HALF_EVEN -> comparacionMitad > 0 || (comparacionMitad == 0 && (cociente & 1) != 0);
+        };
+        return alejarDeCero ? cociente + signo : cociente;
+    }
+}
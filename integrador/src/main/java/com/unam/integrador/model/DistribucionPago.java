@@ -0,0 +1,111 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.unam.integrador.model.enums.EstadoFactura;
+
+import lombok.Getter;
+
+/**
+ * Distribución de un pago entre varias facturas, calculada en memoria.
+ *
+ * Recorre las facturas en el orden recibido y aplica primero el saldo a favor
+ * y luego el dinero del método de pago, hasta agotar el monto o las facturas
+ * (FIFO). No modifica las facturas: sólo calcula, para cada una, cuánto se
+ * aplica de cada fuente y cuál será su nuevo saldo y estado, con las mismas
+ * reglas que {@link Factura#registrarPago}. La persistencia en bloque queda
+ * a cargo del servicio.
+ */
+@Getter
+public final class DistribucionPago {
+
+    /**
+     * Imputación del pago a una factura.
+     *
+     * @param factura Factura imputada
+     * @param montoSaldoAFavor Monto aplicado desde el saldo a favor (puede ser cero)
+     * @param montoMetodoPago Monto aplicado desde el método de pago (puede ser cero)
+     * @param saldoPendiente Saldo pendiente resultante
+     * @param estado Estado resultante
+     */
+    public record Imputacion(
+            Factura factura,
+            BigDecimal montoSaldoAFavor,
+            BigDecimal montoMetodoPago,
+            BigDecimal saldoPendiente,
+            EstadoFactura estado) {
+    }
+
+    private final List<Imputacion> imputaciones;
+
+    /**
+     * Saldo a favor que no se llegó a aplicar.
+     */
+    private final BigDecimal saldoAFavorRestante;
+
+    /**
+     * Dinero del método de pago que no se llegó a aplicar.
+     */
+    private final BigDecimal dineroRestante;
+
+    private DistribucionPago(List<Imputacion> imputaciones, BigDecimal saldoAFavorRestante,
+                             BigDecimal dineroRestante) {
+        this.imputaciones = Collections.unmodifiableList(imputaciones);
+        this.saldoAFavorRestante = saldoAFavorRestante;
+        this.dineroRestante = dineroRestante;
+    }
+
+    /**
+     * Calcula la distribución de un pago entre las facturas.
+     *
+     * @param facturas Facturas a pagar, en el orden en que se imputan
+     * @param saldoAFavor Monto de saldo a favor a aplicar
+     * @param dinero Monto recibido con el método de pago
+     * @return La distribución calculada
+     * @throws IllegalStateException si alguna factura que debe recibir un monto no puede recibir pagos
+     */
+    public static DistribucionPago calcular(List<Factura> facturas, BigDecimal saldoAFavor, BigDecimal dinero) {
+        List<Imputacion> imputaciones = new ArrayList<>();
+        BigDecimal saldoAFavorRestante = saldoAFavor;
+        BigDecimal dineroRestante = dinero;
+
+        for (Factura factura : facturas) {
+            BigDecimal totalDisponible = saldoAFavorRestante.add(dineroRestante);
+            if (totalDisponible.compareTo(BigDecimal.ZERO) <= 0) {
+                break;
+            }
+
+            BigDecimal montoPorPagar = totalDisponible.min(factura.getSaldoPendiente());
+            if (montoPorPagar.compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+            factura.validarPuedeRecibirPago(montoPorPagar);
+
+            BigDecimal montoConSaldoAFavor = montoPorPagar.min(saldoAFavorRestante);
+            BigDecimal montoConMetodo = montoPorPagar.subtract(montoConSaldoAFavor);
+            BigDecimal nuevoSaldo = factura.getSaldoPendiente().subtract(montoPorPagar);
+
+            imputaciones.add(new Imputacion(
+                factura,
+                montoConSaldoAFavor,
+                montoConMetodo,
+                nuevoSaldo,
+                Factura.estadoSegunSaldo(nuevoSaldo, factura.getTotal(), factura.getEstado())));
+
+            saldoAFavorRestante = saldoAFavorRestante.subtract(montoConSaldoAFavor);
+            dineroRestante = dineroRestante.subtract(montoConMetodo);
+        }
+
+        return new DistribucionPago(imputaciones, saldoAFavorRestante, dineroRestante);
+    }
+
+    /**
+     * Monto total que no se aplicó a ninguna factura (excedente).
+     */
+    public BigDecimal getRemanente() {
+        return saldoAFavorRestante.add(dineroRestante);
+    }
+}
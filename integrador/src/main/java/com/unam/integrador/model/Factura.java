@@ -1,12 +1,15 @@
 package com.unam.integrador.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.EstadoFactura;
 import com.unam.integrador.model.enums.TipoCondicionIVA;
@@ -21,9 +24,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
@@ -45,6 +51,7 @@ import lombok.ToString;
  */
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_factura_lote_numero", columnList = "lote_facturacion_id, nro_factura"))
 @NoArgsConstructor
 public class Factura {
     
@@ -53,6 +60,16 @@ public class Factura {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long idFactura;
 
+    /**
+     * Versión para control de concurrencia optimista.
+     * Evita que dos pagos simultáneos sobrescriban el saldo pendiente del otro.
+     * El valor por defecto completa las filas existentes al agregar la columna.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     /** Serie de la factura según el tipo (A=1, B=2, C=3). */
     @Column(nullable = false)
     private int serie;
@@ -176,8 +193,9 @@ public class Factura {
     // --- MÉTODOS DE NEGOCIO (Modelo RICO) ---
 
     /**
-     * Agrega un item a la factura y recalcula los totales.
+     * Agrega un item a la factura y actualiza los totales.
      * Este método encapsula la lógica de agregar items manteniendo la consistencia.
+     * Los totales se ajustan con los importes del item, sin recorrer el detalle.
      * 
      * @param item El item a agregar
      */
@@ -195,8 +213,36 @@ public class Factura {
         // Agregar a la lista
         this.detalleFactura.add(item);
         
-        // Recalcular totales de la factura
-        calcularTotales();
+        // Sumar el item a los totales de la factura
+        acumularItem(Dinero.de(item.getSubtotal()), Dinero.de(item.getMontoIva()));
+    }
+
+    /**
+     * Quita un item de la factura y actualiza los totales.
+     * 
+     * @param item El item a quitar
+     * @throws IllegalArgumentException si el item no pertenece a la factura
+     */
+    public void quitarItem(ItemFactura item) {
+        if (item == null || !this.detalleFactura.removeIf(i -> i == item)) {
+            throw new IllegalArgumentException("El item no pertenece a la factura");
+        }
+        item.setFactura(null);
+        
+        // Restar el item de los totales de la factura
+        acumularItem(
+            Dinero.CERO.menos(Dinero.de(item.getSubtotal())),
+            Dinero.CERO.menos(Dinero.de(item.getMontoIva())));
+    }
+
+    /**
+     * Ajusta subtotal, IVA, total y saldo pendiente con los importes de un item.
+     * El descuento se recalcula sobre el nuevo subtotal.
+     */
+    private void acumularItem(Dinero subtotalItem, Dinero ivaItem) {
+        Dinero subtotalFactura = Dinero.de(this.subtotal).mas(subtotalItem);
+        Dinero ivaFactura = Dinero.de(this.totalIva).mas(ivaItem);
+        asignarTotales(subtotalFactura, ivaFactura);
     }
 
     /**
@@ -204,12 +250,11 @@ public class Factura {
      * @return Subtotal antes de IVA y descuentos
      */
     public BigDecimal calcularSubtotal() {
-        //convierte la lista a un stream para procesarlo de manera funcional
-        this.subtotal = detalleFactura.stream()
-            //obtiene el subtotal de cada item
-            .map(ItemFactura::getSubtotal)
-            //suma todos los subtotales obtenidos
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Dinero suma = Dinero.CERO;
+        for (ItemFactura item : detalleFactura) {
+            suma = suma.mas(Dinero.de(item.getSubtotal()));
+        }
+        this.subtotal = suma.aBigDecimal();
         return this.subtotal;
     }
 
@@ -218,9 +263,11 @@ public class Factura {
      * @return Total de IVA
      */
     public BigDecimal calcularTotalIva() {
-        this.totalIva = detalleFactura.stream()
-            .map(ItemFactura::getMontoIva)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Dinero suma = Dinero.CERO;
+        for (ItemFactura item : detalleFactura) {
+            suma = suma.mas(Dinero.de(item.getMontoIva()));
+        }
+        this.totalIva = suma.aBigDecimal();
         return this.totalIva;
     }
 
@@ -242,9 +289,8 @@ public class Factura {
         this.descuento = porcentaje;
         this.motivoDescuento = motivo;
         
-        // Recalcular total con el nuevo descuento
-        calcularTotal();
-        calcularSaldoPendiente();
+        // Recalcular todo desde los items con el nuevo descuento
+        calcularTotales();
     }
 
     /**
@@ -254,17 +300,26 @@ public class Factura {
      * @return Total de la factura
      */
     public BigDecimal calcularTotal() {
-        // Calcular monto del descuento
-        BigDecimal montoDescuento = this.subtotal
-            .multiply(BigDecimal.valueOf(this.descuento))
-            .divide(BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
+        Dinero subtotalFactura = Dinero.de(this.subtotal);
         
         // Total = (Subtotal - Descuento) + IVA
-        BigDecimal subtotalConDescuento = this.subtotal.subtract(montoDescuento);
-        this.total = subtotalConDescuento.add(this.totalIva);
+        this.total = subtotalFactura
+            .menos(calcularDescuento(subtotalFactura))
+            .mas(Dinero.de(this.totalIva))
+            .aBigDecimal();
         
         return this.total;
     }
+    
+    /**
+     * Monto del descuento sobre un subtotal, redondeado al centavo (HALF_UP).
+     */
+    private Dinero calcularDescuento(Dinero subtotalFactura) {
+        if (this.descuento <= 0) {
+            return Dinero.CERO;
+        }
+        return subtotalFactura.porcentaje(this.descuento, 2, RoundingMode.HALF_UP);
+    }
 
     /**
      * Calcula el saldo pendiente de pago.
@@ -287,9 +342,7 @@ public class Factura {
         if (this.descuento <= 0) {
             return BigDecimal.ZERO;
         }
-        return this.subtotal
-            .multiply(BigDecimal.valueOf(this.descuento))
-            .divide(BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
+        return calcularDescuento(Dinero.de(this.subtotal)).aBigDecimal();
     }
 
     /**
@@ -297,9 +350,43 @@ public class Factura {
      * Este es el método principal para actualizar todos los valores calculados.
      */
     public void calcularTotales() {
-        calcularSubtotal();
-        calcularTotalIva();
-        calcularTotal();
+        // Una sola pasada por los items, con conversión a BigDecimal solo al asignar
+        Dinero subtotalFactura = Dinero.CERO;
+        Dinero ivaFactura = Dinero.CERO;
+        for (ItemFactura item : detalleFactura) {
+            subtotalFactura = subtotalFactura.mas(Dinero.de(item.getSubtotal()));
+            ivaFactura = ivaFactura.mas(Dinero.de(item.getMontoIva()));
+        }
+        asignarTotales(subtotalFactura, ivaFactura);
+    }
+
+    /**
+     * Verifica que los totales acumulados coincidan con los del detalle.
+     * Recalcula todo desde los items y deja los valores recalculados.
+     * 
+     * @throws IllegalStateException si los totales acumulados no coincidían
+     */
+    public void verificarTotales() {
+        BigDecimal subtotalAcumulado = this.subtotal;
+        BigDecimal ivaAcumulado = this.totalIva;
+        BigDecimal totalAcumulado = this.total;
+        calcularTotales();
+        if (subtotalAcumulado.compareTo(this.subtotal) != 0
+                || ivaAcumulado.compareTo(this.totalIva) != 0
+                || totalAcumulado.compareTo(this.total) != 0) {
+            throw new IllegalStateException(String.format(
+                "Los totales de la factura %d-%d no coinciden con su detalle (total %s, recalculado %s)",
+                serie, nroFactura, totalAcumulado, this.total));
+        }
+    }
+
+    private void asignarTotales(Dinero subtotalFactura, Dinero ivaFactura) {
+        this.subtotal = subtotalFactura.aBigDecimal();
+        this.totalIva = ivaFactura.aBigDecimal();
+        this.total = subtotalFactura
+            .menos(calcularDescuento(subtotalFactura))
+            .mas(ivaFactura)
+            .aBigDecimal();
         calcularSaldoPendiente();
     }
 
@@ -403,9 +490,8 @@ public class Factura {
         // Validar que puede recibir el pago
         validarPuedeRecibirPago(montoAplicado);
         
-        // Crear el detalle de pago (ya valida que monto no exceda saldo pendiente)
+        // Crear el detalle de pago (ya lo agrega a esta factura y al pago)
         DetallePago detalle = DetallePago.crear(pago, this, montoAplicado);
-        agregarDetallePago(detalle);
         
         // Actualizar saldo pendiente
         this.saldoPendiente = this.saldoPendiente.subtract(montoAplicado);
@@ -416,6 +502,22 @@ public class Factura {
         return detalle;
     }
     
+    /**
+     * Aplica a esta factura una imputación calculada por {@link DistribucionPago}.
+     * Actualiza saldo pendiente y estado sin crear el DetallePago en memoria:
+     * se usa en los procesos masivos, donde los detalles se persisten en bloque.
+     * 
+     * @param imputacion Imputación calculada para esta factura
+     * @throws IllegalArgumentException si la imputación corresponde a otra factura
+     */
+    public void aplicarImputacion(DistribucionPago.Imputacion imputacion) {
+        if (imputacion.factura() != this) {
+            throw new IllegalArgumentException("La imputación corresponde a otra factura");
+        }
+        this.saldoPendiente = imputacion.saldoPendiente();
+        this.estado = imputacion.estado();
+    }
+    
     /**
      * Valida que la factura puede recibir un pago.
      * Método de lógica de negocio que encapsula las reglas.
@@ -440,12 +542,12 @@ public class Factura {
     
     /**
      * Agrega un detalle de pago manteniendo la coherencia bidireccional.
-     * Método package-private para uso interno.
+     * Método package-private para uso interno: sólo lo invoca DetallePago.crear,
+     * que siempre construye un detalle nuevo, por lo que no hace falta buscar
+     * duplicados (y así no se inicializa la colección con todo el historial).
      */
     void agregarDetallePago(DetallePago detalle) {
-        if (!this.detallesPago.contains(detalle)) {
-            this.detallesPago.add(detalle);
-        }
+        this.detallesPago.add(detalle);
     }
     
     /**
@@ -461,12 +563,29 @@ public class Factura {
      * Método privado de lógica interna.
      */
     private void actualizarEstadoSegunSaldo() {
-        if (this.saldoPendiente.compareTo(BigDecimal.ZERO) == 0) {
-            this.estado = EstadoFactura.PAGADA_TOTALMENTE;
-        } else if (this.saldoPendiente.compareTo(this.total) < 0) {
-            this.estado = EstadoFactura.PAGADA_PARCIALMENTE;
+        this.estado = estadoSegunSaldo(this.saldoPendiente, this.total, this.estado);
+    }
+    
+    /**
+     * Calcula el estado que corresponde a una factura según su saldo pendiente.
+     * Es la misma regla que aplica {@link #registrarPago}; se expone para que
+     * la distribución de pagos en bloque pueda calcular el estado sin
+     * modificar la entidad.
+     * 
+     * @param saldoPendiente Saldo pendiente luego de aplicar el pago
+     * @param total Total de la factura
+     * @param estadoActual Estado antes de aplicar el pago
+     * @return El estado resultante
+     */
+    public static EstadoFactura estadoSegunSaldo(BigDecimal saldoPendiente, BigDecimal total,
+                                                 EstadoFactura estadoActual) {
+        if (saldoPendiente.compareTo(BigDecimal.ZERO) == 0) {
+            return EstadoFactura.PAGADA_TOTALMENTE;
+        } else if (saldoPendiente.compareTo(total) < 0) {
+            return EstadoFactura.PAGADA_PARCIALMENTE;
         }
         // Si el saldo es igual al total, mantiene el estado actual (PENDIENTE o VENCIDA)
+        return estadoActual;
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.unam.integrador.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import com.unam.integrador.model.enums.TipoAlicuotaIVA;
 
@@ -27,6 +28,9 @@ import lombok.ToString;
  * 
  * Soporta facturación proporcional mediante el factory method crearProporcional().
  * 
+ * Los cálculos se hacen con {@link Dinero} (punto fijo) y el resultado se
+ * guarda en los campos BigDecimal que se persisten.
+ * 
  * @author Sistema ERP Facturación
  * @version 1.0
  */
@@ -110,7 +114,7 @@ public class ItemFactura {
      * @return Subtotal sin IVA
      */
     public BigDecimal calcularSubtotal() {
-        this.subtotal = precioUnitario.multiply(new BigDecimal(cantidad));
+        this.subtotal = Dinero.de(precioUnitario).por(cantidad).aBigDecimal();
         return this.subtotal;
     }
 
@@ -119,8 +123,7 @@ public class ItemFactura {
      * @return Monto del IVA a aplicar
      */
     public BigDecimal calcularMontoIva() {
-        BigDecimal alicuota = obtenerValorAlicuota();
-        this.montoIva = this.subtotal.multiply(alicuota);
+        this.montoIva = Dinero.de(this.subtotal).iva(this.alicuotaIVA, RoundingMode.HALF_UP).aBigDecimal();
         return this.montoIva;
     }
 
@@ -129,18 +132,21 @@ public class ItemFactura {
      * @return Total del item
      */
     public BigDecimal calcularTotal() {
-        this.total = this.subtotal.add(this.montoIva);
+        this.total = Dinero.de(this.subtotal).mas(Dinero.de(this.montoIva)).aBigDecimal();
         return this.total;
     }
 
     /**
      * Ejecuta todos los cálculos en el orden correcto.
      * Este método encapsula la lógica de cálculo completa del item.
+     * Convierte a BigDecimal una sola vez por campo.
      */
     public void calcular() {
-        calcularSubtotal();
-        calcularMontoIva();
-        calcularTotal();
+        Dinero subtotalItem = Dinero.de(precioUnitario).por(cantidad);
+        Dinero ivaItem = subtotalItem.iva(this.alicuotaIVA, RoundingMode.HALF_UP);
+        this.subtotal = subtotalItem.aBigDecimal();
+        this.montoIva = ivaItem.aBigDecimal();
+        this.total = subtotalItem.mas(ivaItem).aBigDecimal();
     }
 
     /**
@@ -166,12 +172,13 @@ public class ItemFactura {
             TipoAlicuotaIVA alicuotaIVA,
             PeriodoFacturacion periodo) {
         
-        // Calcular precio proporcional
-        BigDecimal proporcion = new BigDecimal(periodo.getDiasEfectivos())
-            .divide(new BigDecimal(periodo.getDiasDelMes()), 4, java.math.RoundingMode.HALF_UP);
+        // Calcular precio proporcional: proporción con 4 decimales, precio al centavo
+        long proporcion = Dinero.dividir(
+            periodo.getDiasEfectivos() * 10_000L, periodo.getDiasDelMes(), RoundingMode.HALF_UP);
         
-        BigDecimal precioProporcional = precioMensual.multiply(proporcion)
-            .setScale(2, java.math.RoundingMode.HALF_UP);
+        BigDecimal precioProporcional = Dinero.de(precioMensual)
+            .multiplicar(proporcion, 4, 2, RoundingMode.HALF_UP)
+            .aBigDecimal();
         
         // Generar descripción con período parcial
         String descripcionCompleta = String.format("%s (%s)",
@@ -182,18 +189,4 @@ public class ItemFactura {
         // Crear item con precio proporcional
         return new ItemFactura(descripcionCompleta, precioProporcional, cantidad, alicuotaIVA);
     }
-
-    /**
-     * Obtiene el valor decimal de la alícuota de IVA.
-     * @return Valor decimal de la alícuota (ej: 0.21 para IVA_21)
-     */
-    private BigDecimal obtenerValorAlicuota() {
-        return switch (this.alicuotaIVA) {
-            case IVA_21 -> new BigDecimal("0.21");
-            case IVA_10_5 -> new BigDecimal("0.105");
-            case IVA_27 -> new BigDecimal("0.27");
-            case IVA_2_5 -> new BigDecimal("0.025");
-            case EXENTO -> BigDecimal.ZERO;
-        };
-    }
 }
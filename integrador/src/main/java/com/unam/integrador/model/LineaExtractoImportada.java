@@ -0,0 +1,78 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea de un extracto bancario ya registrada como pago.
+ *
+ * Guarda la huella de la línea (calculada con los datos del banco, no con su
+ * posición en el archivo) junto con el recibo generado. A diferencia de las
+ * claves de idempotencia, no vence: un extracto puede reimportarse en
+ * cualquier momento sin volver a registrar sus pagos.
+ */
+@Getter
+@Entity
+@Table(name = "linea_extracto_importada")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class LineaExtractoImportada {
+
+    /**
+     * Longitud de la huella (SHA-256 en hexadecimal).
+     */
+    public static final int LONGITUD_HUELLA = 64;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Huella de la línea. Única: dos importaciones simultáneas del mismo
+     * extracto no pueden confirmar el mismo pago.
+     */
+    @Column(nullable = false, unique = true, length = LONGITUD_HUELLA)
+    private String huella;
+
+    /**
+     * Número de recibo generado al registrar la línea.
+     */
+    @Column(name = "numero_recibo", nullable = false, length = 50)
+    private String numeroRecibo;
+
+    @Column(name = "fecha_importacion", nullable = false)
+    private LocalDateTime fechaImportacion;
+
+    private LineaExtractoImportada(String huella, String numeroRecibo, LocalDateTime fechaImportacion) {
+        this.huella = huella;
+        this.numeroRecibo = numeroRecibo;
+        this.fechaImportacion = fechaImportacion;
+    }
+
+    /**
+     * Factory method para registrar una línea importada.
+     *
+     * @param huella Huella de la línea ({@value #LONGITUD_HUELLA} caracteres)
+     * @param numeroRecibo Recibo generado por el pago de la línea
+     * @param ahora Momento de la importación
+     * @return La línea lista para persistir
+     * @throws IllegalArgumentException si la huella o el recibo no son válidos
+     */
+    public static LineaExtractoImportada registrar(String huella, String numeroRecibo, LocalDateTime ahora) {
+        if (huella == null || huella.length() != LONGITUD_HUELLA) {
+            throw new IllegalArgumentException("La huella de la línea debe tener " + LONGITUD_HUELLA + " caracteres");
+        }
+        if (numeroRecibo == null || numeroRecibo.isBlank()) {
+            throw new IllegalArgumentException("El número de recibo es obligatorio");
+        }
+        return new LineaExtractoImportada(huella, numeroRecibo, ahora);
+    }
+}
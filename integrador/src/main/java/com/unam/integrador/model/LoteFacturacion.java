@@ -6,6 +6,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
 import com.unam.integrador.model.enums.EstadoFactura;
 
 import jakarta.persistence.*;
@@ -18,9 +21,18 @@ import lombok.ToString;
  * Un lote agrupa todas las facturas generadas en una ejecución de facturación masiva.
  * 
  * Cumple con HU-07, HU-08 y HU-09 del ERP.
+ * 
+ * Los contadores por estado (pagadas, pagadas parcialmente, anuladas y monto
+ * activo) se guardan en el lote para no recorrer sus facturas. Al crearse se
+ * calculan en agregarFactura; después solo se modifican con
+ * {@code LoteFacturacionRepository.ajustarContadores}, que suma diferencias en
+ * la base. Por eso la entidad se actualiza con {@code @DynamicUpdate}: al
+ * anular el lote solo se escriben las columnas de anulación y no se pisan los
+ * contadores con los valores en memoria.
  */
 @Data
 @Entity
+@DynamicUpdate
 @NoArgsConstructor
 public class LoteFacturacion {
     
@@ -64,6 +76,35 @@ public class LoteFacturacion {
     @Column(precision = 12, scale = 2, nullable = false)
     private BigDecimal montoTotal;
     
+    /**
+     * Cantidad de facturas del lote en estado PAGADA_TOTALMENTE.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int cantidadFacturasPagadas;
+    
+    /**
+     * Cantidad de facturas del lote en estado PAGADA_PARCIALMENTE.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int cantidadFacturasPagadasParcialmente;
+    
+    /**
+     * Cantidad de facturas del lote en estado ANULADA.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int cantidadFacturasAnuladas;
+    
+    /**
+     * Suma de los totales de las facturas no anuladas del lote.
+     * Es null en los lotes creados antes de existir los contadores, hasta que
+     * se recalculan al iniciar la aplicación.
+     */
+    @Column(precision = 12, scale = 2)
+    private BigDecimal montoTotalActivo;
+    
     /**
      * Indica si el lote fue anulado.
      */
@@ -104,6 +145,7 @@ public class LoteFacturacion {
         this.fechaVencimiento = fechaVencimiento;
         this.cantidadFacturas = 0;
         this.montoTotal = BigDecimal.ZERO;
+        this.montoTotalActivo = BigDecimal.ZERO;
         this.anulado = false;
     }
     
@@ -123,6 +165,19 @@ public class LoteFacturacion {
         this.facturas.add(factura);
         this.cantidadFacturas++;
         this.montoTotal = this.montoTotal.add(factura.getTotal());
+        aplicar(AjusteContadoresLote.Ajuste.de(this.id, factura.getEstado(), factura.getTotal()));
+    }
+    
+    /**
+     * Suma un ajuste a los contadores en memoria.
+     * Solo se usa antes de persistir el lote: una vez guardado, los
+     * contadores se ajustan en la base con LoteFacturacionRepository.
+     */
+    private void aplicar(AjusteContadoresLote.Ajuste ajuste) {
+        this.cantidadFacturasPagadas += ajuste.pagadas();
+        this.cantidadFacturasPagadasParcialmente += ajuste.pagadasParcialmente();
+        this.cantidadFacturasAnuladas += ajuste.anuladas();
+        this.montoTotalActivo = this.montoTotalActivo.add(ajuste.montoActivo());
     }
     
     /**
@@ -132,20 +187,10 @@ public class LoteFacturacion {
      * @return true si el lote puede ser anulado
      */
     public boolean puedeSerAnulado() {
-        if (this.anulado) {
-            return false;
-        }
-        
-        // Verificar que ninguna factura tenga pagos
-        for (Factura factura : this.facturas) {
-            // Una factura no puede ser anulada si tiene pagos parciales o totales
-            if (factura.getEstado() == EstadoFactura.PAGADA_PARCIALMENTE ||
-                factura.getEstado() == EstadoFactura.PAGADA_TOTALMENTE) {
-                return false;
-            }
-        }
-        
-        return true;
+        // Una factura no puede ser anulada si tiene pagos parciales o totales
+        return !this.anulado
+            && this.cantidadFacturasPagadas == 0
+            && this.cantidadFacturasPagadasParcialmente == 0;
     }
     
     /**
@@ -173,6 +218,7 @@ public class LoteFacturacion {
     
     /**
      * Obtiene las facturas que no están anuladas.
+     * Recorre (y carga) la colección completa: para cantidades y montos usar los contadores.
      * 
      * @return Lista de facturas activas del lote
      */
@@ -181,27 +227,4 @@ public class LoteFacturacion {
             .filter(f -> f.getEstado() != EstadoFactura.ANULADA)
             .toList();
     }
-    
-    /**
-     * Obtiene la cantidad de facturas que fueron anuladas.
-     * 
-     * @return Número de facturas anuladas
-     */
-    public int getCantidadFacturasAnuladas() {
-        return (int) this.facturas.stream()
-            .filter(f -> f.getEstado() == EstadoFactura.ANULADA)
-            .count();
-    }
-    
-    /**
-     * Calcula el monto total de las facturas activas (no anuladas).
-     * 
-     * @return Monto total activo
-     */
-    public BigDecimal getMontoTotalActivo() {
-        return this.facturas.stream()
-            .filter(f -> f.getEstado() != EstadoFactura.ANULADA)
-            .map(Factura::getTotal)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
 }
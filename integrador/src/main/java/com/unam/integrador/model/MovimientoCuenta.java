@@ -0,0 +1,129 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import com.unam.integrador.model.enums.TipoMovimientoCuenta;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Movimiento del libro de cuenta de un cliente.
+ *
+ * El libro es de solo agregado: cada emisión de factura, nota de crédito,
+ * pago o uso de saldo a favor agrega un movimiento y ninguno se modifica.
+ * La posición del cliente a una fecha se obtiene del último
+ * {@link SnapshotSaldoCuenta} anterior más los movimientos posteriores a él.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "movimiento_cuenta",
+    indexes = {
+        @Index(name = "idx_movimiento_cuenta_cliente_id", columnList = "cliente_id, id"),
+        @Index(name = "idx_movimiento_cuenta_cliente_fecha", columnList = "cliente_id, fecha")
+    })
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class MovimientoCuenta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    @ToString.Exclude
+    private CuentaCliente cliente;
+
+    /**
+     * Momento en que se registró el movimiento.
+     */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoMovimientoCuenta tipo;
+
+    /**
+     * Importe del movimiento. Su efecto sobre la deuda y el saldo a favor lo define el tipo.
+     */
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal importe;
+
+    /**
+     * Comprobante que originó el movimiento (ej: "Factura 0001-00000012", "Recibo 00000005").
+     */
+    @Column(length = 100)
+    private String referencia;
+
+    private MovimientoCuenta(CuentaCliente cliente, TipoMovimientoCuenta tipo, BigDecimal importe,
+                             String referencia) {
+        if (cliente == null) {
+            throw new IllegalArgumentException("El movimiento debe tener un cliente");
+        }
+        if (importe == null || importe.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El importe del movimiento debe ser mayor a cero");
+        }
+        this.cliente = cliente;
+        this.fecha = LocalDateTime.now();
+        this.tipo = tipo;
+        this.importe = importe;
+        this.referencia = referencia;
+    }
+
+    /**
+     * Factory method para el movimiento de una factura emitida.
+     *
+     * @param factura Factura emitida (ya persistida)
+     * @return Movimiento por el total de la factura
+     */
+    public static MovimientoCuenta facturaEmitida(Factura factura) {
+        return new MovimientoCuenta(factura.getCliente(), TipoMovimientoCuenta.FACTURA_EMITIDA,
+            factura.getTotal(),
+            String.format("Factura %04d-%08d", factura.getSerie(), factura.getNroFactura()));
+    }
+
+    /**
+     * Factory method para el movimiento de una nota de crédito.
+     *
+     * @param notaCredito Nota de crédito emitida
+     * @return Movimiento por el monto de la nota de crédito
+     */
+    public static MovimientoCuenta notaCredito(NotaCredito notaCredito) {
+        return new MovimientoCuenta(notaCredito.getFactura().getCliente(), TipoMovimientoCuenta.NOTA_CREDITO,
+            notaCredito.getMonto(),
+            String.format("Nota de crédito %04d-%08d", notaCredito.getSerie(), notaCredito.getNroNotaCredito()));
+    }
+
+    /**
+     * Factory method para un movimiento originado en un recibo (pagos y saldo a favor).
+     *
+     * @param cliente Cliente del recibo
+     * @param tipo Tipo de movimiento
+     * @param importe Importe, mayor a cero
+     * @param numeroRecibo Número de recibo
+     * @return Movimiento del recibo
+     */
+    public static MovimientoCuenta deRecibo(CuentaCliente cliente, TipoMovimientoCuenta tipo,
+                                            BigDecimal importe, String numeroRecibo) {
+        return new MovimientoCuenta(cliente, tipo, importe, "Recibo " + numeroRecibo);
+    }
+}
@@ -103,9 +103,7 @@ public class Pago {
      * Agrega un detalle de pago manteniendo la coherencia bidireccional.
      */
     void agregarDetallePago(DetallePago detalle) {
-        if (!this.detallesPago.contains(detalle)) {
-            this.detallesPago.add(detalle);
-        }
+        this.detallesPago.add(detalle);
     }
     
     
@@ -0,0 +1,39 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+
+import com.unam.integrador.model.enums.TipoMovimientoCuenta;
+
+/**
+ * Posición de un cliente según el libro de cuenta.
+ *
+ * @param deuda Suma de lo facturado que queda por cobrar
+ * @param saldoAFavor Crédito disponible del cliente
+ */
+public record SaldoCuenta(BigDecimal deuda, BigDecimal saldoAFavor) {
+
+    /**
+     * Posición de un cliente sin movimientos.
+     */
+    public static final SaldoCuenta CERO = new SaldoCuenta(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    /**
+     * Devuelve la posición resultante de aplicar un importe de un tipo de movimiento.
+     *
+     * @param tipo Tipo de movimiento
+     * @param importe Importe (o suma de importes) de ese tipo
+     * @return Nueva posición
+     */
+    public SaldoCuenta aplicar(TipoMovimientoCuenta tipo, BigDecimal importe) {
+        return new SaldoCuenta(
+            deuda.add(importe.multiply(BigDecimal.valueOf(tipo.getEfectoDeuda()))),
+            saldoAFavor.add(importe.multiply(BigDecimal.valueOf(tipo.getEfectoSaldoAFavor()))));
+    }
+
+    /**
+     * Saldo neto: deuda menos saldo a favor (negativo si el cliente tiene crédito neto).
+     */
+    public BigDecimal getNeto() {
+        return deuda.subtract(saldoAFavor);
+    }
+}
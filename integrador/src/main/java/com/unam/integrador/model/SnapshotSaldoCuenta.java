@@ -0,0 +1,73 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posición acumulada de un cliente hasta un movimiento del libro de cuenta.
+ *
+ * Evita recorrer todo el historial: para conocer la posición a una fecha se
+ * parte del último snapshot anterior y se suman sólo los movimientos
+ * posteriores. Es un dato derivado; se puede regenerar desde el libro.
+ */
+@Getter
+@Entity
+@Table(name = "snapshot_saldo_cuenta",
+    indexes = {
+        @Index(name = "idx_snapshot_saldo_cliente_movimiento", columnList = "cliente_id, ultimo_movimiento_id"),
+        @Index(name = "idx_snapshot_saldo_cliente_fecha", columnList = "cliente_id, fecha")
+    })
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SnapshotSaldoCuenta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    /**
+     * Último movimiento incluido en el snapshot.
+     */
+    @Column(name = "ultimo_movimiento_id", nullable = false)
+    private Long ultimoMovimientoId;
+
+    /**
+     * Fecha del último movimiento incluido.
+     */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal deuda;
+
+    @Column(name = "saldo_a_favor", nullable = false, precision = 38, scale = 2)
+    private BigDecimal saldoAFavor;
+
+    public SnapshotSaldoCuenta(Long clienteId, Long ultimoMovimientoId, LocalDateTime fecha, SaldoCuenta saldo) {
+        this.clienteId = clienteId;
+        this.ultimoMovimientoId = ultimoMovimientoId;
+        this.fecha = fecha;
+        this.deuda = saldo.deuda();
+        this.saldoAFavor = saldo.saldoAFavor();
+    }
+
+    /**
+     * Posición registrada en el snapshot.
+     */
+    public SaldoCuenta getSaldo() {
+        return new SaldoCuenta(deuda, saldoAFavor);
+    }
+}
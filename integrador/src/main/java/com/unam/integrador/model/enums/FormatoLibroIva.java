@@ -0,0 +1,41 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que define los formatos de exportación del Libro IVA Ventas.
+ */
+public enum FormatoLibroIva {
+
+    /**
+     * Texto separado por ";" con importes con signo y punto decimal.
+     */
+    CSV("CSV", "csv", "text/csv"),
+
+    /**
+     * Texto de ancho fijo con importes en centavos, para sistemas de liquidación.
+     */
+    ANCHO_FIJO("Texto de ancho fijo", "txt", "text/plain");
+
+    private final String descripcion;
+
+    private final String extension;
+
+    private final String contentType;
+
+    FormatoLibroIva(String descripcion, String extension, String contentType) {
+        this.descripcion = descripcion;
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -25,9 +25,13 @@ public enum TipoAlicuotaIVA {
     private final BigDecimal porcentaje;
     private final String descripcion;
     
+    /** Alícuota en milésimas (210 para 21%), precalculada para el cálculo en punto fijo. */
+    private final int milesimas;
+    
     TipoAlicuotaIVA(BigDecimal porcentaje, String descripcion) {
         this.porcentaje = porcentaje;
         this.descripcion = descripcion;
+        this.milesimas = porcentaje.movePointRight(1).intValueExact();
     }
     
     /**
@@ -38,6 +42,14 @@ public enum TipoAlicuotaIVA {
         return porcentaje;
     }
     
+    /**
+     * Obtiene la alícuota expresada en milésimas (ej: 105 para 10.5%).
+     * @return Alícuota en milésimas
+     */
+    public int getMilesimas() {
+        return milesimas;
+    }
+    
     public String getDescripcion() {
         return descripcion;
     }
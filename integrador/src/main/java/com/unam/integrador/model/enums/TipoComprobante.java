@@ -0,0 +1,34 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que define las clases de comprobante de venta que se informan en el Libro IVA Ventas.
+ */
+public enum TipoComprobante {
+
+    FACTURA("Factura", "FAC"),
+
+    NOTA_CREDITO("Nota de crédito", "NCR");
+
+    /**
+     * Descripción legible del comprobante para mostrar en la interfaz de usuario.
+     */
+    private final String descripcion;
+
+    /**
+     * Código de tres letras usado en los archivos de ancho fijo.
+     */
+    private final String codigo;
+
+    TipoComprobante(String descripcion, String codigo) {
+        this.descripcion = descripcion;
+        this.codigo = codigo;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+}
@@ -0,0 +1,82 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que define los tipos de movimiento del libro de cuenta de un cliente.
+ *
+ * Cada tipo indica cómo afecta su importe (siempre positivo, salvo en los
+ * ajustes) a la deuda del cliente y a su saldo a favor.
+ */
+public enum TipoMovimientoCuenta {
+
+    /**
+     * Emisión de una factura: aumenta la deuda.
+     */
+    FACTURA_EMITIDA("Factura emitida", 1, 0),
+
+    /**
+     * Nota de crédito sobre una factura: disminuye la deuda.
+     */
+    NOTA_CREDITO("Nota de crédito", -1, 0),
+
+    /**
+     * Pago con dinero aplicado a facturas: disminuye la deuda.
+     */
+    PAGO_APLICADO("Pago aplicado", -1, 0),
+
+    /**
+     * Excedente de un pago que queda como saldo a favor.
+     */
+    SALDO_A_FAVOR_GENERADO("Saldo a favor generado", 0, 1),
+
+    /**
+     * Saldo a favor aplicado a facturas: disminuye la deuda y el saldo a favor.
+     */
+    SALDO_A_FAVOR_CONSUMIDO("Saldo a favor consumido", -1, -1),
+
+    /**
+     * Ajuste del saldo a favor generado al reconstruir el libro, para que
+     * coincida con el saldo de la cuenta. Su importe puede ser negativo.
+     */
+    AJUSTE_SALDO_A_FAVOR("Ajuste de saldo a favor", 0, 1);
+
+    /**
+     * Descripción legible del tipo para mostrar en la interfaz de usuario.
+     */
+    private final String descripcion;
+
+    /**
+     * Signo con el que el importe afecta a la deuda (1, -1 o 0).
+     */
+    private final int efectoDeuda;
+
+    /**
+     * Signo con el que el importe afecta al saldo a favor (1, -1 o 0).
+     */
+    private final int efectoSaldoAFavor;
+
+    TipoMovimientoCuenta(String descripcion, int efectoDeuda, int efectoSaldoAFavor) {
+        this.descripcion = descripcion;
+        this.efectoDeuda = efectoDeuda;
+        this.efectoSaldoAFavor = efectoSaldoAFavor;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public int getEfectoDeuda() {
+        return efectoDeuda;
+    }
+
+    public int getEfectoSaldoAFavor() {
+        return efectoSaldoAFavor;
+    }
+
+    /**
+     * Signo con el que el importe afecta al saldo neto (deuda menos saldo a favor).
+     * Es cero cuando el movimiento sólo cambia saldo a favor por deuda.
+     */
+    public int getEfectoNeto() {
+        return efectoDeuda - efectoSaldoAFavor;
+    }
+}
@@ -0,0 +1,49 @@
+package com.unam.integrador.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.ClaveIdempotencia;
+
+/**
+ * Repositorio para las claves de idempotencia de pagos.
+ */
+@Repository
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, Long> {
+
+    /**
+     * Busca una clave por su valor (columna única, indexada).
+     *
+     * @param clave Clave de idempotencia
+     * @return La clave registrada, si existe
+     */
+    Optional<ClaveIdempotencia> findByClave(String clave);
+
+    /**
+     * Elimina una clave si ya venció, para poder volver a registrarla aunque
+     * la purga periódica todavía no la haya borrado.
+     *
+     * @param clave Clave de idempotencia
+     * @param ahora Momento de referencia
+     * @return 1 si la clave existía y estaba vencida, 0 si no
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.clave = :clave AND c.fechaExpiracion <= :ahora")
+    int eliminarSiVencida(@Param("clave") String clave, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Elimina las claves vencidas.
+     *
+     * @param ahora Momento de referencia
+     * @return Cantidad de claves eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.fechaExpiracion <= :ahora")
+    int eliminarVencidas(@Param("ahora") LocalDateTime ahora);
+}
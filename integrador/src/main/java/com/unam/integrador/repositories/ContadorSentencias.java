@@ -0,0 +1,152 @@
+package com.unam.integrador.repositories;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual.
+ *
+ * Se registra como StatementInspector de Hibernate y sólo cuenta mientras
+ * haya un {@link Registro} abierto en el hilo (uno por solicitud HTTP, ver
+ * ContadorSentenciasFilter, o los que abra un test). Sin registros abiertos
+ * el costo es leer un ThreadLocal por sentencia.
+ *
+ * Las sentencias se agrupan por forma: el SQL con los literales reemplazados
+ * por ? y las listas de IN reducidas, de modo que las cargas perezosas de un
+ * N+1 (la misma consulta con distinto id) caen en la misma forma.
+ *
+ * No ve las sentencias ejecutadas con JdbcTemplate, que no pasan por Hibernate.
+ */
+@Component
+public class ContadorSentencias implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Registro> ACTUAL = new ThreadLocal<>();
+
+    private static final Pattern LITERAL_TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern LITERAL_NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA_IN = Pattern.compile("(?i)\\bin\\s*\\((?:\\s*\\?\\s*,)*\\s*\\?\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    /**
+     * Sentencias contadas desde que se abrió el registro. Los registros se
+     * pueden anidar: una sentencia cuenta en todos los abiertos del hilo.
+     */
+    public static final class Registro implements AutoCloseable {
+        private final Registro anterior;
+        private final Map<String, Integer> porForma = new HashMap<>();
+        private int total;
+        private boolean cerrado;
+
+        private Registro(Registro anterior) {
+            this.anterior = anterior;
+        }
+
+        /**
+         * @return Cantidad de sentencias contadas
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return Cantidad de sentencias por forma
+         */
+        public Map<String, Integer> getPorForma() {
+            return Collections.unmodifiableMap(porForma);
+        }
+
+        /**
+         * Formas que se repitieron más veces que el umbral, de la más a la
+         * menos repetida.
+         * @param umbral Repeticiones permitidas de una misma forma
+         * @return Forma y cantidad de veces que se ejecutó
+         */
+        public Map<String, Integer> getRepetidas(int umbral) {
+            Map<String, Integer> repetidas = new LinkedHashMap<>();
+            porForma.entrySet().stream()
+                .filter(e -> e.getValue() > umbral)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(e -> repetidas.put(e.getKey(), e.getValue()));
+            return repetidas;
+        }
+
+        /**
+         * Vuelve a cero los contadores (por ejemplo, tras preparar los datos de un test).
+         */
+        public void reiniciar() {
+            porForma.clear();
+            total = 0;
+        }
+
+        /**
+         * Deja de contar. Debe cerrarse en el mismo hilo y en orden inverso a la apertura.
+         */
+        @Override
+        public void close() {
+            if (cerrado) {
+                return;
+            }
+            if (ACTUAL.get() != this) {
+                throw new IllegalStateException("El registro de sentencias no es el último abierto en este hilo");
+            }
+            cerrado = true;
+            if (anterior == null) {
+                ACTUAL.remove();
+            } else {
+                ACTUAL.set(anterior);
+            }
+        }
+
+        private void contar(String forma) {
+            for (Registro r = this; r != null; r = r.anterior) {
+                r.total++;
+                r.porForma.merge(forma, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Empieza a contar las sentencias del hilo actual.
+     * @return Registro a cerrar al terminar (try-with-resources)
+     */
+    public static Registro iniciar() {
+        Registro registro = new Registro(ACTUAL.get());
+        ACTUAL.set(registro);
+        return registro;
+    }
+
+    /**
+     * Reduce una sentencia a su forma: sin literales, con las listas de IN
+     * como "in (...)" y los espacios normalizados.
+     * @param sql Sentencia SQL
+     * @return Forma de la sentencia
+     */
+    public static String forma(String sql) {
+        String forma = LITERAL_TEXTO.matcher(sql).replaceAll("?");
+        forma = LITERAL_NUMERO.matcher(forma).replaceAll("?");
+        forma = LISTA_IN.matcher(forma).replaceAll("in (...)");
+        return ESPACIOS.matcher(forma).replaceAll(" ").trim();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Registro registro = ACTUAL.get();
+        if (registro != null) {
+            registro.contar(forma(sql));
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
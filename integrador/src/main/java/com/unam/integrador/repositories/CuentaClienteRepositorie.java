@@ -1,12 +1,19 @@
 package com.unam.integrador.repositories;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.unam.integrador.dto.CantidadClientesPorEstado;
 import com.unam.integrador.model.CuentaCliente;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Repositorio para la gestión de cuentas de clientes.
  * Maneja las operaciones CRUD y consultas específicas.
@@ -44,4 +51,38 @@ public interface CuentaClienteRepositorie extends JpaRepository<CuentaCliente, L
      */
     java.util.List<CuentaCliente> findByNombreContainingIgnoreCaseOrCuitDniContainingOrEmailContainingIgnoreCase(
         String nombre, String cuitDni, String email);
+    
+    /**
+     * Busca un cliente por ID bloqueándolo para escritura (SELECT ... FOR UPDATE).
+     * Se usa al registrar pagos para serializar los cambios sobre el saldo a favor.
+     * @param id el ID del cliente
+     * @return Optional con el cliente bloqueado si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CuentaCliente c WHERE c.id = :id")
+    Optional<CuentaCliente> findByIdParaActualizar(@Param("id") Long id);
+    
+    /**
+     * Busca los clientes cuyos CUIT/DNI estén en el conjunto dado.
+     * Permite resolver en una sola consulta los clientes de un lote de líneas.
+     * @param cuitDnis conjunto de CUIT/DNI
+     * @return lista de clientes encontrados
+     */
+    java.util.List<CuentaCliente> findByCuitDniIn(Collection<String> cuitDnis);
+    
+    /**
+     * Busca los clientes con saldo a favor (saldo negativo) bloqueándolos para escritura,
+     * ordenados por ID. Se usa en la facturación masiva al aplicar el saldo a favor.
+     * @return lista de clientes con saldo a favor, bloqueados
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CuentaCliente c WHERE c.saldo < 0 ORDER BY c.id ASC")
+    java.util.List<CuentaCliente> findConSaldoAFavorParaActualizar();
+    
+    /**
+     * Cuenta los clientes agrupados por estado de cuenta.
+     * @return Una fila por estado con clientes
+     */
+    @Query("SELECT c.estado AS estado, COUNT(c) AS cantidad FROM CuentaCliente c GROUP BY c.estado")
+    java.util.List<CantidadClientesPorEstado> contarPorEstado();
 }
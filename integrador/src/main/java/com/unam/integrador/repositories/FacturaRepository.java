@@ -1,16 +1,36 @@
 package com.unam.integrador.repositories;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.unam.integrador.dto.AntiguedadDeudaCliente;
+import com.unam.integrador.dto.FacturaDeLote;
+import com.unam.integrador.dto.FilaExportacionFactura;
+import com.unam.integrador.dto.SaldoFacturaImpaga;
+import com.unam.integrador.dto.TotalEmitidoPorPeriodo;
 import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.EstadoFactura;
 import com.unam.integrador.model.enums.TipoFactura;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio para la gestión de facturas.
  * Proporciona operaciones CRUD y consultas personalizadas.
@@ -87,4 +107,239 @@ public interface FacturaRepository extends JpaRepository<Factura, Long> {
      * @return true si existe una factura no anulada para ese cliente y período
      */
     boolean existsByClienteIdAndPeriodoAndEstadoNot(Long clienteId, LocalDate periodo, EstadoFactura estado);
+    
+    /**
+     * Obtiene los IDs de los clientes dueños de un conjunto de facturas.
+     * Permite bloquear primero al cliente sin cargar las facturas.
+     * @param ids IDs de las facturas
+     * @return IDs distintos de los clientes
+     */
+    @Query("SELECT DISTINCT f.cliente.id FROM Factura f WHERE f.idFactura IN :ids")
+    List<Long> findClienteIdsByIdFacturaIn(@Param("ids") List<Long> ids);
+    
+    /**
+     * Busca facturas por ID bloqueándolas para escritura (SELECT ... FOR UPDATE).
+     * Se ordenan de la más antigua a la más reciente (fecha de emisión y luego
+     * ID), que es el orden en que se imputan los pagos. Al ser un orden total
+     * sobre datos que no cambian, todas las transacciones toman los bloqueos
+     * en el mismo orden y no se producen deadlocks.
+     * @param ids IDs de las facturas
+     * @return Facturas bloqueadas ordenadas por fecha de emisión e ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Factura f WHERE f.idFactura IN :ids ORDER BY f.fechaEmision ASC, f.idFactura ASC")
+    List<Factura> findAllByIdParaActualizar(@Param("ids") List<Long> ids);
+    
+    /**
+     * Obtiene el saldo de las facturas impagas de varios clientes en una sola consulta.
+     * Misma semántica que {@link #findByClienteIdAndEstadoInOrderByFechaEmisionAsc},
+     * pero devuelve sólo los datos necesarios para imputar pagos, sin cargar entidades.
+     * @param clienteIds IDs de los clientes
+     * @param estados Lista de estados considerados como "impagas"
+     * @return Saldos ordenados por cliente y fecha de emisión
+     */
+    @Query("SELECT f.idFactura AS idFactura, f.cliente.id AS clienteId, f.saldoPendiente AS saldoPendiente " +
+           "FROM Factura f WHERE f.cliente.id IN :clienteIds AND f.estado IN :estados " +
+           "ORDER BY f.cliente.id ASC, f.fechaEmision ASC, f.idFactura ASC")
+    List<SaldoFacturaImpaga> findSaldosImpagosPorClientes(
+        @Param("clienteIds") Collection<Long> clienteIds, @Param("estados") List<EstadoFactura> estados);
+    
+    /**
+     * Agrupa por cliente el saldo pendiente de las facturas impagas según los
+     * días transcurridos desde su vencimiento. Los límites de cada tramo se
+     * reciben como fechas ya calculadas (fecha del reporte menos 30, 60 y 90 días);
+     * las facturas sin vencimiento cuentan en el primer tramo.
+     * @param estados Lista de estados considerados como "impagas"
+     * @param limite30 Vencimientos desde esta fecha caen en el tramo 0-30
+     * @param limite60 Vencimientos desde esta fecha (y anteriores a limite30) caen en 31-60
+     * @param limite90 Vencimientos desde esta fecha (y anteriores a limite60) caen en 61-90; los anteriores, en 90+
+     * @param tipo Tipo de factura (null = todos)
+     * @param estadoCuenta Estado de cuenta del cliente (null = todos)
+     * @return Una fila por cliente con deuda, ordenadas por nombre
+     */
+    @Query("SELECT new com.unam.integrador.dto.AntiguedadDeudaCliente(c.id, c.nombre, c.cuitDni, " +
+           "SUM(CASE WHEN f.fechaVencimiento IS NULL OR f.fechaVencimiento >= :limite30 THEN f.saldoPendiente END), " +
+           "SUM(CASE WHEN f.fechaVencimiento < :limite30 AND f.fechaVencimiento >= :limite60 THEN f.saldoPendiente END), " +
+           "SUM(CASE WHEN f.fechaVencimiento < :limite60 AND f.fechaVencimiento >= :limite90 THEN f.saldoPendiente END), " +
+           "SUM(CASE WHEN f.fechaVencimiento < :limite90 THEN f.saldoPendiente END)) " +
+           "FROM Factura f JOIN f.cliente c " +
+           "WHERE f.estado IN :estados AND f.saldoPendiente > 0 " +
+           "AND (:tipo IS NULL OR f.tipo = :tipo) " +
+           "AND (:estadoCuenta IS NULL OR c.estado = :estadoCuenta) " +
+           "GROUP BY c.id, c.nombre, c.cuitDni " +
+           "ORDER BY c.nombre ASC, c.id ASC")
+    List<AntiguedadDeudaCliente> sumarDeudaPorAntiguedad(
+        @Param("estados") List<EstadoFactura> estados,
+        @Param("limite30") LocalDate limite30,
+        @Param("limite60") LocalDate limite60,
+        @Param("limite90") LocalDate limite90,
+        @Param("tipo") TipoFactura tipo,
+        @Param("estadoCuenta") EstadoCuenta estadoCuenta);
+    
+    /**
+     * Estado de la factura considerando el vencimiento a la fecha {@code :hoy},
+     * con el mismo criterio que {@code Factura.actualizarSiEstaVencida()}.
+     */
+    String ESTADO_CON_VENCIMIENTO =
+        "CASE WHEN f.estado IN (com.unam.integrador.model.enums.EstadoFactura.PENDIENTE, " +
+        "com.unam.integrador.model.enums.EstadoFactura.PAGADA_PARCIALMENTE) " +
+        "AND f.fechaVencimiento < :hoy AND f.saldoPendiente > 0 " +
+        "THEN com.unam.integrador.model.enums.EstadoFactura.VENCIDA ELSE f.estado END";
+    
+    /**
+     * Recorre en streaming las facturas que cumplen los filtros del listado,
+     * como proyección (sin entidades) y leyendo de a bloques del cursor.
+     * El estado se informa ya considerando el vencimiento, sin modificar las
+     * facturas, para que la exportación sea solo de lectura.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     * @param estado Estado de la factura, considerando el vencimiento (null = todos)
+     * @param tipo Tipo de factura (null = todos)
+     * @param periodo Período de facturación, primer día del mes (null = todos)
+     * @param hoy Fecha contra la que se evalúa el vencimiento
+     * @return Stream de filas ordenadas por ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.serie AS serie, f.nroFactura AS nroFactura, f.tipo AS tipo, c.nombre AS cliente, " +
+           "c.cuitDni AS cuitDni, f.periodo AS periodo, f.fechaEmision AS fechaEmision, " +
+           "f.fechaVencimiento AS fechaVencimiento, f.total AS total, f.saldoPendiente AS saldoPendiente, " +
+           ESTADO_CON_VENCIMIENTO + " AS estado " +
+           "FROM Factura f JOIN f.cliente c " +
+           "WHERE (:estado IS NULL OR " + ESTADO_CON_VENCIMIENTO + " = :estado) " +
+           "AND (:tipo IS NULL OR f.tipo = :tipo) " +
+           "AND (:periodo IS NULL OR f.periodo = :periodo) " +
+           "ORDER BY f.idFactura ASC")
+    Stream<FilaExportacionFactura> streamParaExportacion(
+        @Param("estado") EstadoFactura estado,
+        @Param("tipo") TipoFactura tipo,
+        @Param("periodo") LocalDate periodo,
+        @Param("hoy") LocalDate hoy);
+    
+    /**
+     * Obtiene una página de las facturas de un lote, como proyección, con filtros opcionales.
+     * El orden lo indica el Pageable (propiedades de Factura: nroFactura, total, etc.).
+     * @param loteId ID del lote
+     * @param estado Estado de la factura (null = todos)
+     * @param tipo Tipo de factura (null = todos)
+     * @param pageable Página, tamaño y orden
+     * @return Página de facturas del lote
+     */
+    @Query(value = "SELECT f.idFactura AS idFactura, f.serie AS serie, f.nroFactura AS nroFactura, " +
+                   "f.tipo AS tipo, c.nombre AS cliente, f.total AS total, " +
+                   "f.saldoPendiente AS saldoPendiente, f.estado AS estado " +
+                   "FROM Factura f JOIN f.cliente c " +
+                   "WHERE f.loteFacturacion.id = :loteId " +
+                   "AND (:estado IS NULL OR f.estado = :estado) " +
+                   "AND (:tipo IS NULL OR f.tipo = :tipo)",
+           countQuery = "SELECT COUNT(f) FROM Factura f " +
+                        "WHERE f.loteFacturacion.id = :loteId " +
+                        "AND (:estado IS NULL OR f.estado = :estado) " +
+                        "AND (:tipo IS NULL OR f.tipo = :tipo)")
+    Page<FacturaDeLote> buscarPorLote(
+        @Param("loteId") Long loteId,
+        @Param("estado") EstadoFactura estado,
+        @Param("tipo") TipoFactura tipo,
+        Pageable pageable);
+    
+    /**
+     * Obtiene los IDs de las facturas de un lote de facturación masiva, en orden.
+     * @param loteId ID del lote
+     * @return IDs ordenados ascendentemente
+     */
+    @Query("SELECT f.idFactura FROM Factura f WHERE f.loteFacturacion.id = :loteId ORDER BY f.idFactura ASC")
+    List<Long> findIdsByLoteFacturacionId(@Param("loteId") Long loteId);
+    
+    /**
+     * Busca facturas por ID junto con su cliente y sus ítems, en una sola consulta.
+     * Las entidades quedan completas para usarlas fuera de la sesión (ej: al renderizar PDFs).
+     * @param ids IDs de las facturas
+     * @return Facturas ordenadas por ID
+     */
+    @Query("SELECT DISTINCT f FROM Factura f JOIN FETCH f.cliente LEFT JOIN FETCH f.detalleFactura " +
+           "WHERE f.idFactura IN :ids ORDER BY f.idFactura ASC")
+    List<Factura> findConClienteEItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Obtiene todas las facturas junto con su cliente, en una sola consulta
+     * (el listado muestra el nombre del cliente de cada una).
+     * @return Todas las facturas
+     */
+    @Query("SELECT f FROM Factura f JOIN FETCH f.cliente")
+    List<Factura> findAllConCliente();
+    
+    /**
+     * Suma el saldo pendiente de las facturas en los estados indicados.
+     * @param estados Lista de estados considerados como "impagas"
+     * @return Suma de saldos (cero si no hay facturas)
+     */
+    @Query("SELECT COALESCE(SUM(f.saldoPendiente), 0) FROM Factura f WHERE f.estado IN :estados")
+    BigDecimal sumarSaldoPendientePorEstados(@Param("estados") List<EstadoFactura> estados);
+    
+    /**
+     * Cuenta las facturas en un estado.
+     * Query Method: Spring genera automáticamente la consulta.
+     * @param estado Estado de la factura
+     * @return Cantidad de facturas
+     */
+    long countByEstado(EstadoFactura estado);
+    
+    /**
+     * IDs de los lotes con facturas en un estado que ya vencieron y tienen saldo.
+     * @param estado Estado actual de las facturas
+     * @param hoy Fecha contra la que se evalúa el vencimiento
+     * @return IDs distintos de los lotes
+     */
+    @Query("SELECT DISTINCT f.loteFacturacion.id FROM Factura f WHERE f.estado = :estado " +
+           "AND f.fechaVencimiento < :hoy AND f.saldoPendiente > 0 AND f.loteFacturacion IS NOT NULL")
+    List<Long> findLotesConFacturasVencidas(@Param("estado") EstadoFactura estado, @Param("hoy") LocalDate hoy);
+    
+    /**
+     * Pasa a VENCIDA, con una sola sentencia, las facturas en un estado que ya
+     * vencieron y tienen saldo. Incrementa la versión, igual que una
+     * actualización por entidad.
+     * @param estado Estado actual de las facturas
+     * @param hoy Fecha contra la que se evalúa el vencimiento
+     * @return Cantidad de facturas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Factura f SET f.estado = com.unam.integrador.model.enums.EstadoFactura.VENCIDA, " +
+           "f.version = f.version + 1 " +
+           "WHERE f.estado = :estado AND f.fechaVencimiento < :hoy AND f.saldoPendiente > 0")
+    int marcarVencidas(@Param("estado") EstadoFactura estado, @Param("hoy") LocalDate hoy);
+    
+    /**
+     * Igual que {@link #marcarVencidas}, limitado a las facturas de un lote.
+     * @param estado Estado actual de las facturas
+     * @param loteId ID del lote
+     * @param hoy Fecha contra la que se evalúa el vencimiento
+     * @return Cantidad de facturas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Factura f SET f.estado = com.unam.integrador.model.enums.EstadoFactura.VENCIDA, " +
+           "f.version = f.version + 1 " +
+           "WHERE f.estado = :estado AND f.fechaVencimiento < :hoy AND f.saldoPendiente > 0 " +
+           "AND f.loteFacturacion.id = :loteId")
+    int marcarVencidasDeLote(@Param("estado") EstadoFactura estado, @Param("loteId") Long loteId,
+                             @Param("hoy") LocalDate hoy);
+    
+    /**
+     * Igual que {@link #marcarVencidas}, limitado a las facturas que no pertenecen a un lote.
+     * @param estado Estado actual de las facturas
+     * @param hoy Fecha contra la que se evalúa el vencimiento
+     * @return Cantidad de facturas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Factura f SET f.estado = com.unam.integrador.model.enums.EstadoFactura.VENCIDA, " +
+           "f.version = f.version + 1 " +
+           "WHERE f.estado = :estado AND f.fechaVencimiento < :hoy AND f.saldoPendiente > 0 " +
+           "AND f.loteFacturacion IS NULL")
+    int marcarVencidasSinLote(@Param("estado") EstadoFactura estado, @Param("hoy") LocalDate hoy);
+    
+    /**
+     * Cuenta y suma las facturas de cada período, excluyendo las de un estado (ej: anuladas).
+     * @param estado Estado excluido
+     * @return Una fila por período con facturas
+     */
+    @Query("SELECT f.periodo AS periodo, COUNT(f) AS cantidad, SUM(f.total) AS importe " +
+           "FROM Factura f WHERE f.estado <> :estado GROUP BY f.periodo")
+    List<TotalEmitidoPorPeriodo> sumarPorPeriodoExcluyendoEstado(@Param("estado") EstadoFactura estado);
 }
@@ -0,0 +1,222 @@
+package com.unam.integrador.repositories;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.AjusteContadoresLote;
+import com.unam.integrador.model.DistribucionPago;
+import com.unam.integrador.model.DistribucionPago.Imputacion;
+import com.unam.integrador.model.Pago;
+import com.unam.integrador.model.enums.MetodoPago;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Repositorio JDBC que persiste en bloque la distribución de un pago.
+ *
+ * En lugar de guardar cada DetallePago y cada Factura por separado, inserta
+ * todos los detalles con un batch y actualiza saldo, estado y versión de las
+ * facturas con una única sentencia UPDATE por bloque de facturas.
+ *
+ * También ajusta los contadores por estado de los lotes de esas facturas.
+ *
+ * Debe ejecutarse dentro de la transacción del pago, con las facturas ya
+ * bloqueadas. Como las filas se modifican por fuera de JPA, las facturas y
+ * pagos involucrados se desvinculan del contexto de persistencia para que
+ * las lecturas posteriores vean los valores actualizados.
+ */
+@Repository
+public class ImputacionPagoRepository {
+
+    /**
+     * Cantidad máxima de filas por sentencia (batch de inserts o UPDATE con CASE).
+     */
+    static final int TAMANIO_BLOQUE = 500;
+
+    private static final String INSERT_PAGO =
+        "INSERT INTO pago (fecha_pago, monto, metodo_pago, referencia, numero_recibo) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_DETALLE =
+        "INSERT INTO detalle_pago (pago_id, factura_id, monto_aplicado, fecha_aplicacion) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoteFacturacionRepository loteFacturacionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Persiste la distribución de un pago.
+     *
+     * @param distribucion Distribución calculada
+     * @param pagoSaldoAFavor Pago con el que se registra la parte de saldo a favor (puede ser null si no hay)
+     * @param pagoMetodoPago Pago con el que se registra la parte del método de pago (puede ser null si no hay)
+     */
+    public void registrar(DistribucionPago distribucion, Pago pagoSaldoAFavor, Pago pagoMetodoPago) {
+        List<Imputacion> imputaciones = distribucion.getImputaciones();
+        if (imputaciones.isEmpty()) {
+            return;
+        }
+
+        // Los pagos (y cualquier cambio pendiente) deben estar en la base antes de insertar detalles
+        entityManager.flush();
+
+        insertarDetalles(imputaciones, pagoSaldoAFavor, pagoMetodoPago);
+        for (int desde = 0; desde < imputaciones.size(); desde += TAMANIO_BLOQUE) {
+            actualizarFacturas(imputaciones.subList(desde, Math.min(desde + TAMANIO_BLOQUE, imputaciones.size())));
+        }
+        AjusteContadoresLote ajusteLotes = new AjusteContadoresLote();
+        for (Imputacion imputacion : imputaciones) {
+            ajusteLotes.registrar(imputacion.factura(), imputacion.factura().getEstado(), imputacion.estado());
+        }
+        loteFacturacionRepository.ajustarContadores(ajusteLotes);
+
+        // Las entidades en memoria quedaron desactualizadas
+        for (Imputacion imputacion : imputaciones) {
+            entityManager.detach(imputacion.factura());
+        }
+        if (pagoSaldoAFavor != null) {
+            entityManager.detach(pagoSaldoAFavor);
+        }
+        if (pagoMetodoPago != null) {
+            entityManager.detach(pagoMetodoPago);
+        }
+    }
+
+    /**
+     * Pago de una sola factura a registrar en bloque (un recibo por pago).
+     *
+     * @param numeroRecibo Número de recibo, tomado de {@link NumeroReciboRepository}
+     * @param idFactura Factura a la que se aplica
+     * @param monto Monto del pago, aplicado completo a la factura
+     * @param metodoPago Método de pago
+     */
+    public record PagoEnBloque(String numeroRecibo, Long idFactura, BigDecimal monto, MetodoPago metodoPago) {
+    }
+
+    /**
+     * Inserta en bloque pagos de una sola factura cada uno, con su detalle.
+     * Las facturas (saldo y estado) se actualizan aparte por quien llama.
+     * Los detalles se vinculan con el ID generado de cada pago.
+     *
+     * @param pagos Pagos a insertar
+     */
+    public void insertarPagos(List<PagoEnBloque> pagos) {
+        if (pagos.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Date fechaPago = Date.valueOf(ahora.toLocalDate());
+        Timestamp fechaAplicacion = Timestamp.valueOf(ahora);
+        for (int desde = 0; desde < pagos.size(); desde += TAMANIO_BLOQUE) {
+            List<PagoEnBloque> bloque = pagos.subList(desde, Math.min(desde + TAMANIO_BLOQUE, pagos.size()));
+            KeyHolder idsPagos = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_PAGO, new String[] { "id_pago" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PagoEnBloque pago = bloque.get(i);
+                        ps.setDate(1, fechaPago);
+                        ps.setBigDecimal(2, pago.monto());
+                        ps.setString(3, pago.metodoPago().name());
+                        ps.setString(4, null);
+                        ps.setString(5, pago.numeroRecibo());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bloque.size();
+                    }
+                },
+                idsPagos);
+
+            List<Map<String, Object>> claves = idsPagos.getKeyList();
+            if (claves.size() != bloque.size()) {
+                throw new IllegalStateException("No se obtuvieron los IDs de todos los pagos insertados");
+            }
+            List<Object[]> detalles = new ArrayList<>(bloque.size());
+            for (int i = 0; i < bloque.size(); i++) {
+                PagoEnBloque pago = bloque.get(i);
+                Number idPago = (Number) claves.get(i).values().iterator().next();
+                detalles.add(new Object[] { idPago.longValue(), pago.idFactura(), pago.monto(), fechaAplicacion });
+            }
+            jdbcTemplate.batchUpdate(INSERT_DETALLE, detalles);
+        }
+    }
+
+    private void insertarDetalles(List<Imputacion> imputaciones, Pago pagoSaldoAFavor, Pago pagoMetodoPago) {
+        Timestamp fechaAplicacion = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> filas = new ArrayList<>(imputaciones.size() * 2);
+        for (Imputacion imputacion : imputaciones) {
+            Long idFactura = imputacion.factura().getIdFactura();
+            if (imputacion.montoSaldoAFavor().compareTo(BigDecimal.ZERO) > 0) {
+                filas.add(new Object[] {
+                    pagoSaldoAFavor.getIdPago(), idFactura, imputacion.montoSaldoAFavor(), fechaAplicacion });
+            }
+            if (imputacion.montoMetodoPago().compareTo(BigDecimal.ZERO) > 0) {
+                filas.add(new Object[] {
+                    pagoMetodoPago.getIdPago(), idFactura, imputacion.montoMetodoPago(), fechaAplicacion });
+            }
+        }
+        for (int desde = 0; desde < filas.size(); desde += TAMANIO_BLOQUE) {
+            jdbcTemplate.batchUpdate(INSERT_DETALLE, filas.subList(desde, Math.min(desde + TAMANIO_BLOQUE, filas.size())));
+        }
+    }
+
+    /**
+     * Actualiza saldo, estado y versión de un bloque de facturas con una sola sentencia.
+     */
+    private void actualizarFacturas(List<Imputacion> bloque) {
+        StringBuilder saldos = new StringBuilder("CASE id_factura");
+        StringBuilder estados = new StringBuilder("CASE id_factura");
+        StringBuilder ids = new StringBuilder();
+        List<Object> parametrosSaldo = new ArrayList<>(bloque.size() * 2);
+        List<Object> parametrosEstado = new ArrayList<>(bloque.size() * 2);
+        List<Object> parametrosIds = new ArrayList<>(bloque.size());
+
+        for (Imputacion imputacion : bloque) {
+            Long idFactura = imputacion.factura().getIdFactura();
+            saldos.append(" WHEN ? THEN CAST(? AS NUMERIC(38, 2))");
+            parametrosSaldo.add(idFactura);
+            parametrosSaldo.add(imputacion.saldoPendiente());
+            estados.append(" WHEN ? THEN CAST(? AS VARCHAR(255))");
+            parametrosEstado.add(idFactura);
+            parametrosEstado.add(imputacion.estado().name());
+            ids.append(ids.isEmpty() ? "?" : ", ?");
+            parametrosIds.add(idFactura);
+        }
+        saldos.append(" END");
+        estados.append(" END");
+
+        String sql = "UPDATE factura SET saldo_pendiente = " + saldos
+            + ", estado = " + estados
+            + ", version = version + 1 WHERE id_factura IN (" + ids + ")";
+
+        List<Object> parametros = new ArrayList<>(parametrosSaldo.size() + parametrosEstado.size() + parametrosIds.size());
+        parametros.addAll(parametrosSaldo);
+        parametros.addAll(parametrosEstado);
+        parametros.addAll(parametrosIds);
+        jdbcTemplate.update(sql, parametros.toArray());
+    }
+}
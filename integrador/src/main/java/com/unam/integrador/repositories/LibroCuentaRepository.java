@@ -0,0 +1,309 @@
+package com.unam.integrador.repositories;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.dto.LineaEstadoCuenta;
+import com.unam.integrador.model.MovimientoCuenta;
+import com.unam.integrador.model.enums.TipoMovimientoCuenta;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Repositorio JDBC del libro de cuenta de los clientes.
+ *
+ * Inserta los movimientos en bloque, arma el estado de cuenta, consolida
+ * snapshots y reconstruye el libro desde facturas, notas de crédito y pagos
+ * con sentencias INSERT ... SELECT, sin cargar entidades en memoria. El
+ * efecto de cada tipo de movimiento en SQL se arma a partir de
+ * {@link TipoMovimientoCuenta}.
+ */
+@Repository
+public class LibroCuentaRepository {
+
+    /**
+     * Cantidad máxima de movimientos por batch de inserts.
+     */
+    static final int TAMANIO_BLOQUE = 500;
+
+    private static final String INSERT_MOVIMIENTO =
+        "INSERT INTO movimiento_cuenta (cliente_id, fecha, tipo, importe, referencia) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String DEUDA = expresionEfecto("m", TipoMovimientoCuenta::getEfectoDeuda);
+
+    private static final String SALDO_A_FAVOR = expresionEfecto("m", TipoMovimientoCuenta::getEfectoSaldoAFavor);
+
+    private static final String NETO = expresionEfecto("m", TipoMovimientoCuenta::getEfectoNeto);
+
+    /**
+     * Una página del estado de cuenta. El saldo acumulado lo calcula la base
+     * con una función de ventana sobre los movimientos del cliente.
+     */
+    private static final String ESTADO_CUENTA =
+        "SELECT id, fecha, tipo, referencia, importe, saldo FROM (" +
+        "SELECT m.id, m.fecha, m.tipo, m.referencia, m.importe, " +
+        "SUM(" + NETO + ") OVER (ORDER BY m.fecha, m.id ROWS UNBOUNDED PRECEDING) AS saldo " +
+        "FROM movimiento_cuenta m WHERE m.cliente_id = ?) e " +
+        "ORDER BY fecha, id LIMIT ? OFFSET ?";
+
+    /**
+     * Un snapshot nuevo por cliente que acumula sus movimientos posteriores al
+     * último snapshot, si son al menos la cantidad indicada. El filtro (%s)
+     * acota los movimientos que se consolidan.
+     */
+    private static final String CONSOLIDAR_SNAPSHOTS =
+        "INSERT INTO snapshot_saldo_cuenta (cliente_id, ultimo_movimiento_id, fecha, deuda, saldo_a_favor) " +
+        "SELECT m.cliente_id, MAX(m.id), MAX(m.fecha), " +
+        "COALESCE(s.deuda, 0) + SUM(" + DEUDA + "), COALESCE(s.saldo_a_favor, 0) + SUM(" + SALDO_A_FAVOR + ") " +
+        "FROM movimiento_cuenta m " +
+        "LEFT JOIN snapshot_saldo_cuenta s ON s.cliente_id = m.cliente_id AND s.ultimo_movimiento_id = " +
+        "(SELECT MAX(s2.ultimo_movimiento_id) FROM snapshot_saldo_cuenta s2 WHERE s2.cliente_id = m.cliente_id) " +
+        "WHERE m.id > COALESCE(s.ultimo_movimiento_id, 0) AND %s " +
+        "GROUP BY m.cliente_id, s.deuda, s.saldo_a_favor " +
+        "HAVING COUNT(*) >= ?";
+
+    /**
+     * Último movimiento visible y límites de la instantánea de transacciones
+     * (PostgreSQL 13 o posterior).
+     */
+    private static final String MARCAR_MOVIMIENTOS =
+        "SELECT COALESCE(MAX(id), 0), " +
+        "CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT), " +
+        "CAST(CAST(pg_snapshot_xmax(pg_current_snapshot()) AS TEXT) AS BIGINT) " +
+        "FROM movimiento_cuenta";
+
+    private static final String RECONSTRUIR_MOVIMIENTOS =
+        "INSERT INTO movimiento_cuenta (cliente_id, fecha, tipo, importe, referencia) " +
+        "SELECT cliente_id, fecha, tipo, importe, referencia FROM (" +
+        // Facturas emitidas
+        "SELECT f.cliente_id AS cliente_id, CAST(f.fecha_emision AS TIMESTAMP) AS fecha, 1 AS orden, " +
+        "f.id_factura AS origen, 'FACTURA_EMITIDA' AS tipo, f.total AS importe, " +
+        "CONCAT('Factura ', LPAD(CAST(f.serie AS VARCHAR(10)), 4, '0'), '-', " +
+        "LPAD(CAST(f.nro_factura AS VARCHAR(10)), 8, '0')) AS referencia " +
+        "FROM factura f WHERE f.total > 0 " +
+        "UNION ALL " +
+        // Notas de crédito
+        "SELECT f.cliente_id, CAST(nc.fecha_emision AS TIMESTAMP), 2, nc.id, 'NOTA_CREDITO', nc.monto, " +
+        "CONCAT('Nota de crédito ', LPAD(CAST(nc.serie AS VARCHAR(10)), 4, '0'), '-', " +
+        "LPAD(CAST(nc.nro_nota_credito AS VARCHAR(10)), 8, '0')) " +
+        "FROM nota_credito nc JOIN factura f ON f.id_factura = nc.factura_id WHERE nc.monto > 0 " +
+        "UNION ALL " +
+        // Lo aplicado de cada pago: con dinero o con saldo a favor
+        "SELECT f.cliente_id, MIN(d.fecha_aplicacion), 3, p.id_pago, " +
+        "CASE WHEN p.metodo_pago = 'SALDO_A_FAVOR' THEN 'SALDO_A_FAVOR_CONSUMIDO' ELSE 'PAGO_APLICADO' END, " +
+        "SUM(d.monto_aplicado), CONCAT('Recibo ', p.numero_recibo) " +
+        "FROM detalle_pago d JOIN pago p ON p.id_pago = d.pago_id JOIN factura f ON f.id_factura = d.factura_id " +
+        "GROUP BY f.cliente_id, p.id_pago, p.metodo_pago, p.numero_recibo " +
+        "HAVING SUM(d.monto_aplicado) > 0 " +
+        "UNION ALL " +
+        // Excedente de los pagos con dinero, que quedó como saldo a favor
+        "SELECT f.cliente_id, MIN(d.fecha_aplicacion), 4, p.id_pago, 'SALDO_A_FAVOR_GENERADO', " +
+        "p.monto - SUM(d.monto_aplicado), CONCAT('Recibo ', p.numero_recibo) " +
+        "FROM detalle_pago d JOIN pago p ON p.id_pago = d.pago_id JOIN factura f ON f.id_factura = d.factura_id " +
+        "WHERE p.metodo_pago <> 'SALDO_A_FAVOR' " +
+        "GROUP BY f.cliente_id, p.id_pago, p.monto, p.numero_recibo " +
+        "HAVING p.monto > SUM(d.monto_aplicado)" +
+        ") h ORDER BY fecha, orden, origen";
+
+    /**
+     * Ajusta el saldo a favor de cada cliente para que coincida con el de su
+     * cuenta (cubre créditos que no se pueden reconstruir desde los pagos).
+     */
+    private static final String AJUSTAR_SALDOS_A_FAVOR =
+        "INSERT INTO movimiento_cuenta (cliente_id, fecha, tipo, importe, referencia) " +
+        "SELECT c.id, ?, 'AJUSTE_SALDO_A_FAVOR', " +
+        "CASE WHEN c.saldo < 0 THEN -c.saldo ELSE 0 END - COALESCE(SUM(" + SALDO_A_FAVOR + "), 0), " +
+        "'Ajuste por reconstrucción del libro' " +
+        "FROM cuenta_cliente c LEFT JOIN movimiento_cuenta m ON m.cliente_id = c.id " +
+        "GROUP BY c.id, c.saldo " +
+        "HAVING CASE WHEN c.saldo < 0 THEN -c.saldo ELSE 0 END <> COALESCE(SUM(" + SALDO_A_FAVOR + "), 0)";
+
+    /**
+     * Un snapshot cada tantos movimientos de cada cliente, con acumulados por ventana.
+     */
+    private static final String RECONSTRUIR_SNAPSHOTS =
+        "INSERT INTO snapshot_saldo_cuenta (cliente_id, ultimo_movimiento_id, fecha, deuda, saldo_a_favor) " +
+        "SELECT cliente_id, id, fecha, deuda, saldo_a_favor FROM (" +
+        "SELECT m.cliente_id, m.id, m.fecha, " +
+        "ROW_NUMBER() OVER (PARTITION BY m.cliente_id ORDER BY m.id) AS numero, " +
+        "SUM(" + DEUDA + ") OVER (PARTITION BY m.cliente_id ORDER BY m.id ROWS UNBOUNDED PRECEDING) AS deuda, " +
+        "SUM(" + SALDO_A_FAVOR + ") OVER (PARTITION BY m.cliente_id ORDER BY m.id ROWS UNBOUNDED PRECEDING) " +
+        "AS saldo_a_favor " +
+        "FROM movimiento_cuenta m) a " +
+        "WHERE MOD(numero, ?) = 0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private boolean postgresql;
+
+    /**
+     * Marca tomada al consolidar: el último movimiento visible y la
+     * instantánea de transacciones de ese momento.
+     *
+     * @param ultimoMovimientoId Mayor ID de movimiento confirmado
+     * @param xmin Transacción abierta más antigua
+     * @param xmax Primera transacción todavía no iniciada
+     */
+    public record MarcaMovimientos(long ultimoMovimientoId, long xmin, long xmax) {
+
+        /**
+         * @param anterior Marca tomada antes
+         * @return true si terminaron todas las transacciones que estaban abiertas al tomar la anterior
+         */
+        public boolean posteriorATransaccionesDe(MarcaMovimientos anterior) {
+            return xmin >= anterior.xmax();
+        }
+    }
+
+    @PostConstruct
+    void detectarBase() {
+        postgresql = "PostgreSQL".equals(jdbcTemplate.execute(
+            (ConnectionCallback<String>) conexion -> conexion.getMetaData().getDatabaseProductName()));
+    }
+
+    /**
+     * Inserta movimientos en bloque.
+     *
+     * @param movimientos Movimientos a insertar
+     */
+    public void insertar(List<MovimientoCuenta> movimientos) {
+        for (int desde = 0; desde < movimientos.size(); desde += TAMANIO_BLOQUE) {
+            List<MovimientoCuenta> bloque = movimientos.subList(desde, Math.min(desde + TAMANIO_BLOQUE, movimientos.size()));
+            jdbcTemplate.batchUpdate(INSERT_MOVIMIENTO, bloque.stream()
+                .map(m -> new Object[] {
+                    m.getCliente().getId(), Timestamp.valueOf(m.getFecha()), m.getTipo().name(),
+                    m.getImporte(), m.getReferencia() })
+                .toList());
+        }
+    }
+
+    /**
+     * Obtiene una página del estado de cuenta de un cliente, en orden cronológico.
+     *
+     * @param clienteId ID del cliente
+     * @param desde Cantidad de líneas a saltear
+     * @param cantidad Cantidad máxima de líneas
+     * @return Líneas con su saldo acumulado
+     */
+    public List<LineaEstadoCuenta> buscarEstadoCuenta(Long clienteId, long desde, int cantidad) {
+        return jdbcTemplate.query(ESTADO_CUENTA, (rs, fila) -> {
+            TipoMovimientoCuenta tipo = TipoMovimientoCuenta.valueOf(rs.getString("tipo"));
+            BigDecimal importe = rs.getBigDecimal("importe");
+            BigDecimal efecto = importe.multiply(BigDecimal.valueOf(tipo.getEfectoNeto()));
+            return new LineaEstadoCuenta(
+                rs.getTimestamp("fecha").toLocalDateTime(),
+                tipo,
+                rs.getString("referencia"),
+                efecto.max(BigDecimal.ZERO),
+                efecto.negate().max(BigDecimal.ZERO),
+                importe,
+                rs.getBigDecimal("saldo"));
+        }, clienteId, cantidad, desde);
+    }
+
+    /**
+     * Cuenta los movimientos de un cliente.
+     *
+     * @param clienteId ID del cliente
+     * @return Cantidad de movimientos
+     */
+    public long contarMovimientos(Long clienteId) {
+        Long cantidad = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM movimiento_cuenta WHERE cliente_id = ?", Long.class, clienteId);
+        return cantidad != null ? cantidad : 0;
+    }
+
+    /**
+     * Indica si la base informa las transacciones abiertas (PostgreSQL), con
+     * lo que se puede usar {@link #marcarMovimientos()}.
+     *
+     * @return true si la base es PostgreSQL
+     */
+    public boolean informaTransacciones() {
+        return postgresql;
+    }
+
+    /**
+     * Toma una marca con el último movimiento visible y las transacciones
+     * abiertas. Debe ejecutarse antes de escribir en la transacción actual.
+     *
+     * @return Marca actual
+     * @see #informaTransacciones()
+     */
+    public MarcaMovimientos marcarMovimientos() {
+        return jdbcTemplate.queryForObject(MARCAR_MOVIMIENTOS,
+            (rs, fila) -> new MarcaMovimientos(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    /**
+     * Crea un snapshot para cada cliente con al menos {@code intervalo} movimientos
+     * sin consolidar con ID hasta {@code hastaId}.
+     *
+     * @param intervalo Cantidad mínima de movimientos nuevos
+     * @param hastaId Sólo se consolidan movimientos con ID menor o igual
+     * @return Cantidad de snapshots creados
+     */
+    public int consolidarSnapshots(int intervalo, long hastaId) {
+        return jdbcTemplate.update(CONSOLIDAR_SNAPSHOTS.formatted("m.id <= ?"), hastaId, intervalo);
+    }
+
+    /**
+     * Crea un snapshot para cada cliente con al menos {@code intervalo} movimientos
+     * sin consolidar registrados antes de {@code antesDe}.
+     *
+     * @param intervalo Cantidad mínima de movimientos nuevos
+     * @param antesDe Sólo se consolidan movimientos anteriores a esta fecha
+     * @return Cantidad de snapshots creados
+     */
+    public int consolidarSnapshots(int intervalo, LocalDateTime antesDe) {
+        return jdbcTemplate.update(CONSOLIDAR_SNAPSHOTS.formatted("m.fecha < ?"), Timestamp.valueOf(antesDe), intervalo);
+    }
+
+    /**
+     * Borra el libro y lo regenera desde facturas, notas de crédito y pagos,
+     * con un snapshot cada {@code intervalo} movimientos de cada cliente.
+     *
+     * @param intervalo Movimientos entre snapshots
+     * @return Cantidad de movimientos generados
+     */
+    public int reconstruir(int intervalo) {
+        // Los comprobantes y saldos modificados en esta transacción deben estar en la base
+        entityManager.flush();
+        jdbcTemplate.update("DELETE FROM snapshot_saldo_cuenta");
+        jdbcTemplate.update("DELETE FROM movimiento_cuenta");
+        int movimientos = jdbcTemplate.update(RECONSTRUIR_MOVIMIENTOS);
+        movimientos += jdbcTemplate.update(AJUSTAR_SALDOS_A_FAVOR, Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(RECONSTRUIR_SNAPSHOTS, intervalo);
+        return movimientos;
+    }
+
+    /**
+     * Arma la expresión SQL con el efecto firmado del importe de un movimiento,
+     * por ejemplo {@code CASE m.tipo WHEN 'FACTURA_EMITIDA' THEN m.importe ... ELSE 0 END}.
+     */
+    private static String expresionEfecto(String alias, ToIntFunction<TipoMovimientoCuenta> efecto) {
+        StringBuilder sql = new StringBuilder("CASE ").append(alias).append(".tipo");
+        for (TipoMovimientoCuenta tipo : TipoMovimientoCuenta.values()) {
+            int signo = efecto.applyAsInt(tipo);
+            if (signo != 0) {
+                sql.append(" WHEN '").append(tipo.name()).append("' THEN ")
+                    .append(signo < 0 ? "-" : "").append(alias).append(".importe");
+            }
+        }
+        return sql.append(" ELSE 0 END").toString();
+    }
+}
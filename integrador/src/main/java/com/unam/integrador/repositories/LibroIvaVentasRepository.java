@@ -0,0 +1,165 @@
+package com.unam.integrador.repositories;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.dto.ComprobanteLibroIva;
+import com.unam.integrador.dto.ImportesIva;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoComprobante;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Repositorio JDBC del Libro IVA Ventas.
+ *
+ * Recorre facturas y notas de crédito de un rango de fechas junto con sus
+ * ítems en una única consulta de sólo avance, leída de a bloques (fetch size)
+ * y agrupada al vuelo: en memoria sólo está el comprobante en curso. Las
+ * notas de crédito toman el desglose por alícuota de la factura que anulan,
+ * prorrateado por su monto y con signo negativo.
+ */
+@Repository
+public class LibroIvaVentasRepository {
+
+    /**
+     * Filas de factura-ítem y nota de crédito-ítem de la factura anulada,
+     * ordenadas por ID: primero las facturas, después las notas de crédito,
+     * y dentro de cada comprobante sus ítems.
+     */
+    private static final String COMPROBANTES =
+        "SELECT 'FACTURA' AS comprobante, f.id_factura AS id, f.tipo, f.serie, f.nro_factura AS numero, " +
+        "f.fecha_emision AS fecha, c.cuit_dni, c.razon_social, f.subtotal AS subtotal_factura, f.descuento, " +
+        "f.total AS total_factura, " +
+        "f.total AS importe, i.id AS item_id, i.alicuotaiva AS alicuota, i.subtotal AS neto, i.monto_iva AS iva " +
+        "FROM factura f " +
+        "JOIN cuenta_cliente c ON c.id = f.cliente_id " +
+        "JOIN item_factura i ON i.factura_id = f.id_factura " +
+        "WHERE f.fecha_emision >= ? AND f.fecha_emision < ? " +
+        "UNION ALL " +
+        "SELECT 'NOTA_CREDITO', n.id, n.tipo, n.serie, n.nro_nota_credito, " +
+        "n.fecha_emision, c.cuit_dni, c.razon_social, f.subtotal, f.descuento, " +
+        "f.total, " +
+        "n.monto, i.id, i.alicuotaiva, i.subtotal, i.monto_iva " +
+        "FROM nota_credito n " +
+        "JOIN factura f ON f.id_factura = n.factura_id " +
+        "JOIN cuenta_cliente c ON c.id = f.cliente_id " +
+        "JOIN item_factura i ON i.factura_id = f.id_factura " +
+        "WHERE n.fecha_emision >= ? AND n.fecha_emision < ? " +
+        "ORDER BY comprobante, id, item_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LibroIvaVentasRepository(DataSource dataSource,
+                                    @Value("${libro-iva.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Recorre los comprobantes emitidos en un rango de fechas, en orden de ID
+     * (facturas y luego notas de crédito).
+     * En PostgreSQL el cursor sólo se lee de a bloques dentro de una transacción.
+     * @param desde Primer día del rango (incluido)
+     * @param hasta Último día del rango (excluido)
+     * @param consumidor Recibe cada comprobante completo, de a uno
+     */
+    public void recorrer(LocalDate desde, LocalDate hasta, Consumer<ComprobanteLibroIva> consumidor) {
+        AgrupadorComprobantes agrupador = new AgrupadorComprobantes(consumidor);
+        jdbcTemplate.query(COMPROBANTES, agrupador,
+            Date.valueOf(desde), Date.valueOf(hasta), Date.valueOf(desde), Date.valueOf(hasta));
+        agrupador.terminar();
+    }
+
+    /**
+     * Junta las filas consecutivas de un mismo comprobante y lo entrega al
+     * consumidor cuando empieza el siguiente.
+     */
+    private static final class AgrupadorComprobantes implements RowCallbackHandler {
+
+        private final Consumer<ComprobanteLibroIva> consumidor;
+
+        private ComprobanteLibroIva actual;
+
+        private long idActual;
+
+        /**
+         * Proporción del desglose de la factura que corresponde al comprobante
+         * (1 para facturas; monto / total de la factura, negativo, para notas de crédito).
+         */
+        private BigDecimal factor;
+
+        private AgrupadorComprobantes(Consumer<ComprobanteLibroIva> consumidor) {
+            this.consumidor = consumidor;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            TipoComprobante comprobante = TipoComprobante.valueOf(rs.getString("comprobante"));
+            long id = rs.getLong("id");
+            if (actual == null || actual.comprobante() != comprobante || idActual != id) {
+                terminar();
+                iniciar(rs, comprobante, id);
+            }
+            actual.importes().agregar(
+                TipoAlicuotaIVA.valueOf(rs.getString("alicuota")),
+                proporcional(rs.getBigDecimal("neto")),
+                proporcional(rs.getBigDecimal("iva")));
+        }
+
+        private void iniciar(ResultSet rs, TipoComprobante comprobante, long id) throws SQLException {
+            idActual = id;
+            BigDecimal totalFactura = rs.getBigDecimal("total_factura");
+            BigDecimal importe = rs.getBigDecimal("importe");
+            factor = totalFactura.signum() == 0 || importe.compareTo(totalFactura) == 0
+                ? BigDecimal.ONE
+                : importe.divide(totalFactura, 10, RoundingMode.HALF_UP);
+            if (comprobante == TipoComprobante.NOTA_CREDITO) {
+                factor = factor.negate();
+            }
+            actual = new ComprobanteLibroIva(
+                comprobante,
+                TipoFactura.valueOf(rs.getString("tipo")),
+                rs.getInt("serie"),
+                rs.getInt("numero"),
+                rs.getDate("fecha").toLocalDate(),
+                rs.getString("cuit_dni"),
+                rs.getString("razon_social"),
+                new ImportesIva());
+
+            // Descuento de la factura sobre el subtotal, calculado igual que en Factura
+            double descuento = rs.getDouble("descuento");
+            if (descuento > 0) {
+                BigDecimal montoDescuento = rs.getBigDecimal("subtotal_factura")
+                    .multiply(BigDecimal.valueOf(descuento))
+                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+                actual.importes().agregarDescuento(proporcional(montoDescuento));
+            }
+        }
+
+        private void terminar() {
+            if (actual != null) {
+                consumidor.accept(actual);
+                actual = null;
+            }
+        }
+
+        private BigDecimal proporcional(BigDecimal valor) {
+            if (factor.compareTo(BigDecimal.ONE) == 0) {
+                return valor;
+            }
+            return valor.multiply(factor).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
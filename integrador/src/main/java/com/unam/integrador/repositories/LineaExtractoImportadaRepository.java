@@ -0,0 +1,24 @@
+package com.unam.integrador.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.LineaExtractoImportada;
+
+/**
+ * Repositorio de las líneas de extractos bancarios ya importadas.
+ */
+@Repository
+public interface LineaExtractoImportadaRepository extends JpaRepository<LineaExtractoImportada, Long> {
+
+    /**
+     * Busca varias huellas en una sola consulta (columna única, indexada).
+     *
+     * @param huellas Huellas de las líneas
+     * @return Líneas ya importadas
+     */
+    List<LineaExtractoImportada> findByHuellaIn(Collection<String> huellas);
+}
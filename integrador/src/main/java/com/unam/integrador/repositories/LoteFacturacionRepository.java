@@ -1,14 +1,17 @@
 package com.unam.integrador.repositories;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.unam.integrador.model.AjusteContadoresLote;
 import com.unam.integrador.model.LoteFacturacion;
 
 /**
@@ -56,4 +59,55 @@ public interface LoteFacturacionRepository extends JpaRepository<LoteFacturacion
      */
     @Query("SELECT l.cantidadFacturas FROM LoteFacturacion l WHERE l.id = :loteId")
     int countFacturasEnLote(@Param("loteId") Long loteId);
+    
+    /**
+     * Suma diferencias a los contadores por estado de un lote.
+     * La suma se hace en la base, así dos transacciones que cambian facturas
+     * del mismo lote no se pisan. Una instancia del lote ya cargada en el
+     * contexto de persistencia queda con los valores anteriores.
+     * 
+     * @return Cantidad de lotes actualizados (0 o 1)
+     */
+    @Modifying
+    @Query("UPDATE LoteFacturacion l SET " +
+           "l.cantidadFacturasPagadas = l.cantidadFacturasPagadas + :pagadas, " +
+           "l.cantidadFacturasPagadasParcialmente = l.cantidadFacturasPagadasParcialmente + :pagadasParcialmente, " +
+           "l.cantidadFacturasAnuladas = l.cantidadFacturasAnuladas + :anuladas, " +
+           "l.montoTotalActivo = l.montoTotalActivo + :montoActivo " +
+           "WHERE l.id = :loteId")
+    int ajustarContadores(@Param("loteId") Long loteId,
+                          @Param("pagadas") int pagadas,
+                          @Param("pagadasParcialmente") int pagadasParcialmente,
+                          @Param("anuladas") int anuladas,
+                          @Param("montoActivo") BigDecimal montoActivo);
+    
+    /**
+     * Aplica los ajustes acumulados, con una sentencia por lote.
+     * 
+     * @param ajuste Ajustes de los contadores
+     */
+    default void ajustarContadores(AjusteContadoresLote ajuste) {
+        for (AjusteContadoresLote.Ajuste a : ajuste.getAjustes()) {
+            ajustarContadores(a.loteId(), a.pagadas(), a.pagadasParcialmente(), a.anuladas(), a.montoActivo());
+        }
+    }
+    
+    /**
+     * Calcula los contadores por estado contando las facturas de cada lote,
+     * para los lotes que todavía no los tienen (creados antes de que existieran).
+     * 
+     * @return Cantidad de lotes actualizados
+     */
+    @Modifying
+    @Query("UPDATE LoteFacturacion l SET " +
+           "l.cantidadFacturasPagadas = (SELECT COUNT(f) FROM Factura f WHERE f.loteFacturacion = l " +
+           "  AND f.estado = com.unam.integrador.model.enums.EstadoFactura.PAGADA_TOTALMENTE), " +
+           "l.cantidadFacturasPagadasParcialmente = (SELECT COUNT(f) FROM Factura f WHERE f.loteFacturacion = l " +
+           "  AND f.estado = com.unam.integrador.model.enums.EstadoFactura.PAGADA_PARCIALMENTE), " +
+           "l.cantidadFacturasAnuladas = (SELECT COUNT(f) FROM Factura f WHERE f.loteFacturacion = l " +
+           "  AND f.estado = com.unam.integrador.model.enums.EstadoFactura.ANULADA), " +
+           "l.montoTotalActivo = (SELECT COALESCE(SUM(f.total), 0) FROM Factura f WHERE f.loteFacturacion = l " +
+           "  AND f.estado <> com.unam.integrador.model.enums.EstadoFactura.ANULADA) " +
+           "WHERE l.montoTotalActivo IS NULL")
+    int calcularContadoresFaltantes();
 }
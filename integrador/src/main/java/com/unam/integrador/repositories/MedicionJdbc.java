@@ -0,0 +1,102 @@
+package com.unam.integrador.repositories;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide el tiempo de las sentencias JDBC de cada solicitud HTTP.
+ *
+ * Envuelve el DataSource de la aplicación: las conexiones que se obtienen
+ * con una {@link TiemposSolicitud} abierta en el hilo devuelven sentencias
+ * que suman a ella la duración de cada execute*. Cubre tanto Hibernate como
+ * JdbcTemplate. No incluye el tiempo de recorrer los ResultSet, ni las
+ * conexiones obtenidas antes de abrir la medición (por ejemplo, la de un
+ * test @Transactional que llama a MockMvc).
+ *
+ * Fuera de una solicitud (tareas programadas, arranque) se entrega la
+ * conexión del pool sin envolver, sin costo adicional.
+ */
+@Component
+public class MedicionJdbc implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceMedido)) {
+            return new DataSourceMedido(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * DataSource que envuelve las conexiones pedidas durante una solicitud.
+     */
+    static final class DataSourceMedido extends DelegatingDataSource {
+
+        DataSourceMedido(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return medir(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return medir(super.getConnection(username, password));
+        }
+
+        private static Connection medir(Connection conexion) {
+            TiemposSolicitud tiempos = TiemposSolicitud.actual();
+            if (tiempos == null) {
+                return conexion;
+            }
+            return (Connection) Proxy.newProxyInstance(MedicionJdbc.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexion, metodo, args);
+                    return switch (metodo.getName()) {
+                        case "createStatement" -> sentenciaMedida(resultado, Statement.class, tiempos);
+                        case "prepareStatement" -> sentenciaMedida(resultado, PreparedStatement.class, tiempos);
+                        case "prepareCall" -> sentenciaMedida(resultado, CallableStatement.class, tiempos);
+                        default -> resultado;
+                    };
+                });
+        }
+
+        private static Object sentenciaMedida(Object sentencia, Class<?> tipo, TiemposSolicitud tiempos) {
+            InvocationHandler handler = (proxy, metodo, args) -> {
+                if (!metodo.getName().startsWith("execute")) {
+                    return invocar(sentencia, metodo, args);
+                }
+                long inicio = System.nanoTime();
+                try {
+                    return invocar(sentencia, metodo, args);
+                } finally {
+                    tiempos.sumarJdbc(System.nanoTime() - inicio);
+                }
+            };
+            return Proxy.newProxyInstance(MedicionJdbc.class.getClassLoader(), new Class<?>[] {tipo}, handler);
+        }
+
+        private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
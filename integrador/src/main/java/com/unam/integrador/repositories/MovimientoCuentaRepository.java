@@ -0,0 +1,52 @@
+package com.unam.integrador.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.dto.TotalMovimientosPorTipo;
+import com.unam.integrador.model.MovimientoCuenta;
+
+/**
+ * Repositorio para consultar el libro de cuenta de los clientes.
+ * Los movimientos se insertan en bloque con {@link LibroCuentaRepository}.
+ */
+@Repository
+public interface MovimientoCuentaRepository extends JpaRepository<MovimientoCuenta, Long> {
+
+    /**
+     * Suma por tipo los movimientos de un cliente posteriores a un movimiento dado.
+     * @param clienteId ID del cliente
+     * @param desdeId ID del último movimiento ya acumulado (excluido)
+     * @return totales por tipo de movimiento
+     */
+    @Query("SELECT m.tipo AS tipo, SUM(m.importe) AS total FROM MovimientoCuenta m " +
+           "WHERE m.cliente.id = :clienteId AND m.id > :desdeId GROUP BY m.tipo")
+    List<TotalMovimientosPorTipo> sumarPorTipoDesde(@Param("clienteId") Long clienteId,
+                                                    @Param("desdeId") Long desdeId);
+
+    /**
+     * Suma por tipo los movimientos de un cliente posteriores a un movimiento dado
+     * y registrados hasta una fecha.
+     * @param clienteId ID del cliente
+     * @param desdeId ID del último movimiento ya acumulado (excluido)
+     * @param hasta fecha límite (incluida)
+     * @return totales por tipo de movimiento
+     */
+    @Query("SELECT m.tipo AS tipo, SUM(m.importe) AS total FROM MovimientoCuenta m " +
+           "WHERE m.cliente.id = :clienteId AND m.id > :desdeId AND m.fecha <= :hasta GROUP BY m.tipo")
+    List<TotalMovimientosPorTipo> sumarPorTipoDesdeHasta(@Param("clienteId") Long clienteId,
+                                                         @Param("desdeId") Long desdeId,
+                                                         @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Lista los movimientos de un cliente en el orden en que se registraron.
+     * @param clienteId ID del cliente
+     * @return movimientos del cliente
+     */
+    List<MovimientoCuenta> findByClienteIdOrderByIdAsc(Long clienteId);
+}
@@ -0,0 +1,72 @@
+package com.unam.integrador.repositories;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Repositorio JDBC que entrega los números de recibo desde una secuencia
+ * de la base de datos.
+ *
+ * La secuencia garantiza números distintos aunque se registren pagos en
+ * transacciones concurrentes (cobros en caja, importación de extractos y
+ * facturación masiva), cosa que no ocurre al calcular el siguiente número
+ * contando los recibos ya emitidos.
+ *
+ * Como el esquema lo genera Hibernate, la secuencia se crea al iniciar, a
+ * continuación del mayor número de recibo existente.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class NumeroReciboRepository {
+
+    private static final String SECUENCIA = "numero_recibo_seq";
+
+    private static final String SIGUIENTES =
+        "WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < ?) " +
+        "SELECT nextval('" + SECUENCIA + "') FROM n";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Crea la secuencia si no existe, empezando después del último recibo emitido.
+     */
+    @PostConstruct
+    void inicializar() {
+        Long ultimo = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MAX(CAST(numero_recibo AS BIGINT)), 0) FROM pago " +
+            "WHERE numero_recibo IS NOT NULL AND numero_recibo <> ''", Long.class);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SECUENCIA + " START WITH " + (ultimo + 1));
+    }
+
+    /**
+     * Reserva el siguiente número de recibo.
+     *
+     * @return Número de recibo con formato de 8 dígitos
+     */
+    public String siguiente() {
+        return siguientes(1).get(0);
+    }
+
+    /**
+     * Reserva varios números de recibo en una sola consulta.
+     *
+     * @param cantidad Cantidad de números a reservar
+     * @return Números de recibo con formato de 8 dígitos, en orden ascendente
+     */
+    public List<String> siguientes(int cantidad) {
+        if (cantidad <= 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(SIGUIENTES, Long.class, cantidad).stream()
+            .sorted()
+            .map(numero -> String.format("%08d", numero))
+            .toList();
+    }
+}
@@ -1,10 +1,14 @@
 package com.unam.integrador.repositories;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.unam.integrador.dto.TotalCobradoPorMetodo;
 import com.unam.integrador.model.Pago;
 
 /**
@@ -21,4 +25,14 @@ public interface PagoRepository extends JpaRepository<Pago, Long> {
      * @return Lista de pagos con ese número de recibo
      */
     List<Pago> findByNumeroRecibo(String numeroRecibo);
+    
+    /**
+     * Suma los pagos de un día agrupados por método de pago.
+     * 
+     * @param fecha Fecha de los pagos
+     * @return Un total por método de pago usado ese día
+     */
+    @Query("SELECT p.metodoPago AS metodoPago, SUM(p.monto) AS total FROM Pago p " +
+           "WHERE p.fechaPago = :fecha GROUP BY p.metodoPago")
+    List<TotalCobradoPorMetodo> sumarPorMetodoPago(@Param("fecha") LocalDate fecha);
 }
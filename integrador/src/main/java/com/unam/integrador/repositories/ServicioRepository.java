@@ -3,13 +3,19 @@ package com.unam.integrador.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.unam.integrador.model.Servicio;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio para gestionar operaciones de persistencia de Servicio.
+ * Los listados completos se guardan en la caché de consultas (región
+ * consultas.servicios), que Hibernate descarta al escribir en la tabla.
  */
 @Repository
 public interface ServicioRepository extends JpaRepository<Servicio, Long> {
@@ -21,10 +27,25 @@ public interface ServicioRepository extends JpaRepository<Servicio, Long> {
      */
     Optional<Servicio> findByNombre(String nombre);
     
+    /**
+     * Busca todos los servicios.
+     * @return Lista de todos los servicios
+     */
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas.servicios")
+    })
+    List<Servicio> findAll();
+    
     /**
      * Busca todos los servicios activos.
      * @return Lista de servicios activos
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas.servicios")
+    })
     List<Servicio> findByActivoTrue();
     
     /**
@@ -0,0 +1,32 @@
+package com.unam.integrador.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.SnapshotSaldoCuenta;
+
+/**
+ * Repositorio para los snapshots de saldo del libro de cuenta.
+ */
+@Repository
+public interface SnapshotSaldoCuentaRepository extends JpaRepository<SnapshotSaldoCuenta, Long> {
+
+    /**
+     * Busca el snapshot más reciente de un cliente.
+     * @param clienteId ID del cliente
+     * @return Optional con el último snapshot, si existe
+     */
+    Optional<SnapshotSaldoCuenta> findFirstByClienteIdOrderByUltimoMovimientoIdDesc(Long clienteId);
+
+    /**
+     * Busca el snapshot más reciente de un cliente cuyo último movimiento sea hasta una fecha.
+     * @param clienteId ID del cliente
+     * @param fecha fecha límite (incluida)
+     * @return Optional con el snapshot, si existe
+     */
+    Optional<SnapshotSaldoCuenta> findFirstByClienteIdAndFechaLessThanEqualOrderByUltimoMovimientoIdDesc(
+        Long clienteId, LocalDateTime fecha);
+}
@@ -0,0 +1,123 @@
+package com.unam.integrador.repositories;
+
+/**
+ * Tiempos de una solicitud HTTP repartidos por capa: JDBC, servicios y vista.
+ *
+ * Se abre uno por solicitud en el hilo que la atiende (ServerTimingFilter) y
+ * lo alimentan la medición de JDBC ({@link MedicionJdbc}), el aspecto de los
+ * servicios y el interceptor de la vista. Sin una medición abierta en el
+ * hilo, registrar tiempos no hace nada.
+ *
+ * Los tiempos se solapan: el de servicios y el de vista incluyen el SQL que
+ * ejecutaron (por ejemplo, las cargas perezosas al renderizar).
+ */
+public final class TiemposSolicitud implements AutoCloseable {
+
+    private static final ThreadLocal<TiemposSolicitud> ACTUAL = new ThreadLocal<>();
+
+    private final long inicio = System.nanoTime();
+    private long nanosJdbc;
+    private int sentencias;
+    private long nanosServicios;
+    private int profundidadServicios;
+    private long inicioServicio;
+    private long inicioVista;
+    private long nanosVista;
+
+    private TiemposSolicitud() {
+    }
+
+    /**
+     * Empieza a medir la solicitud del hilo actual.
+     * @return Medición a cerrar al terminar la solicitud
+     */
+    public static TiemposSolicitud iniciar() {
+        TiemposSolicitud tiempos = new TiemposSolicitud();
+        ACTUAL.set(tiempos);
+        return tiempos;
+    }
+
+    /**
+     * @return La medición abierta en el hilo actual, o null
+     */
+    public static TiemposSolicitud actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Suma la ejecución de una sentencia JDBC.
+     */
+    public void sumarJdbc(long nanos) {
+        nanosJdbc += nanos;
+        sentencias++;
+    }
+
+    /**
+     * Marca la entrada a un servicio. Sólo se mide la llamada más externa:
+     * las de un servicio a otro quedan dentro de ella.
+     */
+    public void entrarServicio() {
+        if (profundidadServicios++ == 0) {
+            inicioServicio = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marca la salida de un servicio.
+     */
+    public void salirServicio() {
+        if (--profundidadServicios == 0) {
+            nanosServicios += System.nanoTime() - inicioServicio;
+        }
+    }
+
+    /**
+     * Marca el comienzo del renderizado de la vista.
+     */
+    public void iniciarVista() {
+        inicioVista = System.nanoTime();
+    }
+
+    /**
+     * Marca el final del renderizado de la vista.
+     */
+    public void terminarVista() {
+        if (inicioVista != 0) {
+            nanosVista += System.nanoTime() - inicioVista;
+            inicioVista = 0;
+        }
+    }
+
+    public long getNanosJdbc() {
+        return nanosJdbc;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getNanosServicios() {
+        return nanosServicios;
+    }
+
+    /**
+     * @return Tiempo de la vista, contando hasta ahora si todavía se está renderizando
+     */
+    public long getNanosVista() {
+        return inicioVista == 0 ? nanosVista : nanosVista + System.nanoTime() - inicioVista;
+    }
+
+    /**
+     * @return Tiempo desde que se abrió la medición
+     */
+    public long getNanosTotal() {
+        return System.nanoTime() - inicio;
+    }
+
+    @Override
+    public void close() {
+        if (ACTUAL.get() == this) {
+            ACTUAL.remove();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.unam.integrador.services;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.dto.ServicioCatalogo;
+import com.unam.integrador.repositories.ServicioRepository;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Catálogo de servicios en memoria para la facturación y la asignación de
+ * servicios a clientes.
+ *
+ * El catálogo es chico y cambia poco: se lee completo de la base la primera
+ * vez que se usa y se guarda como una copia inmutable ({@link ServicioCatalogo})
+ * hasta que ServicioService lo invalida al crear, modificar, dar de baja o
+ * reactivar un servicio. Si se pide un ID que no está en la copia, se vuelve
+ * a leer antes de responder.
+ */
+@Service
+public class CatalogoServicios {
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    /**
+     * Copia del catálogo, o null si hay que volver a leerla.
+     */
+    private volatile Catalogo catalogo;
+
+    /**
+     * Se incrementa en cada invalidación. Una copia leída mientras se
+     * confirmaba un cambio no se guarda, para no volver a cachear datos viejos.
+     */
+    private final AtomicLong generacion = new AtomicLong();
+
+    private final Counter aciertos;
+
+    private final Counter fallos;
+
+    public CatalogoServicios(MetricasService metricasService) {
+        this.aciertos = metricasService.contadorCache("servicios", true);
+        this.fallos = metricasService.contadorCache("servicios", false);
+    }
+
+    private record Catalogo(Map<Long, ServicioCatalogo> porId, List<ServicioCatalogo> activos) {
+    }
+
+    /**
+     * Busca un servicio del catálogo.
+     * @param id ID del servicio
+     * @return el servicio, o vacío si no existe
+     */
+    public Optional<ServicioCatalogo> obtener(Long id) {
+        Catalogo actual = catalogo;
+        if (actual != null && actual.porId().containsKey(id)) {
+            aciertos.increment();
+            return Optional.of(actual.porId().get(id));
+        }
+        fallos.increment();
+        return Optional.ofNullable(cargar().porId().get(id));
+    }
+
+    /**
+     * Busca un servicio del catálogo.
+     * @param id ID del servicio
+     * @return el servicio encontrado
+     * @throws IllegalArgumentException si no se encuentra el servicio
+     */
+    public ServicioCatalogo buscarPorId(Long id) {
+        return obtener(id)
+            .orElseThrow(() -> new IllegalArgumentException("Servicio no encontrado con ID: " + id));
+    }
+
+    /**
+     * Lista los servicios activos, ordenados por ID.
+     * @return Lista inmutable de servicios activos
+     */
+    public List<ServicioCatalogo> listarActivos() {
+        Catalogo actual = catalogo;
+        if (actual != null) {
+            aciertos.increment();
+            return actual.activos();
+        }
+        fallos.increment();
+        return cargar().activos();
+    }
+
+    /**
+     * Descarta la copia del catálogo. Dentro de una transacción se vuelve a
+     * descartar cuando termina (confirmada o revertida), para no conservar
+     * una copia leída con cambios que no llegaron a confirmarse.
+     */
+    public void invalidar() {
+        limpiar();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    limpiar();
+                }
+            });
+        }
+    }
+
+    private Catalogo cargar() {
+        long generacionInicial = generacion.get();
+        List<ServicioCatalogo> servicios = servicioRepository.findAll().stream()
+            .map(ServicioCatalogo::de)
+            .sorted(Comparator.comparing(ServicioCatalogo::id))
+            .toList();
+        Catalogo leido = new Catalogo(
+            servicios.stream().collect(Collectors.toUnmodifiableMap(ServicioCatalogo::id, Function.identity())),
+            servicios.stream().filter(ServicioCatalogo::activo).toList()
+        );
+        synchronized (generacion) {
+            if (generacion.get() == generacionInicial) {
+                catalogo = leido;
+            }
+        }
+        return leido;
+    }
+
+    private void limpiar() {
+        synchronized (generacion) {
+            generacion.incrementAndGet();
+            catalogo = null;
+        }
+    }
+}
@@ -2,11 +2,14 @@
 package com.unam.integrador.services;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.dto.ServicioCatalogo;
 import com.unam.integrador.model.CambioEstadoCuenta;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.enums.EstadoCuenta;
@@ -14,11 +17,14 @@ import com.unam.integrador.repositories.CambioEstadoCuentaRepository;
 import com.unam.integrador.repositories.CuentaClienteRepositorie;
 import com.unam.integrador.repositories.ServicioRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 /**
  * Servicio para la gestión de cuentas de clientes.
  * Maneja las operaciones CRUD y lógica de negocio.
  */
 @Service
+@Timed("servicios.metodos")
 @Transactional
 public class CuentaClienteService {
     
@@ -28,9 +34,15 @@ public class CuentaClienteService {
     @Autowired
     private ServicioRepository servicioRepository;
     
+    @Autowired
+    private CatalogoServicios catalogoServicios;
+    
     @Autowired
     private CambioEstadoCuentaRepository cambioEstadoRepository;
     
+    @Autowired
+    private TableroService tableroService;
+    
     /**
      * Crea un nuevo cliente validando todos los datos
      * @param cliente el cliente a crear
@@ -44,7 +56,9 @@ public class CuentaClienteService {
             throw new IllegalArgumentException("Ya existe un cliente con el CUIT/DNI: " + cliente.getCuitDni());
         }
         
-        return clienteRepository.save(cliente);
+        CuentaCliente creado = clienteRepository.save(cliente);
+        tableroService.registrarAltaCliente(creado.getEstado());
+        return creado;
     }
 
     /**
@@ -144,7 +158,9 @@ public class CuentaClienteService {
         CuentaCliente cliente = obtenerClientePorId(clienteId);
         
         // Delegar la lógica de negocio al modelo rico
+        EstadoCuenta estadoAnterior = cliente.getEstado();
         cliente.cambiarEstado(nuevoEstado, motivo);
+        tableroService.registrarCambioEstadoCliente(estadoAnterior, nuevoEstado);
         
         return clienteRepository.save(cliente);
     }
@@ -200,11 +216,14 @@ public class CuentaClienteService {
      * @throws IllegalArgumentException si el cliente no existe
      */
     @Transactional(readOnly = true)
-    public List<com.unam.integrador.model.Servicio> obtenerServiciosDisponiblesParaCliente(Long clienteId) {
+    public List<ServicioCatalogo> obtenerServiciosDisponiblesParaCliente(Long clienteId) {
         CuentaCliente cliente = obtenerClientePorId(clienteId);
+        Set<Long> contratados = cliente.getServiciosContratadosActivos().stream()
+            .map(sc -> sc.getServicio().getIDServicio())
+            .collect(Collectors.toSet());
         
-        return servicioRepository.findByActivoTrue().stream()
-            .filter(servicio -> !cliente.tieneServicioContratadoActivo(servicio))
+        return catalogoServicios.listarActivos().stream()
+            .filter(servicio -> !contratados.contains(servicio.id()))
             .toList();
     }
 
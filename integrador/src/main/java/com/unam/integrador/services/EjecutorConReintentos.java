@@ -0,0 +1,84 @@
+package com.unam.integrador.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ejecuta una operación dentro de una transacción nueva y la reintenta
+ * cuando falla por un conflicto de concurrencia.
+ *
+ * Se usa en las operaciones que modifican saldos (pagos, saldo a favor):
+ * si otra transacción modificó la misma factura o cliente (versión optimista)
+ * o no se pudo obtener el bloqueo a tiempo, se vuelve a ejecutar la operación
+ * completa desde cero, con una espera exponencial entre intentos.
+ *
+ * Los errores de negocio (IllegalArgumentException, IllegalStateException)
+ * no se reintentan.
+ */
+@Component
+public class EjecutorConReintentos {
+
+    private static final Logger log = LoggerFactory.getLogger(EjecutorConReintentos.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxIntentos;
+    private final long esperaInicialMs;
+
+    public EjecutorConReintentos(
+            TransactionTemplate transactionTemplate,
+            @Value("${pagos.reintentos.max-intentos:4}") int maxIntentos,
+            @Value("${pagos.reintentos.espera-inicial-ms:25}") long esperaInicialMs) {
+        if (maxIntentos < 1) {
+            throw new IllegalArgumentException("La cantidad máxima de intentos debe ser al menos 1");
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.maxIntentos = maxIntentos;
+        this.esperaInicialMs = esperaInicialMs;
+    }
+
+    /**
+     * Ejecuta la operación en una transacción, reintentando ante conflictos.
+     *
+     * @param operacion Operación a ejecutar (debe ser repetible desde cero)
+     * @return Resultado de la operación
+     * @throws IllegalStateException si se agotan los reintentos
+     */
+    public <T> T ejecutar(Supplier<T> operacion) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> operacion.get());
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                if (intento >= maxIntentos) {
+                    throw new IllegalStateException(
+                        "No se pudo completar la operación por modificaciones concurrentes. " +
+                        "Intente nuevamente.", e);
+                }
+                log.debug("Conflicto de concurrencia (intento {}/{}): {}", intento, maxIntentos, e.getMessage());
+                esperar(intento);
+            }
+        }
+    }
+
+    /**
+     * Espera exponencial con una variación aleatoria para que las transacciones
+     * en conflicto no vuelvan a chocar en el mismo instante.
+     */
+    private void esperar(int intento) {
+        long base = esperaInicialMs << (intento - 1);
+        long espera = base + ThreadLocalRandom.current().nextLong(base + 1);
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operación interrumpida mientras esperaba reintentar", e);
+        }
+    }
+}
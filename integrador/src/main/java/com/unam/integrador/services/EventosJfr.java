@@ -0,0 +1,138 @@
+package com.unam.integrador.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Eventos de JDK Flight Recorder de las operaciones de negocio.
+ *
+ * Cada evento abarca una operación (begin al empezar, commit al terminar
+ * bien) y lleva los datos que la identifican, para ubicar en una grabación
+ * las pausas de GC, la contención de locks o las asignaciones que ocurrieron
+ * durante una facturación o un cobro puntual. Las operaciones que fallan no
+ * se registran.
+ *
+ * Los eventos no guardan la pila (StackTrace false) y, si la grabación no
+ * los tiene habilitados, commit no hace nada: se pueden dejar activos en una
+ * grabación continua, por ejemplo
+ * -XX:StartFlightRecording:maxage=6h,filename=integrador.jfr
+ * Para ver sólo las operaciones lentas, configurar su umbral (threshold) en
+ * el archivo .jfc de la grabación.
+ */
+public final class EventosJfr {
+
+    private EventosJfr() {
+    }
+
+    @Name("integrador.FacturacionMasiva")
+    @Label("Facturación masiva")
+    @Category({"Integrador", "Facturación"})
+    @Description("Ejecución completa de una facturación masiva")
+    @StackTrace(false)
+    public static final class FacturacionMasiva extends Event {
+        @Label("Período")
+        public String periodo;
+
+        @Label("Lote")
+        public long loteId;
+
+        @Label("Facturas")
+        public int facturas;
+    }
+
+    @Name("integrador.EtapaFacturacionMasiva")
+    @Label("Etapa de facturación masiva")
+    @Category({"Integrador", "Facturación"})
+    @Description("Bloque de clientes facturados o etapa (guardado, libro, saldo a favor) de una facturación masiva")
+    @StackTrace(false)
+    public static final class EtapaFacturacionMasiva extends Event {
+        @Label("Período")
+        public String periodo;
+
+        @Label("Etapa")
+        public String etapa;
+
+        @Label("Facturas")
+        public int facturas;
+    }
+
+    @Name("integrador.EmisionFactura")
+    @Label("Emisión de factura")
+    @Category({"Integrador", "Facturación"})
+    @Description("Emisión de una factura individual o proporcional")
+    @StackTrace(false)
+    public static final class EmisionFactura extends Event {
+        @Label("Período")
+        public String periodo;
+
+        @Label("Cliente")
+        public long clienteId;
+
+        @Label("Factura")
+        public long facturaId;
+
+        @Label("Tipo")
+        public String tipo;
+    }
+
+    @Name("integrador.AnulacionLote")
+    @Label("Anulación de lote")
+    @Category({"Integrador", "Facturación"})
+    @Description("Anulación de un lote de facturación masiva con sus facturas")
+    @StackTrace(false)
+    public static final class AnulacionLote extends Event {
+        @Label("Período")
+        public String periodo;
+
+        @Label("Lote")
+        public long loteId;
+
+        @Label("Facturas")
+        public int facturas;
+    }
+
+    @Name("integrador.RegistroPago")
+    @Label("Registro de pago")
+    @Category({"Integrador", "Cobranza"})
+    @Description("Intento de registrar un pago combinado, dentro de su transacción")
+    @StackTrace(false)
+    public static final class RegistroPago extends Event {
+        @Label("Cliente")
+        public long clienteId;
+
+        @Label("Facturas")
+        public int facturas;
+
+        @Label("Método de pago")
+        public String metodoPago;
+
+        @Label("Monto")
+        public double monto;
+
+        @Label("Recibo")
+        public String numeroRecibo;
+    }
+
+    @Name("integrador.GeneracionRecibo")
+    @Label("Generación de recibo")
+    @Category({"Integrador", "Cobranza"})
+    @Description("Armado de un recibo desde uno o varios pagos")
+    @StackTrace(false)
+    public static final class GeneracionRecibo extends Event {
+        @Label("Cliente")
+        public long clienteId;
+
+        @Label("Recibo")
+        public String numeroRecibo;
+
+        @Label("Pagos")
+        public int pagos;
+
+        @Label("Facturas")
+        public int facturas;
+    }
+}
@@ -0,0 +1,289 @@
+package com.unam.integrador.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.unam.integrador.dto.ProgresoExportacionPdf;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.LoteFacturacionRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Servicio que genera los PDF de las facturas.
+ *
+ * La exportación de un lote de facturación masiva renderiza las facturas en
+ * un pool acotado de hilos y las escribe en un ZIP en el mismo orden del
+ * lote, a medida que se completan. Las facturas se leen de la base de a
+ * bloques en el hilo que exporta (con cliente e ítems en una sola consulta),
+ * así los hilos del pool sólo renderizan y no abren transacciones. Como
+ * mucho hay {@code 2 x hilos} PDFs en memoria por exportación.
+ *
+ * Lo que es común a todos los PDFs se prepara una sola vez: la plantilla
+ * Thymeleaf queda parseada en la caché del motor y la fuente configurada
+ * se lee una vez y se comparte entre los hilos.
+ */
+@Service
+public class FacturaPdfService {
+
+    private static final Logger log = LoggerFactory.getLogger(FacturaPdfService.class);
+
+    private static final String PLANTILLA = "facturas/pdf";
+
+    /**
+     * Familia con la que se registra la fuente configurada (la plantilla la
+     * pide primero y cae en Helvetica si no hay ninguna).
+     */
+    private static final String FAMILIA_FUENTE = "Factura";
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private LoteFacturacionRepository loteFacturacionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int hilos;
+
+    private final ExecutorService ejecutor;
+
+    /**
+     * Contenido de la fuente TrueType configurada, o null para usar las fuentes estándar del PDF.
+     */
+    private final byte[] fuente;
+
+    /**
+     * Exportaciones por lote: la última de cada lote queda disponible para consultar su resultado.
+     */
+    private final Map<Long, EstadoExportacion> exportaciones = new ConcurrentHashMap<>();
+
+    public FacturaPdfService(@Value("${facturas.pdf.hilos:0}") int hilos,
+                             @Value("${facturas.pdf.fuente:}") String fuente) throws IOException {
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory("pdf-factura-");
+        fabrica.setDaemon(true);
+        this.ejecutor = Executors.newFixedThreadPool(this.hilos, fabrica);
+        this.fuente = fuente.isBlank() ? null : Files.readAllBytes(Path.of(fuente));
+    }
+
+    @PreDestroy
+    void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Progreso de una exportación en curso (o de la última terminada) de un lote.
+     */
+    private static final class EstadoExportacion {
+        private final Long loteId;
+        private final int total;
+        private final AtomicInteger generadas = new AtomicInteger();
+        private final LocalDateTime inicio = LocalDateTime.now();
+        private volatile boolean terminada;
+        private volatile String error;
+
+        private EstadoExportacion(Long loteId, int total) {
+            this.loteId = loteId;
+            this.total = total;
+        }
+
+        private ProgresoExportacionPdf aDto() {
+            return new ProgresoExportacionPdf(loteId, total, generadas.get(), inicio, terminada, error);
+        }
+    }
+
+    /**
+     * PDF generado de una factura, con el nombre que lleva dentro del ZIP.
+     */
+    private record ArchivoPdf(String nombre, byte[] contenido) {
+    }
+
+    /**
+     * Genera el PDF de una factura. La factura debe tener cargados su cliente y sus ítems.
+     * Puede llamarse desde varios hilos a la vez.
+     * @param factura Factura a renderizar
+     * @return Contenido del PDF
+     */
+    public byte[] renderizar(Factura factura) {
+        Context contexto = new Context();
+        contexto.setVariable("factura", factura);
+        String html = templateEngine.process(PLANTILLA, contexto);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(16 * 1024);
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.useFastMode();
+        if (fuente != null) {
+            builder.useFont(() -> new ByteArrayInputStream(fuente), FAMILIA_FUENTE);
+        }
+        builder.withHtmlContent(html, null);
+        builder.toStream(salida);
+        try {
+            builder.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    /**
+     * Genera los PDF de todas las facturas de un lote y los escribe en un ZIP.
+     * No cierra el destino (ej: la respuesta HTTP).
+     * @param loteId ID del lote
+     * @param destino Stream donde se escribe el ZIP
+     * @return Progreso final de la exportación
+     * @throws IllegalArgumentException si el lote no existe
+     * @throws IllegalStateException si ya se está exportando el mismo lote
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public ProgresoExportacionPdf exportarLote(Long loteId, OutputStream destino) throws IOException {
+        if (!loteFacturacionRepository.existsById(loteId)) {
+            throw new IllegalArgumentException("Lote no encontrado con ID: " + loteId);
+        }
+        List<Long> ids = facturaRepository.findIdsByLoteFacturacionId(loteId);
+        EstadoExportacion estado = iniciar(loteId, ids.size());
+        long inicio = System.nanoTime();
+
+        int ventana = hilos * 2;
+        Deque<Future<ArchivoPdf>> pendientes = new ArrayDeque<>(ventana);
+        ZipOutputStream zip = new ZipOutputStream(destino);
+        // Los PDF ya vienen comprimidos: comprimir de nuevo sólo gasta CPU
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            for (int desde = 0; desde < ids.size(); desde += ventana) {
+                List<Factura> bloque = facturaRepository.findConClienteEItemsByIdIn(
+                    ids.subList(desde, Math.min(desde + ventana, ids.size())));
+                for (Factura factura : bloque) {
+                    if (pendientes.size() >= ventana) {
+                        escribir(zip, pendientes.poll(), estado);
+                    }
+                    pendientes.add(ejecutor.submit(() -> new ArchivoPdf(nombreArchivo(factura), renderizar(factura))));
+                }
+                // Las facturas ya entregadas a los hilos no se vuelven a usar en esta sesión
+                entityManager.clear();
+            }
+            while (!pendientes.isEmpty()) {
+                escribir(zip, pendientes.poll(), estado);
+            }
+            zip.finish();
+            destino.flush();
+        } catch (IOException | RuntimeException e) {
+            pendientes.forEach(f -> f.cancel(true));
+            estado.error = e.getMessage();
+            throw e;
+        } finally {
+            estado.terminada = true;
+        }
+
+        log.info("Lote {}: {} PDFs generados en {} ms con {} hilos",
+            loteId, estado.generadas.get(), (System.nanoTime() - inicio) / 1_000_000, hilos);
+        return estado.aDto();
+    }
+
+    /**
+     * Genera los PDF de todas las facturas de un lote en un archivo ZIP.
+     * @param loteId ID del lote
+     * @param archivo Archivo destino; se reemplaza si existe
+     * @return Progreso final de la exportación
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public ProgresoExportacionPdf exportarLote(Long loteId, Path archivo) throws IOException {
+        try (OutputStream salida = Files.newOutputStream(archivo)) {
+            return exportarLote(loteId, salida);
+        }
+    }
+
+    /**
+     * Consulta el progreso de la exportación en curso, o de la última, de un lote.
+     * @param loteId ID del lote
+     * @return Progreso, si el lote se exportó desde que inició la aplicación
+     */
+    public Optional<ProgresoExportacionPdf> obtenerProgreso(Long loteId) {
+        return Optional.ofNullable(exportaciones.get(loteId)).map(EstadoExportacion::aDto);
+    }
+
+    /**
+     * Cantidad de hilos del pool de renderizado.
+     */
+    public int getHilos() {
+        return hilos;
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private EstadoExportacion iniciar(Long loteId, int total) {
+        EstadoExportacion nuevo = new EstadoExportacion(loteId, total);
+        exportaciones.compute(loteId, (id, anterior) -> {
+            if (anterior != null && !anterior.terminada) {
+                throw new IllegalStateException("Ya hay una exportación en curso para el lote #" + loteId);
+            }
+            return nuevo;
+        });
+        return nuevo;
+    }
+
+    private void escribir(ZipOutputStream zip, Future<ArchivoPdf> pendiente, EstadoExportacion estado)
+            throws IOException {
+        ArchivoPdf archivo;
+        try {
+            archivo = pendiente.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Exportación del lote #" + estado.loteId + " interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Error al generar un PDF del lote #" + estado.loteId, e.getCause());
+        }
+        zip.putNextEntry(new ZipEntry(archivo.nombre()));
+        zip.write(archivo.contenido());
+        zip.closeEntry();
+        estado.generadas.incrementAndGet();
+    }
+
+    private static String nombreArchivo(Factura factura) {
+        return String.format("factura-%s-%04d-%08d.pdf",
+            factura.getTipo().name(), factura.getSerie(), factura.getNroFactura());
+    }
+}
@@ -1,5 +1,8 @@
 package com.unam.integrador.services;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -9,19 +12,29 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.dto.FacturaDeLote;
+import com.unam.integrador.dto.FilaExportacionFactura;
+import com.unam.integrador.dto.ServicioCatalogo;
+import com.unam.integrador.model.AjusteContadoresLote;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.Factura;
 import com.unam.integrador.model.ItemFactura;
 import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.MovimientoCuenta;
 import com.unam.integrador.model.NotaCredito;
 import com.unam.integrador.model.PeriodoFacturacion;
-import com.unam.integrador.model.Servicio;
 import com.unam.integrador.model.ServicioContratado;
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.EstadoFactura;
@@ -32,6 +45,8 @@ import com.unam.integrador.repositories.FacturaRepository;
 import com.unam.integrador.repositories.LoteFacturacionRepository;
 import com.unam.integrador.repositories.NotaCreditoRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 /**
  * Servicio de aplicación para la gestión de facturas.
  * 
@@ -39,6 +54,7 @@ import com.unam.integrador.repositories.NotaCreditoRepository;
  * pero delegando la lógica de negocio a las entidades del dominio (modelo RICO).
  */
 @Service
+@Timed("servicios.metodos")
 public class FacturaService {
     
     @Autowired
@@ -53,6 +69,27 @@ public class FacturaService {
     @Autowired
     private LoteFacturacionRepository loteFacturacionRepository;
     
+    @Autowired
+    private PagoService pagoService;
+    
+    @Autowired
+    private LibroCuentaService libroCuentaService;
+    
+    @Autowired
+    private ReporteAntiguedadDeudaService reporteAntiguedadDeudaService;
+    
+    @Autowired
+    private TableroService tableroService;
+    
+    @Autowired
+    private EjecutorConReintentos ejecutorConReintentos;
+    
+    @Autowired
+    private MetricasService metricasService;
+    
+    @Autowired
+    private CatalogoServicios catalogoServicios;
+    
     // Configuración para el emisor (empresa)
     // TODO: En producción esto debería venir de configuración o base de datos
     private static final TipoCondicionIVA CONDICION_IVA_EMISOR = TipoCondicionIVA.RESPONSABLE_INSCRIPTO;
@@ -60,6 +97,16 @@ public class FacturaService {
     private static final int SERIE_FACTURA_B = 2;
     private static final int SERIE_FACTURA_C = 3;
     
+    /**
+     * Cantidad de filas escritas entre cada envío (flush) al exportar el listado.
+     */
+    private static final int FILAS_POR_ENVIO = 1000;
+    
+    /**
+     * Clientes por evento de JFR en la etapa de generación de la facturación masiva.
+     */
+    private static final int CLIENTES_POR_ETAPA_JFR = 500;
+    
     /**
      * Emite una factura individual usando los servicios contratados activos del cliente.
      * Los items se generan automáticamente desde los servicios asignados.
@@ -79,6 +126,8 @@ public class FacturaService {
             LocalDate fechaVencimiento,
             Double porcentajeDescuento,
             String motivoDescuento) {
+        EventosJfr.EmisionFactura evento = new EventosJfr.EmisionFactura();
+        evento.begin();
         
         // 1. Obtener cliente
         CuentaCliente cliente = clienteRepository.findById(clienteId)
@@ -128,15 +177,15 @@ public class FacturaService {
         
         // 9. Agregar items solo de servicios facturables (modelo rico)
         for (ServicioContratado servicioContratado : serviciosContratados) {
-            Servicio servicio = servicioContratado.getServicio();
+            ServicioCatalogo servicio = catalogoServicios.buscarPorId(servicioContratado.getServicio().getIDServicio());
             
             // Solo facturar servicios activos
-            if (servicio != null && servicio.puedeFacturarse()) {
+            if (servicio.puedeFacturarse()) {
                 ItemFactura item = new ItemFactura(
-                    servicio.getNombre(),                       // descripcion
+                    servicio.nombre(),                          // descripcion
                     servicioContratado.getPrecioContratado(),   // precioUnitario (precio específico del contrato)
                     1,                                          // cantidad (siempre 1 para servicios mensuales)
-                    servicio.getAlicuotaIVA()                   // alicuotaIVA
+                    servicio.alicuotaIVA()                      // alicuotaIVA
                 );
                 
                 factura.agregarItem(item);
@@ -159,8 +208,11 @@ public class FacturaService {
             factura.aplicarDescuento(porcentajeDescuento, motivoDescuento);
         }
         
-        // 11. Persistir factura
-        return facturaRepository.save(factura);
+        // 11. Persistir factura y registrarla en el libro de cuenta
+        factura = facturaRepository.save(factura);
+        registrarEmisionEnLibro(List.of(factura));
+        terminarEventoEmision(evento, factura);
+        return factura;
     }
 
     /**
@@ -214,9 +266,7 @@ public class FacturaService {
      */
     @Transactional(readOnly = true)
     public Iterable<Factura> listarFacturasFiltradas(String estado, String tipo, String periodo) {
-        Iterable<Factura> all = facturaRepository.findAll();
-
-        return StreamSupport.stream(all.spliterator(), false)
+        return facturaRepository.findAllConCliente().stream()
                 .filter(f -> {
                     if (estado == null || estado.isBlank()) return true;
                     try {
@@ -241,8 +291,90 @@ public class FacturaService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Exporta a CSV las facturas que cumplen los filtros del listado.
+     * 
+     * Las filas se leen como proyección en streaming (sin entidades en el
+     * contexto de persistencia) y se envían a la salida de a bloques, por lo
+     * que la memoria usada no depende de la cantidad de facturas. Las facturas
+     * vencidas se informan como VENCIDA aunque todavía no se haya actualizado
+     * su estado.
+     * 
+     * @param estado Nombre del enum EstadoFactura (null o vacío = todos)
+     * @param tipo Nombre del enum TipoFactura (null o vacío = todos)
+     * @param periodo Período de facturación, primer día del mes (null = todos)
+     * @param salida Destino del CSV
+     * @return Cantidad de facturas exportadas
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public int exportarFacturasCsv(String estado, String tipo, LocalDate periodo, Writer salida) throws IOException {
+        salida.write("serie;numero;tipo;cliente;cuit_dni;periodo;fecha_emision;fecha_vencimiento;" +
+                     "total;saldo_pendiente;estado\n");
+        
+        EstadoFactura estadoFiltro = buscarPorNombre(EstadoFactura.class, estado);
+        TipoFactura tipoFiltro = buscarPorNombre(TipoFactura.class, tipo);
+        // Igual que en el listado, un valor que no corresponde a ningún estado o tipo no devuelve facturas
+        if ((estadoFiltro == null && estado != null && !estado.isBlank())
+                || (tipoFiltro == null && tipo != null && !tipo.isBlank())) {
+            salida.flush();
+            return 0;
+        }
+        
+        int exportadas = 0;
+        try (Stream<FilaExportacionFactura> filas =
+                facturaRepository.streamParaExportacion(estadoFiltro, tipoFiltro, periodo, LocalDate.now())) {
+            for (FilaExportacionFactura fila : (Iterable<FilaExportacionFactura>) filas::iterator) {
+                salida.write(String.join(";",
+                    String.valueOf(fila.getSerie()),
+                    String.valueOf(fila.getNroFactura()),
+                    fila.getTipo() != null ? fila.getTipo().name() : "",
+                    csv(fila.getCliente()),
+                    csv(fila.getCuitDni()),
+                    fila.getPeriodo() != null ? YearMonth.from(fila.getPeriodo()).toString() : "",
+                    fila.getFechaEmision() != null ? fila.getFechaEmision().toString() : "",
+                    fila.getFechaVencimiento() != null ? fila.getFechaVencimiento().toString() : "",
+                    fila.getTotal() != null ? fila.getTotal().toPlainString() : "",
+                    fila.getSaldoPendiente() != null ? fila.getSaldoPendiente().toPlainString() : "",
+                    fila.getEstado() != null ? fila.getEstado().name() : ""));
+                salida.write('\n');
+                if (++exportadas % FILAS_POR_ENVIO == 0) {
+                    salida.flush();
+                }
+            }
+        }
+        salida.flush();
+        return exportadas;
+    }
+    
     // --- Métodos privados auxiliares ---
     
+    /**
+     * Busca un valor de enum por nombre, sin distinguir mayúsculas.
+     * @return El valor, o null si el nombre está vacío o no existe
+     */
+    private static <E extends Enum<E>> E buscarPorNombre(Class<E> tipoEnum, String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            return null;
+        }
+        for (E valor : tipoEnum.getEnumConstants()) {
+            if (valor.name().equalsIgnoreCase(nombre.trim())) {
+                return valor;
+            }
+        }
+        return null;
+    }
+    
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(";") || valor.contains("\"") || valor.contains("\n")) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+    
     /**
      * Obtiene la serie según el tipo de factura.
      */
@@ -309,11 +441,19 @@ public class FacturaService {
         factura.agregarNotaCredito(notaCredito);
 
         // Anular la factura (cambia el estado)
+        EstadoFactura estadoAnterior = factura.getEstado();
         factura.anular();
+        tableroService.registrarCambioEstado(factura, estadoAnterior);
+        AjusteContadoresLote ajusteLote = new AjusteContadoresLote();
+        ajusteLote.registrar(factura, estadoAnterior);
 
         // Persistir cambios
         notaCreditoRepository.save(notaCredito);
         facturaRepository.save(factura);
+        loteFacturacionRepository.ajustarContadores(ajusteLote);
+        libroCuentaService.registrar(MovimientoCuenta.notaCredito(notaCredito));
+        reporteAntiguedadDeudaService.invalidar();
+        metricasService.registrarAnulacion(1);
 
         return factura;
     }
@@ -348,6 +488,8 @@ public class FacturaService {
             LocalDate fechaVencimiento,
             Double porcentajeDescuento,
             String motivoDescuento) {
+        EventosJfr.EmisionFactura evento = new EventosJfr.EmisionFactura();
+        evento.begin();
         
         // 1. Obtener cliente
         CuentaCliente cliente = clienteRepository.findById(clienteId)
@@ -398,14 +540,14 @@ public class FacturaService {
         
         // 9. Agregar items PROPORCIONALES desde servicios contratados
         for (ServicioContratado servicioContratado : serviciosContratados) {
-            Servicio servicio = servicioContratado.getServicio();
+            ServicioCatalogo servicio = catalogoServicios.buscarPorId(servicioContratado.getServicio().getIDServicio());
             
             // Crear item proporcional usando el método estático
             ItemFactura item = ItemFactura.crearProporcional(
-                servicio.getNombre(),
+                servicio.nombre(),
                 servicioContratado.getPrecioContratado(),
                 1, // cantidad siempre 1 para servicios
-                servicio.getAlicuotaIVA(),
+                servicio.alicuotaIVA(),
                 periodo
             );
             
@@ -420,38 +562,46 @@ public class FacturaService {
             factura.aplicarDescuento(porcentajeDescuento, motivoDescuento);
         }
         
-        // 11. Persistir factura
-        return facturaRepository.save(factura);
+        // 11. Persistir factura y registrarla en el libro de cuenta
+        factura = facturaRepository.save(factura);
+        registrarEmisionEnLibro(List.of(factura));
+        terminarEventoEmision(evento, factura);
+        return factura;
     }
 
     /**
      * Actualiza el estado de todas las facturas pendientes o parcialmente pagadas
      * que hayan superado su fecha de vencimiento.
-     * Este método debe ser invocado periódicamente o antes de mostrar listados.
+     * 
+     * Se ejecuta al iniciar la aplicación y periódicamente, no desde las vistas,
+     * que sólo leen. Usa sentencias UPDATE por conjunto en lugar de cargar y
+     * guardar cada factura, por lo que no choca con la versión optimista de
+     * otras transacciones; si espera un bloqueo de un pago en curso y falla,
+     * se reintenta completa.
+     * 
+     * Las parcialmente pagadas se actualizan lote por lote para descontar de
+     * cada uno exactamente las facturas que dejaron de contarse como tales.
      * 
      * @return Número de facturas actualizadas a VENCIDA
      */
-    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${facturas.vencimiento.intervalo-ms:900000}",
+               initialDelayString = "${facturas.vencimiento.intervalo-ms:900000}")
     public int actualizarFacturasVencidas() {
-        int actualizadas = 0;
-        
-        // Obtener facturas PENDIENTES o PAGADAS_PARCIALMENTE
-        List<Factura> facturasPendientes = facturaRepository.findByEstado(EstadoFactura.PENDIENTE);
-        List<Factura> facturasParciales = facturaRepository.findByEstado(EstadoFactura.PAGADA_PARCIALMENTE);
-        
-        // Unir ambas listas
-        List<Factura> facturasARevisar = new java.util.ArrayList<>(facturasPendientes);
-        facturasARevisar.addAll(facturasParciales);
-        
-        // Actualizar cada factura que esté vencida
-        for (Factura factura : facturasARevisar) {
-            if (factura.actualizarSiEstaVencida()) {
-                facturaRepository.save(factura);
-                actualizadas++;
+        return ejecutorConReintentos.ejecutar(() -> {
+            LocalDate hoy = LocalDate.now();
+            int actualizadas = facturaRepository.marcarVencidas(EstadoFactura.PENDIENTE, hoy);
+            
+            for (Long loteId : facturaRepository.findLotesConFacturasVencidas(EstadoFactura.PAGADA_PARCIALMENTE, hoy)) {
+                int delLote = facturaRepository.marcarVencidasDeLote(EstadoFactura.PAGADA_PARCIALMENTE, loteId, hoy);
+                loteFacturacionRepository.ajustarContadores(loteId, 0, -delLote, 0, BigDecimal.ZERO);
+                actualizadas += delLote;
             }
-        }
-        
-        return actualizadas;
+            actualizadas += facturaRepository.marcarVencidasSinLote(EstadoFactura.PAGADA_PARCIALMENTE, hoy);
+            
+            tableroService.registrarVencimientos(actualizadas);
+            return actualizadas;
+        });
     }
     
     // ========== MÉTODOS DE FACTURACIÓN MASIVA (HU-07, HU-08, HU-09) ==========
@@ -471,6 +621,30 @@ public class FacturaService {
     public LoteFacturacion ejecutarFacturacionMasiva(
             String periodoStr,
             LocalDate fechaVencimiento) {
+        return ejecutarFacturacionMasiva(periodoStr, fechaVencimiento, false);
+    }
+    
+    /**
+     * Ejecuta la facturación masiva para un período determinado, aplicando
+     * opcionalmente el saldo a favor de cada cliente a su nueva factura.
+     * 
+     * La aplicación ocurre en la misma transacción que la emisión: si falla,
+     * no queda ni el lote ni los pagos.
+     * 
+     * @param periodoStr Período en formato texto (ej: "Noviembre 2025")
+     * @param fechaVencimiento Fecha de vencimiento para todas las facturas
+     * @param aplicarSaldoAFavor true para aplicar el saldo a favor existente a las facturas emitidas
+     * @return Lote de facturación generado con todas las facturas
+     * @throws IllegalStateException si ya existe un lote para el período
+     */
+    @Transactional
+    public LoteFacturacion ejecutarFacturacionMasiva(
+            String periodoStr,
+            LocalDate fechaVencimiento,
+            boolean aplicarSaldoAFavor) {
+        long inicio = System.nanoTime();
+        EventosJfr.FacturacionMasiva evento = new EventosJfr.FacturacionMasiva();
+        evento.begin();
         
         // 1. Validar parámetros
         if (periodoStr == null || periodoStr.trim().isEmpty()) {
@@ -506,7 +680,13 @@ public class FacturaService {
             fechaVencimiento
         );
         
-        // 6. Obtener todos los clientes activos con servicios contratados
+        // 6. Bloquear primero a los clientes con saldo a favor, para que nadie más lo use
+        // mientras se factura (así además se cargan con el saldo vigente)
+        if (aplicarSaldoAFavor) {
+            clienteRepository.findConSaldoAFavorParaActualizar();
+        }
+        
+        // Obtener todos los clientes activos con servicios contratados
         List<CuentaCliente> clientesActivos = clienteRepository.findAll().stream()
             .filter(c -> c.getEstado() == EstadoCuenta.ACTIVA)
             .filter(c -> !c.getServiciosContratadosActivos().isEmpty())
@@ -529,8 +709,18 @@ public class FacturaService {
         // 8. Generar factura para cada cliente
         List<String> errores = new ArrayList<>();
         int facturasGeneradas = 0;
+        EventosJfr.EtapaFacturacionMasiva etapa = iniciarEtapa(periodoStr, "generación");
+        int clientesEnEtapa = 0;
+        int facturasAntesDeEtapa = 0;
         
         for (CuentaCliente cliente : clientesActivos) {
+            if (clientesEnEtapa == CLIENTES_POR_ETAPA_JFR) {
+                terminarEtapa(etapa, facturasGeneradas - facturasAntesDeEtapa);
+                etapa = iniciarEtapa(periodoStr, "generación");
+                clientesEnEtapa = 0;
+                facturasAntesDeEtapa = facturasGeneradas;
+            }
+            clientesEnEtapa++;
             try {
                 // Verificar si ya existe factura para este cliente en este período
                 if (facturaRepository.existsByClienteIdAndPeriodoAndEstadoNot(
@@ -564,15 +754,15 @@ public class FacturaService {
                 
                 // Agregar items desde servicios contratados
                 for (ServicioContratado servicioContratado : cliente.getServiciosContratadosActivos()) {
-                    Servicio servicio = servicioContratado.getServicio();
+                    ServicioCatalogo servicio = catalogoServicios.buscarPorId(servicioContratado.getServicio().getIDServicio());
                     
                     // Solo facturar servicios activos
-                    if (servicio != null && servicio.puedeFacturarse()) {
+                    if (servicio.puedeFacturarse()) {
                         ItemFactura item = new ItemFactura(
-                            servicio.getNombre(),
+                            servicio.nombre(),
                             servicioContratado.getPrecioContratado(),
                             1,
-                            servicio.getAlicuotaIVA()
+                            servicio.alicuotaIVA()
                         );
                         
                         factura.agregarItem(item);
@@ -590,6 +780,7 @@ public class FacturaService {
                 errores.add("Error al generar factura para cliente " + cliente.getNombre() + ": " + e.getMessage());
             }
         }
+        terminarEtapa(etapa, facturasGeneradas - facturasAntesDeEtapa);
         
         // 9. Verificar que se haya generado al menos una factura
         if (facturasGeneradas == 0) {
@@ -601,11 +792,75 @@ public class FacturaService {
         }
         
         // 10. Guardar el lote con todas sus facturas
+        etapa = iniciarEtapa(periodoStr, "guardado");
         lote = loteFacturacionRepository.save(lote);
+        terminarEtapa(etapa, facturasGeneradas);
+        etapa = iniciarEtapa(periodoStr, "libro de cuenta");
+        registrarEmisionEnLibro(lote.getFacturas());
+        terminarEtapa(etapa, facturasGeneradas);
+        
+        // 11. Aplicar el saldo a favor a las facturas de los clientes que lo tienen
+        if (aplicarSaldoAFavor) {
+            etapa = iniciarEtapa(periodoStr, "saldo a favor");
+            List<Factura> facturasConSaldoAFavor = lote.getFacturas().stream()
+                .filter(f -> f.getCliente().tieneSaldoAFavor())
+                .collect(Collectors.toList());
+            pagoService.aplicarSaldoAFavorAFacturasNuevas(facturasConSaldoAFavor);
+            terminarEtapa(etapa, facturasConSaldoAFavor.size());
+        }
         
+        metricasService.registrarFacturacionMasiva(inicio, lote.getFacturas().size());
+        evento.periodo = periodoStr;
+        evento.loteId = lote.getId();
+        evento.facturas = lote.getFacturas().size();
+        evento.commit();
         return lote;
     }
     
+    /**
+     * Completa y registra el evento de JFR de la emisión de una factura.
+     */
+    private static void terminarEventoEmision(EventosJfr.EmisionFactura evento, Factura factura) {
+        evento.periodo = factura.getPeriodo().toString();
+        evento.clienteId = factura.getCliente().getId();
+        evento.facturaId = factura.getIdFactura();
+        evento.tipo = factura.getTipo().name();
+        evento.commit();
+    }
+    
+    /**
+     * Inicia el evento de JFR de una etapa de la facturación masiva.
+     */
+    private static EventosJfr.EtapaFacturacionMasiva iniciarEtapa(String periodo, String nombre) {
+        EventosJfr.EtapaFacturacionMasiva etapa = new EventosJfr.EtapaFacturacionMasiva();
+        etapa.periodo = periodo;
+        etapa.etapa = nombre;
+        etapa.begin();
+        return etapa;
+    }
+    
+    /**
+     * Registra el evento de JFR de una etapa con las facturas que procesó.
+     */
+    private static void terminarEtapa(EventosJfr.EtapaFacturacionMasiva etapa, int facturas) {
+        etapa.facturas = facturas;
+        etapa.commit();
+    }
+    
+    /**
+     * Registra en el libro de cuenta y en el tablero la emisión de facturas ya persistidas.
+     * Las facturas sin importe no generan movimiento.
+     */
+    private void registrarEmisionEnLibro(List<Factura> facturas) {
+        tableroService.registrarEmision(facturas);
+        metricasService.registrarEmision(facturas);
+        libroCuentaService.registrar(facturas.stream()
+            .filter(f -> f.getTotal().compareTo(BigDecimal.ZERO) > 0)
+            .map(MovimientoCuenta::facturaEmitida)
+            .collect(Collectors.toList()));
+        reporteAntiguedadDeudaService.invalidar();
+    }
+    
     /**
      * Convierte un string de período en formato "Mes Año" a LocalDate.
      * El día siempre será 1.
@@ -629,6 +884,18 @@ public class FacturaService {
         return loteFacturacionRepository.findAllByOrderByFechaEjecucionDesc();
     }
     
+    /**
+     * Calcula los contadores por estado de los lotes creados antes de que existieran.
+     * Se ejecuta al iniciar la aplicación; si todos los lotes los tienen, no modifica nada.
+     * 
+     * @return Cantidad de lotes actualizados
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public int calcularContadoresFaltantesDeLotes() {
+        return loteFacturacionRepository.calcularContadoresFaltantes();
+    }
+    
     /**
      * Obtiene un lote de facturación por su ID.
      * 
@@ -642,6 +909,38 @@ public class FacturaService {
             .orElseThrow(() -> new IllegalArgumentException("Lote de facturación no encontrado con ID: " + id));
     }
     
+    /**
+     * Obtiene una página de las facturas de un lote, sin cargar el lote completo.
+     * Implementa la tabla de facturas del detalle de lote (HU-09).
+     * 
+     * @param loteId ID del lote
+     * @param estado Estado de las facturas a mostrar (null = todos)
+     * @param tipo Tipo de las facturas a mostrar (null = todos)
+     * @param orden "numero" (serie y número) o "monto" (total)
+     * @param descendente true para ordenar de mayor a menor
+     * @param pagina Número de página (desde 0)
+     * @param tamanio Cantidad de facturas por página
+     * @return Página de facturas del lote
+     * @throws IllegalArgumentException si el orden o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public Page<FacturaDeLote> listarFacturasDeLote(Long loteId, EstadoFactura estado, TipoFactura tipo,
+                                                    String orden, boolean descendente, int pagina, int tamanio) {
+        if (tamanio <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
+        }
+        Sort.Direction direccion = descendente ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = switch (orden) {
+            case "numero" -> Sort.by(direccion, "serie", "nroFactura");
+            case "monto" -> Sort.by(direccion, "total");
+            default -> throw new IllegalArgumentException("Orden no válido: " + orden);
+        };
+        // Desempate estable entre páginas
+        sort = sort.and(Sort.by(direccion, "idFactura"));
+        return facturaRepository.buscarPorLote(
+            loteId, estado, tipo, PageRequest.of(Math.max(pagina, 0), tamanio, sort));
+    }
+    
     /**
      * Anula un lote de facturación completo.
      * Genera notas de crédito para todas las facturas del lote.
@@ -655,6 +954,9 @@ public class FacturaService {
      */
     @Transactional
     public LoteFacturacion anularLoteFacturacion(Long loteId, String motivo) {
+        EventosJfr.AnulacionLote evento = new EventosJfr.AnulacionLote();
+        evento.begin();
+        
         // 1. Obtener el lote
         LoteFacturacion lote = obtenerLotePorId(loteId);
         
@@ -666,6 +968,8 @@ public class FacturaService {
         }
         
         // 3. Anular cada factura del lote y generar notas de crédito
+        List<MovimientoCuenta> movimientos = new ArrayList<>();
+        AjusteContadoresLote ajusteLote = new AjusteContadoresLote();
         for (Factura factura : lote.getFacturas()) {
             if (factura.puedeSerAnulada()) {
                 // Generar nota de crédito
@@ -683,23 +987,37 @@ public class FacturaService {
                 );
                 
                 factura.agregarNotaCredito(notaCredito);
+                EstadoFactura estadoAnterior = factura.getEstado();
                 factura.anular();
+                tableroService.registrarCambioEstado(factura, estadoAnterior);
+                ajusteLote.registrar(factura, estadoAnterior);
                 
                 notaCreditoRepository.save(notaCredito);
                 facturaRepository.save(factura);
+                movimientos.add(MovimientoCuenta.notaCredito(notaCredito));
             }
         }
+        libroCuentaService.registrar(movimientos);
+        loteFacturacionRepository.ajustarContadores(ajusteLote);
+        reporteAntiguedadDeudaService.invalidar();
+        metricasService.registrarAnulacion(movimientos.size());
+        metricasService.registrarAnulacionLote();
         
         // 4. Anular el lote
         lote.anular(motivo);
         
         // 5. Guardar y retornar
-        return loteFacturacionRepository.save(lote);
+        lote = loteFacturacionRepository.save(lote);
+        evento.periodo = lote.getPeriodo();
+        evento.loteId = lote.getId();
+        evento.facturas = movimientos.size();
+        evento.commit();
+        return lote;
     }
     
     /**
-     * Obtiene el resumen de un lote de facturación.
-     * Útil para la vista de detalle (HU-09).
+     * Obtiene un lote de facturación con todas sus facturas cargadas.
+     * Para mostrar las facturas de un lote usar listarFacturasDeLote, que pagina.
      * 
      * @param loteId ID del lote
      * @return Lote con sus facturas cargadas
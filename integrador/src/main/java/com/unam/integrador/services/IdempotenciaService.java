@@ -0,0 +1,198 @@
+package com.unam.integrador.services;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.model.ClaveIdempotencia;
+import com.unam.integrador.repositories.ClaveIdempotenciaRepository;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Servicio para las claves de idempotencia de pagos.
+ *
+ * Las claves procesadas se guardan en la tabla clave_idempotencia (con
+ * vencimiento) y, una vez confirmadas, en una caché en memoria acotada
+ * (LRU) que evita ir a la base en los reenvíos inmediatos, que son los más
+ * frecuentes (doble clic, reintento del proxy).
+ *
+ * La unicidad la garantiza la base: si dos solicitudes con la misma clave
+ * llegan a la vez, la segunda falla al insertar la clave y su transacción
+ * se revierte completa.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Value("${pagos.idempotencia.vigencia-horas:24}")
+    private long vigenciaHoras;
+
+    private final Map<String, ClaveEnCache> cache;
+
+    private final Counter aciertosCache;
+
+    private final Counter fallosCache;
+
+    public IdempotenciaService(@Value("${pagos.idempotencia.cache-max-entradas:10000}") int maxEntradas,
+            MetricasService metricasService) {
+        this.aciertosCache = metricasService.contadorCache("idempotencia", true);
+        this.fallosCache = metricasService.contadorCache("idempotencia", false);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ClaveEnCache> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    /**
+     * Resultado de buscar una clave.
+     *
+     * @param numeroRecibo Recibo original, si la clave ya fue procesada y sigue vigente
+     * @param vencida Si la clave existe en la tabla pero venció (hay que eliminarla para reutilizarla)
+     */
+    public record ClaveBuscada(String numeroRecibo, boolean vencida) {
+
+        /**
+         * @return true si la clave ya fue procesada y sigue vigente
+         */
+        public boolean procesada() {
+            return numeroRecibo != null;
+        }
+    }
+
+    /**
+     * Busca una clave. Primero consulta la caché; si no está, hace una
+     * única búsqueda por índice en la tabla de claves.
+     *
+     * @param clave Clave de idempotencia
+     * @return El recibo original si la clave sigue vigente, o si existe vencida
+     */
+    @Transactional(readOnly = true)
+    public ClaveBuscada buscar(String clave) {
+        ClaveIdempotencia.validarClave(clave);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        ClaveEnCache enCache = obtenerDeCache(clave, ahora);
+        if (enCache != null) {
+            return new ClaveBuscada(enCache.numeroRecibo(), false);
+        }
+
+        return claveIdempotenciaRepository.findByClave(clave)
+            .map(c -> {
+                if (c.estaVencida(ahora)) {
+                    return new ClaveBuscada(null, true);
+                }
+                guardarEnCache(c.getClave(), c.getNumeroRecibo(), c.getFechaExpiracion());
+                return new ClaveBuscada(c.getNumeroRecibo(), false);
+            })
+            .orElse(new ClaveBuscada(null, false));
+    }
+
+    /**
+     * Busca el recibo generado previamente para una clave.
+     *
+     * @param clave Clave de idempotencia
+     * @return El número de recibo original, si la clave ya fue procesada y sigue vigente
+     * @see #buscar(String)
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> buscarRecibo(String clave) {
+        return Optional.ofNullable(buscar(clave).numeroRecibo());
+    }
+
+    /**
+     * Registra la clave con el recibo generado, dentro de la transacción
+     * del pago. Se inserta de inmediato (flush) para que un duplicado falle
+     * antes de seguir modificando facturas. La caché se actualiza recién
+     * cuando la transacción se confirma.
+     *
+     * Si {@link #buscar} encontró la clave vencida (y todavía no se purgó),
+     * se elimina en la misma transacción y se reutiliza, igual que si la
+     * purga ya hubiera pasado; en el caso habitual no hay consulta extra.
+     *
+     * @param clave Clave de idempotencia
+     * @param numeroRecibo Recibo generado por la operación
+     * @param reemplazarVencida Si la búsqueda previa encontró la clave vencida
+     * @throws org.springframework.dao.DataIntegrityViolationException si la clave ya existe y sigue vigente
+     */
+    @Transactional
+    public void registrar(String clave, String numeroRecibo, boolean reemplazarVencida) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (reemplazarVencida) {
+            claveIdempotenciaRepository.eliminarSiVencida(clave, ahora);
+        }
+        ClaveIdempotencia registro = claveIdempotenciaRepository.saveAndFlush(
+            ClaveIdempotencia.registrar(clave, numeroRecibo, ahora, vigenciaHoras));
+
+        Runnable cachear = () ->
+            guardarEnCache(registro.getClave(), registro.getNumeroRecibo(), registro.getFechaExpiracion());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cachear.run();
+                }
+            });
+        } else {
+            cachear.run();
+        }
+    }
+
+    /**
+     * Elimina las claves vencidas de la tabla y de la caché.
+     * Se ejecuta periódicamente.
+     *
+     * @return Cantidad de claves eliminadas de la tabla
+     */
+    @Scheduled(fixedDelayString = "${pagos.idempotencia.purga-intervalo-ms:3600000}")
+    @Transactional
+    public int purgarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        synchronized (cache) {
+            cache.values().removeIf(c -> !c.fechaExpiracion().isAfter(ahora));
+        }
+        int eliminadas = claveIdempotenciaRepository.eliminarVencidas(ahora);
+        if (eliminadas > 0) {
+            log.info("Se purgaron {} claves de idempotencia vencidas", eliminadas);
+        }
+        return eliminadas;
+    }
+
+    private ClaveEnCache obtenerDeCache(String clave, LocalDateTime ahora) {
+        synchronized (cache) {
+            ClaveEnCache enCache = cache.get(clave);
+            if (enCache != null && !enCache.fechaExpiracion().isAfter(ahora)) {
+                cache.remove(clave);
+                enCache = null;
+            }
+            (enCache != null ? aciertosCache : fallosCache).increment();
+            return enCache;
+        }
+    }
+
+    private void guardarEnCache(String clave, String numeroRecibo, LocalDateTime fechaExpiracion) {
+        synchronized (cache) {
+            cache.put(clave, new ClaveEnCache(numeroRecibo, fechaExpiracion));
+        }
+    }
+
+    private record ClaveEnCache(String numeroRecibo, LocalDateTime fechaExpiracion) {
+    }
+}
@@ -0,0 +1,579 @@
+package com.unam.integrador.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.unam.integrador.dto.ResultadoImportacionExtracto;
+import com.unam.integrador.dto.SaldoFacturaImpaga;
+import com.unam.integrador.dto.SolicitudPagoCombinado;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.LineaExtractoImportada;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.LineaExtractoImportadaRepository;
+
+/**
+ * Servicio de importación de extractos bancarios.
+ *
+ * Lee el CSV del banco línea por línea (columnas fecha, monto, cuit_dni,
+ * referencia) y lo procesa en lotes de tamaño fijo; en memoria sólo quedan
+ * el lote actual y un contador de ocurrencias por línea distinta de la fecha
+ * en curso, que se vacía al cambiar la fecha (los extractos vienen ordenados
+ * por fecha). Por cada lote:
+ * 1. Descarta las líneas ya importadas, buscando en una sola consulta sus
+ *    huellas (ver {@link LineaExtractoImportada}), que no vencen
+ * 2. Resuelve los clientes en una sola consulta (por CUIT/DNI o por un
+ *    número de 7 a 11 dígitos encontrado en la referencia)
+ * 3. Obtiene en una sola consulta los saldos de las facturas impagas de
+ *    esos clientes e imputa cada línea a las más antiguas
+ * 4. Registra los pagos en una transacción por lote usando la lógica de
+ *    {@link PagoService#registrarPagosEnLote}, que guarda también las
+ *    huellas; si el lote falla, se reprocesa línea por línea para aislar
+ *    la que produjo el error
+ *
+ * Las líneas sin coincidencia, parciales o con error se escriben en el
+ * reporte de conciliación (CSV) a medida que se procesan.
+ */
+@Service
+public class ImportacionExtractoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionExtractoService.class);
+
+    private static final Pattern NUMERO_EN_REFERENCIA = Pattern.compile("(?<!\\d)\\d{7,11}(?!\\d)");
+
+    private static final List<EstadoFactura> ESTADOS_IMPAGAS = List.of(
+        EstadoFactura.PENDIENTE,
+        EstadoFactura.VENCIDA,
+        EstadoFactura.PAGADA_PARCIALMENTE
+    );
+
+    private static final DateTimeFormatter FORMATO_FECHA_BANCO = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final String ENCABEZADO_REPORTE = "linea,fecha,monto,cuit_dni,referencia,resultado,detalle,recibo";
+
+    @Autowired
+    private CuentaClienteRepositorie cuentaClienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private LineaExtractoImportadaRepository lineaExtractoImportadaRepository;
+
+    @Value("${pagos.importacion.tamanio-lote:500}")
+    private int tamanioLote = 500;
+
+    /**
+     * Resultado de conciliación de una línea del extracto.
+     */
+    enum ResultadoLinea {
+        CONCILIADA,
+        PARCIAL,
+        YA_IMPORTADA,
+        SIN_CLIENTE,
+        SIN_FACTURAS,
+        INVALIDA,
+        ERROR
+    }
+
+    /**
+     * Importa un extracto bancario y escribe el reporte de conciliación.
+     *
+     * @param extracto Contenido del CSV del banco
+     * @param reporte Destino del reporte de conciliación (CSV)
+     * @return Resumen de la importación
+     * @throws IOException si falla la lectura del extracto o la escritura del reporte
+     */
+    public ResultadoImportacionExtracto importar(Reader extracto, Writer reporte) throws IOException {
+        ResultadoImportacionExtracto resultado = new ResultadoImportacionExtracto();
+        BufferedReader lector = (extracto instanceof BufferedReader br) ? br : new BufferedReader(extracto);
+        reporte.write(ENCABEZADO_REPORTE);
+        reporte.write('\n');
+
+        List<LineaExtracto> lote = new ArrayList<>(tamanioLote);
+        Map<Long, Integer> ocurrencias = new HashMap<>();
+        LocalDate fechaOcurrencias = null;
+        String separador = null;
+        long numero = 0;
+        String texto;
+        while ((texto = lector.readLine()) != null) {
+            numero++;
+            if (numero == 1 && texto.startsWith("\uFEFF")) {
+                texto = texto.substring(1);
+            }
+            if (texto.isBlank()) {
+                continue;
+            }
+            if (separador == null) {
+                separador = texto.contains(";") ? ";" : ",";
+                if (esEncabezado(texto)) {
+                    continue;
+                }
+            }
+
+            resultado.setLineasLeidas(resultado.getLineasLeidas() + 1);
+            LineaExtracto linea = new LineaExtracto(numero, texto);
+            try {
+                linea.parsear(separador);
+                if (!linea.fecha.equals(fechaOcurrencias)) {
+                    ocurrencias.clear();
+                    fechaOcurrencias = linea.fecha;
+                }
+                linea.calcularHuella(ocurrencias);
+                lote.add(linea);
+            } catch (IllegalArgumentException e) {
+                linea.resultado = ResultadoLinea.INVALIDA;
+                linea.detalle = e.getMessage();
+                contabilizar(linea, resultado);
+                escribirLinea(reporte, linea);
+            }
+
+            if (lote.size() >= tamanioLote) {
+                procesarLote(lote, reporte, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, reporte, resultado);
+        }
+
+        escribirResumen(reporte, resultado);
+        reporte.flush();
+        return resultado;
+    }
+
+    /**
+     * Procesa un lote de líneas ya parseadas y escribe en el reporte
+     * las que no quedaron conciliadas.
+     */
+    private void procesarLote(List<LineaExtracto> lote, Writer reporte, ResultadoImportacionExtracto resultado)
+            throws IOException {
+        // 1. Descartar líneas ya importadas
+        Map<String, String> yaImportadas = buscarYaImportadas(lote);
+        List<LineaExtracto> nuevas = new ArrayList<>(lote.size());
+        for (LineaExtracto linea : lote) {
+            String recibo = yaImportadas.get(linea.huella);
+            if (recibo == null) {
+                nuevas.add(linea);
+            } else {
+                marcarYaImportada(linea, recibo);
+            }
+        }
+
+        // 2. Resolver clientes en bloque
+        Set<String> candidatos = new LinkedHashSet<>();
+        for (LineaExtracto linea : nuevas) {
+            candidatos.addAll(linea.candidatosCliente);
+        }
+        Map<String, Long> clientesPorCuit = new HashMap<>();
+        if (!candidatos.isEmpty()) {
+            for (CuentaCliente cliente : cuentaClienteRepository.findByCuitDniIn(candidatos)) {
+                clientesPorCuit.put(cliente.getCuitDni(), cliente.getId());
+            }
+        }
+
+        List<LineaExtracto> conCliente = new ArrayList<>();
+        for (LineaExtracto linea : nuevas) {
+            for (String candidato : linea.candidatosCliente) {
+                Long clienteId = clientesPorCuit.get(candidato);
+                if (clienteId != null) {
+                    linea.clienteId = clienteId;
+                    break;
+                }
+            }
+            if (linea.clienteId == null) {
+                linea.resultado = ResultadoLinea.SIN_CLIENTE;
+                linea.detalle = "No se encontró un cliente por CUIT/DNI ni por la referencia";
+            } else {
+                conCliente.add(linea);
+            }
+        }
+
+        // 3. Imputar a las facturas impagas más antiguas de cada cliente
+        List<LineaExtracto> aRegistrar = new ArrayList<>();
+        if (!conCliente.isEmpty()) {
+            Map<Long, Deque<FacturaPendiente>> pendientesPorCliente = new HashMap<>();
+            Set<Long> clienteIds = new LinkedHashSet<>();
+            conCliente.forEach(l -> clienteIds.add(l.clienteId));
+            for (SaldoFacturaImpaga saldo : facturaRepository.findSaldosImpagosPorClientes(clienteIds, ESTADOS_IMPAGAS)) {
+                pendientesPorCliente.computeIfAbsent(saldo.getClienteId(), id -> new ArrayDeque<>())
+                    .add(new FacturaPendiente(saldo.getIdFactura(), saldo.getSaldoPendiente()));
+            }
+
+            // Ordenar por cliente: los bloqueos se toman siempre en el mismo orden
+            conCliente.sort(Comparator.comparing((LineaExtracto l) -> l.clienteId).thenComparingLong(l -> l.numero));
+            for (LineaExtracto linea : conCliente) {
+                imputar(linea, pendientesPorCliente.get(linea.clienteId));
+                if (linea.resultado == ResultadoLinea.SIN_FACTURAS) {
+                    continue;
+                }
+                aRegistrar.add(linea);
+            }
+        }
+
+        // 4. Registrar los pagos en una transacción por lote
+        if (!aRegistrar.isEmpty()) {
+            registrar(aRegistrar);
+        }
+
+        lote.sort(Comparator.comparingLong(l -> l.numero));
+        for (LineaExtracto linea : lote) {
+            contabilizar(linea, resultado);
+            if (linea.resultado != ResultadoLinea.CONCILIADA) {
+                escribirLinea(reporte, linea);
+            }
+        }
+    }
+
+    /**
+     * Busca en una sola consulta las líneas del lote que ya se importaron.
+     *
+     * @return Mapa huella -> número de recibo
+     */
+    private Map<String, String> buscarYaImportadas(List<LineaExtracto> lineas) {
+        Map<String, String> recibos = new HashMap<>();
+        if (!lineas.isEmpty()) {
+            for (LineaExtractoImportada importada
+                    : lineaExtractoImportadaRepository.findByHuellaIn(lineas.stream().map(l -> l.huella).toList())) {
+                recibos.put(importada.getHuella(), importada.getNumeroRecibo());
+            }
+        }
+        return recibos;
+    }
+
+    private static void marcarYaImportada(LineaExtracto linea, String numeroRecibo) {
+        linea.resultado = ResultadoLinea.YA_IMPORTADA;
+        linea.detalle = "La línea ya fue importada anteriormente";
+        linea.numeroRecibo = numeroRecibo;
+    }
+
+    /**
+     * Elige las facturas a las que se imputa la línea (las más antiguas,
+     * hasta cubrir el monto) y actualiza los saldos en memoria para las
+     * siguientes líneas del mismo cliente.
+     */
+    private void imputar(LineaExtracto linea, Deque<FacturaPendiente> pendientes) {
+        if (pendientes == null || pendientes.isEmpty()) {
+            linea.resultado = ResultadoLinea.SIN_FACTURAS;
+            linea.detalle = "El cliente no tiene facturas impagas";
+            return;
+        }
+
+        BigDecimal restante = linea.monto;
+        while (restante.signum() > 0 && !pendientes.isEmpty()) {
+            FacturaPendiente factura = pendientes.peekFirst();
+            BigDecimal aplicado = restante.min(factura.saldo);
+            linea.facturasIds.add(factura.idFactura);
+            factura.saldo = factura.saldo.subtract(aplicado);
+            restante = restante.subtract(aplicado);
+            if (factura.saldo.signum() == 0) {
+                pendientes.pollFirst();
+            }
+        }
+
+        if (restante.signum() > 0) {
+            linea.resultado = ResultadoLinea.PARCIAL;
+            linea.detalle = "Excedente de " + restante + " acreditado como saldo a favor";
+        } else if (!pendientes.isEmpty() && linea.facturasIds.contains(pendientes.peekFirst().idFactura)) {
+            linea.resultado = ResultadoLinea.PARCIAL;
+            linea.detalle = "La factura " + pendientes.peekFirst().idFactura + " queda con saldo pendiente de "
+                + pendientes.peekFirst().saldo;
+        } else {
+            linea.resultado = ResultadoLinea.CONCILIADA;
+        }
+    }
+
+    /**
+     * Registra las líneas imputadas. Primero intenta todo el lote en una
+     * transacción; si falla, reprocesa cada línea en su propia transacción
+     * y marca como rechazada (ERROR) la que vuelva a fallar, sin cortar el
+     * resto del lote.
+     */
+    private void registrar(List<LineaExtracto> lineas) {
+        List<SolicitudPagoCombinado> solicitudes = lineas.stream().map(LineaExtracto::aSolicitud).toList();
+        try {
+            List<String> recibos = pagoService.registrarPagosEnLote(solicitudes);
+            for (int i = 0; i < lineas.size(); i++) {
+                lineas.get(i).numeroRecibo = recibos.get(i);
+            }
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Falló el registro del lote de {} líneas, se reprocesa línea por línea: {}",
+                lineas.size(), e.getMessage());
+        }
+
+        for (LineaExtracto linea : lineas) {
+            try {
+                linea.numeroRecibo = pagoService.registrarPagosEnLote(List.of(linea.aSolicitud())).get(0);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                linea.resultado = ResultadoLinea.ERROR;
+                linea.detalle = e.getMessage();
+            } catch (DataIntegrityViolationException e) {
+                // Otra importación concurrente registró la misma huella
+                String recibo = buscarYaImportadas(List.of(linea)).get(linea.huella);
+                if (recibo != null) {
+                    marcarYaImportada(linea, recibo);
+                } else {
+                    rechazar(linea, e);
+                }
+            } catch (DataAccessException e) {
+                rechazar(linea, e);
+            }
+        }
+    }
+
+    private static void rechazar(LineaExtracto linea, DataAccessException e) {
+        log.warn("No se pudo registrar la línea {} del extracto: {}", linea.numero, e.getMessage());
+        linea.resultado = ResultadoLinea.ERROR;
+        linea.detalle = "Error de base de datos: " + e.getMostSpecificCause().getMessage();
+    }
+
+    private void contabilizar(LineaExtracto linea, ResultadoImportacionExtracto resultado) {
+        switch (linea.resultado) {
+            case CONCILIADA -> resultado.setConciliadas(resultado.getConciliadas() + 1);
+            case PARCIAL -> resultado.setParciales(resultado.getParciales() + 1);
+            case YA_IMPORTADA -> resultado.setYaImportadas(resultado.getYaImportadas() + 1);
+            case SIN_CLIENTE, SIN_FACTURAS -> resultado.setSinCoincidencia(resultado.getSinCoincidencia() + 1);
+            case INVALIDA -> resultado.setInvalidas(resultado.getInvalidas() + 1);
+            case ERROR -> resultado.setErrores(resultado.getErrores() + 1);
+        }
+        if (linea.resultado == ResultadoLinea.CONCILIADA || linea.resultado == ResultadoLinea.PARCIAL) {
+            resultado.setMontoRegistrado(resultado.getMontoRegistrado().add(linea.monto));
+        }
+    }
+
+    private void escribirLinea(Writer reporte, LineaExtracto linea) throws IOException {
+        reporte.write(String.join(",",
+            String.valueOf(linea.numero),
+            csv(linea.fecha != null ? linea.fecha.toString() : null),
+            csv(linea.monto != null ? linea.monto.toPlainString() : null),
+            csv(linea.cuitDni),
+            csv(linea.resultado == ResultadoLinea.INVALIDA ? linea.texto : linea.referencia),
+            linea.resultado.name(),
+            csv(linea.detalle),
+            csv(linea.numeroRecibo)));
+        reporte.write('\n');
+    }
+
+    private void escribirResumen(Writer reporte, ResultadoImportacionExtracto resultado) throws IOException {
+        reporte.write("# Líneas leídas: " + resultado.getLineasLeidas() + '\n');
+        reporte.write("# Conciliadas: " + resultado.getConciliadas() + '\n');
+        reporte.write("# Parciales: " + resultado.getParciales() + '\n');
+        reporte.write("# Ya importadas: " + resultado.getYaImportadas() + '\n');
+        reporte.write("# Sin coincidencia: " + resultado.getSinCoincidencia() + '\n');
+        reporte.write("# Inválidas: " + resultado.getInvalidas() + '\n');
+        reporte.write("# Con error: " + resultado.getErrores() + '\n');
+        reporte.write("# Monto registrado: " + resultado.getMontoRegistrado().toPlainString() + '\n');
+    }
+
+    private static boolean esEncabezado(String texto) {
+        return texto.toLowerCase().startsWith("fecha");
+    }
+
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n")) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+
+    /**
+     * Factura impaga con su saldo, actualizado en memoria a medida que se imputan líneas del lote.
+     */
+    private static final class FacturaPendiente {
+        private final Long idFactura;
+        private BigDecimal saldo;
+
+        private FacturaPendiente(Long idFactura, BigDecimal saldo) {
+            this.idFactura = idFactura;
+            this.saldo = saldo;
+        }
+    }
+
+    /**
+     * Línea del extracto con su estado de conciliación.
+     */
+    private static final class LineaExtracto {
+        private final long numero;
+        private final String texto;
+        private LocalDate fecha;
+        private BigDecimal monto;
+        private String cuitDni;
+        private String referencia;
+        private String huella;
+        private final List<String> candidatosCliente = new ArrayList<>(2);
+        private final List<Long> facturasIds = new ArrayList<>(2);
+        private Long clienteId;
+        private ResultadoLinea resultado;
+        private String detalle;
+        private String numeroRecibo;
+
+        private LineaExtracto(long numero, String texto) {
+            this.numero = numero;
+            this.texto = texto;
+        }
+
+        /**
+         * Interpreta la línea: fecha, monto, cuit_dni, referencia.
+         * La referencia es el resto de la línea (puede contener el separador).
+         */
+        private void parsear(String separador) {
+            List<String> campos = dividir(texto, separador.charAt(0));
+            if (campos.size() < 2) {
+                throw new IllegalArgumentException("Se esperaban al menos las columnas fecha y monto");
+            }
+            this.fecha = parsearFecha(limpiar(campos.get(0)));
+            this.monto = parsearMonto(limpiar(campos.get(1)), separador);
+            this.cuitDni = campos.size() > 2 ? limpiar(campos.get(2)).replaceAll("\\D", "") : "";
+            this.referencia = campos.size() > 3 ? limpiar(campos.get(3)) : "";
+
+            if (cuitDni.length() >= 7 && cuitDni.length() <= 11) {
+                candidatosCliente.add(cuitDni);
+            }
+            Matcher matcher = NUMERO_EN_REFERENCIA.matcher(referencia);
+            while (matcher.find()) {
+                if (!candidatosCliente.contains(matcher.group())) {
+                    candidatosCliente.add(matcher.group());
+                }
+            }
+        }
+
+        private SolicitudPagoCombinado aSolicitud() {
+            String ref = "Extracto " + fecha + (referencia.isEmpty() ? "" : " - " + referencia);
+            if (ref.length() > 500) {
+                ref = ref.substring(0, 500);
+            }
+            return new SolicitudPagoCombinado(facturasIds, monto, MetodoPago.TRANSFERENCIA, ref, huella);
+        }
+
+        /**
+         * Calcula la huella de la línea con los datos del banco (fecha, monto,
+         * CUIT/DNI y referencia) y el número de ocurrencia de esos mismos datos
+         * en el archivo, para distinguir dos pagos idénticos del mismo día.
+         * No depende de la posición de la línea: reimportar el extracto (aunque
+         * cambien encabezados o líneas en blanco) produce las mismas huellas.
+         * Las ocurrencias se cuentan dentro del bloque de líneas de la misma
+         * fecha; si una fecha reaparece más adelante en el archivo, sus líneas
+         * idénticas se reportan como ya importadas.
+         *
+         * @param ocurrencias Ocurrencias de cada línea distinta de la fecha en curso
+         */
+        private void calcularHuella(Map<Long, Integer> ocurrencias) {
+            String datos = fecha + "|" + monto.toPlainString() + "|" + cuitDni + "|" + referencia;
+            byte[] hashDatos = sha256(datos);
+            long claveOcurrencia = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                claveOcurrencia = (claveOcurrencia << 8) | (hashDatos[i] & 0xFF);
+            }
+            int ocurrencia = ocurrencias.merge(claveOcurrencia, 1, Integer::sum);
+            this.huella = HexFormat.of().formatHex(sha256(datos + "|" + ocurrencia));
+        }
+
+        private static byte[] sha256(String valor) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(valor.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no disponible", e);
+            }
+        }
+
+        /**
+         * Divide la línea en hasta cuatro campos respetando las comillas: un
+         * separador entre comillas no corta el campo. El cuarto campo es el
+         * resto de la línea.
+         */
+        private static List<String> dividir(String texto, char separador) {
+            List<String> campos = new ArrayList<>(4);
+            boolean entreComillas = false;
+            int inicio = 0;
+            for (int i = 0; i < texto.length() && campos.size() < 3; i++) {
+                char c = texto.charAt(i);
+                if (c == '"') {
+                    entreComillas = !entreComillas;
+                } else if (c == separador && !entreComillas) {
+                    campos.add(texto.substring(inicio, i));
+                    inicio = i + 1;
+                }
+            }
+            campos.add(texto.substring(inicio));
+            return campos;
+        }
+
+        private static String limpiar(String campo) {
+            String valor = campo.strip();
+            if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+                valor = valor.substring(1, valor.length() - 1).replace("\"\"", "\"");
+            }
+            return valor;
+        }
+
+        private static LocalDate parsearFecha(String valor) {
+            try {
+                return valor.contains("/") ? LocalDate.parse(valor, FORMATO_FECHA_BANCO) : LocalDate.parse(valor);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Fecha inválida: " + valor);
+            }
+        }
+
+        private static BigDecimal parsearMonto(String valor, String separador) {
+            String normalizado = valor.replace("$", "").replace(" ", "");
+            if (";".equals(separador) && normalizado.contains(",")) {
+                // Formato local: 1.234,56
+                normalizado = normalizado.replace(".", "").replace(",", ".");
+            } else if (",".equals(separador)) {
+                // Monto entre comillas con separador de miles: "1,234.56"
+                normalizado = normalizado.replace(",", "");
+            }
+            BigDecimal monto;
+            try {
+                monto = new BigDecimal(normalizado);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Monto inválido: " + valor);
+            }
+            if (monto.signum() <= 0) {
+                throw new IllegalArgumentException("El monto debe ser mayor a cero");
+            }
+            if (monto.scale() > 2) {
+                throw new IllegalArgumentException("El monto no puede tener más de 2 decimales");
+            }
+            return monto.setScale(2);
+        }
+    }
+}
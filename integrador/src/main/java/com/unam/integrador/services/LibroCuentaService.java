@@ -0,0 +1,193 @@
+package com.unam.integrador.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.LineaEstadoCuenta;
+import com.unam.integrador.dto.TotalMovimientosPorTipo;
+import com.unam.integrador.model.MovimientoCuenta;
+import com.unam.integrador.model.SaldoCuenta;
+import com.unam.integrador.model.SnapshotSaldoCuenta;
+import com.unam.integrador.repositories.LibroCuentaRepository;
+import com.unam.integrador.repositories.MovimientoCuentaRepository;
+import com.unam.integrador.repositories.SnapshotSaldoCuentaRepository;
+
+/**
+ * Servicio del libro de cuenta de los clientes.
+ *
+ * Registra los movimientos que informan FacturaService y PagoService (en la
+ * misma transacción que la operación) y responde la posición de un cliente,
+ * actual o a una fecha, con el último snapshot más los pocos movimientos
+ * posteriores. Los snapshots se consolidan periódicamente.
+ */
+@Service
+public class LibroCuentaService {
+
+    private static final Logger log = LoggerFactory.getLogger(LibroCuentaService.class);
+
+    @Autowired
+    private LibroCuentaRepository libroCuentaRepository;
+
+    @Autowired
+    private MovimientoCuentaRepository movimientoCuentaRepository;
+
+    @Autowired
+    private SnapshotSaldoCuentaRepository snapshotRepository;
+
+    /**
+     * Movimientos nuevos de un cliente a partir de los cuales se crea un snapshot.
+     */
+    @Value("${libro-cuenta.snapshots.intervalo:50}")
+    private int intervaloSnapshots;
+
+    /**
+     * Antigüedad mínima de un movimiento para consolidarlo en bases que no
+     * informan las transacciones abiertas. Evita cerrar un snapshot mientras
+     * una transacción con un ID menor sigue abierta, salvo que dure más.
+     */
+    @Value("${libro-cuenta.snapshots.margen-minutos:10}")
+    private long margenMinutos;
+
+    /**
+     * Marca de una pasada anterior que todavía no se consolidó (PostgreSQL).
+     */
+    private LibroCuentaRepository.MarcaMovimientos marcaPendiente;
+
+    /**
+     * Registra un movimiento en el libro.
+     * @param movimiento Movimiento a registrar
+     */
+    @Transactional
+    public void registrar(MovimientoCuenta movimiento) {
+        libroCuentaRepository.insertar(List.of(movimiento));
+    }
+
+    /**
+     * Registra varios movimientos en el libro, en bloque.
+     * @param movimientos Movimientos a registrar
+     */
+    @Transactional
+    public void registrar(List<MovimientoCuenta> movimientos) {
+        libroCuentaRepository.insertar(movimientos);
+    }
+
+    /**
+     * Obtiene la posición actual de un cliente.
+     * @param clienteId ID del cliente
+     * @return Deuda y saldo a favor del cliente según el libro
+     */
+    @Transactional(readOnly = true)
+    public SaldoCuenta consultarSaldo(Long clienteId) {
+        Optional<SnapshotSaldoCuenta> snapshot = snapshotRepository.findFirstByClienteIdOrderByUltimoMovimientoIdDesc(clienteId);
+        return acumular(snapshot, movimientoCuentaRepository.sumarPorTipoDesde(clienteId, ultimoMovimiento(snapshot)));
+    }
+
+    /**
+     * Obtiene la posición de un cliente a una fecha.
+     * @param clienteId ID del cliente
+     * @param fecha Fecha de la consulta (incluida)
+     * @return Deuda y saldo a favor del cliente a esa fecha
+     */
+    @Transactional(readOnly = true)
+    public SaldoCuenta consultarSaldoAl(Long clienteId, LocalDateTime fecha) {
+        Optional<SnapshotSaldoCuenta> snapshot =
+            snapshotRepository.findFirstByClienteIdAndFechaLessThanEqualOrderByUltimoMovimientoIdDesc(clienteId, fecha);
+        return acumular(snapshot,
+            movimientoCuentaRepository.sumarPorTipoDesdeHasta(clienteId, ultimoMovimiento(snapshot), fecha));
+    }
+
+    /**
+     * Obtiene una página del estado de cuenta de un cliente: facturas, notas de
+     * crédito y pagos en orden cronológico, con el saldo acumulado.
+     * @param clienteId ID del cliente
+     * @param pagina Número de página (desde 0); si es null se devuelve la última, la más reciente
+     * @param tamanio Cantidad de líneas por página
+     * @return Página de líneas del estado de cuenta
+     */
+    @Transactional(readOnly = true)
+    public Page<LineaEstadoCuenta> obtenerEstadoCuenta(Long clienteId, Integer pagina, int tamanio) {
+        if (tamanio <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
+        }
+        long total = libroCuentaRepository.contarMovimientos(clienteId);
+        int ultimaPagina = total == 0 ? 0 : (int) ((total - 1) / tamanio);
+        Pageable pageable = PageRequest.of(pagina == null ? ultimaPagina : Math.max(pagina, 0), tamanio);
+        List<LineaEstadoCuenta> lineas = libroCuentaRepository.buscarEstadoCuenta(
+            clienteId, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(lineas, pageable, total);
+    }
+
+    /**
+     * Crea snapshots para los clientes con suficientes movimientos sin consolidar.
+     *
+     * En PostgreSQL cada pasada marca el último movimiento visible y las
+     * transacciones abiertas; una pasada posterior consolida hasta esa marca
+     * recién cuando terminaron todas esas transacciones, porque alguna pudo
+     * haber tomado un ID menor sin confirmarlo. Una transacción larga (por
+     * ejemplo, una facturación masiva) demora la consolidación pero no hace
+     * perder movimientos. En otras bases se usa el margen de antigüedad.
+     * @return Cantidad de snapshots creados
+     */
+    @Scheduled(fixedDelayString = "${libro-cuenta.snapshots.consolidacion-intervalo-ms:300000}")
+    @Transactional
+    public synchronized int consolidarSnapshots() {
+        int creados = 0;
+        if (libroCuentaRepository.informaTransacciones()) {
+            LibroCuentaRepository.MarcaMovimientos actual = libroCuentaRepository.marcarMovimientos();
+            if (marcaPendiente != null && actual.posteriorATransaccionesDe(marcaPendiente)) {
+                creados = libroCuentaRepository.consolidarSnapshots(
+                    intervaloSnapshots, marcaPendiente.ultimoMovimientoId());
+                marcaPendiente = null;
+            }
+            if (marcaPendiente == null) {
+                marcaPendiente = actual;
+            }
+        } else {
+            creados = libroCuentaRepository.consolidarSnapshots(
+                intervaloSnapshots, LocalDateTime.now().minusMinutes(margenMinutos));
+        }
+        if (creados > 0) {
+            log.info("Se consolidaron {} snapshots del libro de cuenta", creados);
+        }
+        return creados;
+    }
+
+    /**
+     * Regenera todo el libro (movimientos y snapshots) desde los comprobantes existentes.
+     * Debe ejecutarse sin operaciones en curso: reemplaza el libro completo.
+     * @return Cantidad de movimientos generados
+     */
+    @Transactional
+    public int reconstruir() {
+        int movimientos = libroCuentaRepository.reconstruir(intervaloSnapshots);
+        log.info("Libro de cuenta reconstruido con {} movimientos", movimientos);
+        return movimientos;
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private Long ultimoMovimiento(Optional<SnapshotSaldoCuenta> snapshot) {
+        return snapshot.map(SnapshotSaldoCuenta::getUltimoMovimientoId).orElse(0L);
+    }
+
+    private SaldoCuenta acumular(Optional<SnapshotSaldoCuenta> snapshot, List<TotalMovimientosPorTipo> totales) {
+        SaldoCuenta saldo = snapshot.map(SnapshotSaldoCuenta::getSaldo).orElse(SaldoCuenta.CERO);
+        for (TotalMovimientosPorTipo total : totales) {
+            saldo = saldo.aplicar(total.getTipo(), total.getTotal());
+        }
+        return saldo;
+    }
+}
@@ -0,0 +1,235 @@
+package com.unam.integrador.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.ComprobanteLibroIva;
+import com.unam.integrador.dto.ImportesIva;
+import com.unam.integrador.dto.TotalLibroIva;
+import com.unam.integrador.model.enums.FormatoLibroIva;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.LibroIvaVentasRepository;
+
+/**
+ * Servicio del Libro IVA Ventas de un período.
+ *
+ * Escribe cada comprobante apenas lo entrega el repositorio (facturas y
+ * luego notas de crédito, en orden de ID) y al final agrega los totales por
+ * letra y serie, de modo que la memoria usada no depende de la cantidad de
+ * comprobantes del período.
+ */
+@Service
+public class LibroIvaVentasService {
+
+    private static final DateTimeFormatter FECHA_ANCHO_FIJO = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * Ancho de la razón social en el formato de ancho fijo.
+     */
+    private static final int ANCHO_RAZON_SOCIAL = 30;
+
+    /**
+     * Ancho de cada importe (en centavos, con signo) en el formato de ancho fijo.
+     */
+    private static final int ANCHO_IMPORTE = 15;
+
+    @Autowired
+    private LibroIvaVentasRepository libroIvaVentasRepository;
+
+    /**
+     * Clave de los totales: letra y serie del comprobante.
+     */
+    private record ClaveSerie(TipoFactura tipo, int serie) {
+    }
+
+    /**
+     * Acumulado de una serie mientras se recorre el período.
+     */
+    private static final class AcumuladoSerie {
+        private int cantidad;
+        private final ImportesIva importes = new ImportesIva();
+    }
+
+    /**
+     * Escribe el Libro IVA Ventas de un período.
+     * @param periodo Mes a informar (por fecha de emisión)
+     * @param formato Formato de salida
+     * @param salida Destino (respuesta HTTP, archivo, etc.)
+     * @return Totales por letra y serie
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public List<TotalLibroIva> exportar(YearMonth periodo, FormatoLibroIva formato, Writer salida) throws IOException {
+        Map<ClaveSerie, AcumuladoSerie> totales = new TreeMap<>(
+            Comparator.comparing(ClaveSerie::tipo).thenComparingInt(ClaveSerie::serie));
+
+        if (formato == FormatoLibroIva.CSV) {
+            salida.write(encabezadoCsv());
+        }
+        try {
+            libroIvaVentasRepository.recorrer(periodo.atDay(1), periodo.plusMonths(1).atDay(1), comprobante -> {
+                escribir(salida, formato, comprobante);
+                AcumuladoSerie acumulado = totales.computeIfAbsent(
+                    new ClaveSerie(comprobante.tipo(), comprobante.serie()), clave -> new AcumuladoSerie());
+                acumulado.cantidad++;
+                acumulado.importes.sumar(comprobante.importes());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<TotalLibroIva> resultado = new ArrayList<>(totales.size());
+        for (Map.Entry<ClaveSerie, AcumuladoSerie> entrada : totales.entrySet()) {
+            TotalLibroIva total = new TotalLibroIva(entrada.getKey().tipo(), entrada.getKey().serie(),
+                entrada.getValue().cantidad, entrada.getValue().importes);
+            escribirTotal(salida, formato, total);
+            resultado.add(total);
+        }
+        salida.flush();
+        return resultado;
+    }
+
+    /**
+     * Escribe el Libro IVA Ventas de un período en un archivo (UTF-8).
+     * @param periodo Mes a informar (por fecha de emisión)
+     * @param formato Formato de salida
+     * @param archivo Archivo destino; se reemplaza si existe
+     * @return Totales por letra y serie
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public List<TotalLibroIva> exportar(YearMonth periodo, FormatoLibroIva formato, Path archivo) throws IOException {
+        try (Writer salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            return exportar(periodo, formato, salida);
+        }
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private void escribir(Writer salida, FormatoLibroIva formato, ComprobanteLibroIva comprobante) {
+        try {
+            if (formato == FormatoLibroIva.CSV) {
+                salida.write(String.join(";",
+                    comprobante.comprobante().name(),
+                    comprobante.tipo().name(),
+                    String.valueOf(comprobante.serie()),
+                    String.valueOf(comprobante.numero()),
+                    comprobante.fecha().toString(),
+                    csv(comprobante.cuitDni()),
+                    csv(comprobante.razonSocial()),
+                    importesCsv(comprobante.importes())));
+            } else {
+                salida.write(comprobante.comprobante().getCodigo());
+                salida.write(comprobante.tipo().name());
+                salida.write(String.format("%05d%08d", comprobante.serie(), comprobante.numero()));
+                salida.write(comprobante.fecha().format(FECHA_ANCHO_FIJO));
+                salida.write(ajustar(comprobante.cuitDni(), 11));
+                salida.write(ajustar(comprobante.razonSocial(), ANCHO_RAZON_SOCIAL));
+                salida.write(importesAnchoFijo(comprobante.importes()));
+            }
+            salida.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escribirTotal(Writer salida, FormatoLibroIva formato, TotalLibroIva total) throws IOException {
+        if (formato == FormatoLibroIva.CSV) {
+            salida.write(String.join(";",
+                "TOTAL",
+                total.tipo().name(),
+                String.valueOf(total.serie()),
+                String.valueOf(total.cantidad()),
+                "", "", "",
+                importesCsv(total.importes())));
+        } else {
+            salida.write("TOT");
+            salida.write(total.tipo().name());
+            salida.write(String.format("%05d%08d", total.serie(), total.cantidad()));
+            salida.write(" ".repeat(8 + 11 + ANCHO_RAZON_SOCIAL));
+            salida.write(importesAnchoFijo(total.importes()));
+        }
+        salida.write('\n');
+    }
+
+    /**
+     * Encabezado CSV: datos del comprobante, neto e IVA de cada alícuota, descuento y total.
+     * En las filas TOTAL la columna "numero" tiene la cantidad de comprobantes.
+     */
+    private static String encabezadoCsv() {
+        StringBuilder encabezado = new StringBuilder("comprobante;tipo;serie;numero;fecha;cuit_dni;razon_social");
+        for (TipoAlicuotaIVA alicuota : TipoAlicuotaIVA.values()) {
+            String codigo = codigo(alicuota);
+            encabezado.append(";neto_").append(codigo).append(";iva_").append(codigo);
+        }
+        return encabezado.append(";descuento;total\n").toString();
+    }
+
+    private static String importesCsv(ImportesIva importes) {
+        StringBuilder linea = new StringBuilder();
+        for (TipoAlicuotaIVA alicuota : TipoAlicuotaIVA.values()) {
+            linea.append(importes.getNeto(alicuota).toPlainString()).append(';')
+                 .append(importes.getIva(alicuota).toPlainString()).append(';');
+        }
+        return linea.append(importes.getDescuento().toPlainString()).append(';')
+                    .append(importes.getTotal().toPlainString()).toString();
+    }
+
+    private static String importesAnchoFijo(ImportesIva importes) {
+        StringBuilder linea = new StringBuilder();
+        for (TipoAlicuotaIVA alicuota : TipoAlicuotaIVA.values()) {
+            linea.append(centavos(importes.getNeto(alicuota))).append(centavos(importes.getIva(alicuota)));
+        }
+        return linea.append(centavos(importes.getDescuento())).append(centavos(importes.getTotal())).toString();
+    }
+
+    /**
+     * Importe en centavos, completado con ceros a la izquierda (el signo ocupa la primera posición).
+     */
+    private static String centavos(BigDecimal importe) {
+        return String.format("%0" + ANCHO_IMPORTE + "d", importe.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact());
+    }
+
+    private static String ajustar(String valor, int ancho) {
+        String texto = valor == null ? "" : valor.replace('\n', ' ');
+        if (texto.length() > ancho) {
+            return texto.substring(0, ancho);
+        }
+        return texto + " ".repeat(ancho - texto.length());
+    }
+
+    /**
+     * Código de la alícuota para las columnas: IVA_10_5 -> 10_5, EXENTO -> exento.
+     */
+    private static String codigo(TipoAlicuotaIVA alicuota) {
+        return alicuota.name().toLowerCase().replace("iva_", "");
+    }
+
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(";") || valor.contains("\"") || valor.contains("\n")) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,32 @@
+package com.unam.integrador.services;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import com.unam.integrador.repositories.TiemposSolicitud;
+
+/**
+ * Suma a los tiempos de la solicitud HTTP actual el tiempo pasado en los
+ * servicios (ver {@link TiemposSolicitud}). Fuera de una solicitud sólo
+ * continúa la llamada.
+ */
+@Aspect
+@Component
+public class MedicionServicios {
+
+    @Around("within(com.unam.integrador.services..*) && execution(public * *(..))")
+    public Object medir(ProceedingJoinPoint llamada) throws Throwable {
+        TiemposSolicitud tiempos = TiemposSolicitud.actual();
+        if (tiempos == null) {
+            return llamada.proceed();
+        }
+        tiempos.entrarServicio();
+        try {
+            return llamada.proceed();
+        } finally {
+            tiempos.salirServicio();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoFactura;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de negocio de facturación, cobro y cachés, publicadas por Actuator
+ * (/actuator/prometheus).
+ *
+ * Los medidores se crean una sola vez al iniciar: registrar un evento es sumar
+ * a un contador ya resuelto, sin buscarlo por nombre y etiquetas. Los eventos
+ * que ocurren dentro de una transacción se cuentan cuando se confirma, para
+ * no contar facturas o pagos que se revirtieron.
+ *
+ * Los tiempos de los métodos públicos de los servicios los mide @Timed
+ * (métrica servicios.metodos, con la clase y el método como etiquetas).
+ */
+@Service
+public class MetricasService {
+
+    private final Map<TipoFactura, Counter> facturasEmitidas = new EnumMap<>(TipoFactura.class);
+    private final Counter facturasAnuladas;
+    private final Counter lotesAnulados;
+    private final Timer facturacionMasiva;
+    private final Counter facturasMasivas;
+    private final AtomicLong facturasPorSegundo = new AtomicLong();
+    private final Map<MetodoPago, DistributionSummary> montoPagos = new EnumMap<>(MetodoPago.class);
+    private final MeterRegistry registry;
+
+    public MetricasService(MeterRegistry registry) {
+        this.registry = registry;
+        for (TipoFactura tipo : TipoFactura.values()) {
+            facturasEmitidas.put(tipo, Counter.builder("facturas.emitidas")
+                .description("Facturas emitidas (individuales, proporcionales y de lotes)")
+                .tag("tipo", tipo.name())
+                .register(registry));
+        }
+        facturasAnuladas = Counter.builder("facturas.anuladas")
+            .description("Facturas anuladas con nota de crédito, sueltas o con su lote")
+            .register(registry);
+        lotesAnulados = Counter.builder("lotes.anulados")
+            .description("Lotes de facturación anulados")
+            .register(registry);
+        facturacionMasiva = Timer.builder("facturacion.masiva.duracion")
+            .description("Duración de la facturación masiva, hasta la confirmación de la transacción")
+            .register(registry);
+        facturasMasivas = Counter.builder("facturacion.masiva.facturas")
+            .description("Facturas emitidas por la facturación masiva")
+            .register(registry);
+        Gauge.builder("facturacion.masiva.facturas.por.segundo", facturasPorSegundo, AtomicLong::get)
+            .description("Facturas por segundo de la última facturación masiva")
+            .register(registry);
+        for (MetodoPago metodo : MetodoPago.values()) {
+            montoPagos.put(metodo, DistributionSummary.builder("pagos.monto")
+                .description("Monto de los pagos registrados")
+                .baseUnit("pesos")
+                .tag("metodo", metodo.name())
+                .register(registry));
+        }
+    }
+
+    /**
+     * Cuenta facturas emitidas, al confirmarse la transacción.
+     * @param facturas Facturas emitidas
+     */
+    public void registrarEmision(List<Factura> facturas) {
+        Map<TipoFactura, Integer> porTipo = new EnumMap<>(TipoFactura.class);
+        for (Factura factura : facturas) {
+            porTipo.merge(factura.getTipo(), 1, Integer::sum);
+        }
+        alConfirmar(() -> porTipo.forEach((tipo, cantidad) -> facturasEmitidas.get(tipo).increment(cantidad)));
+    }
+
+    /**
+     * Cuenta facturas anuladas, al confirmarse la transacción.
+     * @param cantidad Facturas anuladas
+     */
+    public void registrarAnulacion(int cantidad) {
+        alConfirmar(() -> facturasAnuladas.increment(cantidad));
+    }
+
+    /**
+     * Cuenta un lote anulado, al confirmarse la transacción.
+     */
+    public void registrarAnulacionLote() {
+        alConfirmar(lotesAnulados::increment);
+    }
+
+    /**
+     * Registra una facturación masiva: su duración se mide desde el inicio
+     * indicado hasta la confirmación de la transacción.
+     * @param inicioNanos Valor de System.nanoTime() al comenzar
+     * @param facturas Facturas emitidas en el lote
+     */
+    public void registrarFacturacionMasiva(long inicioNanos, int facturas) {
+        alConfirmar(() -> {
+            long duracion = System.nanoTime() - inicioNanos;
+            facturacionMasiva.record(duracion, TimeUnit.NANOSECONDS);
+            facturasMasivas.increment(facturas);
+            facturasPorSegundo.set(duracion == 0 ? 0 : Math.round(facturas * 1e9 / duracion));
+        });
+    }
+
+    /**
+     * Registra el monto de un pago, al confirmarse la transacción.
+     * @param metodoPago Método de pago
+     * @param monto Monto del pago
+     */
+    public void registrarPago(MetodoPago metodoPago, BigDecimal monto) {
+        double valor = monto.doubleValue();
+        alConfirmar(() -> montoPagos.get(metodoPago).record(valor));
+    }
+
+    /**
+     * Crea el contador de consultas a una caché para un resultado
+     * (acierto o fallo). El servicio dueño de la caché lo guarda y lo
+     * incrementa en cada consulta.
+     * @param cache Nombre de la caché
+     * @param acierto true para el contador de aciertos
+     * @return Contador cache.consultas con las etiquetas cache y resultado
+     */
+    public Counter contadorCache(String cache, boolean acierto) {
+        return Counter.builder("cache.consultas")
+            .description("Consultas a cachés en memoria de la aplicación")
+            .tag("cache", cache)
+            .tag("resultado", acierto ? "acierto" : "fallo")
+            .register(registry);
+    }
+
+    /**
+     * Ejecuta la acción al confirmarse la transacción actual, o en el momento
+     * si no hay una activa. Las acciones de una transacción se guardan juntas
+     * en una sola sincronización (la facturación masiva registra una por pago).
+     */
+    private static void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof AccionesPendientes pendientes) {
+                pendientes.acciones.add(accion);
+                return;
+            }
+        }
+        AccionesPendientes pendientes = new AccionesPendientes();
+        pendientes.acciones.add(accion);
+        TransactionSynchronizationManager.registerSynchronization(pendientes);
+    }
+
+    /**
+     * Métricas registradas en una transacción, pendientes de su confirmación.
+     */
+    private static final class AccionesPendientes implements TransactionSynchronization {
+        private final List<Runnable> acciones = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            acciones.forEach(Runnable::run);
+        }
+    }
+}
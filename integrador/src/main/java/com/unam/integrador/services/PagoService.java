@@ -2,24 +2,38 @@ package com.unam.integrador.services;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.dto.SolicitudPagoCombinado;
+import com.unam.integrador.model.AjusteContadoresLote;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.DetallePago;
+import com.unam.integrador.model.DistribucionPago;
 import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.LineaExtractoImportada;
+import com.unam.integrador.model.MovimientoCuenta;
 import com.unam.integrador.model.Pago;
 import com.unam.integrador.model.enums.EstadoFactura;
 import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoMovimientoCuenta;
 import com.unam.integrador.repositories.CuentaClienteRepositorie;
 import com.unam.integrador.repositories.DetallePagoRepository;
 import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.ImputacionPagoRepository;
+import com.unam.integrador.repositories.LineaExtractoImportadaRepository;
+import com.unam.integrador.repositories.LoteFacturacionRepository;
+import com.unam.integrador.repositories.NumeroReciboRepository;
 import com.unam.integrador.repositories.PagoRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 /**
  * Servicio de aplicación para la gestión de pagos.
  * 
@@ -34,8 +48,14 @@ import com.unam.integrador.repositories.PagoRepository;
  * - DetallePago: validaciones de integridad
  */
 @Service
+@Timed("servicios.metodos")
 public class PagoService {
     
+    /**
+     * Cantidad de facturas procesadas por bloque al aplicar saldo a favor en la facturación masiva.
+     */
+    private static final int TAMANIO_BLOQUE_APLICACION = 500;
+    
     @Autowired
     private PagoRepository pagoRepository;
     
@@ -47,6 +67,36 @@ public class PagoService {
     
     @Autowired
     private DetallePagoRepository detallePagoRepository;
+    
+    @Autowired
+    private ImputacionPagoRepository imputacionPagoRepository;
+    
+    @Autowired
+    private LoteFacturacionRepository loteFacturacionRepository;
+    
+    @Autowired
+    private NumeroReciboRepository numeroReciboRepository;
+    
+    @Autowired
+    private EjecutorConReintentos ejecutorConReintentos;
+    
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+    
+    @Autowired
+    private LineaExtractoImportadaRepository lineaExtractoImportadaRepository;
+    
+    @Autowired
+    private LibroCuentaService libroCuentaService;
+    
+    @Autowired
+    private ReporteAntiguedadDeudaService reporteAntiguedadDeudaService;
+    
+    @Autowired
+    private TableroService tableroService;
+    
+    @Autowired
+    private MetricasService metricasService;
 
     
     /**
@@ -159,6 +209,12 @@ public class PagoService {
      * 5. Si sobra dinero, crea un saldo a favor para el cliente
      * 6. Genera un único recibo con el detalle de todas las facturas pagadas
      * 
+     * Concurrencia: el cliente y luego las facturas se bloquean para escritura
+     * (facturas de la más antigua a la más reciente, por fecha de emisión e ID,
+     * que es a la vez el orden de imputación y un orden fijo que evita deadlocks
+     * entre cajeros).
+     * Si aun así hay un conflicto de versión, la operación completa se reintenta.
+     * 
      * @param facturasIds Lista de IDs de las facturas a pagar
      * @param montoTotal Monto total del pago recibido con el método de pago
      * @param saldoAFavorAplicar Monto del saldo a favor del cliente que se aplicará
@@ -167,35 +223,132 @@ public class PagoService {
      * @return El recibo generado
      * @throws IllegalArgumentException si hay errores en las validaciones
      */
-    @Transactional
     public String registrarPagoCombinado(
             List<Long> facturasIds, 
             BigDecimal montoTotal, 
             BigDecimal saldoAFavorAplicar,
             MetodoPago metodoPago, 
             String referencia) {
+        return registrarPagoCombinado(facturasIds, montoTotal, saldoAFavorAplicar, metodoPago, referencia, null);
+    }
+    
+    /**
+     * Registra un pago combinado de forma idempotente.
+     * 
+     * Si la clave ya fue procesada, devuelve el recibo original sin volver a
+     * tocar facturas ni pagos (una sola búsqueda por índice, o ninguna si la
+     * clave está en caché). Si dos solicitudes con la misma clave llegan a la
+     * vez, la segunda se revierte al insertar la clave y devuelve el recibo
+     * de la primera.
+     * 
+     * @param claveIdempotencia Clave única de la operación (opcional; sin clave no hay deduplicación)
+     * @return El recibo generado, o el original si la clave ya fue procesada
+     * @see #registrarPagoCombinado(List, BigDecimal, BigDecimal, MetodoPago, String)
+     */
+    public String registrarPagoCombinado(
+            List<Long> facturasIds, 
+            BigDecimal montoTotal, 
+            BigDecimal saldoAFavorAplicar,
+            MetodoPago metodoPago, 
+            String referencia,
+            String claveIdempotencia) {
         
         // 1. Validar y normalizar parámetros
-        if (saldoAFavorAplicar == null) {
-            saldoAFavorAplicar = BigDecimal.ZERO;
+        BigDecimal monto = (montoTotal != null) ? montoTotal : BigDecimal.ZERO;
+        BigDecimal saldoAFavor = (saldoAFavorAplicar != null) ? saldoAFavorAplicar : BigDecimal.ZERO;
+        
+        if (monto.add(saldoAFavor).compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El monto total debe ser mayor a cero");
         }
-        if (montoTotal == null) {
-            montoTotal = BigDecimal.ZERO;
+        
+        if (claveIdempotencia == null) {
+            return ejecutorConReintentos.ejecutar(() ->
+                registrarPagoCombinadoEnTransaccion(
+                    facturasIds, monto, saldoAFavor, metodoPago, referencia, null, false));
         }
-        BigDecimal dineroTotal = montoTotal.add(saldoAFavorAplicar);
         
-        if (dineroTotal.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("El monto total debe ser mayor a cero");
+        // Reenvío de una operación ya procesada: devolver el recibo original
+        IdempotenciaService.ClaveBuscada previa = idempotenciaService.buscar(claveIdempotencia);
+        if (previa.procesada()) {
+            return previa.numeroRecibo();
+        }
+        
+        try {
+            return ejecutorConReintentos.ejecutar(() ->
+                registrarPagoCombinadoEnTransaccion(
+                    facturasIds, monto, saldoAFavor, metodoPago, referencia, claveIdempotencia, previa.vencida()));
+        } catch (DataIntegrityViolationException e) {
+            // Otra solicitud con la misma clave se confirmó primero
+            return idempotenciaService.buscarRecibo(claveIdempotencia).orElseThrow(() -> e);
         }
+    }
+    
+    /**
+     * Registra varios pagos combinados en una única transacción.
+     * 
+     * Cada solicitud se procesa con la misma lógica que {@link #registrarPagoCombinado}
+     * (bloqueos, distribución, excedente a saldo a favor, recibo propio). Si una
+     * solicitud falla, se revierte el lote completo; quien llama decide si
+     * reprocesar las solicitudes de a una. Ante conflictos de concurrencia
+     * se reintenta el lote entero.
+     * 
+     * Para evitar deadlocks, las solicitudes deberían venir ordenadas por cliente.
+     * 
+     * Las solicitudes con huella de extracto la registran en la misma
+     * transacción; si la huella ya existe, el lote se revierte con
+     * DataIntegrityViolationException.
+     * 
+     * @param solicitudes Pagos a registrar
+     * @return Números de recibo generados, en el mismo orden que las solicitudes
+     * @throws IllegalArgumentException si alguna solicitud no es válida
+     */
+    public List<String> registrarPagosEnLote(List<SolicitudPagoCombinado> solicitudes) {
+        for (SolicitudPagoCombinado solicitud : solicitudes) {
+            if (solicitud.montoTotal() == null || solicitud.montoTotal().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("El monto total debe ser mayor a cero");
+            }
+        }
+        
+        return ejecutorConReintentos.ejecutar(() -> {
+            List<String> recibos = new ArrayList<>(solicitudes.size());
+            LocalDateTime ahora = LocalDateTime.now();
+            for (SolicitudPagoCombinado solicitud : solicitudes) {
+                String numeroRecibo = registrarPagoCombinadoEnTransaccion(
+                    solicitud.facturasIds(), solicitud.montoTotal(), BigDecimal.ZERO,
+                    solicitud.metodoPago(), solicitud.referencia(), null, false);
+                if (solicitud.huellaExtracto() != null) {
+                    // Inserción inmediata: una línea ya importada falla antes de seguir con el lote
+                    lineaExtractoImportadaRepository.saveAndFlush(
+                        LineaExtractoImportada.registrar(solicitud.huellaExtracto(), numeroRecibo, ahora));
+                }
+                recibos.add(numeroRecibo);
+            }
+            return recibos;
+        });
+    }
+    
+    /**
+     * Cuerpo transaccional de {@link #registrarPagoCombinado}.
+     * Se ejecuta completo en cada reintento, leyendo siempre el estado actual.
+     */
+    private String registrarPagoCombinadoEnTransaccion(
+            List<Long> facturasIds, 
+            BigDecimal montoTotal, 
+            BigDecimal saldoAFavorAplicar,
+            MetodoPago metodoPago, 
+            String referencia,
+            String claveIdempotencia,
+            boolean reemplazarClaveVencida) {
+        EventosJfr.RegistroPago evento = new EventosJfr.RegistroPago();
+        evento.begin();
         
-        // 2. Obtener facturas y cliente
-        List<Factura> facturas = facturaRepository.findAllById(facturasIds);
+        // 2. Bloquear cliente y facturas (siempre en el mismo orden: cliente, facturas por antigüedad)
+        CuentaCliente cliente = bloquearClienteDeFacturas(facturasIds);
+        List<Factura> facturas = facturaRepository.findAllByIdParaActualizar(facturasIds);
         if (facturas.isEmpty()) {
             throw new IllegalArgumentException("No se encontraron facturas");
         }
         
-        CuentaCliente cliente = facturas.get(0).getCliente();
-        
         // 3. Descontar saldo a favor del cliente
         if (saldoAFavorAplicar.compareTo(BigDecimal.ZERO) > 0) {
             cliente.aplicarSaldoAFavor(saldoAFavorAplicar);
@@ -205,6 +358,9 @@ public class PagoService {
         // 4. Crear pagos únicos (máximo 2: uno por saldo a favor y otro por método de pago)
         List<Pago> pagosGenerados = new ArrayList<>();
         String numeroRecibo = generarNumeroReciboSecuencial();
+        if (claveIdempotencia != null) {
+            idempotenciaService.registrar(claveIdempotencia, numeroRecibo, reemplazarClaveVencida);
+        }
         
         Pago pagoSaldoAFavor = null;
         Pago pagoMetodoPago = null;
@@ -214,6 +370,8 @@ public class PagoService {
             pagoSaldoAFavor.setNumeroRecibo(numeroRecibo);
             pagoRepository.save(pagoSaldoAFavor);
             pagosGenerados.add(pagoSaldoAFavor);
+            tableroService.registrarCobro(pagoSaldoAFavor.getFechaPago(), MetodoPago.SALDO_A_FAVOR, saldoAFavorAplicar);
+            metricasService.registrarPago(MetodoPago.SALDO_A_FAVOR, saldoAFavorAplicar);
         }
         
         if (montoTotal.compareTo(BigDecimal.ZERO) > 0) {
@@ -221,43 +379,41 @@ public class PagoService {
             pagoMetodoPago.setNumeroRecibo(numeroRecibo);
             pagoRepository.save(pagoMetodoPago);
             pagosGenerados.add(pagoMetodoPago);
+            tableroService.registrarCobro(pagoMetodoPago.getFechaPago(), metodoPago, montoTotal);
+            metricasService.registrarPago(metodoPago, montoTotal);
         }
         
-        // 5. Distribuir los pagos entre las facturas usando DetallePago
-        BigDecimal saldoAFavorRestante = saldoAFavorAplicar;
-        BigDecimal dineroRestante = dineroTotal;
-        
-        for (Factura factura : facturas) {
-            BigDecimal totalDisponible = saldoAFavorRestante.add(dineroRestante);
-            if (totalDisponible.compareTo(BigDecimal.ZERO) <= 0) {
-                break;
-            }
-            
-            BigDecimal montoPorPagar = totalDisponible.min(factura.getSaldoPendiente());
-            BigDecimal montoConSaldoAFavor = montoPorPagar.min(saldoAFavorRestante);
-            BigDecimal montoConMetodo = montoPorPagar.subtract(montoConSaldoAFavor);
-            
-            // Crear detalles de pago para esta factura
-            if (montoConSaldoAFavor.compareTo(BigDecimal.ZERO) > 0 && pagoSaldoAFavor != null) {
-                detallePagoRepository.save(factura.registrarPago(pagoSaldoAFavor, montoConSaldoAFavor));
-            }
-            
-            if (montoConMetodo.compareTo(BigDecimal.ZERO) > 0 && pagoMetodoPago != null) {
-                detallePagoRepository.save(factura.registrarPago(pagoMetodoPago, montoConMetodo));
-            }
-            
-            saldoAFavorRestante = saldoAFavorRestante.subtract(montoConSaldoAFavor);
-            dineroRestante = dineroRestante.subtract(montoConMetodo);
-            facturaRepository.save(factura);
-        }
+        // 5. Distribuir los pagos entre las facturas (en memoria) y persistir en bloque
+        DistribucionPago distribucion = DistribucionPago.calcular(facturas, saldoAFavorAplicar, montoTotal);
+        tableroService.registrarImputaciones(distribucion.getImputaciones());
+        imputacionPagoRepository.registrar(distribucion, pagoSaldoAFavor, pagoMetodoPago);
         
         // 6. Registrar excedente como saldo a favor del cliente
-        BigDecimal totalRestante = saldoAFavorRestante.add(dineroRestante);
+        BigDecimal totalRestante = distribucion.getRemanente();
         if (totalRestante.compareTo(BigDecimal.ZERO) > 0) {
             cliente.registrarSaldoAFavor(totalRestante);
             cuentaClienteRepository.save(cliente);
         }
         
+        // Registrar en el libro de cuenta lo aplicado de cada fuente y el excedente de dinero
+        // (el saldo a favor no aplicado vuelve al cliente, no es un movimiento)
+        List<MovimientoCuenta> movimientos = new ArrayList<>();
+        agregarMovimiento(movimientos, cliente, TipoMovimientoCuenta.SALDO_A_FAVOR_CONSUMIDO,
+            saldoAFavorAplicar.subtract(distribucion.getSaldoAFavorRestante()), numeroRecibo);
+        agregarMovimiento(movimientos, cliente, TipoMovimientoCuenta.PAGO_APLICADO,
+            montoTotal.subtract(distribucion.getDineroRestante()), numeroRecibo);
+        agregarMovimiento(movimientos, cliente, TipoMovimientoCuenta.SALDO_A_FAVOR_GENERADO,
+            distribucion.getDineroRestante(), numeroRecibo);
+        libroCuentaService.registrar(movimientos);
+        reporteAntiguedadDeudaService.invalidar();
+        
+        evento.clienteId = cliente.getId();
+        evento.facturas = facturas.size();
+        evento.metodoPago = metodoPago.name();
+        evento.monto = montoTotal.add(saldoAFavorAplicar).doubleValue();
+        evento.numeroRecibo = numeroRecibo;
+        evento.commit();
+        
         // 7. Retornar número de recibo
         return numeroRecibo;
     }
@@ -286,30 +442,39 @@ public class PagoService {
      * @throws IllegalArgumentException si hay errores en las validaciones
      * @throws IllegalStateException si el cliente no tiene saldo a favor suficiente
      */
-    @Transactional
     public String aplicarSaldoAFavor(Long clienteId, List<Long> facturasIds) {
-        // 1. Obtener cliente y facturas
-        CuentaCliente cliente = cuentaClienteRepository.findById(clienteId).orElse(null);
+        return ejecutorConReintentos.ejecutar(() -> aplicarSaldoAFavorEnTransaccion(clienteId, facturasIds));
+    }
+    
+    /**
+     * Cuerpo transaccional de {@link #aplicarSaldoAFavor}.
+     */
+    private String aplicarSaldoAFavorEnTransaccion(Long clienteId, List<Long> facturasIds) {
+        // 1. Obtener cliente y facturas bloqueados (mismo orden que en el pago combinado)
+        CuentaCliente cliente = cuentaClienteRepository.findByIdParaActualizar(clienteId).orElse(null);
         if (cliente == null) {
             throw new IllegalArgumentException("Cliente no encontrado");
         }
         
-        List<Factura> facturas = facturaRepository.findAllById(facturasIds);
+        List<Factura> facturas = facturaRepository.findAllByIdParaActualizar(facturasIds);
         if (facturas.isEmpty()) {
             throw new IllegalArgumentException("No se encontraron facturas");
         }
+        if (facturas.stream().anyMatch(f -> !f.getCliente().getId().equals(clienteId))) {
+            throw new IllegalArgumentException("Todas las facturas deben pertenecer al cliente");
+        }
         
         // 2. Crear un único pago con el saldo a favor total aplicado
         BigDecimal saldoDisponible = cliente.getSaldoAFavor();
-        BigDecimal montoTotalAAplicar = BigDecimal.ZERO;
         
         // Calcular cuánto saldo se puede aplicar
+        BigDecimal deudaTotal = BigDecimal.ZERO;
         for (Factura factura : facturas) {
-            BigDecimal montoAplicable = saldoDisponible.subtract(montoTotalAAplicar).min(factura.getSaldoPendiente());
-            if (montoAplicable.compareTo(BigDecimal.ZERO) > 0) {
-                montoTotalAAplicar = montoTotalAAplicar.add(montoAplicable);
+            if (factura.getSaldoPendiente().compareTo(BigDecimal.ZERO) > 0) {
+                deudaTotal = deudaTotal.add(factura.getSaldoPendiente());
             }
         }
+        BigDecimal montoTotalAAplicar = saldoDisponible.min(deudaTotal);
         
         if (montoTotalAAplicar.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalStateException("No hay saldo a favor suficiente para aplicar");
@@ -320,47 +485,123 @@ public class PagoService {
         Pago pago = Pago.crearPago(montoTotalAAplicar, MetodoPago.SALDO_A_FAVOR, null);
         pago.setNumeroRecibo(numeroRecibo);
         pagoRepository.save(pago);
+        tableroService.registrarCobro(pago.getFechaPago(), MetodoPago.SALDO_A_FAVOR, montoTotalAAplicar);
+        metricasService.registrarPago(MetodoPago.SALDO_A_FAVOR, montoTotalAAplicar);
         
-        // 3. Distribuir el pago entre las facturas
-        BigDecimal saldoRestante = montoTotalAAplicar;
-        
-        for (Factura factura : facturas) {
-            if (saldoRestante.compareTo(BigDecimal.ZERO) <= 0) {
-                break;
-            }
-            
-            BigDecimal montoAplicar = saldoRestante.min(factura.getSaldoPendiente());
-            detallePagoRepository.save(factura.registrarPago(pago, montoAplicar));
-            facturaRepository.save(factura);
-            
-            saldoRestante = saldoRestante.subtract(montoAplicar);
-        }
+        // 3. Distribuir el pago entre las facturas (en memoria) y persistir en bloque
+        DistribucionPago distribucion = DistribucionPago.calcular(facturas, montoTotalAAplicar, BigDecimal.ZERO);
+        tableroService.registrarImputaciones(distribucion.getImputaciones());
+        imputacionPagoRepository.registrar(distribucion, pago, null);
         
         // 4. Actualizar saldo del cliente
         cliente.aplicarSaldoAFavor(montoTotalAAplicar);
         cuentaClienteRepository.save(cliente);
+        libroCuentaService.registrar(MovimientoCuenta.deRecibo(
+            cliente, TipoMovimientoCuenta.SALDO_A_FAVOR_CONSUMIDO, montoTotalAAplicar, numeroRecibo));
+        reporteAntiguedadDeudaService.invalidar();
         
         // 5. Retornar número de recibo
         return numeroRecibo;
     }
     
-    // --- Métodos privados auxiliares ---
-    
     /**
-     * Genera un número de recibo secuencial basado en números de recibo únicos existentes.
-     * Cuenta cuántos números de recibo distintos hay y genera el siguiente.
+     * Aplica el saldo a favor de cada cliente a su factura recién emitida.
+     * 
+     * Pensado para la facturación masiva: se ejecuta dentro de su transacción,
+     * con los clientes con saldo a favor ya bloqueados y las facturas ya
+     * guardadas. Saldo y estado de facturas y clientes se actualizan sobre las
+     * entidades (Hibernate agrupa los UPDATE), y los pagos SALDO_A_FAVOR con
+     * su detalle se insertan en bloque, con un recibo por factura.
+     * 
+     * @param facturas Facturas recién emitidas
+     * @return Cantidad de facturas a las que se aplicó saldo a favor
      */
-    private String generarNumeroReciboSecuencial() {
-        List<Pago> todosPagos = pagoRepository.findAll();
-        List<String> numerosUnicos = new ArrayList<>();
+    @Transactional
+    public int aplicarSaldoAFavorAFacturasNuevas(List<Factura> facturas) {
+        int aplicadas = 0;
         
-        for (Pago pago : todosPagos) {
-            String numeroRecibo = pago.getNumeroRecibo();
-            if (numeroRecibo != null && !numeroRecibo.isEmpty() && !numerosUnicos.contains(numeroRecibo)) {
-                numerosUnicos.add(numeroRecibo);
+        for (int desde = 0; desde < facturas.size(); desde += TAMANIO_BLOQUE_APLICACION) {
+            List<Factura> bloque = facturas.subList(desde, Math.min(desde + TAMANIO_BLOQUE_APLICACION, facturas.size()));
+            List<Factura> conSaldoAplicado = new ArrayList<>();
+            List<BigDecimal> montos = new ArrayList<>();
+            AjusteContadoresLote ajusteLotes = new AjusteContadoresLote();
+            
+            for (Factura factura : bloque) {
+                CuentaCliente cliente = factura.getCliente();
+                BigDecimal monto = cliente.getSaldoAFavor().min(factura.getSaldoPendiente());
+                if (monto.compareTo(BigDecimal.ZERO) <= 0) {
+                    continue;
+                }
+                
+                DistribucionPago distribucion = DistribucionPago.calcular(List.of(factura), monto, BigDecimal.ZERO);
+                tableroService.registrarImputaciones(distribucion.getImputaciones());
+                tableroService.registrarCobro(LocalDate.now(), MetodoPago.SALDO_A_FAVOR, monto);
+                metricasService.registrarPago(MetodoPago.SALDO_A_FAVOR, monto);
+                EstadoFactura estadoAnterior = factura.getEstado();
+                factura.aplicarImputacion(distribucion.getImputaciones().get(0));
+                ajusteLotes.registrar(factura, estadoAnterior);
+                cliente.aplicarSaldoAFavor(monto);
+                conSaldoAplicado.add(factura);
+                montos.add(monto);
             }
+            
+            // Un recibo por factura, reservados juntos para todo el bloque
+            List<String> recibos = numeroReciboRepository.siguientes(conSaldoAplicado.size());
+            List<ImputacionPagoRepository.PagoEnBloque> pagos = new ArrayList<>(conSaldoAplicado.size());
+            List<MovimientoCuenta> movimientos = new ArrayList<>(conSaldoAplicado.size());
+            for (int i = 0; i < conSaldoAplicado.size(); i++) {
+                Factura factura = conSaldoAplicado.get(i);
+                pagos.add(new ImputacionPagoRepository.PagoEnBloque(
+                    recibos.get(i), factura.getIdFactura(), montos.get(i), MetodoPago.SALDO_A_FAVOR));
+                movimientos.add(MovimientoCuenta.deRecibo(
+                    factura.getCliente(), TipoMovimientoCuenta.SALDO_A_FAVOR_CONSUMIDO, montos.get(i), recibos.get(i)));
+            }
+            
+            // Hace flush de facturas y clientes, e inserta pagos y detalles del bloque
+            imputacionPagoRepository.insertarPagos(pagos);
+            loteFacturacionRepository.ajustarContadores(ajusteLotes);
+            libroCuentaService.registrar(movimientos);
+            aplicadas += pagos.size();
         }
         
-        return String.format("%08d", numerosUnicos.size() + 1);
+        if (aplicadas > 0) {
+            reporteAntiguedadDeudaService.invalidar();
+        }
+        return aplicadas;
+    }
+    
+    // --- Métodos privados auxiliares ---
+    
+    /**
+     * Bloquea para escritura al cliente dueño de las facturas.
+     * Valida que todas las facturas pertenezcan al mismo cliente.
+     */
+    private CuentaCliente bloquearClienteDeFacturas(List<Long> facturasIds) {
+        List<Long> clientesIds = facturaRepository.findClienteIdsByIdFacturaIn(facturasIds);
+        if (clientesIds.isEmpty()) {
+            throw new IllegalArgumentException("No se encontraron facturas");
+        }
+        if (clientesIds.size() > 1) {
+            throw new IllegalArgumentException("Todas las facturas deben pertenecer al mismo cliente");
+        }
+        return cuentaClienteRepository.findByIdParaActualizar(clientesIds.get(0))
+            .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
+    }
+    
+    /**
+     * Agrega un movimiento del libro de cuenta si el importe es mayor a cero.
+     */
+    private void agregarMovimiento(List<MovimientoCuenta> movimientos, CuentaCliente cliente,
+                                   TipoMovimientoCuenta tipo, BigDecimal importe, String numeroRecibo) {
+        if (importe.compareTo(BigDecimal.ZERO) > 0) {
+            movimientos.add(MovimientoCuenta.deRecibo(cliente, tipo, importe, numeroRecibo));
+        }
+    }
+    
+    /**
+     * Genera el siguiente número de recibo desde la secuencia de la base de datos.
+     */
+    private String generarNumeroReciboSecuencial() {
+        return numeroReciboRepository.siguiente();
     }
 }
\ No newline at end of file
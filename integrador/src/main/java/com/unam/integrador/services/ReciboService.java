@@ -17,6 +17,8 @@ import com.unam.integrador.model.enums.MetodoPago;
 import com.unam.integrador.repositories.DetallePagoRepository;
 import com.unam.integrador.repositories.PagoRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 /**
  * Servicio para la generación dinámica de comprobantes de recibo.
  * 
@@ -30,6 +32,7 @@ import com.unam.integrador.repositories.PagoRepository;
  * - El recibo es un documento generado, no una entidad de negocio
  */
 @Service
+@Timed("servicios.metodos")
 public class ReciboService {
     
     @Autowired
@@ -47,6 +50,9 @@ public class ReciboService {
      */
     @Transactional(readOnly = true)
     public ReciboDTO generarReciboDesdePago(Pago pago) {
+        EventosJfr.GeneracionRecibo evento = new EventosJfr.GeneracionRecibo();
+        evento.begin();
+        
         if (pago == null) {
             throw new IllegalArgumentException("El pago no puede ser nulo");
         }
@@ -105,7 +111,7 @@ public class ReciboService {
                 .build());
         }
         
-        return ReciboDTO.builder()
+        ReciboDTO recibo = ReciboDTO.builder()
             .numero(numeroRecibo)
             .fecha(pago.getFechaPago())
             .monto(pago.getMonto())
@@ -121,6 +127,8 @@ public class ReciboService {
             .observaciones(null)
             .desglosePagos(desglosePagos)
             .build();
+        terminarEvento(evento, recibo, 1);
+        return recibo;
     }
     
     /**
@@ -173,6 +181,9 @@ public class ReciboService {
      */
     @Transactional(readOnly = true)
     public ReciboDTO generarReciboDesdeMultiplesPagos(List<Pago> pagos, String numeroRecibo) {
+        EventosJfr.GeneracionRecibo evento = new EventosJfr.GeneracionRecibo();
+        evento.begin();
+        
         if (pagos == null || pagos.isEmpty()) {
             throw new IllegalArgumentException("La lista de pagos no puede estar vacía");
         }
@@ -266,7 +277,7 @@ public class ReciboService {
             }
         }
         
-        return ReciboDTO.builder()
+        ReciboDTO recibo = ReciboDTO.builder()
             .numero(numeroRecibo)
             .fecha(fecha)
             .monto(montoTotal)
@@ -282,6 +293,19 @@ public class ReciboService {
             .observaciones(null)
             .desglosePagos(desglosePagos)
             .build();
+        terminarEvento(evento, recibo, pagos.size());
+        return recibo;
+    }
+    
+    /**
+     * Completa y registra el evento de JFR de la generación de un recibo.
+     */
+    private static void terminarEvento(EventosJfr.GeneracionRecibo evento, ReciboDTO recibo, int pagos) {
+        evento.clienteId = recibo.getClienteId() != null ? recibo.getClienteId() : 0;
+        evento.numeroRecibo = recibo.getNumero();
+        evento.pagos = pagos;
+        evento.facturas = recibo.getFacturasIds().size();
+        evento.commit();
     }
     
     /**
@@ -0,0 +1,27 @@
+package com.unam.integrador.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Herramienta para regenerar el libro de cuenta desde los datos existentes.
+ *
+ * Se activa al iniciar la aplicación con {@code --libro-cuenta.reconstruir=true},
+ * por ejemplo la primera vez que se despliega el libro sobre una base con
+ * historial, o si se sospecha que quedó desalineado.
+ */
+@Component
+@ConditionalOnProperty(name = "libro-cuenta.reconstruir", havingValue = "true")
+public class ReconstruccionLibroCuenta implements ApplicationRunner {
+
+    @Autowired
+    private LibroCuentaService libroCuentaService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        libroCuentaService.reconstruir();
+    }
+}
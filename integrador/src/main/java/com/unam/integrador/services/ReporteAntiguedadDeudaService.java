@@ -0,0 +1,174 @@
+package com.unam.integrador.services;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.dto.AntiguedadDeudaCliente;
+import com.unam.integrador.dto.ReporteAntiguedadDeuda;
+import com.unam.integrador.dto.TramosAntiguedadDeuda;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.FacturaRepository;
+
+/**
+ * Servicio del reporte de antigüedad de deuda (0-30, 31-60, 61-90 y más de 90
+ * días desde el vencimiento), por cliente y en total.
+ *
+ * Los tramos se calculan en la base con una única consulta agrupada sobre el
+ * saldo pendiente, sin cargar facturas. El resultado se guarda en memoria por
+ * día y filtro, y se descarta cuando se confirma una operación que cambia
+ * saldos (pagos, anulaciones, emisiones): quien la ejecuta llama a
+ * {@link #invalidar()} dentro de su transacción.
+ */
+@Service
+public class ReporteAntiguedadDeudaService {
+
+    private static final List<EstadoFactura> ESTADOS_IMPAGOS = List.of(
+        EstadoFactura.PENDIENTE,
+        EstadoFactura.VENCIDA,
+        EstadoFactura.PAGADA_PARCIALMENTE
+    );
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    /**
+     * Clave de la caché: los tramos dependen de la fecha y de los filtros.
+     */
+    private record ClaveReporte(LocalDate fecha, TipoFactura tipo, EstadoCuenta estadoCuenta) {
+    }
+
+    private final Map<ClaveReporte, ReporteAntiguedadDeuda> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Se incrementa en cada invalidación. Un reporte calculado mientras se
+     * confirmaba un cambio no se guarda, para no volver a cachear datos viejos.
+     */
+    private final AtomicLong generacion = new AtomicLong();
+
+    /**
+     * Obtiene el reporte de antigüedad de deuda al día de hoy.
+     * @param tipo Tipo de factura (null = todos)
+     * @param estadoCuenta Estado de cuenta de los clientes (null = todos)
+     * @return Reporte con la deuda por cliente y los totales por tramo
+     */
+    @Transactional(readOnly = true)
+    public ReporteAntiguedadDeuda obtenerReporte(TipoFactura tipo, EstadoCuenta estadoCuenta) {
+        return obtenerReporte(LocalDate.now(), tipo, estadoCuenta);
+    }
+
+    /**
+     * Obtiene el reporte de antigüedad de deuda calculado a una fecha, con los
+     * saldos pendientes actuales.
+     * @param fecha Fecha desde la que se cuentan los días de vencida
+     * @param tipo Tipo de factura (null = todos)
+     * @param estadoCuenta Estado de cuenta de los clientes (null = todos)
+     * @return Reporte con la deuda por cliente y los totales por tramo
+     */
+    @Transactional(readOnly = true)
+    public ReporteAntiguedadDeuda obtenerReporte(LocalDate fecha, TipoFactura tipo, EstadoCuenta estadoCuenta) {
+        ClaveReporte clave = new ClaveReporte(fecha, tipo, estadoCuenta);
+        ReporteAntiguedadDeuda enCache = cache.get(clave);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        long generacionInicial = generacion.get();
+        ReporteAntiguedadDeuda reporte = calcular(fecha, tipo, estadoCuenta);
+        synchronized (cache) {
+            if (generacion.get() == generacionInicial) {
+                // Sólo se conservan los reportes del día: los de días anteriores ya no se piden
+                cache.keySet().removeIf(k -> !k.fecha().equals(fecha));
+                cache.put(clave, reporte);
+            }
+        }
+        return reporte;
+    }
+
+    /**
+     * Descarta los reportes en caché. Dentro de una transacción, la caché se
+     * limpia recién cuando se confirma (antes los saldos nuevos no son visibles).
+     */
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    limpiarCache();
+                }
+            });
+        } else {
+            limpiarCache();
+        }
+    }
+
+    /**
+     * Escribe el reporte en formato CSV (separador ";", importes con punto decimal).
+     * @param reporte Reporte a exportar
+     * @param salida Destino del CSV
+     * @throws IOException si falla la escritura
+     */
+    public void exportarCsv(ReporteAntiguedadDeuda reporte, Writer salida) throws IOException {
+        salida.write("cliente_id;cliente;cuit_dni;0_30;31_60;61_90;mas_90;total\n");
+        for (AntiguedadDeudaCliente fila : reporte.clientes()) {
+            escribirFila(salida, String.valueOf(fila.clienteId()), fila.nombre(), fila.cuitDni(), fila.tramos());
+        }
+        escribirFila(salida, "", "TOTAL", "", reporte.totales());
+        salida.flush();
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private ReporteAntiguedadDeuda calcular(LocalDate fecha, TipoFactura tipo, EstadoCuenta estadoCuenta) {
+        List<AntiguedadDeudaCliente> clientes = facturaRepository.sumarDeudaPorAntiguedad(
+            ESTADOS_IMPAGOS, fecha.minusDays(30), fecha.minusDays(60), fecha.minusDays(90), tipo, estadoCuenta);
+        TramosAntiguedadDeuda totales = TramosAntiguedadDeuda.CERO;
+        for (AntiguedadDeudaCliente cliente : clientes) {
+            totales = totales.sumar(cliente.tramos());
+        }
+        return new ReporteAntiguedadDeuda(fecha, tipo, estadoCuenta, List.copyOf(clientes), totales);
+    }
+
+    private void limpiarCache() {
+        synchronized (cache) {
+            generacion.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    private static void escribirFila(Writer salida, String id, String nombre, String cuitDni,
+                                     TramosAntiguedadDeuda tramos) throws IOException {
+        salida.write(String.join(";",
+            id,
+            csv(nombre),
+            csv(cuitDni),
+            tramos.hasta30().toPlainString(),
+            tramos.de31a60().toPlainString(),
+            tramos.de61a90().toPlainString(),
+            tramos.masDe90().toPlainString(),
+            tramos.getTotal().toPlainString()));
+        salida.write('\n');
+    }
+
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(";") || valor.contains("\"") || valor.contains("\n")) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+}
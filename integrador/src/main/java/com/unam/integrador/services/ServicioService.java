@@ -18,6 +18,9 @@ public class ServicioService {
     
     @Autowired
     private ServicioRepository servicioRepository;
+
+    @Autowired
+    private CatalogoServicios catalogoServicios;
     
     /**
      * Crea un nuevo servicio.
@@ -34,6 +37,7 @@ public class ServicioService {
         }
         
         // Guardar servicio
+        catalogoServicios.invalidar();
         return servicioRepository.save(servicio);
     }
     
@@ -115,6 +119,7 @@ public class ServicioService {
         }
         
         // Persistir cambios
+        catalogoServicios.invalidar();
         return servicioRepository.save(servicio);
     }
     
@@ -130,6 +135,7 @@ public class ServicioService {
     public Servicio darDeBajaServicio(Long id) {
         Servicio servicio = buscarPorId(id);
         servicio.desactivar();
+        catalogoServicios.invalidar();
         return servicioRepository.save(servicio);
     }
     
@@ -143,6 +149,7 @@ public class ServicioService {
     public Servicio reactivarServicio(Long id) {
         Servicio servicio = buscarPorId(id);
         servicio.activar();
+        catalogoServicios.invalidar();
         return servicioRepository.save(servicio);
     }
 }
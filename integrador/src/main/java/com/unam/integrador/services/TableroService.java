@@ -0,0 +1,311 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.dto.CantidadClientesPorEstado;
+import com.unam.integrador.dto.Tablero;
+import com.unam.integrador.dto.TotalCobradoPorMetodo;
+import com.unam.integrador.dto.TotalEmitidoPorPeriodo;
+import com.unam.integrador.model.DistribucionPago;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.PagoRepository;
+
+/**
+ * Servicio del tablero de la página de inicio.
+ *
+ * Los indicadores se guardan en memoria: se calculan desde la base al
+ * iniciar la aplicación y luego los servicios que emiten, cobran, anulan o
+ * cambian estados informan cada cambio como una diferencia, que se aplica
+ * cuando su transacción se confirma (todas las de una transacción juntas).
+ * Mostrar el tablero no lee ninguna fila.
+ *
+ * Cada tanto los indicadores se recalculan desde la base para corregir
+ * diferencias por cambios hechos fuera de la aplicación. Un cambio que se
+ * confirma mientras se recalcula puede quedar contado dos veces o ninguna
+ * hasta el siguiente recálculo.
+ */
+@Service
+public class TableroService {
+
+    private static final Logger log = LoggerFactory.getLogger(TableroService.class);
+
+    private static final List<EstadoFactura> ESTADOS_IMPAGAS = List.of(
+        EstadoFactura.PENDIENTE, EstadoFactura.PAGADA_PARCIALMENTE, EstadoFactura.VENCIDA);
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    @Autowired
+    private CuentaClienteRepositorie cuentaClienteRepository;
+
+    private volatile Indicadores indicadores = new Indicadores();
+
+    /**
+     * Cantidad e importe de las facturas de un período.
+     */
+    private record TotalEmitido(long cantidad, BigDecimal importe) {
+
+        private static final TotalEmitido CERO = new TotalEmitido(0, BigDecimal.ZERO);
+
+        private TotalEmitido sumar(TotalEmitido otro) {
+            return new TotalEmitido(cantidad + otro.cantidad, importe.add(otro.importe));
+        }
+    }
+
+    private record ClaveCobro(LocalDate fecha, MetodoPago metodoPago) {
+    }
+
+    /**
+     * Valores actuales de los indicadores. Se reemplaza completo al recalcular.
+     */
+    private static final class Indicadores {
+        private final LocalDateTime reconstruido = LocalDateTime.now();
+        private final AtomicReference<BigDecimal> deudaAbierta = new AtomicReference<>(BigDecimal.ZERO);
+        private final AtomicLong facturasVencidas = new AtomicLong();
+        private final Map<LocalDate, TotalEmitido> emitidoPorPeriodo = new ConcurrentHashMap<>();
+        private final Map<ClaveCobro, BigDecimal> cobrado = new ConcurrentHashMap<>();
+        private final Map<EstadoCuenta, Long> clientesPorEstado = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Cambios registrados en una transacción, pendientes de su confirmación.
+     */
+    private final class Cambios implements TransactionSynchronization {
+        private BigDecimal deudaAbierta = BigDecimal.ZERO;
+        private long facturasVencidas;
+        private final Map<LocalDate, TotalEmitido> emitidoPorPeriodo = new HashMap<>();
+        private final Map<ClaveCobro, BigDecimal> cobrado = new HashMap<>();
+        private final Map<EstadoCuenta, Long> clientesPorEstado = new EnumMap<>(EstadoCuenta.class);
+
+        @Override
+        public void afterCommit() {
+            aplicar(this);
+        }
+    }
+
+    /**
+     * Obtiene los indicadores actuales, sin consultar la base.
+     * @return Tablero con los indicadores del día y del período actual
+     */
+    public Tablero obtenerTablero() {
+        Indicadores actuales = indicadores;
+        LocalDate hoy = LocalDate.now();
+        LocalDate periodo = hoy.withDayOfMonth(1);
+
+        Map<MetodoPago, BigDecimal> cobradoHoy = new EnumMap<>(MetodoPago.class);
+        for (MetodoPago metodo : MetodoPago.values()) {
+            cobradoHoy.put(metodo, actuales.cobrado.getOrDefault(new ClaveCobro(hoy, metodo), BigDecimal.ZERO));
+        }
+        Map<EstadoCuenta, Long> clientes = new EnumMap<>(EstadoCuenta.class);
+        for (EstadoCuenta estado : EstadoCuenta.values()) {
+            clientes.put(estado, actuales.clientesPorEstado.getOrDefault(estado, 0L));
+        }
+        TotalEmitido emitido = actuales.emitidoPorPeriodo.getOrDefault(periodo, TotalEmitido.CERO);
+
+        return new Tablero(hoy, periodo, actuales.deudaAbierta.get(), actuales.facturasVencidas.get(),
+            emitido.cantidad(), emitido.importe(), cobradoHoy, clientes, actuales.reconstruido);
+    }
+
+    /**
+     * Recalcula todos los indicadores desde la base, con una consulta agregada por indicador.
+     * Se ejecuta al iniciar la aplicación y periódicamente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tablero.reconstruccion-intervalo-ms:3600000}",
+               initialDelayString = "${tablero.reconstruccion-intervalo-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        Indicadores nuevos = new Indicadores();
+        nuevos.deudaAbierta.set(facturaRepository.sumarSaldoPendientePorEstados(ESTADOS_IMPAGAS));
+        nuevos.facturasVencidas.set(facturaRepository.countByEstado(EstadoFactura.VENCIDA));
+        for (TotalEmitidoPorPeriodo total : facturaRepository.sumarPorPeriodoExcluyendoEstado(EstadoFactura.ANULADA)) {
+            nuevos.emitidoPorPeriodo.put(total.getPeriodo(), new TotalEmitido(total.getCantidad(), total.getImporte()));
+        }
+        LocalDate hoy = LocalDate.now();
+        for (TotalCobradoPorMetodo total : pagoRepository.sumarPorMetodoPago(hoy)) {
+            nuevos.cobrado.put(new ClaveCobro(hoy, total.getMetodoPago()), total.getTotal());
+        }
+        for (CantidadClientesPorEstado cantidad : cuentaClienteRepository.contarPorEstado()) {
+            nuevos.clientesPorEstado.put(cantidad.getEstado(), cantidad.getCantidad());
+        }
+        indicadores = nuevos;
+        log.debug("Indicadores del tablero recalculados");
+    }
+
+    // --- Registro de cambios (se llaman dentro de la transacción que hace el cambio) ---
+
+    /**
+     * Registra facturas recién emitidas (ya persistidas).
+     * @param facturas Facturas emitidas
+     */
+    public void registrarEmision(List<Factura> facturas) {
+        registrar(cambios -> {
+            for (Factura factura : facturas) {
+                cambios.emitidoPorPeriodo.merge(factura.getPeriodo(),
+                    new TotalEmitido(1, factura.getTotal()), TotalEmitido::sumar);
+                sumarSaldo(cambios, factura.getEstado(), factura.getSaldoPendiente(), 1);
+            }
+        });
+    }
+
+    /**
+     * Registra un cambio de estado de una factura que no cambió su saldo (vencimiento, anulación).
+     * @param factura Factura con el estado nuevo
+     * @param estadoAnterior Estado antes del cambio
+     */
+    public void registrarCambioEstado(Factura factura, EstadoFactura estadoAnterior) {
+        EstadoFactura estadoNuevo = factura.getEstado();
+        BigDecimal saldo = factura.getSaldoPendiente();
+        registrar(cambios -> {
+            sumarSaldo(cambios, estadoAnterior, saldo, -1);
+            sumarSaldo(cambios, estadoNuevo, saldo, 1);
+            if (estadoNuevo == EstadoFactura.ANULADA && estadoAnterior != EstadoFactura.ANULADA) {
+                cambios.emitidoPorPeriodo.merge(factura.getPeriodo(),
+                    new TotalEmitido(-1, factura.getTotal().negate()), TotalEmitido::sumar);
+            }
+        });
+    }
+
+    /**
+     * Registra facturas impagas que pasaron a VENCIDA sin cambiar su saldo
+     * (la deuda abierta no varía).
+     * @param cantidad Cantidad de facturas vencidas
+     */
+    public void registrarVencimientos(int cantidad) {
+        if (cantidad > 0) {
+            registrar(cambios -> cambios.facturasVencidas += cantidad);
+        }
+    }
+
+    /**
+     * Registra las imputaciones de un pago. Debe llamarse antes de aplicarlas a
+     * las facturas, para tomar de ellas el saldo y el estado anteriores.
+     * @param imputaciones Imputaciones calculadas por {@link DistribucionPago}
+     */
+    public void registrarImputaciones(List<DistribucionPago.Imputacion> imputaciones) {
+        registrar(cambios -> {
+            for (DistribucionPago.Imputacion imputacion : imputaciones) {
+                Factura factura = imputacion.factura();
+                sumarSaldo(cambios, factura.getEstado(), factura.getSaldoPendiente(), -1);
+                sumarSaldo(cambios, imputacion.estado(), imputacion.saldoPendiente(), 1);
+            }
+        });
+    }
+
+    /**
+     * Registra un pago recibido.
+     * @param fecha Fecha del pago
+     * @param metodoPago Método de pago
+     * @param monto Monto del pago
+     */
+    public void registrarCobro(LocalDate fecha, MetodoPago metodoPago, BigDecimal monto) {
+        registrar(cambios -> cambios.cobrado.merge(new ClaveCobro(fecha, metodoPago), monto, BigDecimal::add));
+    }
+
+    /**
+     * Registra el alta de un cliente.
+     * @param estado Estado de cuenta inicial
+     */
+    public void registrarAltaCliente(EstadoCuenta estado) {
+        registrar(cambios -> cambios.clientesPorEstado.merge(estado, 1L, Long::sum));
+    }
+
+    /**
+     * Registra el cambio de estado de cuenta de un cliente.
+     * @param anterior Estado anterior
+     * @param nuevo Estado nuevo
+     */
+    public void registrarCambioEstadoCliente(EstadoCuenta anterior, EstadoCuenta nuevo) {
+        registrar(cambios -> {
+            cambios.clientesPorEstado.merge(anterior, -1L, Long::sum);
+            cambios.clientesPorEstado.merge(nuevo, 1L, Long::sum);
+        });
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    /**
+     * Anota un cambio en los cambios de la transacción actual, o lo aplica
+     * directamente si no hay una transacción activa.
+     */
+    private void registrar(Consumer<Cambios> cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Cambios cambios = new Cambios();
+            cambio.accept(cambios);
+            aplicar(cambios);
+            return;
+        }
+        Cambios cambios = null;
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof Cambios registrados) {
+                cambios = registrados;
+                break;
+            }
+        }
+        if (cambios == null) {
+            cambios = new Cambios();
+            TransactionSynchronizationManager.registerSynchronization(cambios);
+        }
+        cambio.accept(cambios);
+    }
+
+    /**
+     * Suma (signo 1) o resta (signo -1) el saldo de una factura a la deuda y su
+     * cuenta a las vencidas, según el estado.
+     */
+    private static void sumarSaldo(Cambios cambios, EstadoFactura estado, BigDecimal saldo, int signo) {
+        if (ESTADOS_IMPAGAS.contains(estado)) {
+            cambios.deudaAbierta = signo > 0 ? cambios.deudaAbierta.add(saldo) : cambios.deudaAbierta.subtract(saldo);
+        }
+        if (estado == EstadoFactura.VENCIDA) {
+            cambios.facturasVencidas += signo;
+        }
+    }
+
+    private void aplicar(Cambios cambios) {
+        Indicadores actuales = indicadores;
+        if (cambios.deudaAbierta.signum() != 0) {
+            actuales.deudaAbierta.accumulateAndGet(cambios.deudaAbierta, BigDecimal::add);
+        }
+        actuales.facturasVencidas.addAndGet(cambios.facturasVencidas);
+        cambios.emitidoPorPeriodo.forEach((periodo, total) ->
+            actuales.emitidoPorPeriodo.merge(periodo, total, TotalEmitido::sumar));
+        cambios.clientesPorEstado.forEach((estado, cantidad) ->
+            actuales.clientesPorEstado.merge(estado, cantidad, Long::sum));
+        if (!cambios.cobrado.isEmpty()) {
+            cambios.cobrado.forEach((clave, monto) -> actuales.cobrado.merge(clave, monto, BigDecimal::add));
+            // Sólo interesan los cobros del día
+            LocalDate hoy = LocalDate.now();
+            actuales.cobrado.keySet().removeIf(clave -> clave.fecha().isBefore(hoy));
+        }
+    }
+}
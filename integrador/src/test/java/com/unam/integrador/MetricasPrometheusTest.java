@@ -0,0 +1,56 @@
+package com.unam.integrador;
+
+import static org.hamcrest.Matchers.containsString;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.unam.integrador.services.CuentaClienteService;
+
+/**
+ * Test de integración del endpoint /actuator/prometheus.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest(properties = {
+    "management.endpoints.web.exposure.include=prometheus",
+    "management.observations.annotations.enabled=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DisplayName("Test de integración de las métricas en formato Prometheus")
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CuentaClienteService cuentaClienteService;
+
+    @Test
+    @DisplayName("Debería publicar los tiempos de los servicios, las métricas de negocio, el pool y Hibernate")
+    void testPublicaMetricas() throws Exception {
+        // Arrange
+        cuentaClienteService.obtenerTodosLosClientes();
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString(
+                "servicios_metodos_seconds_count{class=\"com.unam.integrador.services.CuentaClienteService\"")))
+            .andExpect(content().string(containsString("facturas_emitidas_total{tipo=\"A\"}")))
+            .andExpect(content().string(containsString("pagos_monto_pesos_count{metodo=\"EFECTIVO\"}")))
+            .andExpect(content().string(containsString("cache_consultas_total{cache=\"idempotencia\"")))
+            .andExpect(content().string(containsString("hikaricp_connections_active")))
+            .andExpect(content().string(containsString("hibernate_sessions_open_total")))
+            .andExpect(content().string(containsString(
+                "region=\"com.unam.integrador.model.CuentaCliente\"")));
+    }
+}
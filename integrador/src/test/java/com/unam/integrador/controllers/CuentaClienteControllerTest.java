@@ -0,0 +1,104 @@
+package com.unam.integrador.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.unam.integrador.dto.LineaEstadoCuenta;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+import com.unam.integrador.services.CuentaClienteService;
+import com.unam.integrador.services.LibroCuentaService;
+import com.unam.integrador.services.ServicioService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests para CuentaClienteController.
+ * Valida endpoints HTTP y respuestas de vistas del controlador.
+ */
+@WebMvcTest(CuentaClienteController.class)
+@DisplayName("Tests para CuentaClienteController")
+class CuentaClienteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CuentaClienteService clienteService;
+
+    @MockBean
+    private ServicioService servicioService;
+
+    @MockBean
+    private LibroCuentaService libroCuentaService;
+
+    private CuentaCliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        ReflectionTestUtils.setField(cliente, "id", 1L);
+        cliente.setNombre("Tech Solutions S.A.");
+        cliente.setRazonSocial("Tech Solutions S.A.");
+        cliente.setCuitDni("30123456789");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setEmail("techsolutions@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+    }
+
+    @Test
+    @DisplayName("GET /clientes/{id}/estado-cuenta - Debería mostrar los movimientos con saldo acumulado")
+    void testVerEstadoCuenta() throws Exception {
+        // Arrange
+        List<LineaEstadoCuenta> lineas = List.of(
+            new LineaEstadoCuenta(LocalDateTime.now(), TipoMovimientoCuenta.FACTURA_EMITIDA, "Factura 0001-00000100",
+                new BigDecimal("1210.00"), BigDecimal.ZERO, new BigDecimal("1210.00"), new BigDecimal("1210.00")),
+            new LineaEstadoCuenta(LocalDateTime.now(), TipoMovimientoCuenta.PAGO_APLICADO, "Recibo 00000001",
+                BigDecimal.ZERO, new BigDecimal("1210.00"), new BigDecimal("1210.00"), BigDecimal.ZERO));
+        when(clienteService.obtenerClientePorId(1L)).thenReturn(cliente);
+        when(libroCuentaService.consultarSaldo(1L)).thenReturn(SaldoCuenta.CERO);
+        when(libroCuentaService.obtenerEstadoCuenta(eq(1L), isNull(), eq(50)))
+            .thenReturn(new PageImpl<>(lineas, PageRequest.of(0, 50), 2));
+
+        // Act & Assert
+        mockMvc.perform(get("/clientes/1/estado-cuenta"))
+            .andExpect(status().isOk())
+            .andExpect(view().name("clientes/estado-cuenta"))
+            .andExpect(model().attributeExists("cliente", "saldo", "movimientos"))
+            .andExpect(content().string(containsString("Factura 0001-00000100")))
+            .andExpect(content().string(containsString("Recibo 00000001")));
+    }
+
+    @Test
+    @DisplayName("GET /clientes/{id}/estado-cuenta - Debería limitar el tamaño de página")
+    void testEstadoCuentaLimitaTamanio() throws Exception {
+        // Arrange
+        when(clienteService.obtenerClientePorId(1L)).thenReturn(cliente);
+        when(libroCuentaService.consultarSaldo(1L)).thenReturn(SaldoCuenta.CERO);
+        when(libroCuentaService.obtenerEstadoCuenta(anyLong(), any(), anyInt()))
+            .thenReturn(new PageImpl<>(List.of(), PageRequest.of(3, 200), 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/clientes/1/estado-cuenta").param("pagina", "3").param("tamanio", "10000"))
+            .andExpect(status().isOk());
+
+        verify(libroCuentaService).obtenerEstadoCuenta(eq(1L), eq(3), eq(200));
+    }
+}
@@ -0,0 +1,132 @@
+package com.unam.integrador.controllers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+
+/**
+ * Test de concurrencia de las vistas de facturas.
+ * Varios usuarios abren el listado y el detalle a la vez mientras hay una
+ * factura vencida sin actualizar: las vistas sólo leen, por lo que ninguna
+ * solicitud puede fallar por un conflicto de versión.
+ *
+ * No es transaccional: los datos se confirman para que los vean los hilos
+ * y se eliminan explícitamente al finalizar. MockMvc se arma sobre el mismo
+ * contexto que los demás tests no transaccionales, que comparten la caché de
+ * segundo nivel con él.
+ */
+@SpringBootTest
+@DisplayName("Tests de concurrencia para FacturaViewController")
+class FacturaViewControllerConcurrenciaTest {
+
+    private static final int HILOS = 6;
+    private static final int SOLICITUDES_POR_HILO = 5;
+
+    @Autowired
+    private WebApplicationContext contexto;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    private MockMvc mockMvc;
+    private CuentaCliente cliente;
+    private Factura factura;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+
+        cliente = new CuentaCliente();
+        cliente.setNombre("Cliente Listados S.A.");
+        cliente.setRazonSocial("Cliente Listados S.A.");
+        cliente.setCuitDni("30999999992");
+        cliente.setDomicilio("Calle Falsa 456");
+        cliente.setEmail("listados@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente = clienteRepository.save(cliente);
+
+        // Vencida hace 10 días pero todavía guardada como PENDIENTE
+        LocalDate emision = LocalDate.now().minusDays(40);
+        factura = new Factura(1, 990002, cliente, emision, emision.plusDays(30), emision.withDayOfMonth(1),
+            TipoFactura.A);
+        factura.agregarItem(new ItemFactura("Servicio mensual", new BigDecimal("1000.00"), 1,
+            TipoAlicuotaIVA.IVA_21));
+        factura = facturaRepository.save(factura);
+    }
+
+    @AfterEach
+    void tearDown() {
+        facturaRepository.deleteById(factura.getIdFactura());
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    @Test
+    @DisplayName("Debería responder todas las solicitudes simultáneas de listado y detalle sin modificar facturas")
+    void testListadosConcurrentes() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<List<Integer>>> resultados = new ArrayList<>();
+
+        // Act
+        for (int h = 0; h < HILOS; h++) {
+            String url = h % 2 == 0 ? "/facturas" : "/facturas/" + factura.getIdFactura();
+            Callable<List<Integer>> tarea = () -> {
+                largada.await();
+                List<Integer> estados = new ArrayList<>();
+                for (int i = 0; i < SOLICITUDES_POR_HILO; i++) {
+                    estados.add(mockMvc.perform(get(url)).andReturn().getResponse().getStatus());
+                }
+                return estados;
+            };
+            resultados.add(pool.submit(tarea));
+        }
+        largada.countDown();
+        List<Integer> estados = new ArrayList<>();
+        for (Future<List<Integer>> resultado : resultados) {
+            estados.addAll(resultado.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(HILOS * SOLICITUDES_POR_HILO, estados.stream().filter(e -> e == 200).count());
+        Factura recargada = facturaRepository.findById(factura.getIdFactura()).orElseThrow();
+        assertEquals(EstadoFactura.PENDIENTE, recargada.getEstado());
+        assertEquals(factura.getVersion(), recargada.getVersion());
+    }
+}
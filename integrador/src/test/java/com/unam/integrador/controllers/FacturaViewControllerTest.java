@@ -75,7 +75,6 @@ class FacturaViewControllerTest {
         // Arrange
         List<Factura> facturas = Arrays.asList(factura);
         when(facturaService.listarFacturasFiltradas(null, null, null)).thenReturn(facturas);
-        when(facturaService.actualizarFacturasVencidas()).thenReturn(0);
 
         // Act & Assert
         mockMvc.perform(get("/facturas"))
@@ -85,7 +84,7 @@ class FacturaViewControllerTest {
             .andExpect(model().attributeExists("estados"))
             .andExpect(model().attributeExists("tipos"));
 
-        verify(facturaService).actualizarFacturasVencidas();
+        verify(facturaService, never()).actualizarFacturasVencidas();
         verify(facturaService).listarFacturasFiltradas(null, null, null);
     }
 
@@ -175,7 +174,6 @@ class FacturaViewControllerTest {
     void testVerDetalle() throws Exception {
         // Arrange
         when(facturaService.obtenerFacturaPorId(1L)).thenReturn(factura);
-        when(facturaService.actualizarFacturasVencidas()).thenReturn(0);
 
         // Act & Assert
         mockMvc.perform(get("/facturas/1"))
@@ -184,6 +182,7 @@ class FacturaViewControllerTest {
             .andExpect(model().attribute("factura", factura));
 
         verify(facturaService).obtenerFacturaPorId(1L);
+        verify(facturaService, never()).actualizarFacturasVencidas();
     }
 
     @Test
@@ -291,4 +290,25 @@ class FacturaViewControllerTest {
             .andExpect(model().attributeExists("facturas"))
             .andExpect(model().attributeExists("cliente"));
     }
+
+    @Test
+    @DisplayName("GET /facturas/export.csv - Debería exportar con los filtros del listado sin actualizar facturas")
+    void testExportarFacturasCsv() throws Exception {
+        // Arrange
+        when(facturaService.exportarFacturasCsv(eq("PENDIENTE"), eq("A"), eq(LocalDate.of(2025, 11, 1)), any()))
+            .thenReturn(0);
+
+        // Act & Assert
+        mockMvc.perform(get("/facturas/export.csv")
+                .param("estado", "PENDIENTE")
+                .param("tipoFactura", "A")
+                .param("mes", "11")
+                .param("anio", "2025"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"facturas.csv\""));
+
+        verify(facturaService, never()).actualizarFacturasVencidas();
+        verify(facturaService).exportarFacturasCsv(eq("PENDIENTE"), eq("A"), eq(LocalDate.of(2025, 11, 1)), any());
+    }
 }
@@ -10,6 +10,9 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.unam.integrador.model.*;
 import com.unam.integrador.model.enums.*;
+import com.unam.integrador.dto.FacturaDeLote;
+import com.unam.integrador.dto.ProgresoExportacionPdf;
+import com.unam.integrador.services.FacturaPdfService;
 import com.unam.integrador.services.FacturaService;
 
 import java.math.BigDecimal;
@@ -17,7 +20,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -37,6 +46,9 @@ class FacturacionMasivaControllerTest {
     @MockBean
     private FacturaService facturaService;
 
+    @MockBean
+    private FacturaPdfService facturaPdfService;
+
     private LoteFacturacion lote;
     private CuentaCliente cliente1;
     private CuentaCliente cliente2;
@@ -109,7 +121,7 @@ class FacturacionMasivaControllerTest {
     @DisplayName("POST /facturacion-masiva/nuevo - Debería ejecutar facturación masiva correctamente")
     void testEjecutarFacturacionMasiva() throws Exception {
         // Arrange
-        when(facturaService.ejecutarFacturacionMasiva(anyString(), any()))
+        when(facturaService.ejecutarFacturacionMasiva(anyString(), any(), anyBoolean()))
             .thenReturn(lote);
 
         // Act & Assert
@@ -122,7 +134,31 @@ class FacturacionMasivaControllerTest {
 
         verify(facturaService).ejecutarFacturacionMasiva(
             eq("Enero 2026"), 
-            eq(LocalDate.of(2026, 1, 31))
+            eq(LocalDate.of(2026, 1, 31)),
+            eq(false)
+        );
+    }
+
+    @Test
+    @DisplayName("POST /facturacion-masiva/nuevo - Debería pasar la opción de aplicar saldo a favor")
+    void testEjecutarFacturacionMasivaAplicandoSaldoAFavor() throws Exception {
+        // Arrange
+        LocalDate vencimiento = LocalDate.now().plusDays(30);
+        when(facturaService.ejecutarFacturacionMasiva(anyString(), any(), anyBoolean()))
+            .thenReturn(lote);
+
+        // Act & Assert
+        mockMvc.perform(post("/facturacion-masiva/nuevo")
+                .param("periodo", "Enero 2026")
+                .param("fechaVencimiento", vencimiento.toString())
+                .param("aplicarSaldoAFavor", "true"))
+            .andExpect(status().is3xxRedirection())
+            .andExpect(redirectedUrl("/facturacion-masiva/1"));
+
+        verify(facturaService).ejecutarFacturacionMasiva(
+            eq("Enero 2026"),
+            eq(vencimiento),
+            eq(true)
         );
     }
 
@@ -130,7 +166,7 @@ class FacturacionMasivaControllerTest {
     @DisplayName("POST /facturacion-masiva/nuevo - Debería manejar error cuando ya existe lote")
     void testEjecutarFacturacionMasivaDuplicada() throws Exception {
         // Arrange
-        when(facturaService.ejecutarFacturacionMasiva(anyString(), any()))
+        when(facturaService.ejecutarFacturacionMasiva(anyString(), any(), anyBoolean()))
             .thenThrow(new IllegalStateException("Ya existe una facturación masiva activa"));
 
         // Act & Assert
@@ -158,22 +194,57 @@ class FacturacionMasivaControllerTest {
     @DisplayName("GET /facturacion-masiva/{id} - Debería mostrar detalle del lote")
     void testVerDetalle() throws Exception {
         // Arrange
-        when(facturaService.obtenerLoteConFacturas(1L)).thenReturn(lote);
+        FacturaDeLote fila = mock(FacturaDeLote.class);
+        when(fila.getIdFactura()).thenReturn(10L);
+        when(fila.getSerie()).thenReturn(1);
+        when(fila.getNroFactura()).thenReturn(42);
+        when(fila.getTipo()).thenReturn(TipoFactura.A);
+        when(fila.getCliente()).thenReturn("Cliente de la Página S.A.");
+        when(fila.getTotal()).thenReturn(new BigDecimal("1210.00"));
+        when(fila.getEstado()).thenReturn(EstadoFactura.PENDIENTE);
+        Page<FacturaDeLote> pagina = new PageImpl<>(List.of(fila), PageRequest.of(0, 50), 1);
+        when(facturaService.obtenerLotePorId(1L)).thenReturn(lote);
+        when(facturaService.listarFacturasDeLote(1L, null, null, "numero", false, 0, 50)).thenReturn(pagina);
 
         // Act & Assert
         mockMvc.perform(get("/facturacion-masiva/1"))
             .andExpect(status().isOk())
             .andExpect(view().name("facturacion-masiva/detalle"))
-            .andExpect(model().attribute("lote", lote));
+            .andExpect(model().attribute("lote", lote))
+            .andExpect(model().attribute("facturas", pagina))
+            .andExpect(content().string(containsString("Cliente de la Página S.A.")));
+
+        verify(facturaService, never()).obtenerLoteConFacturas(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /facturacion-masiva/{id} - Debería aplicar filtros, orden y página")
+    void testVerDetalleFiltrado() throws Exception {
+        // Arrange
+        when(facturaService.obtenerLotePorId(1L)).thenReturn(lote);
+        when(facturaService.listarFacturasDeLote(1L, EstadoFactura.PENDIENTE, TipoFactura.A, "monto", true, 2, 200))
+            .thenReturn(new PageImpl<>(List.of(), PageRequest.of(2, 200), 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/facturacion-masiva/1")
+                .param("estado", "PENDIENTE")
+                .param("tipo", "A")
+                .param("orden", "monto")
+                .param("direccion", "desc")
+                .param("pagina", "2")
+                .param("tamanio", "5000"))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("estado", EstadoFactura.PENDIENTE))
+            .andExpect(model().attribute("orden", "monto"));
 
-        verify(facturaService).obtenerLoteConFacturas(1L);
+        verify(facturaService).listarFacturasDeLote(1L, EstadoFactura.PENDIENTE, TipoFactura.A, "monto", true, 2, 200);
     }
 
     @Test
     @DisplayName("GET /facturacion-masiva/{id} - Debería manejar lote no encontrado")
     void testVerDetalleLoteNoEncontrado() throws Exception {
         // Arrange
-        when(facturaService.obtenerLoteConFacturas(999L))
+        when(facturaService.obtenerLotePorId(999L))
             .thenThrow(new IllegalArgumentException("Lote no encontrado"));
 
         // Act & Assert
@@ -187,7 +258,7 @@ class FacturacionMasivaControllerTest {
     @DisplayName("GET /facturacion-masiva/{id}/confirmar-anulacion - Debería mostrar confirmación")
     void testConfirmarAnulacion() throws Exception {
         // Arrange
-        when(facturaService.obtenerLoteConFacturas(1L)).thenReturn(lote);
+        when(facturaService.obtenerLotePorId(1L)).thenReturn(lote);
 
         // Act & Assert
         mockMvc.perform(get("/facturacion-masiva/1/confirmar-anulacion"))
@@ -200,9 +271,9 @@ class FacturacionMasivaControllerTest {
     @DisplayName("GET /facturacion-masiva/{id}/confirmar-anulacion - No debería permitir anular lote con pagos")
     void testConfirmarAnulacionLoteConPagos() throws Exception {
         // Arrange
-        // Marcar una factura como pagada
-        lote.getFacturas().get(0).setEstado(EstadoFactura.PAGADA_TOTALMENTE);
-        when(facturaService.obtenerLoteConFacturas(1L)).thenReturn(lote);
+        // El lote registra una factura pagada
+        lote.setCantidadFacturasPagadas(1);
+        when(facturaService.obtenerLotePorId(1L)).thenReturn(lote);
 
         // Act & Assert
         mockMvc.perform(get("/facturacion-masiva/1/confirmar-anulacion"))
@@ -278,7 +349,7 @@ class FacturacionMasivaControllerTest {
             loteGrande.agregarFactura(factura);
         }
 
-        when(facturaService.ejecutarFacturacionMasiva(anyString(), any()))
+        when(facturaService.ejecutarFacturacionMasiva(anyString(), any(), anyBoolean()))
             .thenReturn(loteGrande);
 
         // Act & Assert
@@ -292,7 +363,8 @@ class FacturacionMasivaControllerTest {
         // Verificar que el mensaje menciona la cantidad de facturas
         verify(facturaService).ejecutarFacturacionMasiva(
             eq("Febrero 2026"),
-            eq(LocalDate.of(2026, 2, 28))
+            eq(LocalDate.of(2026, 2, 28)),
+            eq(false)
         );
     }
 
@@ -318,6 +390,25 @@ class FacturacionMasivaControllerTest {
             .andExpect(model().attribute("lotes", lotes));
     }
 
+    @Test
+    @DisplayName("GET /facturacion-masiva/{id}/pdf/progreso - Debería devolver el progreso en JSON")
+    void testConsultarProgresoPdfs() throws Exception {
+        // Arrange
+        when(facturaPdfService.obtenerProgreso(1L)).thenReturn(Optional.of(
+            new ProgresoExportacionPdf(1L, 4, 1, LocalDateTime.now(), false, null)));
+        when(facturaPdfService.obtenerProgreso(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/facturacion-masiva/1/pdf/progreso"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.generadas").value(1))
+            .andExpect(jsonPath("$.total").value(4))
+            .andExpect(jsonPath("$.porcentaje").value(25))
+            .andExpect(jsonPath("$.terminada").value(false));
+        mockMvc.perform(get("/facturacion-masiva/2/pdf/progreso"))
+            .andExpect(status().isNotFound());
+    }
+
     // Método helper
     private Factura crearFactura(CuentaCliente cliente, int serie, int numero) {
         Factura factura = new Factura(
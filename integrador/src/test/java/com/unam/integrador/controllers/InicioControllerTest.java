@@ -0,0 +1,64 @@
+package com.unam.integrador.controllers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import com.unam.integrador.dto.Tablero;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.services.TableroService;
+
+/**
+ * Tests para InicioController.
+ */
+@WebMvcTest(InicioController.class)
+@DisplayName("Tests para InicioController")
+class InicioControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TableroService tableroService;
+
+    @Test
+    @DisplayName("GET / - Debería mostrar el tablero con los indicadores")
+    void testInicio() throws Exception {
+        // Arrange
+        Map<MetodoPago, BigDecimal> cobrado = new EnumMap<>(MetodoPago.class);
+        for (MetodoPago metodo : MetodoPago.values()) {
+            cobrado.put(metodo, BigDecimal.ZERO);
+        }
+        cobrado.put(MetodoPago.EFECTIVO, new BigDecimal("2500.00"));
+        Map<EstadoCuenta, Long> clientes = new EnumMap<>(EstadoCuenta.class);
+        clientes.put(EstadoCuenta.ACTIVA, 7L);
+        clientes.put(EstadoCuenta.SUSPENDIDA, 2L);
+        clientes.put(EstadoCuenta.BAJA, 0L);
+        when(tableroService.obtenerTablero()).thenReturn(new Tablero(LocalDate.now(), LocalDate.now().withDayOfMonth(1),
+            new BigDecimal("15000.50"), 3, 12, new BigDecimal("60000.00"), cobrado, clientes, LocalDateTime.now()));
+
+        // Act & Assert
+        mockMvc.perform(get("/"))
+            .andExpect(status().isOk())
+            .andExpect(view().name("index"))
+            .andExpect(content().string(containsString("15.000,50")))
+            .andExpect(content().string(containsString("3</span> facturas vencidas")))
+            .andExpect(content().string(containsString("2.500,00")));
+    }
+}
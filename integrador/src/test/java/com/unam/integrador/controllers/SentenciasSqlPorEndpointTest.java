@@ -0,0 +1,163 @@
+package com.unam.integrador.controllers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.repositories.SentenciasSql;
+import com.unam.integrador.repositories.SentenciasSqlExtension;
+import com.unam.integrador.repositories.ServicioRepository;
+import com.unam.integrador.services.CuentaClienteService;
+import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.PagoService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Tests de la cantidad de sentencias SQL de los listados.
+ * Usa base de datos H2 en memoria y cuenta las sentencias con {@link SentenciasSqlExtension}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ExtendWith(SentenciasSqlExtension.class)
+@DisplayName("Tests de sentencias SQL por endpoint")
+class SentenciasSqlPorEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CuentaClienteService cuentaClienteService;
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDate hoy = LocalDate.now();
+    private Servicio servicio;
+    private int clientes;
+
+    @BeforeEach
+    void setUp() {
+        servicio = nuevoServicio();
+        for (int i = 0; i < 2; i++) {
+            nuevoClienteConFacturaYPago();
+        }
+    }
+
+    @Test
+    @DisplayName("El listado de facturas no debería consultar el cliente de cada factura")
+    void testListadoFacturasSinNMasUno(SentenciasSql sql) throws Exception {
+        // Arrange
+        int conDosClientes = contar(sql, "/facturas");
+        for (int i = 0; i < 3; i++) {
+            nuevoClienteConFacturaYPago();
+        }
+
+        // Act
+        int conCincoClientes = contar(sql, "/facturas");
+
+        // Assert
+        assertEquals(conDosClientes, conCincoClientes);
+        sql.assertMaximo(3);
+        sql.assertSinRepetidas(2);
+    }
+
+    @Test
+    @DisplayName("Los listados de clientes y de lotes deberían usar una sola sentencia")
+    void testListadosDeUnaSentencia(SentenciasSql sql) throws Exception {
+        // Act & Assert
+        contar(sql, "/clientes");
+        sql.assertTotal(1);
+        contar(sql, "/facturacion-masiva");
+        sql.assertTotal(1);
+    }
+
+    @Test
+    @DisplayName("El listado de pagos debería usar 1 sentencia más 3 por pago")
+    void testListadoPagos(SentenciasSql sql) throws Exception {
+        // Act
+        contar(sql, "/pagos");
+
+        // Assert: N+1 conocido, el recibo de cada pago carga sus detalles, la factura y el cliente
+        sql.assertTotal(1 + 3 * clientes);
+    }
+
+    /**
+     * Ejecuta un GET con el contexto de persistencia vacío y devuelve cuántas sentencias usó.
+     */
+    private int contar(SentenciasSql sql, String url) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        sql.reiniciar();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return sql.getTotal();
+    }
+
+    private Servicio nuevoServicio() {
+        Servicio servicio = new Servicio();
+        servicio.setNombre("Endpoint Test");
+        servicio.setDescripcion("Servicio del test de sentencias");
+        servicio.setAlicuotaIVA(TipoAlicuotaIVA.IVA_21);
+        servicio.setPrecio(new BigDecimal("1000.00"));
+        servicio.setActivo(true);
+        return servicioRepository.save(servicio);
+    }
+
+    private void nuevoClienteConFacturaYPago() {
+        clientes++;
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("Endpoint Test " + clientes);
+        cliente.setRazonSocial("Endpoint Test " + clientes + " S.A.");
+        cliente.setCuitDni("3074445" + String.format("%04d", clientes));
+        cliente.setDomicilio("Rivadavia 600");
+        cliente.setEmail("endpoint@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        ServicioContratado contratado = new ServicioContratado();
+        contratado.setActivo(true);
+        contratado.setFechaAlta(hoy);
+        contratado.setPrecioContratado(servicio.getPrecio());
+        contratado.setServicio(servicio);
+        contratado.setCliente(cliente);
+        cliente.setServiciosContratados(new ArrayList<>(List.of(contratado)));
+        cliente = cuentaClienteService.crearCliente(cliente);
+
+        Factura factura = facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente.getId(), hoy.withDayOfMonth(1), hoy, hoy.plusDays(10), null, null);
+        pagoService.registrarPagoCombinado(
+            List.of(factura.getIdFactura()), new BigDecimal("100.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.unam.integrador.controllers;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test de integración del encabezado Server-Timing.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Test de integración de ServerTimingFilter")
+class ServerTimingFilterTest {
+
+    private static final Pattern FORMATO = Pattern.compile(
+        "db;dur=(\\d+\\.\\d);desc=\"SQL \\((\\d+)\\)\", servicios;dur=(\\d+\\.\\d), "
+        + "vista;dur=(\\d+\\.\\d), total;dur=(\\d+\\.\\d)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Debería informar el tiempo de SQL, servicios y vista de una página")
+    void testEncabezadoServerTiming() throws Exception {
+        // Act
+        String encabezado = mockMvc.perform(get("/clientes"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("Server-Timing");
+
+        // Assert
+        assertNotNull(encabezado);
+        Matcher tiempos = FORMATO.matcher(encabezado);
+        assertTrue(tiempos.matches(), encabezado);
+        double db = Double.parseDouble(tiempos.group(1));
+        double servicios = Double.parseDouble(tiempos.group(3));
+        double vista = Double.parseDouble(tiempos.group(4));
+        double total = Double.parseDouble(tiempos.group(5));
+        assertTrue(Integer.parseInt(tiempos.group(2)) >= 1, "Sentencias SQL del listado de clientes");
+        assertTrue(servicios > 0 && vista > 0, encabezado);
+        assertTrue(db <= total && servicios <= total && vista <= total, encabezado);
+    }
+}
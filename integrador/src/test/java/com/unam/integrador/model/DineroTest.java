@@ -0,0 +1,108 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+
+/**
+ * Tests unitarios para Dinero.
+ * Compara los resultados en punto fijo con los de BigDecimal.
+ */
+@DisplayName("Tests unitarios para Dinero")
+class DineroTest {
+
+    @Test
+    @DisplayName("Debería convertir desde y hacia BigDecimal sin perder decimales")
+    void testConversion() {
+        // Act & Assert
+        assertEquals(new BigDecimal("12.50"), Dinero.de(new BigDecimal("12.5")).aBigDecimal());
+        assertEquals(new BigDecimal("1679.895"), Dinero.de(new BigDecimal("1679.895")).aBigDecimal());
+        assertEquals(new BigDecimal("100.00"), Dinero.de(new BigDecimal("1E+2")).aBigDecimal());
+        assertEquals(Dinero.CERO, Dinero.de(null));
+        assertEquals(new Dinero(1), Dinero.de(new BigDecimal("0.000005")));
+    }
+
+    @Test
+    @DisplayName("Debería calcular el IVA exacto para todas las alícuotas")
+    void testIvaExacto() {
+        // Arrange
+        BigDecimal precio = new BigDecimal("15999.01");
+
+        for (TipoAlicuotaIVA alicuota : TipoAlicuotaIVA.values()) {
+            // Act
+            BigDecimal iva = Dinero.de(precio).iva(alicuota, RoundingMode.HALF_UP).aBigDecimal();
+
+            // Assert
+            BigDecimal esperado = precio.multiply(alicuota.getPorcentaje()).movePointLeft(2);
+            assertEquals(0, esperado.compareTo(iva), alicuota.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería redondear igual que BigDecimal en todos los modos")
+    void testRedondeoComoBigDecimal() {
+        long[] importes = {12_345L, -12_345L, 12_355L, -12_355L, 12_350L, 12_340L, 5L, -5L};
+        for (RoundingMode modo : RoundingMode.values()) {
+            if (modo == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long unidades : importes) {
+                // Act
+                Dinero redondeado = new Dinero(unidades).redondear(3, modo);
+
+                // Assert
+                BigDecimal esperado = BigDecimal.valueOf(unidades, Dinero.ESCALA).setScale(3, modo);
+                assertEquals(0, esperado.compareTo(redondeado.aBigDecimal()), modo + " " + unidades);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debería fallar con UNNECESSARY si el resultado requiere redondeo")
+    void testRedondeoInnecesario() {
+        // Act & Assert
+        assertThrows(ArithmeticException.class,
+            () -> Dinero.de(new BigDecimal("10.015")).redondear(2, RoundingMode.UNNECESSARY));
+        assertEquals(new BigDecimal("10.01"),
+            Dinero.de(new BigDecimal("10.01")).redondear(2, RoundingMode.UNNECESSARY).aBigDecimal());
+    }
+
+    @Test
+    @DisplayName("Debería calcular un porcentaje redondeado a la escala pedida")
+    void testPorcentaje() {
+        // Act
+        Dinero descuento = Dinero.de(new BigDecimal("1210.00")).porcentaje(12.5, 2, RoundingMode.HALF_UP);
+
+        // Assert: 1210 * 12,5 % = 151,25
+        assertEquals(new BigDecimal("151.25"), descuento.aBigDecimal());
+        assertEquals(new BigDecimal("0.33"),
+            Dinero.de(new BigDecimal("1.00")).porcentaje(33.333, 2, RoundingMode.HALF_UP).aBigDecimal());
+    }
+
+    @Test
+    @DisplayName("Debería resolver con BigDecimal los productos que no entran en un long")
+    void testMultiplicarFueraDeRango() {
+        // Arrange
+        Dinero grande = Dinero.de(new BigDecimal("900000000000.00"));
+
+        // Act
+        Dinero iva = grande.iva(TipoAlicuotaIVA.IVA_21, RoundingMode.HALF_UP);
+
+        // Assert
+        assertEquals(new BigDecimal("189000000000.00"), iva.aBigDecimal());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar escalas fuera de rango")
+    void testEscalaInvalida() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> Dinero.CERO.redondear(6, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,117 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+
+import com.unam.integrador.model.DistribucionPago.Imputacion;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Tests unitarios para DistribucionPago.
+ * Valida la distribución FIFO en memoria y que coincida con Factura.registrarPago.
+ */
+@DisplayName("Tests unitarios para DistribucionPago")
+class DistribucionPagoTest {
+
+    private CuentaCliente cliente;
+    private Factura factura1;
+    private Factura factura2;
+    private Factura factura3;
+
+    @BeforeEach
+    void setUp() {
+        cliente = mock(CuentaCliente.class);
+        // Tres facturas de 1210 (1000 + IVA 21%)
+        factura1 = crearFactura(1);
+        factura2 = crearFactura(2);
+        factura3 = crearFactura(3);
+    }
+
+    @Test
+    @DisplayName("Debería aplicar primero el saldo a favor y luego el dinero, en orden")
+    void testDistribuyeEnOrden() {
+        // Act
+        DistribucionPago distribucion = DistribucionPago.calcular(
+            List.of(factura1, factura2, factura3), new BigDecimal("1000.00"), new BigDecimal("1500.00"));
+
+        // Assert
+        List<Imputacion> imputaciones = distribucion.getImputaciones();
+        assertEquals(3, imputaciones.size());
+
+        assertEquals(0, new BigDecimal("1000.00").compareTo(imputaciones.get(0).montoSaldoAFavor()));
+        assertEquals(0, new BigDecimal("210.00").compareTo(imputaciones.get(0).montoMetodoPago()));
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, imputaciones.get(0).estado());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(imputaciones.get(1).montoSaldoAFavor()));
+        assertEquals(0, new BigDecimal("1210.00").compareTo(imputaciones.get(1).montoMetodoPago()));
+
+        assertEquals(0, new BigDecimal("80.00").compareTo(imputaciones.get(2).montoMetodoPago()));
+        assertEquals(0, new BigDecimal("1130.00").compareTo(imputaciones.get(2).saldoPendiente()));
+        assertEquals(EstadoFactura.PAGADA_PARCIALMENTE, imputaciones.get(2).estado());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(distribucion.getRemanente()));
+    }
+
+    @Test
+    @DisplayName("Debería informar el excedente y no modificar las facturas")
+    void testExcedenteSinModificarFacturas() {
+        // Act
+        DistribucionPago distribucion = DistribucionPago.calcular(
+            List.of(factura1), BigDecimal.ZERO, new BigDecimal("2000.00"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("790.00").compareTo(distribucion.getRemanente()));
+        assertEquals(EstadoFactura.PENDIENTE, factura1.getEstado());
+        assertEquals(0, new BigDecimal("1210.00").compareTo(factura1.getSaldoPendiente()));
+        assertTrue(factura1.getDetallesPago().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería producir el mismo saldo y estado que registrarPago")
+    void testCoincideConRegistrarPago() {
+        // Arrange
+        Factura referencia = crearFactura(4);
+        DistribucionPago distribucion = DistribucionPago.calcular(
+            List.of(factura1), BigDecimal.ZERO, new BigDecimal("500.00"));
+
+        // Act
+        referencia.registrarPago(
+            Pago.crearPago(new BigDecimal("500.00"), MetodoPago.EFECTIVO, null), new BigDecimal("500.00"));
+
+        // Assert
+        Imputacion imputacion = distribucion.getImputaciones().get(0);
+        assertEquals(0, referencia.getSaldoPendiente().compareTo(imputacion.saldoPendiente()));
+        assertEquals(referencia.getEstado(), imputacion.estado());
+        assertEquals(1, referencia.getDetallesPago().size());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una factura anulada que debe recibir parte del pago")
+    void testRechazaFacturaAnulada() {
+        // Arrange
+        factura2.anular();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> DistribucionPago.calcular(
+            List.of(factura1, factura2), BigDecimal.ZERO, new BigDecimal("2000.00")));
+    }
+
+    private Factura crearFactura(int numero) {
+        LocalDate hoy = LocalDate.now();
+        Factura factura = new Factura(1, numero, cliente, hoy, hoy.plusDays(30), hoy, TipoFactura.A);
+        factura.agregarItem(new ItemFactura("Servicio", new BigDecimal("1000.00"), 1, TipoAlicuotaIVA.IVA_21));
+        return factura;
+    }
+}
@@ -1,7 +1,11 @@
 package com.unam.integrador.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -382,4 +386,93 @@ class FacturaTest {
         assertEquals(0, new BigDecimal("18150.00").compareTo(factura.getTotal()));
         assertEquals(0, new BigDecimal("18150.00").compareTo(factura.getSaldoPendiente()));
     }
+
+    @Test
+    @DisplayName("Debería quitar un item y descontarlo de los totales")
+    void testQuitarItem() {
+        // Arrange
+        ItemFactura hosting = new ItemFactura("Hosting", new BigDecimal("10000"), 1, TipoAlicuotaIVA.IVA_21);
+        ItemFactura email = new ItemFactura("Email", new BigDecimal("5000"), 1, TipoAlicuotaIVA.IVA_10_5);
+        factura.agregarItem(hosting);
+        factura.agregarItem(email);
+
+        // Act
+        factura.quitarItem(hosting);
+
+        // Assert
+        assertEquals(1, factura.getDetalleFactura().size());
+        assertEquals(0, new BigDecimal("5000.00").compareTo(factura.getSubtotal()));
+        assertEquals(0, new BigDecimal("525.00").compareTo(factura.getTotalIva()));
+        assertEquals(0, new BigDecimal("5525.00").compareTo(factura.getSaldoPendiente()));
+        assertThrows(IllegalArgumentException.class, () -> factura.quitarItem(hosting));
+    }
+
+    @Test
+    @DisplayName("Debería detectar totales que no coinciden con el detalle")
+    void testVerificarTotales() {
+        // Arrange
+        factura.agregarItem(new ItemFactura("Hosting", new BigDecimal("10000"), 1, TipoAlicuotaIVA.IVA_21));
+        assertDoesNotThrow(() -> factura.verificarTotales());
+        factura.setTotal(new BigDecimal("1.00"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> factura.verificarTotales());
+        assertEquals(0, new BigDecimal("12100.00").compareTo(factura.getTotal()));
+    }
+
+    @Test
+    @DisplayName("Los totales incrementales deberían ser idénticos al recálculo completo")
+    void testTotalesIncrementalesIgualesAlRecalculo() {
+        Random random = new Random(20251101L);
+        TipoAlicuotaIVA[] alicuotas = TipoAlicuotaIVA.values();
+
+        for (int caso = 0; caso < 300; caso++) {
+            // Arrange: una secuencia aleatoria de altas, bajas y descuentos
+            Factura incremental = new Factura(1, caso, cliente,
+                LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 30), LocalDate.of(2025, 11, 1), TipoFactura.A);
+            List<ItemFactura> items = new ArrayList<>();
+            int operaciones = 1 + random.nextInt(60);
+
+            for (int op = 0; op < operaciones; op++) {
+                // Act
+                int accion = random.nextInt(10);
+                if (accion < 7 || items.isEmpty()) {
+                    ItemFactura item = new ItemFactura("Item " + op,
+                        BigDecimal.valueOf(random.nextInt(10_000_000), 2),
+                        1 + random.nextInt(12), alicuotas[random.nextInt(alicuotas.length)]);
+                    incremental.agregarItem(item);
+                    items.add(item);
+                } else if (accion < 9) {
+                    incremental.quitarItem(items.remove(random.nextInt(items.size())));
+                } else {
+                    incremental.aplicarDescuento(random.nextInt(10_001) / 100.0, "Bonificación");
+                }
+
+                // Assert: igual, con la misma escala, a recalcular todo y a hacerlo con BigDecimal
+                BigDecimal subtotal = incremental.getSubtotal();
+                BigDecimal totalIva = incremental.getTotalIva();
+                BigDecimal total = incremental.getTotal();
+                assertDoesNotThrow(incremental::verificarTotales, "caso " + caso);
+                assertEquals(incremental.getSubtotal(), subtotal, "caso " + caso);
+                assertEquals(incremental.getTotalIva(), totalIva, "caso " + caso);
+                assertEquals(incremental.getTotal(), total, "caso " + caso);
+                assertEquals(total, incremental.getSaldoPendiente(), "caso " + caso);
+                assertEquals(0, totalConBigDecimal(items, incremental.getDescuento()).compareTo(total), "caso " + caso);
+            }
+        }
+    }
+
+    /** Total calculado item por item con BigDecimal, como referencia. */
+    private static BigDecimal totalConBigDecimal(List<ItemFactura> items, double descuento) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal totalIva = BigDecimal.ZERO;
+        for (ItemFactura item : items) {
+            BigDecimal subtotalItem = item.getPrecioUnitario().multiply(BigDecimal.valueOf(item.getCantidad()));
+            subtotal = subtotal.add(subtotalItem);
+            totalIva = totalIva.add(subtotalItem.multiply(item.getAlicuotaIVA().getPorcentaje()).movePointLeft(2));
+        }
+        BigDecimal montoDescuento = subtotal.multiply(BigDecimal.valueOf(descuento))
+            .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return subtotal.subtract(montoDescuento).add(totalIva);
+    }
 }
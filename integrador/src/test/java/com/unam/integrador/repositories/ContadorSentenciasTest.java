@@ -0,0 +1,64 @@
+package com.unam.integrador.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para ContadorSentencias.
+ */
+@DisplayName("Tests unitarios para ContadorSentencias")
+class ContadorSentenciasTest {
+
+    private final ContadorSentencias contador = new ContadorSentencias();
+
+    @Test
+    @DisplayName("Debería reducir las sentencias a su forma, sin literales ni listas de IN")
+    void testForma() {
+        // Act & Assert
+        assertEquals("select c1_0.id from cuenta_cliente c1_0 where c1_0.id=? and c1_0.nombre=?",
+            ContadorSentencias.forma("select c1_0.id from cuenta_cliente c1_0\n  where c1_0.id=42 and c1_0.nombre='O''Hara'"));
+        assertEquals("select f1_0.id from factura f1_0 where f1_0.id in (...)",
+            ContadorSentencias.forma("select f1_0.id from factura f1_0 where f1_0.id in (?, ?, ?)"));
+    }
+
+    @Test
+    @DisplayName("Debería contar sólo con un registro abierto, en todos los registros anidados")
+    void testRegistrosAnidados() {
+        // Arrange
+        contador.inspect("select 1");
+
+        // Act
+        try (ContadorSentencias.Registro externo = ContadorSentencias.iniciar()) {
+            contador.inspect("select * from pago where id=1");
+            try (ContadorSentencias.Registro interno = ContadorSentencias.iniciar()) {
+                contador.inspect("select * from pago where id=2");
+                contador.inspect("select * from pago where id=3");
+                assertEquals(2, interno.getTotal());
+            }
+            contador.inspect("select * from factura");
+
+            // Assert
+            assertEquals(4, externo.getTotal());
+            assertEquals(3, externo.getPorForma().get("select * from pago where id=?"));
+            assertEquals(1, externo.getRepetidas(2).size());
+            assertTrue(externo.getRepetidas(3).isEmpty());
+        }
+        contador.inspect("select 2");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar cerrar un registro fuera de orden")
+    void testCierreFueraDeOrden() {
+        // Arrange
+        ContadorSentencias.Registro externo = ContadorSentencias.iniciar();
+        ContadorSentencias.Registro interno = ContadorSentencias.iniciar();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, externo::close);
+        interno.close();
+        externo.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.unam.integrador.repositories;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aserciones sobre las sentencias SQL que ejecutó un test.
+ *
+ * Se obtiene como parámetro de los tests con {@link SentenciasSqlExtension}:
+ * cuenta desde antes del @BeforeEach, así que tras preparar los datos hay que
+ * llamar a {@link #reiniciar()}. Como MockMvc ejecuta la solicitud en el hilo
+ * del test, también se cuentan las sentencias de los endpoints.
+ *
+ * Ejemplo:
+ * <pre>
+ * sql.reiniciar();
+ * mockMvc.perform(get("/pagos"));
+ * sql.assertTotal(3);
+ * </pre>
+ */
+public class SentenciasSql {
+
+    private final ContadorSentencias.Registro registro;
+
+    SentenciasSql(ContadorSentencias.Registro registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Vuelve a contar desde cero.
+     */
+    public void reiniciar() {
+        registro.reiniciar();
+    }
+
+    /**
+     * @return Sentencias ejecutadas desde el último reinicio
+     */
+    public int getTotal() {
+        return registro.getTotal();
+    }
+
+    /**
+     * Verifica la cantidad exacta de sentencias ejecutadas.
+     */
+    public void assertTotal(int esperado) {
+        assertEquals(esperado, registro.getTotal(), () -> "Cantidad de sentencias SQL. " + detalle());
+    }
+
+    /**
+     * Verifica que no se ejecutaron más sentencias que el máximo.
+     */
+    public void assertMaximo(int maximo) {
+        assertTrue(registro.getTotal() <= maximo,
+            () -> "Se esperaban a lo sumo " + maximo + " sentencias SQL y hubo " + registro.getTotal() + ". " + detalle());
+    }
+
+    /**
+     * Verifica que ninguna forma de sentencia se repitió más veces que el umbral.
+     */
+    public void assertSinRepetidas(int umbral) {
+        Map<String, Integer> repetidas = registro.getRepetidas(umbral);
+        assertTrue(repetidas.isEmpty(), () -> "Sentencias SQL repetidas más de " + umbral + " veces: " + repetidas);
+    }
+
+    private String detalle() {
+        return registro.getPorForma().entrySet().stream()
+            .map(e -> e.getValue() + " x " + e.getKey())
+            .collect(Collectors.joining("\n", "Sentencias:\n", ""));
+    }
+}
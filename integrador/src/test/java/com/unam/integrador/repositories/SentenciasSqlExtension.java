@@ -0,0 +1,44 @@
+package com.unam.integrador.repositories;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Extensión de JUnit que cuenta las sentencias SQL de cada test y las
+ * ofrece como parámetro {@link SentenciasSql}.
+ *
+ * Uso: {@code @ExtendWith(SentenciasSqlExtension.class)} en la clase del test.
+ */
+public class SentenciasSqlExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(SentenciasSqlExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(ContadorSentencias.Registro.class, ContadorSentencias.iniciar());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ContadorSentencias.Registro registro =
+            context.getStore(NAMESPACE).remove(ContadorSentencias.Registro.class, ContadorSentencias.Registro.class);
+        if (registro != null) {
+            registro.close();
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == SentenciasSql.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return new SentenciasSql(extensionContext.getStore(NAMESPACE)
+            .get(ContadorSentencias.Registro.class, ContadorSentencias.Registro.class));
+    }
+}
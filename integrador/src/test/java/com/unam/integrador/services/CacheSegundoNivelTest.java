@@ -0,0 +1,146 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.SentenciasSql;
+import com.unam.integrador.repositories.SentenciasSqlExtension;
+import com.unam.integrador.repositories.ServicioRepository;
+
+/**
+ * Tests de la caché de segundo nivel de Hibernate (Servicio, CuentaCliente y
+ * consultas de servicios).
+ *
+ * No es transaccional: la caché se actualiza cuando cada transacción se
+ * confirma, por lo que los datos se eliminan explícitamente al finalizar.
+ */
+@SpringBootTest
+@ExtendWith(SentenciasSqlExtension.class)
+@DisplayName("Tests de la caché de segundo nivel")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private ServicioService servicioService;
+
+    @Autowired
+    private CuentaClienteService cuentaClienteService;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    private Servicio servicio;
+    private CuentaCliente cliente;
+
+    @AfterEach
+    void tearDown() {
+        if (servicio != null) {
+            servicioRepository.deleteById(servicio.getIDServicio());
+        }
+        if (cliente != null) {
+            clienteRepository.deleteById(cliente.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería leer el servicio de la caché y ver sus modificaciones")
+    void testServicioInvalidadoAlModificar(SentenciasSql sql) {
+        // Arrange
+        servicio = servicioService.crearServicio(nuevoServicio("Caché Modificación"));
+        Long id = servicio.getIDServicio();
+        servicioRepository.findById(id);
+        sql.reiniciar();
+
+        // Act & Assert: la lectura repetida no va a la base
+        assertEquals("Caché Modificación", servicioRepository.findById(id).orElseThrow().getNombre());
+        sql.assertTotal(0);
+
+        servicioService.modificarServicio(id, new Servicio(
+            "Caché Modificación", "Nueva descripción", new BigDecimal("2500.00"), TipoAlicuotaIVA.IVA_10_5));
+        Servicio modificado = servicioRepository.findById(id).orElseThrow();
+        assertEquals(0, new BigDecimal("2500.00").compareTo(modificado.getPrecio()));
+        assertEquals(TipoAlicuotaIVA.IVA_10_5, modificado.getAlicuotaIVA());
+    }
+
+    @Test
+    @DisplayName("Debería descartar la consulta de servicios activos al dar de baja y reactivar")
+    void testConsultaActivosInvalidadaAlDarDeBaja(SentenciasSql sql) {
+        // Arrange
+        servicio = servicioService.crearServicio(nuevoServicio("Caché Baja"));
+        Long id = servicio.getIDServicio();
+        servicioRepository.findByActivoTrue();
+        sql.reiniciar();
+
+        // Act & Assert: la consulta repetida sale de la caché de consultas
+        assertTrue(contieneServicio(id));
+        sql.assertTotal(0);
+
+        servicioService.darDeBajaServicio(id);
+        assertFalse(contieneServicio(id));
+
+        servicioService.reactivarServicio(id);
+        assertTrue(contieneServicio(id));
+    }
+
+    @Test
+    @DisplayName("Debería leer el cliente de la caché y ver sus modificaciones y cambios de estado")
+    void testClienteInvalidadoAlModificar(SentenciasSql sql) {
+        // Arrange
+        cliente = clienteRepository.save(nuevoCliente());
+        Long id = cliente.getId();
+        clienteRepository.findById(id);
+        sql.reiniciar();
+
+        // Act & Assert: la lectura repetida no va a la base
+        assertEquals("Cliente Caché", clienteRepository.findById(id).orElseThrow().getNombre());
+        sql.assertTotal(0);
+
+        CuentaCliente datos = nuevoCliente();
+        datos.setNombre("Cliente Caché Modificado");
+        datos.setDomicilio("Otra calle 456");
+        cuentaClienteService.modificarCliente(id, datos);
+        CuentaCliente modificado = clienteRepository.findById(id).orElseThrow();
+        assertEquals("Cliente Caché Modificado", modificado.getNombre());
+        assertEquals("Otra calle 456", modificado.getDomicilio());
+
+        cuentaClienteService.cambiarEstado(id, EstadoCuenta.SUSPENDIDA, "Suspensión por test de caché");
+        assertEquals(EstadoCuenta.SUSPENDIDA, clienteRepository.findById(id).orElseThrow().getEstado());
+    }
+
+    private boolean contieneServicio(Long id) {
+        return servicioRepository.findByActivoTrue().stream().anyMatch(s -> s.getIDServicio().equals(id));
+    }
+
+    private Servicio nuevoServicio(String nombre) {
+        return new Servicio(nombre, "Servicio del test de caché", new BigDecimal("1000.00"), TipoAlicuotaIVA.IVA_21);
+    }
+
+    private CuentaCliente nuevoCliente() {
+        CuentaCliente nuevo = new CuentaCliente();
+        nuevo.setNombre("Cliente Caché");
+        nuevo.setRazonSocial("Cliente Caché S.A.");
+        nuevo.setCuitDni("30999999982");
+        nuevo.setDomicilio("Calle Falsa 123");
+        nuevo.setEmail("cache@email.com");
+        nuevo.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        nuevo.setEstado(EstadoCuenta.ACTIVA);
+        return nuevo;
+    }
+}
@@ -0,0 +1,108 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.ServicioCatalogo;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.repositories.SentenciasSql;
+import com.unam.integrador.repositories.SentenciasSqlExtension;
+import com.unam.integrador.repositories.ServicioRepository;
+
+/**
+ * Tests de integración del catálogo de servicios en memoria.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@Transactional
+@ExtendWith(SentenciasSqlExtension.class)
+@DisplayName("Tests de integración de CatalogoServicios")
+class CatalogoServiciosTest {
+
+    @Autowired
+    private CatalogoServicios catalogoServicios;
+
+    @Autowired
+    private ServicioService servicioService;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Test
+    @DisplayName("Debería leer el catálogo de la base una sola vez")
+    void testLecturaDesdeMemoria(SentenciasSql sql) {
+        // Arrange
+        Servicio servicio = servicioService.crearServicio(nuevoServicio("Catálogo Memoria"));
+        catalogoServicios.listarActivos();
+        sql.reiniciar();
+
+        // Act
+        boolean listado = catalogoServicios.listarActivos().stream()
+            .anyMatch(s -> s.id().equals(servicio.getIDServicio()));
+        ServicioCatalogo encontrado = catalogoServicios.buscarPorId(servicio.getIDServicio());
+
+        // Assert
+        assertTrue(listado);
+        assertEquals("Catálogo Memoria", encontrado.nombre());
+        sql.assertTotal(0);
+    }
+
+    @Test
+    @DisplayName("Debería reflejar la modificación, la baja y la reactivación de un servicio")
+    void testInvalidacionAlModificar() {
+        // Arrange
+        Servicio servicio = servicioService.crearServicio(nuevoServicio("Catálogo Cambios"));
+        Long id = servicio.getIDServicio();
+        catalogoServicios.listarActivos();
+
+        // Act & Assert
+        servicioService.modificarServicio(id, new Servicio(
+            "Catálogo Cambios", "Nueva descripción", new BigDecimal("2500.00"), TipoAlicuotaIVA.IVA_10_5));
+        ServicioCatalogo modificado = catalogoServicios.buscarPorId(id);
+        assertEquals(0, new BigDecimal("2500.00").compareTo(modificado.precio()));
+        assertEquals(TipoAlicuotaIVA.IVA_10_5, modificado.alicuotaIVA());
+
+        servicioService.darDeBajaServicio(id);
+        assertFalse(catalogoServicios.buscarPorId(id).activo());
+        assertTrue(catalogoServicios.listarActivos().stream().noneMatch(s -> s.id().equals(id)));
+
+        servicioService.reactivarServicio(id);
+        assertTrue(catalogoServicios.listarActivos().stream().anyMatch(s -> s.id().equals(id)));
+    }
+
+    @Test
+    @DisplayName("Debería volver a leer la base si el servicio no está en la copia")
+    void testServicioNuevoFueraDelCatalogo() {
+        // Arrange
+        catalogoServicios.listarActivos();
+        Servicio servicio = servicioRepository.save(nuevoServicio("Catálogo Directo"));
+
+        // Act
+        ServicioCatalogo encontrado = catalogoServicios.buscarPorId(servicio.getIDServicio());
+
+        // Assert
+        assertEquals("Catálogo Directo", encontrado.nombre());
+    }
+
+    @Test
+    @DisplayName("Debería fallar con un servicio inexistente")
+    void testServicioInexistente() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> catalogoServicios.buscarPorId(-1L));
+    }
+
+    private Servicio nuevoServicio(String nombre) {
+        return new Servicio(nombre, "Servicio del test de catálogo", new BigDecimal("1000.00"), TipoAlicuotaIVA.IVA_21);
+    }
+}
@@ -0,0 +1,68 @@
+package com.unam.integrador.services;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests unitarios para EjecutorConReintentos.
+ */
+@DisplayName("Tests unitarios para EjecutorConReintentos")
+class EjecutorConReintentosTest {
+
+    private EjecutorConReintentos ejecutor;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate template = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        ejecutor = new EjecutorConReintentos(template, 3, 1);
+    }
+
+    @Test
+    @DisplayName("Debería reintentar ante un conflicto de versión y devolver el resultado")
+    void testReintentaAnteConflicto() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        String resultado = ejecutor.ejecutar(() -> {
+            if (intentos.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Factura", 1L);
+            }
+            return "00000001";
+        });
+
+        assertEquals("00000001", resultado);
+        assertEquals(3, intentos.get());
+    }
+
+    @Test
+    @DisplayName("Debería fallar al agotar los reintentos")
+    void testAgotaReintentos() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> ejecutor.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Factura", 1L);
+        }));
+        assertEquals(3, intentos.get());
+    }
+
+    @Test
+    @DisplayName("No debería reintentar errores de negocio")
+    void testNoReintentaErroresDeNegocio() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> ejecutor.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw new IllegalArgumentException("No se encontraron facturas");
+        }));
+        assertEquals(1, intentos.get());
+    }
+}
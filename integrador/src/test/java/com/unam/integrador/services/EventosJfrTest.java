@@ -0,0 +1,154 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.repositories.ServicioRepository;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests de integración de los eventos de JFR de las operaciones de negocio.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración de los eventos de JFR")
+class EventosJfrTest {
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private ReciboService reciboService;
+
+    @Autowired
+    private CuentaClienteService cuentaClienteService;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    private final LocalDate hoy = LocalDate.now();
+
+    @Test
+    @DisplayName("Debería registrar un evento por operación con sus datos")
+    void testRegistraEventosDeNegocio(@TempDir Path directorio) throws Exception {
+        // Arrange
+        CuentaCliente cliente = cuentaClienteService.crearCliente(nuevoCliente());
+        String periodo = hoy.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES")));
+        Path archivo = directorio.resolve("eventos.jfr");
+
+        // Act
+        LoteFacturacion lote;
+        String numeroRecibo;
+        try (Recording grabacion = new Recording()) {
+            grabacion.enable("integrador.FacturacionMasiva");
+            grabacion.enable("integrador.EtapaFacturacionMasiva");
+            grabacion.enable("integrador.AnulacionLote");
+            grabacion.enable("integrador.EmisionFactura");
+            grabacion.enable("integrador.RegistroPago");
+            grabacion.enable("integrador.GeneracionRecibo");
+            grabacion.start();
+
+            lote = facturaService.ejecutarFacturacionMasiva(periodo, hoy.plusDays(10));
+            facturaService.anularLoteFacturacion(lote.getId(), "Prueba de eventos");
+            Factura factura = facturaService.emitirFacturaDesdeServiciosContratados(
+                cliente.getId(), hoy, hoy, hoy.plusDays(10), null, null);
+            numeroRecibo = pagoService.registrarPagoCombinado(
+                List.of(factura.getIdFactura()), new BigDecimal("100.00"), BigDecimal.ZERO, MetodoPago.TARJETA, null);
+            reciboService.generarReciboConsolidado(numeroRecibo);
+
+            grabacion.stop();
+            grabacion.dump(archivo);
+        }
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(archivo);
+
+        // Assert
+        RecordedEvent masiva = unico(eventos, "integrador.FacturacionMasiva");
+        assertEquals(periodo, masiva.getString("periodo"));
+        assertEquals(lote.getId(), masiva.getLong("loteId"));
+        assertEquals(lote.getCantidadFacturas(), masiva.getInt("facturas"));
+        assertTrue(eventos.stream().anyMatch(e -> esDelTipo(e, "integrador.EtapaFacturacionMasiva")
+            && e.getString("etapa").equals("guardado")));
+
+        assertEquals(lote.getId(), unico(eventos, "integrador.AnulacionLote").getLong("loteId"));
+
+        RecordedEvent emision = unico(eventos, "integrador.EmisionFactura");
+        assertEquals(cliente.getId(), emision.getLong("clienteId"));
+
+        RecordedEvent pago = unico(eventos, "integrador.RegistroPago");
+        assertEquals(cliente.getId(), pago.getLong("clienteId"));
+        assertEquals("TARJETA", pago.getString("metodoPago"));
+        assertEquals(numeroRecibo, pago.getString("numeroRecibo"));
+
+        RecordedEvent recibo = unico(eventos, "integrador.GeneracionRecibo");
+        assertEquals(numeroRecibo, recibo.getString("numeroRecibo"));
+        assertEquals(1, recibo.getInt("facturas"));
+    }
+
+    private static boolean esDelTipo(RecordedEvent evento, String tipo) {
+        return evento.getEventType().getName().equals(tipo);
+    }
+
+    private static RecordedEvent unico(List<RecordedEvent> eventos, String tipo) {
+        List<RecordedEvent> delTipo = eventos.stream().filter(e -> esDelTipo(e, tipo)).toList();
+        assertEquals(1, delTipo.size(), "Eventos " + tipo);
+        return delTipo.get(0);
+    }
+
+    private CuentaCliente nuevoCliente() {
+        Servicio servicio = new Servicio();
+        servicio.setNombre("JFR Test");
+        servicio.setDescripcion("Servicio del test de eventos");
+        servicio.setAlicuotaIVA(TipoAlicuotaIVA.IVA_21);
+        servicio.setPrecio(new BigDecimal("1000.00"));
+        servicio.setActivo(true);
+        servicio = servicioRepository.save(servicio);
+
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("JFR Test S.A.");
+        cliente.setRazonSocial("JFR Test S.A.");
+        cliente.setCuitDni("30755566677");
+        cliente.setDomicilio("Rivadavia 700");
+        cliente.setEmail("jfr@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+
+        ServicioContratado contratado = new ServicioContratado();
+        contratado.setActivo(true);
+        contratado.setFechaAlta(hoy);
+        contratado.setPrecioContratado(servicio.getPrecio());
+        contratado.setServicio(servicio);
+        contratado.setCliente(cliente);
+        cliente.setServiciosContratados(new ArrayList<>(List.of(contratado)));
+        return cliente;
+    }
+}
@@ -0,0 +1,106 @@
+package com.unam.integrador.services;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.ProgresoExportacionPdf;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.LoteFacturacionRepository;
+
+/**
+ * Benchmark de la generación de PDFs: facturas por segundo, en total y por núcleo,
+ * renderizando en un solo hilo y exportando un lote completo con el pool.
+ * Sólo se ejecuta a pedido: {@code mvn test -Dtest=FacturaPdfBenchmarkTest -Dbenchmark=true}
+ * (opcional: {@code -Dbenchmark.facturas=N}).
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark de generación de PDFs de facturas")
+class FacturaPdfBenchmarkTest {
+
+    private static final int CALENTAMIENTO = 50;
+
+    @Autowired
+    private FacturaPdfService facturaPdfService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private LoteFacturacionRepository loteRepository;
+
+    @Test
+    @DisplayName("Mide facturas por segundo por núcleo al exportar un lote")
+    void medirExportacionLote() throws Exception {
+        // Arrange
+        int cantidad = Integer.getInteger("benchmark.facturas", 500);
+        LoteFacturacion lote = crearLote(cantidad);
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            facturaPdfService.renderizar(lote.getFacturas().get(i % cantidad));
+        }
+
+        // Act: un hilo, sin base ni ZIP
+        long inicio = System.nanoTime();
+        for (Factura factura : lote.getFacturas()) {
+            facturaPdfService.renderizar(factura);
+        }
+        double segundosUnHilo = (System.nanoTime() - inicio) / 1e9;
+
+        // Act: lote completo con el pool, lectura de la base y ZIP incluidos
+        inicio = System.nanoTime();
+        ProgresoExportacionPdf progreso = facturaPdfService.exportarLote(lote.getId(), OutputStream.nullOutputStream());
+        double segundosLote = (System.nanoTime() - inicio) / 1e9;
+
+        // Assert
+        assertEquals(cantidad, progreso.generadas());
+        int hilos = facturaPdfService.getHilos();
+        int nucleos = Math.min(hilos, Runtime.getRuntime().availableProcessors());
+        double porSegundoUnHilo = cantidad / segundosUnHilo;
+        double porSegundoLote = cantidad / segundosLote;
+        System.out.printf("[benchmark] %d facturas, %d hilos, %d núcleos%n", cantidad, hilos, nucleos);
+        System.out.printf("[benchmark] 1 hilo : %8.1f facturas/s%n", porSegundoUnHilo);
+        System.out.printf("[benchmark] lote   : %8.1f facturas/s, %8.1f facturas/s por núcleo (escalado %.0f%%)%n",
+            porSegundoLote, porSegundoLote / nucleos, 100 * porSegundoLote / (porSegundoUnHilo * nucleos));
+    }
+
+    private LoteFacturacion crearLote(int cantidad) {
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("Benchmark PDF S.A.");
+        cliente.setRazonSocial("Benchmark PDF S.A.");
+        cliente.setCuitDni("30733344455");
+        cliente.setDomicilio("San Martín 500");
+        cliente.setEmail("benchmark@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente = clienteRepository.save(cliente);
+
+        LocalDate periodo = LocalDate.of(2001, 7, 1);
+        LoteFacturacion lote = new LoteFacturacion("Julio 2001", periodo, periodo.plusDays(20));
+        for (int i = 1; i <= cantidad; i++) {
+            Factura factura = new Factura(1, 660000 + i, cliente, periodo, periodo.plusDays(20), periodo, TipoFactura.A);
+            factura.agregarItem(new ItemFactura("Abono mensual", new BigDecimal("1000.00"), 1, TipoAlicuotaIVA.IVA_21));
+            factura.agregarItem(new ItemFactura("Soporte", new BigDecimal("250.00"), 2, TipoAlicuotaIVA.IVA_21));
+            factura.agregarItem(new ItemFactura("Capacitación", new BigDecimal("400.00"), 1, TipoAlicuotaIVA.IVA_10_5));
+            lote.agregarFactura(factura);
+        }
+        return loteRepository.saveAndFlush(lote);
+    }
+}
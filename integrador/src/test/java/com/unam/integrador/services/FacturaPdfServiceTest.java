@@ -0,0 +1,127 @@
+package com.unam.integrador.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.ProgresoExportacionPdf;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.LoteFacturacionRepository;
+
+/**
+ * Tests de integración para FacturaPdfService.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración para FacturaPdfService")
+class FacturaPdfServiceTest {
+
+    @Autowired
+    private FacturaPdfService facturaPdfService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private LoteFacturacionRepository loteRepository;
+
+    private LoteFacturacion lote;
+
+    @BeforeEach
+    void setUp() {
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("PDF Test S.R.L.");
+        cliente.setRazonSocial("PDF Test S.R.L.");
+        cliente.setCuitDni("30722233344");
+        cliente.setDomicilio("Sarmiento 400");
+        cliente.setEmail("pdf@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente = clienteRepository.save(cliente);
+
+        LocalDate periodo = LocalDate.of(2001, 6, 1);
+        lote = new LoteFacturacion("Junio 2001", periodo, periodo.plusDays(20));
+        // Más facturas que la ventana del pool para recorrer varios bloques
+        int cantidad = facturaPdfService.getHilos() * 2 + 3;
+        for (int i = 1; i <= cantidad; i++) {
+            Factura factura = new Factura(1, 770000 + i, cliente, periodo, periodo.plusDays(20), periodo, TipoFactura.A);
+            factura.agregarItem(new ItemFactura("Abono mensual", new BigDecimal("1000.00"), 1, TipoAlicuotaIVA.IVA_21));
+            lote.agregarFactura(factura);
+        }
+        lote = loteRepository.save(lote);
+    }
+
+    @Test
+    @DisplayName("Debería generar un ZIP con un PDF por factura del lote, en orden")
+    void testExportarLote() throws Exception {
+        // Arrange
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        ProgresoExportacionPdf progreso = facturaPdfService.exportarLote(lote.getId(), salida);
+
+        // Assert
+        List<String> nombres = new ArrayList<>();
+        String textoPrimera = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(salida.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                nombres.add(entrada.getName());
+                byte[] pdf = zip.readAllBytes();
+                try (PDDocument documento = PDDocument.load(pdf)) {
+                    assertEquals(1, documento.getNumberOfPages());
+                    if (textoPrimera == null) {
+                        textoPrimera = new PDFTextStripper().getText(documento);
+                    }
+                }
+            }
+        }
+        int cantidad = lote.getCantidadFacturas();
+        assertEquals(cantidad, nombres.size());
+        assertEquals("factura-A-0001-00770001.pdf", nombres.get(0));
+        assertEquals(String.format("factura-A-0001-%08d.pdf", 770000 + cantidad), nombres.get(cantidad - 1));
+        assertTrue(textoPrimera.contains("PDF Test S.R.L."));
+        assertTrue(textoPrimera.contains("$1.210,00"));
+
+        assertTrue(progreso.terminada());
+        assertEquals(cantidad, progreso.generadas());
+        assertEquals(100, progreso.getPorcentaje());
+        assertEquals(progreso, facturaPdfService.obtenerProgreso(lote.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la exportación de un lote inexistente")
+    void testExportarLoteInexistente() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> facturaPdfService.exportarLote(-1L, new ByteArrayOutputStream()));
+        assertFalse(facturaPdfService.obtenerProgreso(-1L).isPresent());
+    }
+}
@@ -1,9 +1,13 @@
 package com.unam.integrador.services;
 
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -15,20 +19,31 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.dto.FacturaDeLote;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.Factura;
 import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.Pago;
 import com.unam.integrador.model.Servicio;
 import com.unam.integrador.model.ServicioContratado;
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
 import com.unam.integrador.model.enums.TipoAlicuotaIVA;
 import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
 import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.DetallePagoRepository;
+import com.unam.integrador.repositories.LoteFacturacionRepository;
+import com.unam.integrador.repositories.NumeroReciboRepository;
+import com.unam.integrador.repositories.PagoRepository;
 import com.unam.integrador.repositories.ServicioRepository;
 
+import jakarta.persistence.EntityManager;
+
 /**
  * Tests de integración para FacturaService.
  * Usa base de datos H2 en memoria para probar operaciones reales con persistencia.
@@ -48,6 +63,23 @@ class FacturaServiceIntegrationTest {
     @Autowired
     private ServicioRepository servicioRepository;
 
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private LoteFacturacionRepository loteFacturacionRepository;
+
+    @Autowired
+    private NumeroReciboRepository numeroReciboRepository;
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    @Autowired
+    private DetallePagoRepository detallePagoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
 
     private CuentaCliente cliente1;
     private CuentaCliente cliente2;
@@ -328,6 +360,37 @@ class FacturaServiceIntegrationTest {
         assertEquals(EstadoFactura.VENCIDA, facturaActualizada.getEstado());
     }
 
+    @Test
+    @DisplayName("Debería vencer en bloque las parcialmente pagadas y descontarlas del contador del lote")
+    void testActualizarFacturasVencidasAjustaContadoresDelLote() {
+        // Arrange: cliente1 paga en parte su factura del lote con saldo a favor; cliente2 la paga completa
+        cliente1.setSaldo(new BigDecimal("-5000.00"));
+        cliente2.setSaldo(new BigDecimal("-20000.00"));
+        clienteRepository.save(cliente1);
+        clienteRepository.save(cliente2);
+        LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
+            periodoSiguiente(), LocalDate.now().plusDays(30), true);
+        Long idParcial = facturaDe(lote, cliente1).getIdFactura();
+        Long idPagada = facturaDe(lote, cliente2).getIdFactura();
+        entityManager.createQuery("UPDATE Factura f SET f.fechaVencimiento = :ayer WHERE f.loteFacturacion.id = :lote")
+            .setParameter("ayer", LocalDate.now().minusDays(1))
+            .setParameter("lote", lote.getId())
+            .executeUpdate();
+        entityManager.clear();
+        int parcialesAntes = loteFacturacionRepository.findById(lote.getId()).orElseThrow()
+            .getCantidadFacturasPagadasParcialmente();
+
+        // Act
+        int actualizadas = facturaService.actualizarFacturasVencidas();
+
+        // Assert
+        assertTrue(actualizadas >= 1);
+        assertEquals(EstadoFactura.VENCIDA, facturaService.obtenerFacturaPorId(idParcial).getEstado());
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, facturaService.obtenerFacturaPorId(idPagada).getEstado());
+        assertEquals(parcialesAntes - 1, loteFacturacionRepository.findById(lote.getId()).orElseThrow()
+            .getCantidadFacturasPagadasParcialmente());
+    }
+
     @Test
     @DisplayName("Debería obtener lote con facturas cargadas")
     void testObtenerLoteConFacturas() {
@@ -364,8 +427,225 @@ class FacturaServiceIntegrationTest {
                    lotes.get(0).getFechaEjecucion().isEqual(lotes.get(1).getFechaEjecucion()));
     }
 
+    @Test
+    @DisplayName("Debería aplicar el saldo a favor de los clientes a sus nuevas facturas")
+    void testFacturacionMasivaAplicandoSaldoAFavor() {
+        // Arrange: cliente1 (factura de 27830) con 5000 a favor, cliente2 (factura de 18150) con 20000
+        cliente1.setSaldo(new BigDecimal("-5000.00"));
+        cliente2.setSaldo(new BigDecimal("-20000.00"));
+        clienteRepository.save(cliente1);
+        clienteRepository.save(cliente2);
+        LocalDate vencimiento = LocalDate.now().plusDays(30);
+
+        // Act
+        LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
+            periodoSiguiente(), vencimiento, true);
+
+        // Assert
+        assertEquals(2, lote.getCantidadFacturas());
+        Factura facturaCliente1 = facturaDe(lote, cliente1);
+        Factura facturaCliente2 = facturaDe(lote, cliente2);
+
+        assertEquals(EstadoFactura.PAGADA_PARCIALMENTE, facturaCliente1.getEstado());
+        assertEquals(0, new BigDecimal("22830.00").compareTo(facturaCliente1.getSaldoPendiente()));
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, facturaCliente2.getEstado());
+
+        List<Pago> pagos = pagoService.listarPorFactura(facturaCliente1.getIdFactura());
+        assertEquals(1, pagos.size());
+        assertEquals(MetodoPago.SALDO_A_FAVOR, pagos.get(0).getMetodoPago());
+        assertEquals(0, new BigDecimal("5000.00").compareTo(pagos.get(0).getMonto()));
+        assertNotNull(pagos.get(0).getNumeroRecibo());
+
+        // Cada factura tiene su propio recibo
+        String reciboCliente2 = pagoService.listarPorFactura(facturaCliente2.getIdFactura()).get(0).getNumeroRecibo();
+        assertFalse(pagos.get(0).getNumeroRecibo().equals(reciboCliente2));
+
+        assertFalse(clienteRepository.findById(cliente1.getId()).orElseThrow().tieneSaldoAFavor());
+        assertEquals(0, new BigDecimal("1850.00").compareTo(
+            clienteRepository.findById(cliente2.getId()).orElseThrow().getSaldoAFavor()));
+    }
+
+    @Test
+    @DisplayName("Debería vincular el detalle al pago insertado aunque otro pago tenga el mismo número de recibo")
+    void testFacturacionMasivaVinculaDetallePorIdDePago() {
+        // Arrange: un pago previo ya usa el número que la secuencia entregará a continuación
+        cliente1.setSaldo(new BigDecimal("-5000.00"));
+        clienteRepository.save(cliente1);
+        String proximoRecibo = String.format("%08d", Long.parseLong(numeroReciboRepository.siguiente()) + 1);
+        Pago pagoPrevio = Pago.crearPago(new BigDecimal("100.00"), MetodoPago.EFECTIVO, null);
+        pagoPrevio.setNumeroRecibo(proximoRecibo);
+        pagoRepository.save(pagoPrevio);
+
+        // Act
+        LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
+            periodoSiguiente(), LocalDate.now().plusDays(30), true);
+
+        // Assert
+        List<Pago> pagos = pagoService.listarPorFactura(facturaDe(lote, cliente1).getIdFactura());
+        assertEquals(1, pagos.size());
+        assertEquals(MetodoPago.SALDO_A_FAVOR, pagos.get(0).getMetodoPago());
+        assertEquals(proximoRecibo, pagos.get(0).getNumeroRecibo());
+        assertTrue(detallePagoRepository.findByPagoIdPago(pagoPrevio.getIdPago()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería conservar el saldo a favor si no se elige aplicarlo")
+    void testFacturacionMasivaSinAplicarSaldoAFavor() {
+        // Arrange
+        cliente1.setSaldo(new BigDecimal("-5000.00"));
+        clienteRepository.save(cliente1);
+
+        // Act
+        LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
+            periodoSiguiente(), LocalDate.now().plusDays(30), false);
+
+        // Assert
+        Factura facturaCliente1 = facturaDe(lote, cliente1);
+        assertEquals(EstadoFactura.PENDIENTE, facturaCliente1.getEstado());
+        assertTrue(pagoService.listarPorFactura(facturaCliente1.getIdFactura()).isEmpty());
+        assertEquals(0, new BigDecimal("5000.00").compareTo(
+            clienteRepository.findById(cliente1.getId()).orElseThrow().getSaldoAFavor()));
+    }
+
+    @Test
+    @DisplayName("Debería mantener los contadores del lote al cobrar y anular sus facturas")
+    void testContadoresDelLote() {
+        // Arrange: cliente2 (factura de 18150) paga todo con su saldo a favor al emitirse el lote
+        CuentaCliente cliente3 = crearClienteConServicios("Tercero S.R.L.", "30555666777",
+            TipoCondicionIVA.RESPONSABLE_INSCRIPTO, 1);
+        cliente2.setSaldo(new BigDecimal("-20000.00"));
+        clienteRepository.save(cliente2);
+        LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
+            periodoSiguiente(), LocalDate.now().plusDays(30), true);
+        Long idFacturaCliente1 = facturaDe(lote, cliente1).getIdFactura();
+        Long idFacturaCliente3 = facturaDe(lote, cliente3).getIdFactura();
+        // Cada operación corre en su propia transacción: no se comparte el contexto de persistencia
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act: pago parcial de la factura de cliente3 (18150) y anulación de la de cliente1 (27830)
+        pagoService.registrarPagoCombinado(
+            List.of(idFacturaCliente3), new BigDecimal("1000.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+        entityManager.clear();
+        facturaService.anularFactura(idFacturaCliente1, "Error de carga");
+        entityManager.flush();
+        entityManager.clear();
+        LoteFacturacion actualizado = facturaService.obtenerLotePorId(lote.getId());
+
+        // Assert
+        assertEquals(3, actualizado.getCantidadFacturas());
+        assertEquals(1, actualizado.getCantidadFacturasPagadas());
+        assertEquals(1, actualizado.getCantidadFacturasPagadasParcialmente());
+        assertEquals(1, actualizado.getCantidadFacturasAnuladas());
+        assertEquals(0, new BigDecimal("36300.00").compareTo(actualizado.getMontoTotalActivo()));
+        assertFalse(actualizado.puedeSerAnulado());
+
+        // Los contadores coinciden con los calculados desde las facturas
+        actualizado.setMontoTotalActivo(null);
+        entityManager.flush();
+        assertEquals(1, facturaService.calcularContadoresFaltantesDeLotes());
+        entityManager.clear();
+        LoteFacturacion recalculado = loteFacturacionRepository.findById(lote.getId()).orElseThrow();
+        assertEquals(1, recalculado.getCantidadFacturasPagadas());
+        assertEquals(1, recalculado.getCantidadFacturasPagadasParcialmente());
+        assertEquals(1, recalculado.getCantidadFacturasAnuladas());
+        assertEquals(0, new BigDecimal("36300.00").compareTo(recalculado.getMontoTotalActivo()));
+    }
+
+    @Test
+    @DisplayName("Debería paginar, filtrar y ordenar las facturas de un lote")
+    void testListarFacturasDeLote() {
+        // Arrange: cliente1 (27830) queda pagada totalmente con su saldo a favor, cliente2 (18150) pendiente
+        CuentaCliente cliente3 = crearClienteConServicios("Tercero S.R.L.", "30555666777",
+            TipoCondicionIVA.RESPONSABLE_INSCRIPTO, 2);
+        cliente1.setSaldo(new BigDecimal("-30000.00"));
+        clienteRepository.save(cliente1);
+        LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
+            periodoSiguiente(), LocalDate.now().plusDays(30), true);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Page<FacturaDeLote> porMonto = facturaService.listarFacturasDeLote(
+            lote.getId(), null, null, "monto", true, 0, 2);
+        Page<FacturaDeLote> segundaPagina = facturaService.listarFacturasDeLote(
+            lote.getId(), null, null, "monto", true, 1, 2);
+        Page<FacturaDeLote> pendientes = facturaService.listarFacturasDeLote(
+            lote.getId(), EstadoFactura.PENDIENTE, TipoFactura.A, "numero", false, 0, 10);
+
+        // Assert
+        assertEquals(3, porMonto.getTotalElements());
+        assertEquals(2, porMonto.getTotalPages());
+        assertEquals(0, new BigDecimal("27830.00").compareTo(porMonto.getContent().get(0).getTotal()));
+        assertEquals(0, new BigDecimal("27830.00").compareTo(porMonto.getContent().get(1).getTotal()));
+        assertTrue(porMonto.getContent().get(0).getIdFactura() > porMonto.getContent().get(1).getIdFactura());
+        assertEquals(1, segundaPagina.getNumberOfElements());
+        assertEquals("Digital Corp.", segundaPagina.getContent().get(0).getCliente());
+
+        assertEquals(2, pendientes.getTotalElements());
+        assertTrue(pendientes.getContent().stream().allMatch(f -> f.getEstado() == EstadoFactura.PENDIENTE));
+        assertTrue(pendientes.getContent().get(0).getNroFactura() < pendientes.getContent().get(1).getNroFactura());
+        assertTrue(pendientes.getContent().stream().noneMatch(f -> f.getCliente().equals(cliente1.getNombre())));
+        assertEquals(cliente3.getNombre(), pendientes.getContent().stream()
+            .filter(f -> f.getTotal().compareTo(new BigDecimal("27830.00")) == 0)
+            .findFirst().orElseThrow().getCliente());
+
+        assertThrows(IllegalArgumentException.class, () -> facturaService.listarFacturasDeLote(
+            lote.getId(), null, null, "cliente", false, 0, 10));
+    }
+
     // Métodos helper para crear datos de prueba
 
+    @Test
+    @DisplayName("Debería exportar a CSV las facturas que cumplen los filtros del listado")
+    void testExportarFacturasCsv() throws Exception {
+        // Arrange: facturas de 2001, ya vencidas pero todavía guardadas como PENDIENTE
+        LocalDate periodo = LocalDate.of(2001, 5, 1);
+        Factura factura1 = facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente1.getId(), periodo, periodo, periodo.plusDays(10), null, null);
+        facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente2.getId(), periodo, periodo, periodo.plusDays(10), null, null);
+        StringWriter salida = new StringWriter();
+        StringWriter pendientes = new StringWriter();
+        StringWriter sinResultados = new StringWriter();
+
+        // Act
+        int exportadas = facturaService.exportarFacturasCsv("vencida", "A", periodo, salida);
+        int exportadasPendientes = facturaService.exportarFacturasCsv("PENDIENTE", "A", periodo, pendientes);
+        int ninguna = facturaService.exportarFacturasCsv("INEXISTENTE", null, periodo, sinResultados);
+
+        // Assert
+        List<String> lineas = salida.toString().lines().toList();
+        assertEquals(2, exportadas);
+        assertEquals(3, lineas.size());
+        assertTrue(lineas.get(0).startsWith("serie;numero;tipo;cliente"));
+        assertTrue(lineas.get(1).contains(";A;Tech Solutions S.A.;30123456789;2001-05;2001-05-01;2001-05-11;27830.00;27830.00;VENCIDA"));
+        assertTrue(lineas.get(2).contains(";Digital Corp.;"));
+        assertEquals(0, exportadasPendientes);
+        assertEquals(0, ninguna);
+        assertEquals(1, sinResultados.toString().lines().count());
+        // La exportación no modifica el estado guardado
+        entityManager.clear();
+        assertEquals(EstadoFactura.PENDIENTE,
+            entityManager.find(Factura.class, factura1.getIdFactura()).getEstado());
+    }
+
+    /**
+     * Período del mes próximo en el formato del formulario (ej: "Noviembre 2026").
+     */
+    private String periodoSiguiente() {
+        String periodo = YearMonth.now().plusMonths(1)
+            .format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES")));
+        return Character.toUpperCase(periodo.charAt(0)) + periodo.substring(1);
+    }
+
+    private Factura facturaDe(LoteFacturacion lote, CuentaCliente cliente) {
+        return lote.getFacturas().stream()
+            .filter(f -> f.getCliente().getId().equals(cliente.getId()))
+            .findFirst()
+            .orElseThrow();
+    }
+
     private CuentaCliente crearClienteConServicios(String nombre, String cuit, 
                                                      TipoCondicionIVA condicionIva, int cantidadServicios) {
         CuentaCliente cliente = new CuentaCliente();
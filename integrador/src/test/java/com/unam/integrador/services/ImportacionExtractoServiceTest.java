@@ -0,0 +1,266 @@
+package com.unam.integrador.services;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.ResultadoImportacionExtracto;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+
+/**
+ * Tests de integración para ImportacionExtractoService.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración para ImportacionExtractoService")
+class ImportacionExtractoServiceTest {
+
+    @Autowired
+    private ImportacionExtractoService importacionExtractoService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    private CuentaCliente cliente;
+    private Factura facturaAntigua;
+    private Factura facturaReciente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("Banco Test S.A.");
+        cliente.setRazonSocial("Banco Test S.A.");
+        cliente.setCuitDni("30711122233");
+        cliente.setDomicilio("Av. Siempre Viva 742");
+        cliente.setEmail("banco@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente = clienteRepository.save(cliente);
+
+        // Dos facturas de 1210 (1000 + IVA 21%)
+        facturaAntigua = crearFactura(880001, LocalDate.now().minusDays(40));
+        facturaReciente = crearFactura(880002, LocalDate.now().minusDays(10));
+    }
+
+    @Test
+    @DisplayName("Debería conciliar por CUIT una línea que cancela exactamente la factura más antigua")
+    void testConciliaPorCuit() throws IOException {
+        // Arrange
+        String extracto = "fecha,monto,cuit_dni,referencia\n"
+            + "2026-10-01,1210.00,30-71112223-3,TRF 0001\n";
+        StringWriter reporte = new StringWriter();
+
+        // Act
+        ResultadoImportacionExtracto resultado = importacionExtractoService.importar(
+            new StringReader(extracto), reporte);
+
+        // Assert
+        assertEquals(1, resultado.getLineasLeidas());
+        assertEquals(1, resultado.getConciliadas());
+        assertEquals(0, new BigDecimal("1210.00").compareTo(resultado.getMontoRegistrado()));
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaAntigua).getEstado());
+        assertEquals(EstadoFactura.PENDIENTE, recargar(facturaReciente).getEstado());
+        // Las líneas conciliadas no aparecen en el reporte
+        assertFalse(reporte.toString().contains("CONCILIADA"));
+    }
+
+    @Test
+    @DisplayName("Debería identificar al cliente por la referencia y reportar el pago parcial")
+    void testConciliaPorReferenciaConPagoParcial() throws IOException {
+        // Arrange
+        String extracto = "fecha;monto;cuit_dni;referencia\n"
+            + "01/10/2026;1.500,00;;Transferencia de 30711122233 cuota\n";
+        StringWriter reporte = new StringWriter();
+
+        // Act
+        ResultadoImportacionExtracto resultado = importacionExtractoService.importar(
+            new StringReader(extracto), reporte);
+
+        // Assert
+        assertEquals(1, resultado.getParciales());
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaAntigua).getEstado());
+        Factura reciente = recargar(facturaReciente);
+        assertEquals(EstadoFactura.PAGADA_PARCIALMENTE, reciente.getEstado());
+        assertEquals(0, new BigDecimal("920.00").compareTo(reciente.getSaldoPendiente()));
+        assertTrue(reporte.toString().contains("PARCIAL"));
+    }
+
+    @Test
+    @DisplayName("Debería reportar las líneas sin cliente, inválidas y el excedente como saldo a favor")
+    void testReportaLineasSinCoincidencia() throws IOException {
+        // Arrange
+        String extracto = "fecha,monto,cuit_dni,referencia\n"
+            + "2026-10-01,500.00,20999999990,Cliente desconocido\n"
+            + "no-es-fecha,100.00,30711122233,\n"
+            + "2026-10-02,3000.00,30711122233,Pago total\n";
+        StringWriter reporte = new StringWriter();
+
+        // Act
+        ResultadoImportacionExtracto resultado = importacionExtractoService.importar(
+            new StringReader(extracto), reporte);
+
+        // Assert
+        assertEquals(3, resultado.getLineasLeidas());
+        assertEquals(1, resultado.getSinCoincidencia());
+        assertEquals(1, resultado.getInvalidas());
+        assertEquals(1, resultado.getParciales());
+        String texto = reporte.toString();
+        assertTrue(texto.contains("SIN_CLIENTE"));
+        assertTrue(texto.contains("INVALIDA"));
+        assertTrue(texto.contains("Excedente de 580.00"));
+        CuentaCliente recargado = clienteRepository.findById(cliente.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("580.00").compareTo(recargado.getSaldoAFavor()));
+    }
+
+    @Test
+    @DisplayName("Debería imputar en orden a través de varios lotes y no duplicar al reimportar")
+    void testImputaEntreLotesYNoDuplica() throws IOException {
+        // Arrange: lotes de a una línea
+        ReflectionTestUtils.setField(importacionExtractoService, "tamanioLote", 1);
+        String extracto = "fecha,monto,cuit_dni,referencia\n"
+            + "2026-10-01,1210.00,30711122233,Cuota 1\n"
+            + "2026-10-02,1210.00,30711122233,Cuota 2\n";
+
+        try {
+            // Act
+            ResultadoImportacionExtracto primera = importacionExtractoService.importar(
+                new StringReader(extracto), new StringWriter());
+            ResultadoImportacionExtracto segunda = importacionExtractoService.importar(
+                new StringReader(extracto), new StringWriter());
+
+            // Assert
+            assertEquals(2, primera.getConciliadas());
+            assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaAntigua).getEstado());
+            assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaReciente).getEstado());
+            assertEquals(2, segunda.getYaImportadas());
+            assertEquals(0, segunda.getConciliadas());
+        } finally {
+            ReflectionTestUtils.setField(importacionExtractoService, "tamanioLote", 500);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería reconocer las líneas ya importadas aunque cambie su posición en el archivo")
+    void testReimportaConLineasDesplazadas() throws IOException {
+        // Arrange: dos pagos idénticos del mismo día
+        String extracto = "fecha,monto,cuit_dni,referencia\n"
+            + "2026-10-01,1210.00,30711122233,Cuota\n"
+            + "2026-10-01,1210.00,30711122233,Cuota\n";
+        String reordenado = "\n\nfecha,monto,cuit_dni,referencia\n"
+            + "2026-10-01,1210.00,30711122233,Cuota\n"
+            + "\n"
+            + "2026-10-01,1210.00,30711122233,Cuota\n"
+            + "2026-10-01,1210.00,30711122233,Cuota\n";
+
+        // Act
+        ResultadoImportacionExtracto primera = importacionExtractoService.importar(
+            new StringReader(extracto), new StringWriter());
+        ResultadoImportacionExtracto segunda = importacionExtractoService.importar(
+            new StringReader(reordenado), new StringWriter());
+
+        // Assert: las dos primeras ocurrencias ya estaban; la tercera es un pago nuevo,
+        // sin facturas impagas a las que imputarlo
+        assertEquals(2, primera.getConciliadas());
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaAntigua).getEstado());
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaReciente).getEstado());
+        assertEquals(2, segunda.getYaImportadas());
+        assertEquals(1, segunda.getSinCoincidencia());
+    }
+
+    @Test
+    @DisplayName("Debería respetar las comillas en campos que contienen el separador")
+    void testInterpretaCamposEntreComillas() throws IOException {
+        // Arrange
+        String extracto = "fecha,monto,cuit_dni,referencia\n"
+            + "2026-10-01,\"1,210.00\",\"30711122233\",\"TRF 0001, cuota \"\"octubre\"\"\"\n"
+            + "2026-10-02,\"1,210.00\",30711122233,TRF 0002\n";
+        StringWriter reporte = new StringWriter();
+
+        // Act
+        ResultadoImportacionExtracto resultado = importacionExtractoService.importar(
+            new StringReader(extracto), reporte);
+
+        // Assert
+        assertEquals(2, resultado.getConciliadas());
+        assertEquals(0, resultado.getInvalidas());
+        assertEquals(0, new BigDecimal("2420.00").compareTo(resultado.getMontoRegistrado()));
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaAntigua).getEstado());
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE, recargar(facturaReciente).getEstado());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la línea que falla en la base de datos y seguir con el resto del lote")
+    void testRechazaLineaConErrorDeBaseDeDatos() throws IOException {
+        // Arrange
+        PagoService pagoService = mock(PagoService.class);
+        when(pagoService.registrarPagosEnLote(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("lote"))
+            .thenThrow(new DataAccessResourceFailureException("conexión perdida"))
+            .thenReturn(List.of("00000077"));
+        Object original = ReflectionTestUtils.getField(importacionExtractoService, "pagoService");
+        ReflectionTestUtils.setField(importacionExtractoService, "pagoService", pagoService);
+        String extracto = "fecha,monto,cuit_dni,referencia\n"
+            + "2026-10-01,1210.00,30711122233,TRF 0001\n"
+            + "2026-10-02,1210.00,30711122233,TRF 0002\n";
+        StringWriter reporte = new StringWriter();
+
+        try {
+            // Act
+            ResultadoImportacionExtracto resultado = importacionExtractoService.importar(
+                new StringReader(extracto), reporte);
+
+            // Assert
+            assertEquals(1, resultado.getErrores());
+            assertEquals(1, resultado.getConciliadas());
+            assertTrue(reporte.toString().contains("conexión perdida"));
+            verify(pagoService, times(3)).registrarPagosEnLote(anyList());
+        } finally {
+            ReflectionTestUtils.setField(importacionExtractoService, "pagoService", original);
+        }
+    }
+
+    private Factura crearFactura(int numero, LocalDate fechaEmision) {
+        Factura factura = new Factura(1, numero, cliente, fechaEmision, fechaEmision.plusDays(30),
+            fechaEmision.withDayOfMonth(1), TipoFactura.A);
+        factura.agregarItem(new ItemFactura("Abono mensual", new BigDecimal("1000.00"), 1,
+            TipoAlicuotaIVA.IVA_21));
+        return facturaRepository.save(factura);
+    }
+
+    private Factura recargar(Factura factura) {
+        return facturaRepository.findById(factura.getIdFactura()).orElseThrow();
+    }
+}
@@ -0,0 +1,261 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.LineaEstadoCuenta;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.MovimientoCuenta;
+import com.unam.integrador.model.SaldoCuenta;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.model.enums.TipoMovimientoCuenta;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.LibroCuentaRepository;
+import com.unam.integrador.repositories.MovimientoCuentaRepository;
+import com.unam.integrador.repositories.ServicioRepository;
+import com.unam.integrador.repositories.SnapshotSaldoCuentaRepository;
+
+/**
+ * Tests de integración para LibroCuentaService.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración para LibroCuentaService")
+class LibroCuentaServiceTest {
+
+    @Autowired
+    private LibroCuentaService libroCuentaService;
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private MovimientoCuentaRepository movimientoCuentaRepository;
+
+    @Autowired
+    private SnapshotSaldoCuentaRepository snapshotRepository;
+
+    private CuentaCliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        Servicio servicio = new Servicio();
+        servicio.setNombre("Soporte Técnico Mensual");
+        servicio.setDescripcion("Servicio de soporte técnico");
+        servicio.setAlicuotaIVA(TipoAlicuotaIVA.IVA_21);
+        servicio.setPrecio(new BigDecimal("1000.00"));
+        servicio.setActivo(true);
+        servicio = servicioRepository.save(servicio);
+
+        cliente = new CuentaCliente();
+        cliente.setNombre("Libro Test S.R.L.");
+        cliente.setRazonSocial("Libro Test S.R.L.");
+        cliente.setCuitDni("30799988877");
+        cliente.setDomicilio("San Martín 100");
+        cliente.setEmail("libro@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+
+        ServicioContratado contrato = new ServicioContratado();
+        contrato.setActivo(true);
+        contrato.setFechaAlta(LocalDate.now());
+        contrato.setPrecioContratado(servicio.getPrecio());
+        contrato.setServicio(servicio);
+        contrato.setCliente(cliente);
+        cliente.setServiciosContratados(new ArrayList<>(List.of(contrato)));
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @AfterEach
+    void restaurarConfiguracion() {
+        ReflectionTestUtils.setField(libroCuentaService, "intervaloSnapshots", 50);
+        ReflectionTestUtils.setField(libroCuentaService, "margenMinutos", 10L);
+    }
+
+    @Test
+    @DisplayName("Debería registrar la emisión y el pago con excedente y calcular la posición")
+    void testRegistraMovimientosYCalculaPosicion() {
+        // Arrange: factura de 1210 (1000 + IVA 21%)
+        Factura factura = emitirFactura(LocalDate.now());
+
+        // Act
+        pagoService.registrarPagoCombinado(
+            List.of(factura.getIdFactura()), new BigDecimal("1500.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+
+        // Assert
+        List<TipoMovimientoCuenta> tipos = movimientoCuentaRepository.findByClienteIdOrderByIdAsc(cliente.getId())
+            .stream().map(MovimientoCuenta::getTipo).toList();
+        assertEquals(List.of(TipoMovimientoCuenta.FACTURA_EMITIDA, TipoMovimientoCuenta.PAGO_APLICADO,
+            TipoMovimientoCuenta.SALDO_A_FAVOR_GENERADO), tipos);
+
+        SaldoCuenta saldo = libroCuentaService.consultarSaldo(cliente.getId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(saldo.deuda()));
+        assertEquals(0, new BigDecimal("290.00").compareTo(saldo.saldoAFavor()));
+        assertEquals(0, clienteRepository.findById(cliente.getId()).orElseThrow().getSaldoAFavor()
+            .compareTo(saldo.saldoAFavor()));
+    }
+
+    @Test
+    @DisplayName("Debería combinar el snapshot con los movimientos posteriores")
+    void testSnapshotMasMovimientosPosteriores() {
+        // Arrange: snapshot cada 2 movimientos, sin margen de antigüedad
+        ReflectionTestUtils.setField(libroCuentaService, "intervaloSnapshots", 2);
+        ReflectionTestUtils.setField(libroCuentaService, "margenMinutos", -1L);
+        Factura factura = emitirFactura(LocalDate.now());
+        pagoService.registrarPagoCombinado(
+            List.of(factura.getIdFactura()), new BigDecimal("1500.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+
+        // Act
+        int creados = libroCuentaService.consolidarSnapshots();
+        emitirFactura(LocalDate.now().plusMonths(1));
+
+        // Assert
+        assertTrue(creados >= 1);
+        SaldoCuenta enSnapshot = snapshotRepository.findFirstByClienteIdOrderByUltimoMovimientoIdDesc(cliente.getId())
+            .orElseThrow().getSaldo();
+        assertEquals(0, BigDecimal.ZERO.compareTo(enSnapshot.deuda()));
+
+        SaldoCuenta saldo = libroCuentaService.consultarSaldo(cliente.getId());
+        assertEquals(0, new BigDecimal("1210.00").compareTo(saldo.deuda()));
+        assertEquals(0, new BigDecimal("290.00").compareTo(saldo.saldoAFavor()));
+        assertEquals(0, new BigDecimal("920.00").compareTo(saldo.getNeto()));
+    }
+
+    @Test
+    @DisplayName("Debería reconstruir el libro desde los comprobantes y responder la posición a una fecha")
+    void testReconstruirYConsultarAUnaFecha() {
+        // Arrange: una factura antigua cargada sin pasar por el servicio (no tiene movimiento)
+        LocalDate hace60Dias = LocalDate.now().minusDays(60);
+        Factura antigua = new Factura(1, 990001, cliente, hace60Dias, hace60Dias.plusDays(30),
+            hace60Dias.withDayOfMonth(1), TipoFactura.A);
+        antigua.agregarItem(new ItemFactura("Abono anterior", new BigDecimal("1000.00"), 1, TipoAlicuotaIVA.IVA_21));
+        facturaRepository.save(antigua);
+
+        Factura factura = emitirFactura(LocalDate.now());
+        pagoService.registrarPagoCombinado(
+            List.of(factura.getIdFactura()), new BigDecimal("1500.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+
+        // Act
+        libroCuentaService.reconstruir();
+
+        // Assert
+        SaldoCuenta actual = libroCuentaService.consultarSaldo(cliente.getId());
+        assertEquals(0, new BigDecimal("1210.00").compareTo(actual.deuda()));
+        assertEquals(0, new BigDecimal("290.00").compareTo(actual.saldoAFavor()));
+
+        SaldoCuenta haceUnMes = libroCuentaService.consultarSaldoAl(
+            cliente.getId(), LocalDateTime.now().minusDays(30));
+        assertEquals(0, new BigDecimal("1210.00").compareTo(haceUnMes.deuda()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(haceUnMes.saldoAFavor()));
+    }
+
+    @Test
+    @DisplayName("Debería paginar el estado de cuenta con el saldo acumulado, por defecto en la última página")
+    void testEstadoCuentaConSaldoAcumulado() {
+        // Arrange
+        Factura factura = emitirFactura(LocalDate.now());
+        pagoService.registrarPagoCombinado(
+            List.of(factura.getIdFactura()), new BigDecimal("1500.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+
+        // Act
+        Page<LineaEstadoCuenta> primera = libroCuentaService.obtenerEstadoCuenta(cliente.getId(), 0, 2);
+        Page<LineaEstadoCuenta> ultima = libroCuentaService.obtenerEstadoCuenta(cliente.getId(), null, 2);
+
+        // Assert
+        assertEquals(3, primera.getTotalElements());
+        assertEquals(2, primera.getTotalPages());
+        LineaEstadoCuenta emision = primera.getContent().get(0);
+        assertEquals(TipoMovimientoCuenta.FACTURA_EMITIDA, emision.tipo());
+        assertEquals(0, new BigDecimal("1210.00").compareTo(emision.debe()));
+        assertEquals(0, new BigDecimal("1210.00").compareTo(emision.saldo()));
+        LineaEstadoCuenta pago = primera.getContent().get(1);
+        assertEquals(0, new BigDecimal("1210.00").compareTo(pago.haber()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(pago.saldo()));
+
+        assertEquals(1, ultima.getNumber());
+        assertEquals(1, ultima.getContent().size());
+        LineaEstadoCuenta excedente = ultima.getContent().get(0);
+        assertEquals(TipoMovimientoCuenta.SALDO_A_FAVOR_GENERADO, excedente.tipo());
+        assertEquals(0, new BigDecimal("-290.00").compareTo(excedente.saldo()));
+    }
+
+    @Test
+    @DisplayName("Debería consolidar hasta la marca anterior recién cuando terminan sus transacciones abiertas")
+    void testConsolidaHastaMarcaConTransaccionesTerminadas() {
+        // Arrange: base que informa transacciones; la transacción 100 sigue abierta en la segunda pasada
+        LibroCuentaRepository repositorio = mock(LibroCuentaRepository.class);
+        when(repositorio.informaTransacciones()).thenReturn(true);
+        when(repositorio.marcarMovimientos()).thenReturn(
+            new LibroCuentaRepository.MarcaMovimientos(40, 100, 105),
+            new LibroCuentaRepository.MarcaMovimientos(55, 100, 110),
+            new LibroCuentaRepository.MarcaMovimientos(70, 105, 112));
+        when(repositorio.consolidarSnapshots(anyInt(), anyLong())).thenReturn(3);
+        Object original = ReflectionTestUtils.getField(libroCuentaService, "libroCuentaRepository");
+        ReflectionTestUtils.setField(libroCuentaService, "libroCuentaRepository", repositorio);
+
+        try {
+            // Act
+            int primera = libroCuentaService.consolidarSnapshots();
+            int segunda = libroCuentaService.consolidarSnapshots();
+            int tercera = libroCuentaService.consolidarSnapshots();
+
+            // Assert: la primera sólo marca, la segunda espera y la tercera consolida hasta el ID 40
+            assertEquals(0, primera);
+            assertEquals(0, segunda);
+            assertEquals(3, tercera);
+            verify(repositorio, times(1)).consolidarSnapshots(anyInt(), anyLong());
+            verify(repositorio).consolidarSnapshots(50, 40L);
+        } finally {
+            ReflectionTestUtils.setField(libroCuentaService, "libroCuentaRepository", original);
+            ReflectionTestUtils.setField(libroCuentaService, "marcaPendiente", null);
+        }
+    }
+
+    private Factura emitirFactura(LocalDate periodo) {
+        return facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente.getId(), periodo, LocalDate.now(), LocalDate.now().plusDays(30), null, null);
+    }
+}
@@ -0,0 +1,176 @@
+package com.unam.integrador.services;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.TotalLibroIva;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.NotaCredito;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.FormatoLibroIva;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.NotaCreditoRepository;
+
+/**
+ * Tests de integración para LibroIvaVentasService.
+ * Usa base de datos H2 en memoria y un período sin otros comprobantes.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración para LibroIvaVentasService")
+class LibroIvaVentasServiceTest {
+
+    private static final YearMonth PERIODO = YearMonth.of(2001, 3);
+
+    @Autowired
+    private LibroIvaVentasService libroIvaVentasService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private NotaCreditoRepository notaCreditoRepository;
+
+    private CuentaCliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("IVA Ventas S.A.");
+        cliente.setRazonSocial("IVA Ventas S.A.");
+        cliente.setCuitDni("30700011122");
+        cliente.setDomicilio("Mitre 300");
+        cliente.setEmail("iva@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente = clienteRepository.save(cliente);
+
+        // Factura A con dos alícuotas: 1000 al 21% y 200 al 10.5%
+        Factura mixta = nuevaFactura(1, 880001, PERIODO.atDay(5), TipoFactura.A);
+        mixta.agregarItem(new ItemFactura("Abono", new BigDecimal("1000.00"), 1, TipoAlicuotaIVA.IVA_21));
+        mixta.agregarItem(new ItemFactura("Insumos", new BigDecimal("200.00"), 1, TipoAlicuotaIVA.IVA_10_5));
+        facturaRepository.save(mixta);
+
+        // Factura A con 10% de descuento, anulada con una nota de crédito en el mismo período
+        Factura conDescuento = nuevaFactura(1, 880002, PERIODO.atDay(10), TipoFactura.A);
+        conDescuento.agregarItem(new ItemFactura("Abono", new BigDecimal("500.00"), 1, TipoAlicuotaIVA.IVA_21));
+        conDescuento.aplicarDescuento(10, "Promoción");
+        conDescuento = facturaRepository.save(conDescuento);
+        notaCreditoRepository.save(new NotaCredito(1, 880001, PERIODO.atDay(20), conDescuento.getTotal(),
+            "Anulación", TipoFactura.A, conDescuento));
+
+        // Factura B exenta
+        Factura exenta = nuevaFactura(2, 880001, PERIODO.atDay(15), TipoFactura.B);
+        exenta.agregarItem(new ItemFactura("Curso", new BigDecimal("300.00"), 1, TipoAlicuotaIVA.EXENTO));
+        facturaRepository.save(exenta);
+
+        // Factura de otro período: no se informa
+        Factura otroPeriodo = nuevaFactura(1, 880003, PERIODO.plusMonths(1).atDay(1), TipoFactura.A);
+        otroPeriodo.agregarItem(new ItemFactura("Abono", new BigDecimal("1000.00"), 1, TipoAlicuotaIVA.IVA_21));
+        facturaRepository.save(otroPeriodo);
+    }
+
+    @Test
+    @DisplayName("Debería exportar en CSV cada comprobante con el IVA por alícuota y los totales por serie")
+    void testExportarCsv() throws Exception {
+        // Arrange
+        StringWriter salida = new StringWriter();
+
+        // Act
+        List<TotalLibroIva> totales = libroIvaVentasService.exportar(PERIODO, FormatoLibroIva.CSV, salida);
+
+        // Assert
+        List<String> lineas = salida.toString().lines().toList();
+        assertEquals("comprobante;tipo;serie;numero;fecha;cuit_dni;razon_social;neto_21;iva_21;neto_10_5;iva_10_5;" +
+            "neto_27;iva_27;neto_2_5;iva_2_5;neto_exento;iva_exento;descuento;total", lineas.get(0));
+        assertEquals("FACTURA;A;1;880001;2001-03-05;30700011122;IVA Ventas S.A.;1000.00;210.00;200.00;21.00;" +
+            "0;0;0;0;0;0;0;1431.00", normalizar(lineas.get(1)));
+        assertEquals("FACTURA;A;1;880002;2001-03-10;30700011122;IVA Ventas S.A.;500.00;105.00;0;0;" +
+            "0;0;0;0;0;0;50.00;555.00", normalizar(lineas.get(2)));
+        assertTrue(lineas.get(3).startsWith("FACTURA;B;2;880001;2001-03-15"));
+        assertEquals("NOTA_CREDITO;A;1;880001;2001-03-20;30700011122;IVA Ventas S.A.;-500.00;-105.00;0;0;" +
+            "0;0;0;0;0;0;-50.00;-555.00", normalizar(lineas.get(4)));
+        assertEquals(7, lineas.size());
+
+        assertEquals(2, totales.size());
+        TotalLibroIva serieA = totales.get(0);
+        assertEquals(TipoFactura.A, serieA.tipo());
+        assertEquals(3, serieA.cantidad());
+        assertEquals(0, new BigDecimal("1431.00").compareTo(serieA.importes().getTotal()));
+        assertEquals(0, new BigDecimal("210.00").compareTo(serieA.importes().getIva(TipoAlicuotaIVA.IVA_21)));
+        TotalLibroIva serieB = totales.get(1);
+        assertEquals(0, new BigDecimal("300.00").compareTo(serieB.importes().getNeto(TipoAlicuotaIVA.EXENTO)));
+        assertTrue(lineas.get(5).startsWith("TOTAL;A;1;3;"));
+    }
+
+    @Test
+    @DisplayName("Debería exportar en ancho fijo con todas las líneas del mismo largo")
+    void testExportarAnchoFijo() throws Exception {
+        // Arrange
+        StringWriter salida = new StringWriter();
+
+        // Act
+        libroIvaVentasService.exportar(PERIODO, FormatoLibroIva.ANCHO_FIJO, salida);
+
+        // Assert
+        List<String> lineas = salida.toString().lines().toList();
+        assertEquals(6, lineas.size());
+        assertTrue(lineas.stream().allMatch(l -> l.length() == lineas.get(0).length()));
+        assertTrue(lineas.get(0).startsWith("FACA00001008800012001030530700011122IVA Ventas S.A."));
+        assertTrue(lineas.get(0).endsWith("000000000143100"));
+        assertTrue(lineas.get(3).startsWith("NCRA"));
+        assertTrue(lineas.get(3).endsWith("-00000000055500"));
+        assertTrue(lineas.get(4).startsWith("TOTA0000100000003"));
+    }
+
+    @Test
+    @DisplayName("Debería listar los comprobantes en orden de ID aunque uno posterior tenga fecha anterior")
+    void testExportarEnOrdenDeId() throws Exception {
+        // Arrange: factura cargada al final pero con la fecha más temprana del período
+        Factura atrasada = nuevaFactura(1, 880004, PERIODO.atDay(1), TipoFactura.A);
+        atrasada.agregarItem(new ItemFactura("Ajuste", new BigDecimal("100.00"), 1, TipoAlicuotaIVA.IVA_21));
+        facturaRepository.save(atrasada);
+        StringWriter salida = new StringWriter();
+
+        // Act
+        libroIvaVentasService.exportar(PERIODO, FormatoLibroIva.CSV, salida);
+
+        // Assert: va después de las demás facturas y antes de la nota de crédito
+        List<String> lineas = salida.toString().lines().toList();
+        assertTrue(lineas.get(1).startsWith("FACTURA;A;1;880001;2001-03-05"));
+        assertTrue(lineas.get(4).startsWith("FACTURA;A;1;880004;2001-03-01"));
+        assertTrue(lineas.get(5).startsWith("NOTA_CREDITO;A;1;880001"));
+    }
+
+    private Factura nuevaFactura(int serie, int numero, LocalDate fecha, TipoFactura tipo) {
+        return new Factura(serie, numero, cliente, fecha, fecha.plusDays(10), fecha.withDayOfMonth(1), tipo);
+    }
+
+    /**
+     * Quita los ceros de escala de los importes en cero para comparar sin depender de la escala.
+     */
+    private static String normalizar(String linea) {
+        return linea.replaceAll(";0\\.0+(?=;|$)", ";0").replaceAll(";-0\\.0+(?=;|$)", ";0");
+    }
+}
@@ -0,0 +1,104 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoFactura;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests unitarios para MetricasService.
+ */
+@DisplayName("Tests unitarios para MetricasService")
+class MetricasServiceTest {
+
+    private SimpleMeterRegistry registry;
+    private MetricasService metricasService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricasService = new MetricasService(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería contar las facturas emitidas por tipo y los pagos por método sin transacción")
+    void testRegistraSinTransaccion() {
+        // Act
+        metricasService.registrarEmision(List.of(factura(TipoFactura.A), factura(TipoFactura.B), factura(TipoFactura.B)));
+        metricasService.registrarPago(MetodoPago.EFECTIVO, new BigDecimal("1210.50"));
+        metricasService.registrarPago(MetodoPago.EFECTIVO, new BigDecimal("100.00"));
+
+        // Assert
+        assertEquals(1, registry.get("facturas.emitidas").tag("tipo", "A").counter().count());
+        assertEquals(2, registry.get("facturas.emitidas").tag("tipo", "B").counter().count());
+        assertEquals(0, registry.get("facturas.emitidas").tag("tipo", "C").counter().count());
+        DistributionSummary efectivo = registry.get("pagos.monto").tag("metodo", "EFECTIVO").summary();
+        assertEquals(2, efectivo.count());
+        assertEquals(1310.5, efectivo.totalAmount(), 0.001);
+        assertEquals(0, registry.get("pagos.monto").tag("metodo", "TARJETA").summary().count());
+    }
+
+    @Test
+    @DisplayName("Debería registrar los eventos de una transacción recién al confirmarse")
+    void testRegistraAlConfirmar() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metricasService.registrarAnulacion(3);
+        metricasService.registrarAnulacionLote();
+        metricasService.registrarFacturacionMasiva(System.nanoTime(), 40);
+        double anuladasAntes = registry.get("facturas.anuladas").counter().count();
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+
+        // Assert: una sola sincronización para todos los eventos
+        assertEquals(0, anuladasAntes);
+        assertEquals(1, sincronizaciones.size());
+        assertEquals(3, registry.get("facturas.anuladas").counter().count());
+        assertEquals(1, registry.get("lotes.anulados").counter().count());
+        assertEquals(1, registry.get("facturacion.masiva.duracion").timer().count());
+        assertEquals(40, registry.get("facturacion.masiva.facturas").counter().count());
+    }
+
+    @Test
+    @DisplayName("No debería registrar los eventos de una transacción revertida")
+    void testNoRegistraAlRevertir() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metricasService.registrarPago(MetodoPago.TRANSFERENCIA, new BigDecimal("500.00"));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertEquals(0, registry.get("pagos.monto").tag("metodo", "TRANSFERENCIA").summary().count());
+    }
+
+    private static Factura factura(TipoFactura tipo) {
+        Factura factura = new Factura();
+        factura.setTipo(tipo);
+        return factura;
+    }
+}
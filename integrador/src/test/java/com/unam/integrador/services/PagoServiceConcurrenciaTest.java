@@ -0,0 +1,201 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+
+/**
+ * Test de estrés para el registro concurrente de pagos.
+ * Varios hilos pagan en simultáneo la misma factura del mismo cliente,
+ * consumiendo además su saldo a favor. No debe perderse ninguna actualización.
+ *
+ * No es transaccional: cada pago confirma su propia transacción, por lo que
+ * los datos se eliminan explícitamente al finalizar.
+ */
+@SpringBootTest
+@DisplayName("Tests de concurrencia para PagoService")
+class PagoServiceConcurrenciaTest {
+
+    private static final int HILOS = 8;
+    private static final int PAGOS_POR_HILO = 10;
+    private static final BigDecimal MONTO = new BigDecimal("50.00");
+    private static final BigDecimal SALDO_A_FAVOR = new BigDecimal("10.00");
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CuentaCliente cliente;
+    private Factura factura;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("Cliente Concurrente S.A.");
+        cliente.setRazonSocial("Cliente Concurrente S.A.");
+        cliente.setCuitDni("30999999991");
+        cliente.setDomicilio("Calle Falsa 123");
+        cliente.setEmail("concurrente@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        // Saldo a favor suficiente exacto para todos los pagos
+        cliente.setSaldo(SALDO_A_FAVOR.multiply(BigDecimal.valueOf(HILOS * PAGOS_POR_HILO)).negate());
+        cliente = clienteRepository.save(cliente);
+
+        factura = new Factura(1, 990001, cliente, LocalDate.now(), LocalDate.now().plusDays(30),
+            LocalDate.now(), TipoFactura.A);
+        factura.agregarItem(new ItemFactura("Servicio corporativo", new BigDecimal("10000.00"), 1,
+            TipoAlicuotaIVA.IVA_21));
+        factura = facturaRepository.save(factura);
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> pagosIds = jdbcTemplate.queryForList(
+            "SELECT pago_id FROM detalle_pago WHERE factura_id = ?", Long.class, factura.getIdFactura());
+        jdbcTemplate.update("DELETE FROM clave_idempotencia WHERE numero_recibo IN "
+            + "(SELECT p.numero_recibo FROM pago p JOIN detalle_pago d ON d.pago_id = p.id_pago "
+            + "WHERE d.factura_id = ?)", factura.getIdFactura());
+        jdbcTemplate.update("DELETE FROM detalle_pago WHERE factura_id = ?", factura.getIdFactura());
+        for (Long pagoId : pagosIds) {
+            jdbcTemplate.update("DELETE FROM pago WHERE id_pago = ?", pagoId);
+        }
+        jdbcTemplate.update("DELETE FROM movimiento_cuenta WHERE cliente_id = ?", cliente.getId());
+        facturaRepository.deleteById(factura.getIdFactura());
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    @Test
+    @DisplayName("No debería perder actualizaciones con pagos simultáneos sobre la misma factura")
+    void testPagosConcurrentesSinActualizacionesPerdidas() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<List<String>>> resultados = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            Callable<List<String>> tarea = () -> {
+                largada.await();
+                List<String> recibos = new ArrayList<>();
+                for (int i = 0; i < PAGOS_POR_HILO; i++) {
+                    recibos.add(pagoService.registrarPagoCombinado(
+                        List.of(factura.getIdFactura()), MONTO, SALDO_A_FAVOR,
+                        MetodoPago.TRANSFERENCIA, "Pago concurrente"));
+                }
+                return recibos;
+            };
+            resultados.add(pool.submit(tarea));
+        }
+
+        largada.countDown();
+        int pagosRegistrados = 0;
+        for (Future<List<String>> resultado : resultados) {
+            pagosRegistrados += resultado.get(60, TimeUnit.SECONDS).size();
+        }
+        pool.shutdown();
+
+        int totalPagos = HILOS * PAGOS_POR_HILO;
+        assertEquals(totalPagos, pagosRegistrados);
+
+        // La factura debe reflejar exactamente todos los pagos
+        BigDecimal totalAplicado = MONTO.add(SALDO_A_FAVOR).multiply(BigDecimal.valueOf(totalPagos));
+        Factura recargada = facturaRepository.findById(factura.getIdFactura()).orElseThrow();
+        assertEquals(0, recargada.getTotal().subtract(totalAplicado).compareTo(recargada.getSaldoPendiente()));
+        assertEquals(EstadoFactura.PAGADA_PARCIALMENTE, recargada.getEstado());
+
+        BigDecimal sumaDetalles = jdbcTemplate.queryForObject(
+            "SELECT SUM(monto_aplicado) FROM detalle_pago WHERE factura_id = ?",
+            BigDecimal.class, factura.getIdFactura());
+        assertEquals(0, totalAplicado.compareTo(sumaDetalles));
+
+        // Todo el saldo a favor fue consumido, sin quedar de más ni de menos
+        CuentaCliente clienteRecargado = clienteRepository.findById(cliente.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(clienteRecargado.getSaldo()));
+        assertTrue(clienteRecargado.getVersion() >= totalPagos);
+    }
+
+    @Test
+    @DisplayName("Debería registrar un solo pago cuando varias solicitudes comparten la clave de idempotencia")
+    void testPagosConcurrentesConMismaClaveDeIdempotencia() throws Exception {
+        String clave = UUID.randomUUID().toString();
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<List<String>>> resultados = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            Callable<List<String>> tarea = () -> {
+                largada.await();
+                // Cada hilo envía la solicitud dos veces (doble clic)
+                List<String> recibos = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    recibos.add(pagoService.registrarPagoCombinado(
+                        List.of(factura.getIdFactura()), MONTO, SALDO_A_FAVOR,
+                        MetodoPago.TRANSFERENCIA, "Pago con clave", clave));
+                }
+                return recibos;
+            };
+            resultados.add(pool.submit(tarea));
+        }
+
+        largada.countDown();
+        Set<String> recibosDistintos = new java.util.HashSet<>();
+        for (Future<List<String>> resultado : resultados) {
+            recibosDistintos.addAll(resultado.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        // Todas las solicitudes devuelven el mismo recibo
+        assertEquals(1, recibosDistintos.size());
+
+        // La factura y el cliente reflejan un único pago
+        BigDecimal totalAplicado = MONTO.add(SALDO_A_FAVOR);
+        Factura recargada = facturaRepository.findById(factura.getIdFactura()).orElseThrow();
+        assertEquals(0, recargada.getTotal().subtract(totalAplicado).compareTo(recargada.getSaldoPendiente()));
+
+        Integer cantidadPagos = jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT pago_id) FROM detalle_pago WHERE factura_id = ?",
+            Integer.class, factura.getIdFactura());
+        assertEquals(2, cantidadPagos); // saldo a favor + transferencia
+
+        CuentaCliente clienteRecargado = clienteRepository.findById(cliente.getId()).orElseThrow();
+        assertEquals(0, cliente.getSaldo().add(SALDO_A_FAVOR).compareTo(clienteRecargado.getSaldo()));
+    }
+}
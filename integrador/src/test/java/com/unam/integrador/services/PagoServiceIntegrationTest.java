@@ -0,0 +1,176 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+
+/**
+ * Tests de integración para PagoService.
+ * Usa base de datos H2 en memoria. Enfocado en la imputación en bloque
+ * de pagos a clientes con muchas facturas abiertas.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración para PagoService")
+class PagoServiceIntegrationTest {
+
+    /** Más facturas que el tamaño de bloque del UPDATE, para cubrir varios bloques. */
+    private static final int CANTIDAD_FACTURAS = 1100;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CuentaCliente cliente;
+    private List<Long> facturasIds;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("Corporación Grande S.A.");
+        cliente.setRazonSocial("Corporación Grande S.A.");
+        cliente.setCuitDni("30700000001");
+        cliente.setDomicilio("Av. Corrientes 1000");
+        cliente.setEmail("corporacion@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(new BigDecimal("-100.00"));
+        cliente = clienteRepository.save(cliente);
+
+        // Facturas de 121 (100 + IVA 21%)
+        facturasIds = new ArrayList<>();
+        LocalDate hoy = LocalDate.now();
+        for (int i = 0; i < CANTIDAD_FACTURAS; i++) {
+            Factura factura = new Factura(1, 770000 + i, cliente, hoy, hoy.plusDays(30), hoy, TipoFactura.A);
+            factura.agregarItem(new ItemFactura("Línea " + i, new BigDecimal("100.00"), 1, TipoAlicuotaIVA.IVA_21));
+            facturasIds.add(facturaRepository.save(factura).getIdFactura());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería imputar un pago a miles de facturas en orden, con un detalle por fuente")
+    void testPagoCombinadoConMilesDeFacturas() {
+        // Arrange: paga todas menos la última, que queda parcial
+        BigDecimal total = new BigDecimal("121.00").multiply(BigDecimal.valueOf(CANTIDAD_FACTURAS));
+        BigDecimal monto = total.subtract(new BigDecimal("100.00")).subtract(new BigDecimal("21.00"));
+
+        // Act
+        String recibo = pagoService.registrarPagoCombinado(
+            facturasIds, monto, new BigDecimal("100.00"), MetodoPago.TRANSFERENCIA, "Pago corporativo");
+
+        // Assert
+        Integer pagadas = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM factura WHERE cliente_id = ? AND estado = 'PAGADA_TOTALMENTE'",
+            Integer.class, cliente.getId());
+        assertEquals(CANTIDAD_FACTURAS - 1, pagadas);
+
+        Factura ultima = facturaRepository.findById(facturasIds.get(CANTIDAD_FACTURAS - 1)).orElseThrow();
+        assertEquals(EstadoFactura.PAGADA_PARCIALMENTE, ultima.getEstado());
+        assertEquals(0, new BigDecimal("21.00").compareTo(ultima.getSaldoPendiente()));
+
+        // La primera factura recibe el saldo a favor (100) y el resto del método de pago (21)
+        Integer detallesPrimera = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM detalle_pago WHERE factura_id = ?", Integer.class, facturasIds.get(0));
+        assertEquals(2, detallesPrimera);
+
+        BigDecimal aplicado = jdbcTemplate.queryForObject(
+            "SELECT SUM(d.monto_aplicado) FROM detalle_pago d JOIN pago p ON p.id_pago = d.pago_id " +
+            "WHERE p.numero_recibo = ?", BigDecimal.class, recibo);
+        assertEquals(0, total.subtract(new BigDecimal("21.00")).compareTo(aplicado));
+
+        CuentaCliente recargado = clienteRepository.findById(cliente.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(recargado.getSaldo()));
+    }
+
+    @Test
+    @DisplayName("Debería aplicar el saldo a favor a las facturas más antiguas")
+    void testAplicarSaldoAFavor() {
+        // Act
+        pagoService.aplicarSaldoAFavor(cliente.getId(), facturasIds.subList(0, 3));
+
+        // Assert: 100 de saldo a favor sobre la primera factura de 121
+        Factura primera = facturaRepository.findById(facturasIds.get(0)).orElseThrow();
+        assertEquals(EstadoFactura.PAGADA_PARCIALMENTE, primera.getEstado());
+        assertEquals(0, new BigDecimal("21.00").compareTo(primera.getSaldoPendiente()));
+
+        Factura segunda = facturaRepository.findById(facturasIds.get(1)).orElseThrow();
+        assertEquals(EstadoFactura.PENDIENTE, segunda.getEstado());
+
+        CuentaCliente recargado = clienteRepository.findById(cliente.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(recargado.getSaldo()));
+    }
+
+    @Test
+    @DisplayName("Debería imputar primero la factura de emisión más antigua aunque tenga un ID mayor")
+    void testPagoImputaPorFechaDeEmision() {
+        // Arrange: factura creada al final, pero emitida 60 días antes que las demás
+        LocalDate emision = LocalDate.now().minusDays(60);
+        Factura antigua = new Factura(1, 779999, cliente, emision, emision.plusDays(90), emision, TipoFactura.A);
+        antigua.agregarItem(new ItemFactura("Deuda anterior", new BigDecimal("100.00"), 1, TipoAlicuotaIVA.IVA_21));
+        Long idAntigua = facturaRepository.save(antigua).getIdFactura();
+
+        // Act: alcanza para una sola factura
+        pagoService.registrarPagoCombinado(
+            List.of(facturasIds.get(0), idAntigua), new BigDecimal("121.00"), BigDecimal.ZERO,
+            MetodoPago.EFECTIVO, null);
+
+        // Assert
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE,
+            facturaRepository.findById(idAntigua).orElseThrow().getEstado());
+        assertEquals(EstadoFactura.PENDIENTE,
+            facturaRepository.findById(facturasIds.get(0)).orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("Debería reutilizar una clave de idempotencia vencida que todavía no se purgó")
+    void testReutilizaClaveDeIdempotenciaVencida() {
+        // Arrange: clave vencida hace una hora, con el recibo de una operación anterior
+        LocalDateTime ahora = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO clave_idempotencia (clave, numero_recibo, fecha_creacion, fecha_expiracion) "
+            + "VALUES (?, ?, ?, ?)", "clave-vencida", "99999999", ahora.minusHours(25), ahora.minusHours(1));
+
+        // Act
+        String recibo = pagoService.registrarPagoCombinado(
+            List.of(facturasIds.get(0)), new BigDecimal("121.00"), BigDecimal.ZERO,
+            MetodoPago.EFECTIVO, null, "clave-vencida");
+
+        // Assert: se registra un pago nuevo y la clave queda asociada a su recibo
+        assertNotEquals("99999999", recibo);
+        assertEquals(EstadoFactura.PAGADA_TOTALMENTE,
+            facturaRepository.findById(facturasIds.get(0)).orElseThrow().getEstado());
+        assertEquals(recibo, jdbcTemplate.queryForObject(
+            "SELECT numero_recibo FROM clave_idempotencia WHERE clave = ?", String.class, "clave-vencida"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.unam.integrador.services;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.dto.AntiguedadDeudaCliente;
+import com.unam.integrador.dto.ReporteAntiguedadDeuda;
+import com.unam.integrador.dto.TramosAntiguedadDeuda;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+
+/**
+ * Tests de integración para ReporteAntiguedadDeudaService.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración para ReporteAntiguedadDeudaService")
+class ReporteAntiguedadDeudaServiceTest {
+
+    @Autowired
+    private ReporteAntiguedadDeudaService reporteService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    private CuentaCliente cliente;
+
+    private final LocalDate hoy = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        // La caché es del singleton: se limpia para no arrastrar reportes de otros tests
+        ReflectionTestUtils.invokeMethod(reporteService, "limpiarCache");
+
+        cliente = new CuentaCliente();
+        cliente.setNombre("Antigüedad Test S.A.");
+        cliente.setRazonSocial("Antigüedad Test S.A.");
+        cliente.setCuitDni("30711122233");
+        cliente.setDomicilio("Belgrano 200");
+        cliente.setEmail("antiguedad@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.SUSPENDIDA);
+        cliente = clienteRepository.save(cliente);
+    }
+
+    @Test
+    @DisplayName("Debería agrupar la deuda del cliente por días desde el vencimiento")
+    void testAgrupaDeudaPorTramo() {
+        // Arrange: facturas de 121 (100 + IVA) vencidas hace 10, 45, 75 y 120 días, y una B sin vencer
+        crearFactura(990101, hoy.minusDays(10), TipoFactura.A);
+        crearFactura(990102, hoy.minusDays(45), TipoFactura.A);
+        crearFactura(990103, hoy.minusDays(75), TipoFactura.A);
+        crearFactura(990104, hoy.minusDays(120), TipoFactura.A);
+        crearFactura(990105, hoy.plusDays(20), TipoFactura.B);
+
+        // Act
+        ReporteAntiguedadDeuda reporte = reporteService.obtenerReporte(null, EstadoCuenta.SUSPENDIDA);
+        ReporteAntiguedadDeuda soloB = reporteService.obtenerReporte(TipoFactura.B, EstadoCuenta.SUSPENDIDA);
+
+        // Assert
+        TramosAntiguedadDeuda tramos = filaDelCliente(reporte).tramos();
+        assertEquals(0, new BigDecimal("242.00").compareTo(tramos.hasta30()));
+        assertEquals(0, new BigDecimal("121.00").compareTo(tramos.de31a60()));
+        assertEquals(0, new BigDecimal("121.00").compareTo(tramos.de61a90()));
+        assertEquals(0, new BigDecimal("121.00").compareTo(tramos.masDe90()));
+        assertEquals(0, new BigDecimal("605.00").compareTo(tramos.getTotal()));
+
+        TramosAntiguedadDeuda sumaFilas = reporte.clientes().stream()
+            .map(AntiguedadDeudaCliente::tramos)
+            .reduce(TramosAntiguedadDeuda.CERO, TramosAntiguedadDeuda::sumar);
+        assertEquals(sumaFilas, reporte.totales());
+
+        assertEquals(0, new BigDecimal("121.00").compareTo(filaDelCliente(soloB).tramos().getTotal()));
+        assertTrue(reporteService.obtenerReporte(null, EstadoCuenta.BAJA).clientes().stream()
+            .noneMatch(f -> f.clienteId().equals(cliente.getId())));
+    }
+
+    @Test
+    @DisplayName("Debería usar la caché del día y descartarla al confirmarse un pago")
+    void testCacheInvalidadaPorPago() {
+        // Arrange
+        Factura factura = crearFactura(990201, hoy.minusDays(45), TipoFactura.A);
+        ReporteAntiguedadDeuda inicial = reporteService.obtenerReporte(null, EstadoCuenta.SUSPENDIDA);
+
+        // Act
+        pagoService.registrarPagoCombinado(
+            List.of(factura.getIdFactura()), new BigDecimal("21.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+        ReporteAntiguedadDeuda antesDeConfirmar = reporteService.obtenerReporte(null, EstadoCuenta.SUSPENDIDA);
+        // Simula la confirmación de la transacción del pago
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        ReporteAntiguedadDeuda actualizado = reporteService.obtenerReporte(null, EstadoCuenta.SUSPENDIDA);
+
+        // Assert
+        assertSame(inicial, antesDeConfirmar);
+        assertNotSame(inicial, actualizado);
+        assertEquals(0, new BigDecimal("100.00").compareTo(filaDelCliente(actualizado).tramos().de31a60()));
+    }
+
+    @Test
+    @DisplayName("Debería exportar el reporte en CSV con una fila por cliente y el total")
+    void testExportarCsv() throws Exception {
+        // Arrange
+        crearFactura(990301, hoy.minusDays(100), TipoFactura.A);
+        ReporteAntiguedadDeuda reporte = reporteService.obtenerReporte(null, EstadoCuenta.SUSPENDIDA);
+        StringWriter salida = new StringWriter();
+
+        // Act
+        reporteService.exportarCsv(reporte, salida);
+
+        // Assert
+        List<String> lineas = salida.toString().lines().toList();
+        assertEquals("cliente_id;cliente;cuit_dni;0_30;31_60;61_90;mas_90;total", lineas.get(0));
+        assertTrue(lineas.contains(cliente.getId() + ";Antigüedad Test S.A.;30711122233;0;0;0;121.00;121.00"));
+        assertTrue(lineas.get(lineas.size() - 1).startsWith(";TOTAL;;"));
+        assertEquals(reporte.clientes().size() + 2, lineas.size());
+    }
+
+    private Factura crearFactura(int numero, LocalDate vencimiento, TipoFactura tipo) {
+        Factura factura = new Factura(tipo == TipoFactura.A ? 1 : 2, numero, cliente, vencimiento.minusDays(30),
+            vencimiento, vencimiento.minusDays(30).withDayOfMonth(1), tipo);
+        factura.agregarItem(new ItemFactura("Abono", new BigDecimal("100.00"), 1, TipoAlicuotaIVA.IVA_21));
+        return facturaRepository.save(factura);
+    }
+
+    private AntiguedadDeudaCliente filaDelCliente(ReporteAntiguedadDeuda reporte) {
+        return reporte.clientes().stream()
+            .filter(f -> f.clienteId().equals(cliente.getId()))
+            .findFirst()
+            .orElseThrow();
+    }
+}
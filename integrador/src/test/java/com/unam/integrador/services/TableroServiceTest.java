@@ -0,0 +1,140 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.unam.integrador.dto.Tablero;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.repositories.ServicioRepository;
+
+/**
+ * Tests de integración para TableroService.
+ * Usa base de datos H2 en memoria.
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Tests de integración para TableroService")
+class TableroServiceTest {
+
+    @Autowired
+    private TableroService tableroService;
+
+    @Autowired
+    private CuentaClienteService cuentaClienteService;
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    private final LocalDate hoy = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        tableroService.reconstruir();
+    }
+
+    @Test
+    @DisplayName("Debería actualizar los indicadores al confirmarse la transacción igual que al recalcularlos")
+    void testIndicadoresIncrementalesIgualesAlRecalculo() {
+        // Arrange
+        Tablero inicial = tableroService.obtenerTablero();
+        CuentaCliente cliente = cuentaClienteService.crearCliente(nuevoCliente());
+
+        // Act: emitir y anular, volver a emitir, cobrar en parte, vencer y suspender al cliente
+        LocalDate periodo = hoy.withDayOfMonth(1);
+        Factura anulada = facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente.getId(), periodo, hoy.minusDays(40), hoy.minusDays(10), null, null);
+        facturaService.anularFactura(anulada.getIdFactura(), "Error de carga");
+        Factura factura = facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente.getId(), periodo, hoy.minusDays(40), hoy.minusDays(10), null, null);
+        pagoService.registrarPagoCombinado(
+            List.of(factura.getIdFactura()), new BigDecimal("100.00"), BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+        facturaService.actualizarFacturasVencidas();
+        cuentaClienteService.cambiarEstado(cliente.getId(), EstadoCuenta.SUSPENDIDA, "Deuda vencida");
+
+        Tablero antesDeConfirmar = tableroService.obtenerTablero();
+        // Simula la confirmación de la transacción
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        Tablero incremental = tableroService.obtenerTablero();
+        tableroService.reconstruir();
+        Tablero recalculado = tableroService.obtenerTablero();
+
+        // Assert
+        assertIguales(inicial, antesDeConfirmar);
+        assertIguales(recalculado, incremental);
+
+        // 1210 emitidos (1000 + IVA), 100 cobrados
+        assertEquals(0, new BigDecimal("1110.00").compareTo(
+            incremental.deudaAbierta().subtract(inicial.deudaAbierta())));
+        assertEquals(inicial.facturasVencidas() + 1, incremental.facturasVencidas());
+        assertEquals(inicial.facturasEmitidasPeriodo() + 1, incremental.facturasEmitidasPeriodo());
+        assertEquals(0, new BigDecimal("100.00").compareTo(
+            incremental.cobradoHoy().get(MetodoPago.EFECTIVO).subtract(inicial.cobradoHoy().get(MetodoPago.EFECTIVO))));
+        assertEquals(inicial.clientesPorEstado().get(EstadoCuenta.SUSPENDIDA) + 1,
+            incremental.clientesPorEstado().get(EstadoCuenta.SUSPENDIDA));
+        assertEquals(inicial.getTotalClientes() + 1, incremental.getTotalClientes());
+    }
+
+    private static void assertIguales(Tablero esperado, Tablero actual) {
+        assertEquals(0, esperado.deudaAbierta().compareTo(actual.deudaAbierta()));
+        assertEquals(esperado.facturasVencidas(), actual.facturasVencidas());
+        assertEquals(esperado.facturasEmitidasPeriodo(), actual.facturasEmitidasPeriodo());
+        assertEquals(0, esperado.importeEmitidoPeriodo().compareTo(actual.importeEmitidoPeriodo()));
+        for (MetodoPago metodo : MetodoPago.values()) {
+            assertEquals(0, esperado.cobradoHoy().get(metodo).compareTo(actual.cobradoHoy().get(metodo)));
+        }
+        assertEquals(esperado.clientesPorEstado(), actual.clientesPorEstado());
+    }
+
+    private CuentaCliente nuevoCliente() {
+        Servicio servicio = new Servicio();
+        servicio.setNombre("Tablero Test");
+        servicio.setDescripcion("Servicio del test del tablero");
+        servicio.setAlicuotaIVA(TipoAlicuotaIVA.IVA_21);
+        servicio.setPrecio(new BigDecimal("1000.00"));
+        servicio.setActivo(true);
+        servicio = servicioRepository.save(servicio);
+
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("Tablero Test S.A.");
+        cliente.setRazonSocial("Tablero Test S.A.");
+        cliente.setCuitDni("30744455566");
+        cliente.setDomicilio("Rivadavia 600");
+        cliente.setEmail("tablero@test.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+
+        ServicioContratado contratado = new ServicioContratado();
+        contratado.setActivo(true);
+        contratado.setFechaAlta(hoy);
+        contratado.setPrecioContratado(servicio.getPrecio());
+        contratado.setServicio(servicio);
+        contratado.setCliente(cliente);
+        cliente.setServiciosContratados(new ArrayList<>(List.of(contratado)));
+        return cliente;
+    }
+}